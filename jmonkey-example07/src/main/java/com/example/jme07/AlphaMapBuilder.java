@@ -0,0 +1,108 @@
+package com.example.jme07;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * AlphaMapBuilder - Erzeugt alle AlphaMaps eines Chunks für TerrainLighting in einem Durchlauf
+ *
+ * Arbeitet auf dem Material-ID-Array des Chunks (TerrainMaterialIndex). Für jede ID ist
+ * vorab hinterlegt, in welche AlphaMap und welchen Kanal sie schreibt, daher gibt es pro
+ * Tile genau einen Array-Zugriff und ein geschriebenes Byte. Die RGB8-Buffer stammen aus
+ * einem DirectBufferPool und gehen beim Entladen des Chunks dorthin zurück.
+ *
+ * Nach der Konstruktion unveränderlich und damit aus Loader-Threads aufrufbar.
+ */
+public class AlphaMapBuilder {
+
+    private final TerrainMaterialIndex materialIndex;
+    private final int tileCount;
+    private final int alphaMapCount;
+    private final int[] channelById;      // Kanal (0-2) pro Material-ID, -1 = nicht in einer AlphaMap
+    private final int[] mapById;          // AlphaMap-Index pro Material-ID
+    private final DirectBufferPool pool;
+    private final byte[] zeros;
+
+    public AlphaMapBuilder(TerrainMaterialIndex materialIndex, Map<String, MaterialMapping> mappings,
+                           int chunkSize, int maxPooledBuffers) {
+        this.materialIndex = materialIndex;
+        this.tileCount = chunkSize * chunkSize;
+
+        int materialCount = materialIndex.getMaterialCount();
+        this.channelById = new int[materialCount];
+        this.mapById = new int[materialCount];
+        Arrays.fill(channelById, -1);
+
+        int maxMap = -1;
+        for (MaterialMapping mapping : mappings.values()) {
+            int alphaMapIdx = mapping.getAlphaMapIndex();
+            if (alphaMapIdx < 0) {
+                continue;
+            }
+            int id = materialIndex.getId(mapping.getKey());
+            mapById[id] = alphaMapIdx;
+            channelById[id] = mapping.getAlphaMapChannel();
+            maxMap = Math.max(maxMap, alphaMapIdx);
+        }
+
+        // AlphaMaps müssen sequenziell sein (auch leere Maps werden erzeugt)
+        this.alphaMapCount = maxMap + 1;
+        this.pool = new DirectBufferPool(tileCount * 3, maxPooledBuffers);
+        this.zeros = new byte[tileCount * 3];
+
+        System.out.println("AlphaMapBuilder: " + alphaMapCount + " AlphaMaps für " + mappings.size() + " Materialien");
+    }
+
+    /**
+     * Anzahl der AlphaMaps pro Chunk (AlphaMap, AlphaMap_1, ...)
+     */
+    public int getAlphaMapCount() {
+        return alphaMapCount;
+    }
+
+    /**
+     * Baut alle AlphaMaps eines Chunks (RGB8, Zeile pro Z wie das Tile-Array)
+     * @param materialIds Material-IDs aus TerrainMaterialIndex.buildIndexData
+     * @return ein Buffer pro AlphaMap, bereit für new Image(RGB8, ...); zurückgeben mit release()
+     */
+    public ByteBuffer[] build(byte[] materialIds) {
+        ByteBuffer[] maps = new ByteBuffer[alphaMapCount];
+        for (int m = 0; m < alphaMapCount; m++) {
+            maps[m] = pool.acquire();
+            maps[m].put(zeros).clear();
+        }
+
+        for (int i = 0; i < tileCount; i++) {
+            int id = materialIds[i] & 0xFF;
+            int channel = channelById[id];
+            if (channel >= 0) {
+                maps[mapById[id]].put(i * 3 + channel, (byte) 255);
+            }
+        }
+        return maps;
+    }
+
+    /**
+     * Convenience: Material-IDs und AlphaMaps in einem Aufruf
+     */
+    public ByteBuffer[] build(TerrainTile[] tiles) {
+        return build(materialIndex.buildIndexData(tiles));
+    }
+
+    /**
+     * Gibt die Buffer eines entladenen Chunks an den Pool zurück
+     */
+    public void release(ByteBuffer[] maps) {
+        if (maps == null) {
+            return;
+        }
+        for (ByteBuffer map : maps) {
+            pool.release(map);
+        }
+    }
+
+    public DirectBufferPool getPool() {
+        return pool;
+    }
+}
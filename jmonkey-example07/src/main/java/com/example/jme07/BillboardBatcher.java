@@ -0,0 +1,155 @@
+package com.example.jme07;
+
+import com.jme3.asset.AssetManager;
+import com.jme3.material.Material;
+import com.jme3.material.RenderState;
+import com.jme3.renderer.queue.RenderQueue;
+import com.jme3.scene.Geometry;
+import com.jme3.system.JmeSystem;
+import com.jme3.texture.Texture;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BillboardBatcher - Fasst die Billboards eines Chunks zu einer instanzierten
+ * Geometry zusammen (SpriteBatchMesh + MatDefs/SpriteBatch.j3md), direkt aus dem SpriteBatch
+ *
+ * Statt einer Geometry mit BillboardControl pro Sprite im Transparent-Bucket gibt es
+ * einen Draw-Call pro Chunk im Opaque-Bucket (Alpha-Test statt Blending). Alle bekannten
+ * Sprite-Texturen liegen in einem Atlas (TextureAtlasBuilder), das UV-Rechteck kommt über
+ * die Typ-Id des Eintrags; nur Texturen außerhalb des Atlas bekommen weiterhin einen Batch
+ * pro Textur.
+ */
+public class BillboardBatcher {
+
+    private static final float ALPHA_DISCARD_THRESHOLD = 0.5f;
+    private static final String ATLAS_KEY = "atlas";   // Gruppe aller Sprites mit Atlas-Region
+
+    private final AssetManager assetManager;
+    private final Map<String, Material> materialCache = new HashMap<>();
+    private final TextureAtlasBuilder atlasBuilder;
+    private TextureAtlasBuilder.Atlas atlas;
+    private Material atlasMaterial;
+    private TextureAtlasBuilder.Region[] typeRegions;
+
+    public BillboardBatcher(AssetManager assetManager) {
+        this.assetManager = assetManager;
+
+        // Atlas einmal beim Start packen (bzw. aus dem Cache laden)
+        this.atlasBuilder = new TextureAtlasBuilder(assetManager,
+                new java.io.File(JmeSystem.getStorageFolder(), "example07/atlas"));
+        for (String texturePath : SpriteBuilders.BILLBOARD_TEXTURES) {
+            atlasBuilder.add(texturePath);
+        }
+        updateAtlas();
+    }
+
+    private void updateAtlas() {
+        atlas = atlasBuilder.build();
+        typeRegions = null;
+        atlasMaterial = new Material(assetManager, "MatDefs/SpriteBatch.j3md");
+        atlasMaterial.setTexture("ColorMap", atlas.getTexture());
+        atlasMaterial.setFloat("AlphaDiscardThreshold", ALPHA_DISCARD_THRESHOLD);
+        atlasMaterial.getAdditionalRenderState().setFaceCullMode(RenderState.FaceCullMode.Off);
+    }
+
+    /**
+     * Erstellt eine Batch-Geometry für alle Atlas-Sprites, dazu eine pro Textur außerhalb
+     * des Atlas (noch nicht angehängt)
+     *
+     * @param indices Indizes der Billboard-Einträge im SpriteBatch (die ersten count Werte)
+     */
+    public List<Geometry> createBatches(String name, SpriteBatch sprites, int[] indices, int count) {
+        TextureAtlasBuilder.Region[] regions = getTypeRegions();
+
+        // Atlas-Einträge vorne sammeln, Einträge außerhalb des Atlas pro Typ
+        int[] atlasIndices = new int[count];
+        int atlasCount = 0;
+        Map<Short, int[]> byType = new LinkedHashMap<>();
+        Map<Short, Integer> typeCounts = new HashMap<>();
+        for (int n = 0; n < count; n++) {
+            int i = indices[n];
+            short typeId = sprites.getTypeId(i);
+            if (regions[typeId] != null) {
+                atlasIndices[atlasCount++] = i;
+            } else {
+                int typeCount = typeCounts.getOrDefault(typeId, 0);
+                int[] typeIndices = byType.computeIfAbsent(typeId, k -> new int[count]);
+                typeIndices[typeCount] = i;
+                typeCounts.put(typeId, typeCount + 1);
+            }
+        }
+
+        List<Geometry> batches = new ArrayList<>(byType.size() + 1);
+        if (atlasCount > 0) {
+            batches.add(createGeometry(name + "_" + ATLAS_KEY, atlasMaterial,
+                    SpriteBatchMesh.fromBatch(sprites, atlasIndices, atlasCount, regions)));
+        }
+        for (Map.Entry<Short, int[]> group : byType.entrySet()) {
+            SpriteTypeRegistry.SpriteType type = SpriteTypeRegistry.get(group.getKey());
+            batches.add(createGeometry(name + "_" + type.getAssetPath().hashCode(), getMaterial(type),
+                    SpriteBatchMesh.fromBatch(sprites, group.getValue(), typeCounts.get(group.getKey()), null)));
+        }
+        return batches;
+    }
+
+    private static Geometry createGeometry(String name, Material material, SpriteBatchMesh mesh) {
+        Geometry geom = new Geometry(name, mesh);
+        geom.setMaterial(material);
+        geom.setQueueBucket(RenderQueue.Bucket.Opaque);
+        geom.setModelBound(mesh.getBound());
+        return geom;
+    }
+
+    /**
+     * Atlas-Region pro Typ-Id (null = Textur nicht im Atlas), neu aufgebaut nach jedem Packen
+     * und wenn seitdem Typen registriert wurden
+     */
+    private TextureAtlasBuilder.Region[] getTypeRegions() {
+        if (typeRegions == null || typeRegions.length != SpriteTypeRegistry.size()) {
+            List<SpriteTypeRegistry.SpriteType> types = SpriteTypeRegistry.getAll();
+            typeRegions = new TextureAtlasBuilder.Region[types.size()];
+            for (SpriteTypeRegistry.SpriteType type : types) {
+                if (type.isBillboard()) {
+                    typeRegions[type.getId()] = atlas.getRegion(type.getAssetPath());
+                }
+            }
+        }
+        return typeRegions;
+    }
+
+    /**
+     * Ein Material pro Textur außerhalb des Atlas (geteilt über alle Chunks)
+     */
+    private Material getMaterial(SpriteTypeRegistry.SpriteType type) {
+        String texturePath = type.getAssetPath();
+        Material mat = materialCache.get(texturePath);
+        if (mat == null) {
+            mat = new Material(assetManager, "MatDefs/SpriteBatch.j3md");
+
+            // Lade Textur (verwende Fallback-Farbe wenn nicht vorhanden)
+            Texture tex = null;
+            try {
+                tex = assetManager.loadTexture(texturePath);
+            } catch (Exception e) {
+                // Textur nicht verfügbar
+            }
+
+            if (tex != null) {
+                mat.setTexture("ColorMap", tex);
+            } else {
+                mat.setColor("Color", type.getFallbackColor());
+            }
+            mat.setFloat("AlphaDiscardThreshold", ALPHA_DISCARD_THRESHOLD);
+            mat.getAdditionalRenderState().setFaceCullMode(RenderState.FaceCullMode.Off);
+
+            materialCache.put(texturePath, mat);
+            System.out.println("SpriteBatch Material gecacht: " + texturePath);
+        }
+        return mat;
+    }
+}
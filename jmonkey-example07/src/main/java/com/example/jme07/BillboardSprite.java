@@ -24,6 +24,9 @@ public class BillboardSprite extends Sprite {
     // Statischer Material-Cache (shared zwischen allen BillboardSprites)
     private static final java.util.Map<String, Material> materialCache = new java.util.HashMap<>();
 
+    // Ein Einheits-Quad für alle Billboards, die Größe kommt aus der Skalierung der Geometry
+    private static final Quad UNIT_QUAD = new Quad(1f, 1f);
+
     public BillboardSprite(Vector3f position, String texturePath, float height, float rotation, boolean isBig) {
         super(position, height / 0.7f, rotation, isBig);  // scale = height / aspectRatio
         this.texturePath = texturePath;
@@ -36,15 +39,48 @@ public class BillboardSprite extends Sprite {
         this.fallbackColor = fallbackColor;
     }
 
+    @Override
+    public float getRadius() {
+        // Stamm bzw. Kern ist schmaler als das Billboard (Krone)
+        return getWidth() * 0.3f;
+    }
+
+    public float getHeight() {
+        return heightForScale(scale);
+    }
+
+    public float getWidth() {
+        return widthForScale(scale);
+    }
+
+    /**
+     * Billboard-Höhe zu einer Skalierung (auch für Sprites im SpriteBatch)
+     */
+    public static float heightForScale(float scale) {
+        return scale * 0.7f; // scale enthält bereits die gewünschte Größe
+    }
+
+    public static float widthForScale(float scale) {
+        return heightForScale(scale) * 0.7f; // Aspect ratio
+    }
+
+    public String getTexturePath() {
+        return texturePath;
+    }
+
+    public ColorRGBA getFallbackColor() {
+        return fallbackColor;
+    }
+
     @Override
     public List<Geometry> createGeometries(AssetManager assetManager, Node parentNode) {
         List<Geometry> geometries = new ArrayList<>();
 
-        float height = scale * 0.7f; // scale enthält bereits die gewünschte Größe
-        float width = height * 0.7f; // Aspect ratio
+        float height = getHeight();
+        float width = getWidth();
 
-        Quad quad = new Quad(width, height);
-        Geometry geom = new Geometry("billboard_" + texturePath.hashCode(), quad);
+        Geometry geom = new Geometry("billboard_" + texturePath.hashCode(), UNIT_QUAD);
+        geom.setLocalScale(width, height, 1f);
 
         // Hole oder erstelle Material (gecacht)
         Material mat = getMaterial(assetManager);
@@ -0,0 +1,135 @@
+package com.example.jme07;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ChunkLoadScheduler - Warteschlange des ChunkLoaders mit Priorität nach Sichtkegel
+ *
+ * Der Render-Thread veröffentlicht pro Frame einen unveränderlichen ViewSnapshot (volatile).
+ * Jeder Loader-Thread wählt beim Entnehmen den Chunk mit der besten Priorität anhand des
+ * aktuellen Snapshots: Chunks im horizontalen Sichtkegel nach Distanz, dahinter liegende erst
+ * danach. Da nichts vorsortiert ist, wirkt eine Kameradrehung sofort auf die nächste Entnahme.
+ * Ohne Snapshot wird in Anforderungsreihenfolge geladen.
+ * Nachträgliche Sprite-Aufträge (fertig geladene Chunks mit SpriteState.WANTED) laufen durch
+ * dieselbe Warteschlange und werden genauso priorisiert.
+ *
+ * Die Liste hat höchstens so viele Einträge wie das Sichtfenster Chunks, ein linearer
+ * Durchlauf pro Entnahme ist gegenüber dem Generieren eines Chunks vernachlässigbar.
+ */
+public class ChunkLoadScheduler {
+
+    /**
+     * Kamera-Zustand in Chunk-Koordinaten (unveränderlich)
+     */
+    public static final class ViewSnapshot {
+        final float chunkX;        // Kamera-Position in Chunks
+        final float chunkZ;
+        final float dirX;          // Blickrichtung, horizontal normalisiert
+        final float dirZ;
+        final float halfFov;       // Halber horizontaler Öffnungswinkel (Radiant)
+
+        public ViewSnapshot(float chunkX, float chunkZ, float dirX, float dirZ, float halfFov) {
+            float length = (float) Math.sqrt(dirX * dirX + dirZ * dirZ);
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            this.dirX = length > 0 ? dirX / length : 0;
+            this.dirZ = length > 0 ? dirZ / length : 1;
+            this.halfFov = halfFov;
+        }
+
+        /**
+         * true wenn der Chunk (als Kreis um seine Mitte) den Sichtkegel berührt
+         */
+        public boolean isInView(int x, int z) {
+            float dx = x + 0.5f - chunkX;
+            float dz = z + 0.5f - chunkZ;
+            float distance = (float) Math.sqrt(dx * dx + dz * dz);
+            if (distance <= CHUNK_RADIUS) {
+                return true;
+            }
+            float angle = (float) Math.acos(Math.max(-1f, Math.min(1f, (dx * dirX + dz * dirZ) / distance)));
+            float margin = (float) Math.asin(Math.min(1f, CHUNK_RADIUS / distance));
+            return angle <= halfFov + margin;
+        }
+
+        public float distance(int x, int z) {
+            float dx = x + 0.5f - chunkX;
+            float dz = z + 0.5f - chunkZ;
+            return (float) Math.sqrt(dx * dx + dz * dz);
+        }
+    }
+
+    private static final float CHUNK_RADIUS = 0.7072f;         // Halbe Diagonale eines Chunks (in Chunks)
+    private static final float OUT_OF_VIEW_PENALTY = 1000f;   // Alles außerhalb des Kegels nach allem darin
+
+    private final List<ChunkRecord> pending = new ArrayList<>();
+    private volatile ViewSnapshot view;
+
+    /**
+     * Vom Render-Thread: neuen Kamera-Zustand veröffentlichen (null = Anforderungsreihenfolge)
+     */
+    public void setView(ViewSnapshot view) {
+        this.view = view;
+    }
+
+    public ViewSnapshot getView() {
+        return view;
+    }
+
+    public synchronized void offer(ChunkRecord record) {
+        // Ein Record wartet höchstens einmal (Sprite-Aufträge können mehrfach angestoßen werden)
+        if (!pending.contains(record)) {
+            pending.add(record);
+            notifyAll();
+        }
+    }
+
+    /**
+     * Entnimmt den Chunk mit der besten Priorität; wartet höchstens timeout
+     * @return den Record, oder null nach Ablauf des Timeouts
+     */
+    public synchronized ChunkRecord poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (true) {
+            // Inzwischen entladene Chunks und erledigte Sprite-Aufträge gar nicht erst ansehen
+            pending.removeIf(record -> record.getState() != ChunkState.REQUESTED && !record.isSpriteJobPending());
+            if (!pending.isEmpty()) {
+                return pending.remove(selectBest());
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return null;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+    }
+
+    private int selectBest() {
+        ViewSnapshot snapshot = view;
+        if (snapshot == null) {
+            return 0;  // Einträge liegen in Anforderungsreihenfolge
+        }
+        int best = 0;
+        float bestScore = Float.MAX_VALUE;
+        for (int i = 0; i < pending.size(); i++) {
+            ChunkRecord record = pending.get(i);
+            int x = record.getChunkX();
+            int z = record.getChunkZ();
+            float score = snapshot.distance(x, z);
+            if (!snapshot.isInView(x, z)) {
+                score += OUT_OF_VIEW_PENALTY;
+            }
+            if (score < bestScore) {
+                bestScore = score;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    public synchronized int size() {
+        return pending.size();
+    }
+}
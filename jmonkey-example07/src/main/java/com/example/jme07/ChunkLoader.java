@@ -2,76 +2,122 @@ package com.example.jme07;
 
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Background-Thread der Chunks asynchron lädt
+ * Background-Threads die Chunks asynchron laden
+ *
+ * Arbeitet auf den Records der ChunkRegistry: REQUESTED -> GENERATING -> GENERATED -> PREPARED.
+ * Schlägt ein Übergang fehl, wurde der Chunk inzwischen entladen und das Ergebnis wird verworfen.
+ * Die Reihenfolge bestimmt der ChunkLoadScheduler: Chunks im Sichtkegel der Kamera zuerst.
+ *
+ * Sprites werden nur für Chunks im Sprite-Ring erzeugt: beim Laden, wenn sie schon angefordert
+ * sind, sonst später als eigener Auftrag aus den Tiles des Records (requestSprites). Fertige
+ * Nachzügler holt der Render-Thread über pollSpriteResult ab.
  */
 public class ChunkLoader {
 
+    private static final int CHUNK_SIZE = 65;
+    // Provider sind zustandslos, mehrere Chunks können parallel generiert werden
+    private static final int LOADER_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+
     private final TileProvider tileProvider;
     private final SpriteProvider spriteProvider;
+    private final ChunkRegistry registry;
 
-    // Thread-safe Queue für Load-Requests
-    private final BlockingQueue<ChunkLoadRequest> requestQueue = new LinkedBlockingQueue<>();
+    // Thread-safe Warteschlange für Load-Requests (Priorität nach Sichtkegel)
+    private final ChunkLoadScheduler requestQueue = new ChunkLoadScheduler();
 
-    // Thread-safe Map für geladene Chunks
-    private final ConcurrentHashMap<String, LoadedChunk> loadedChunks = new ConcurrentHashMap<>();
+    // Optional: AlphaMaps für den TerrainLighting-Pfad gleich hier im Loader bauen
+    private volatile AlphaMapBuilder alphaMapBuilder;
 
-    // Set für Chunks die gerade geladen werden
-    private final Set<String> loadingChunks = ConcurrentHashMap.newKeySet();
+    // Nachträglich erzeugte Sprites, vom Render-Thread abzuholen
+    private final Queue<ChunkRecord> spriteResults = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger chunksWithSprites = new AtomicInteger();
+    private final AtomicInteger chunksWithoutSprites = new AtomicInteger();
+    private final AtomicInteger spriteJobs = new AtomicInteger();
 
     private final ExecutorService executor;
     private volatile boolean running = true;
 
-    public ChunkLoader(TileProvider tileProvider, SpriteProvider spriteProvider) {
+    public ChunkLoader(TileProvider tileProvider, SpriteProvider spriteProvider, ChunkRegistry registry) {
         this.tileProvider = tileProvider;
         this.spriteProvider = spriteProvider;
+        this.registry = registry;
+
+        // Kleiner Pool von Background-Threads für Chunk-Loading
+        this.executor = Executors.newFixedThreadPool(LOADER_THREADS, new ThreadFactory() {
+            private int count = 0;
 
-        // Single background thread für Chunk-Loading
-        this.executor = Executors.newSingleThreadExecutor(r -> {
-            Thread t = new Thread(r, "ChunkLoader-Thread");
-            t.setDaemon(true);
-            return t;
+            @Override
+            public synchronized Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "ChunkLoader-Thread-" + (count++));
+                t.setDaemon(true);
+                return t;
+            }
         });
 
-        // Starte Background-Thread
-        executor.submit(this::processRequests);
+        // Starte Background-Threads
+        for (int i = 0; i < LOADER_THREADS; i++) {
+            executor.submit(this::processRequests);
+        }
     }
 
     /**
-     * Fordert einen Chunk an (non-blocking)
+     * Fordert einen Chunk an (non-blocking). Legt den Record an, falls er noch nicht existiert.
      */
     public void requestChunk(int chunkX, int chunkZ) {
-        String key = makeKey(chunkX, chunkZ);
+        requestChunk(chunkX, chunkZ, false);
+    }
 
-        // Skip wenn bereits geladen oder gerade am Laden
-        if (loadedChunks.containsKey(key) || loadingChunks.contains(key)) {
-            return;
+    /**
+     * Fordert einen Chunk an (non-blocking)
+     * @param withSprites true wenn der Chunk im Sprite-Ring liegt (Sprites gleich mit erzeugen)
+     */
+    public void requestChunk(int chunkX, int chunkZ, boolean withSprites) {
+        ChunkRecord record = registry.requestIfAbsent(chunkX, chunkZ);
+        if (record != null) {
+            if (withSprites) {
+                record.wantSprites();
+            }
+            requestQueue.offer(record);
         }
+    }
 
-        // Markiere als "wird geladen"
-        loadingChunks.add(key);
+    /**
+     * Vom Render-Thread: Sprites für einen fertig geladenen Chunk anfordern (non-blocking).
+     * Das Ergebnis kommt über pollSpriteResult; bereits erzeugte Sprites bleiben am Record.
+     */
+    public void requestSprites(ChunkRecord record) {
+        record.wantSprites();
+        if (record.isSpriteJobPending()) {
+            requestQueue.offer(record);
+        }
+    }
 
-        // Füge Request zur Queue hinzu
-        ChunkLoadRequest request = new ChunkLoadRequest(chunkX, chunkZ);
-        requestQueue.offer(request);
+    /**
+     * Vom Render-Thread: nächster Chunk, dessen Sprites nachträglich fertig geworden sind (oder null)
+     */
+    public ChunkRecord pollSpriteResult() {
+        return spriteResults.poll();
     }
 
     /**
-     * Holt einen geladenen Chunk (oder null wenn noch nicht fertig)
+     * Vom Render-Thread: aktueller Kamera-Zustand für die Lade-Priorität
      */
-    public LoadedChunk getLoadedChunk(int chunkX, int chunkZ) {
-        String key = makeKey(chunkX, chunkZ);
-        return loadedChunks.get(key);
+    public void updateView(ChunkLoadScheduler.ViewSnapshot view) {
+        requestQueue.setView(view);
+    }
+
+    public ChunkLoadScheduler.ViewSnapshot getView() {
+        return requestQueue.getView();
     }
 
     /**
-     * Entfernt einen Chunk aus dem Cache
+     * Aktiviert das Bauen der AlphaMaps im Loader-Thread
      */
-    public void unloadChunk(int chunkX, int chunkZ) {
-        String key = makeKey(chunkX, chunkZ);
-        loadedChunks.remove(key);
-        loadingChunks.remove(key);
+    public void setAlphaMapBuilder(AlphaMapBuilder alphaMapBuilder) {
+        this.alphaMapBuilder = alphaMapBuilder;
     }
 
     /**
@@ -82,11 +128,15 @@ public class ChunkLoader {
 
         while (running) {
             try {
-                // Warte auf nächsten Request (blocking)
-                ChunkLoadRequest request = requestQueue.poll(100, TimeUnit.MILLISECONDS);
-
-                if (request != null) {
-                    loadChunk(request);
+                // Warte auf den wichtigsten Request (blocking)
+                ChunkRecord record = requestQueue.poll(100, TimeUnit.MILLISECONDS);
+
+                if (record != null) {
+                    if (record.getState() == ChunkState.REQUESTED) {
+                        loadChunk(record);
+                    } else {
+                        generateSprites(record);
+                    }
                 }
 
             } catch (InterruptedException e) {
@@ -104,44 +154,104 @@ public class ChunkLoader {
     /**
      * Lädt einen Chunk (synchron, läuft im Background-Thread)
      */
-    private void loadChunk(ChunkLoadRequest request) {
-        int chunkX = request.getChunkX();
-        int chunkZ = request.getChunkZ();
-        String key = makeKey(chunkX, chunkZ);
+    private void loadChunk(ChunkRecord record) {
+        int chunkX = record.getChunkX();
+        int chunkZ = record.getChunkZ();
 
+        // Bereits entladen, bevor der Loader dran war
+        if (!record.transition(ChunkState.REQUESTED, ChunkState.GENERATING)) {
+            return;
+        }
+
+        AlphaMapBuilder builder = alphaMapBuilder;
         try {
             long startTime = System.currentTimeMillis();
 
-            // Lade Tiles (Array -> Map conversion)
-            TerrainTile[] tileArray = tileProvider.getTileData(chunkX, chunkZ, 65); // CHUNK_SIZE = 65
-            Map<String, TerrainTile> tiles = new java.util.HashMap<>();
+            // Lade Tiles, Sprites nur wenn der Chunk schon im Sprite-Ring liegt (bigOnly wird beim Rendern gefiltert)
+            TerrainTile[] tiles = tileProvider.getTileData(chunkX, chunkZ, CHUNK_SIZE);
+            SpriteBatch sprites = null;
+            if (record.claimSprites()) {
+                sprites = spriteProvider.getSprites(chunkX, chunkZ, CHUNK_SIZE, tiles);
+                record.setSprites(sprites);
+                chunksWithSprites.incrementAndGet();
+            } else {
+                chunksWithoutSprites.incrementAndGet();
+            }
+
+            record.setGeneratedData(tiles);
+            if (!record.transition(ChunkState.GENERATING, ChunkState.GENERATED)) {
+                return;
+            }
 
-            for (int z = 0; z < 65; z++) {
-                for (int x = 0; x < 65; x++) {
-                    int worldX = chunkX * 64 + x; // CHUNK_SIZE - 1 = 64
-                    int worldZ = chunkZ * 64 + z;
-                    String tileKey = worldX + "," + worldZ;
-                    tiles.put(tileKey, tileArray[z * 65 + x]);
+            // Abgeleitete Daten: Höhen-Array und Höhenbereich (inkl. Wasser)
+            float[] heightData = new float[tiles.length];
+            float minHeight = Float.POSITIVE_INFINITY;
+            float maxHeight = Float.NEGATIVE_INFINITY;
+            for (int i = 0; i < tiles.length; i++) {
+                float height = tiles[i].getHeight();
+                heightData[i] = height;
+                minHeight = Math.min(minHeight, height);
+                maxHeight = Math.max(maxHeight, height);
+                if (tiles[i].hasWater()) {
+                    maxHeight = Math.max(maxHeight, tiles[i].getWater().getWaterHeight());
                 }
             }
 
-            // Lade Sprites (alle Sprites, bigOnly=false im Background)
-            List<Sprite> sprites = spriteProvider.getSprites(chunkX, chunkZ, 65, tileArray);
+            // Wasserflächen nur über nassen Tiles, greedy zusammengefasst
+            float[] waterRects = WaterMesher.buildRects(tiles, CHUNK_SIZE,
+                    chunkX * (CHUNK_SIZE - 1), chunkZ * (CHUNK_SIZE - 1));
 
-            // Erstelle LoadedChunk
-            LoadedChunk chunk = new LoadedChunk(chunkX, chunkZ, tiles, sprites);
+            // Gras-Dichte aus Material und Feuchtigkeit (GrassField)
+            record.setGrassDensity(GrassField.buildDensity(tiles));
 
-            // Speichere in Cache
-            loadedChunks.put(key, chunk);
-            loadingChunks.remove(key);
+            if (builder != null) {
+                record.setAlphaMaps(builder.build(tiles));
+            }
+
+            record.setPreparedData(heightData, minHeight, maxHeight, waterRects);
+            if (!record.transition(ChunkState.GENERATED, ChunkState.PREPARED)) {
+                // Inzwischen entladen: Buffer zurück in den Pool (falls der Render-Thread sie nicht schon genommen hat)
+                if (builder != null) {
+                    builder.release(record.takeAlphaMaps());
+                }
+                return;
+            }
+            registry.markReady(record);
 
             long duration = System.currentTimeMillis() - startTime;
-            System.out.println("Chunk geladen: " + key + " (" + duration + "ms, " +
-                             tiles.size() + " tiles, " + sprites.size() + " sprites)");
+            System.out.println("Chunk geladen: " + chunkX + "," + chunkZ + " (" + duration + "ms, " +
+                             tiles.length + " tiles, " + (sprites != null ? sprites.size() + " sprites)" : "Sprites später)"));
+
+        } catch (Exception e) {
+            System.err.println("FEHLER beim Laden von Chunk " + chunkX + "," + chunkZ + ": " + e.getMessage());
+            // Record freigeben, damit der Chunk erneut angefordert werden kann
+            registry.evict(record);
+            if (builder != null) {
+                builder.release(record.takeAlphaMaps());
+            }
+        }
+    }
 
+    /**
+     * Erzeugt die Sprites eines fertig geladenen Chunks aus seinen Tiles (läuft im Background-Thread)
+     */
+    private void generateSprites(ChunkRecord record) {
+        // Inzwischen entladen oder schon von einem anderen Thread übernommen
+        if (!record.isSpriteJobPending() || !record.claimSprites()) {
+            return;
+        }
+        try {
+            long startTime = System.currentTimeMillis();
+            SpriteBatch sprites = spriteProvider.getSprites(record.getChunkX(), record.getChunkZ(), CHUNK_SIZE, record.getTiles());
+            record.setSprites(sprites);
+            spriteJobs.incrementAndGet();
+            spriteResults.offer(record);
+
+            System.out.println("Sprites erzeugt: " + record.getChunkX() + "," + record.getChunkZ() + " (" +
+                    (System.currentTimeMillis() - startTime) + "ms, " + sprites.size() + " sprites)");
         } catch (Exception e) {
-            System.err.println("FEHLER beim Laden von Chunk " + key + ": " + e.getMessage());
-            loadingChunks.remove(key);
+            System.err.println("FEHLER beim Erzeugen der Sprites von Chunk " + record.getChunkX() + "," + record.getChunkZ() + ": " + e.getMessage());
+            record.resetSprites();
         }
     }
 
@@ -149,14 +259,15 @@ public class ChunkLoader {
      * Gibt Anzahl der wartenden Requests zurück
      */
     public int getPendingRequestCount() {
-        return requestQueue.size() + loadingChunks.size();
+        return requestQueue.size();
     }
 
     /**
-     * Gibt Anzahl der geladenen Chunks zurück
+     * Sprite-Statistik: Chunks mit Sprites beim Laden, ohne Sprites, nachträgliche Sprite-Aufträge
      */
-    public int getLoadedChunkCount() {
-        return loadedChunks.size();
+    public String getSpriteStatistics() {
+        return chunksWithSprites.get() + " Chunks mit Sprites geladen, " + chunksWithoutSprites.get()
+                + " ohne, " + spriteJobs.get() + " nachträglich erzeugt";
     }
 
     /**
@@ -174,8 +285,4 @@ public class ChunkLoader {
             Thread.currentThread().interrupt();
         }
     }
-
-    private String makeKey(int chunkX, int chunkZ) {
-        return chunkX + "," + chunkZ;
-    }
 }
@@ -0,0 +1,283 @@
+package com.example.jme07;
+
+import com.jme3.terrain.geomipmap.TerrainQuad;
+import com.jme3.texture.Image;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * ChunkRecord - Zustand und alle Ressourcen eines Chunks an einer Stelle
+ *
+ * Daten-Felder (tiles, heightData, Höhenbereich, Wasser-Rechtecke) werden vom Loader-Thread geschrieben,
+ * bevor er den Zustand per CAS weiterschaltet. Leser prüfen zuerst den Zustand (volatile)
+ * und sehen danach garantiert die vollständigen Daten.
+ *
+ * Sprites haben einen eigenen Zustand (SpriteState): Sie werden nur erzeugt, wenn der Chunk im
+ * Sprite-Ring liegt - gleich beim Laden oder später als eigener Auftrag im Loader-Pool - und
+ * bleiben danach am Record, solange der Chunk geladen ist.
+ *
+ * Scene-Graph-Felder (terrain, chunkImages, chunkSprites) gehören ausschließlich dem Render-Thread.
+ */
+public class ChunkRecord {
+
+    /**
+     * Zustand der Sprites: NONE -> WANTED (Render-Thread) -> GENERATING -> READY (Loader-Thread)
+     */
+    public enum SpriteState {
+        NONE,
+        WANTED,
+        GENERATING,
+        READY
+    }
+
+    private final int chunkX;
+    private final int chunkZ;
+    private final AtomicReference<ChunkState> state = new AtomicReference<>(ChunkState.REQUESTED);
+    private final long requestTime = System.currentTimeMillis();
+
+    // Vom Loader-Thread erzeugt (sichtbar ab GENERATED bzw. PREPARED)
+    private TerrainTile[] tiles;
+    private float[] heightData;
+    private float minHeight;
+    private float maxHeight;
+    private float[] waterRects;
+    private byte[] grassDensity;
+    // Optional (TerrainLighting-Pfad): Wer takeAlphaMaps() gewinnt, gibt die Buffer an den Pool zurück
+    private final AtomicReference<ByteBuffer[]> alphaMaps = new AtomicReference<>();
+
+    // Sprites: vom Loader-Thread geschrieben, sichtbar ab SpriteState.READY
+    private volatile SpriteBatch sprites;
+    private final AtomicReference<SpriteState> spriteState = new AtomicReference<>(SpriteState.NONE);
+
+    // Nur Render-Thread
+    private TerrainQuad terrain;
+    private List<Image> chunkImages;
+    private final ChunkSprites chunkSprites = new ChunkSprites();
+
+    public ChunkRecord(int chunkX, int chunkZ) {
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+    }
+
+    /**
+     * Atomarer Zustandsübergang
+     * @return false wenn der Chunk nicht (mehr) im erwarteten Zustand ist
+     */
+    public boolean transition(ChunkState expected, ChunkState next) {
+        return state.compareAndSet(expected, next);
+    }
+
+    /**
+     * Schaltet den Chunk aus jedem Zustand nach EVICTING
+     * @return false wenn er bereits entladen wird
+     */
+    public boolean markEvicting() {
+        while (true) {
+            ChunkState current = state.get();
+            if (current == ChunkState.EVICTING) {
+                return false;
+            }
+            if (state.compareAndSet(current, ChunkState.EVICTING)) {
+                return true;
+            }
+        }
+    }
+
+    public ChunkState getState() {
+        return state.get();
+    }
+
+    /**
+     * true wenn Tiles und Sprites gelesen werden dürfen
+     */
+    public boolean hasTileData() {
+        ChunkState current = state.get();
+        return current == ChunkState.GENERATED || current == ChunkState.PREPARED || current == ChunkState.ATTACHED;
+    }
+
+    /**
+     * true wenn zusätzlich die abgeleiteten Höhendaten gelesen werden dürfen
+     */
+    public boolean hasHeightData() {
+        ChunkState current = state.get();
+        return current == ChunkState.PREPARED || current == ChunkState.ATTACHED;
+    }
+
+    public boolean isAttached() {
+        return state.get() == ChunkState.ATTACHED;
+    }
+
+    // ==================== Loader-Thread ====================
+
+    void setGeneratedData(TerrainTile[] tiles) {
+        this.tiles = tiles;
+    }
+
+    /**
+     * Übernimmt den Sprite-Auftrag (WANTED -> GENERATING, genau ein Loader-Thread gewinnt)
+     */
+    boolean claimSprites() {
+        return spriteState.compareAndSet(SpriteState.WANTED, SpriteState.GENERATING);
+    }
+
+    void setSprites(SpriteBatch sprites) {
+        this.sprites = sprites;
+        spriteState.set(SpriteState.READY);
+    }
+
+    /**
+     * Generierung fehlgeschlagen: Sprites können erneut angefordert werden
+     */
+    void resetSprites() {
+        spriteState.compareAndSet(SpriteState.GENERATING, SpriteState.NONE);
+    }
+
+    void setPreparedData(float[] heightData, float minHeight, float maxHeight, float[] waterRects) {
+        this.heightData = heightData;
+        this.minHeight = minHeight;
+        this.maxHeight = maxHeight;
+        this.waterRects = waterRects;
+    }
+
+    void setGrassDensity(byte[] grassDensity) {
+        this.grassDensity = grassDensity;
+    }
+
+    void setAlphaMaps(ByteBuffer[] maps) {
+        alphaMaps.set(maps);
+    }
+
+    /**
+     * Übernimmt die AlphaMap-Buffer (genau einmal, danach null)
+     */
+    ByteBuffer[] takeAlphaMaps() {
+        return alphaMaps.getAndSet(null);
+    }
+
+    // ==================== Daten ====================
+
+    public int getChunkX() {
+        return chunkX;
+    }
+
+    public int getChunkZ() {
+        return chunkZ;
+    }
+
+    public long getRequestTime() {
+        return requestTime;
+    }
+
+    public TerrainTile[] getTiles() {
+        return tiles;
+    }
+
+    // ==================== Sprites ====================
+
+    /**
+     * Markiert die Sprites als benötigt
+     * @return true wenn sie vorher nicht angefordert waren
+     */
+    public boolean wantSprites() {
+        return spriteState.compareAndSet(SpriteState.NONE, SpriteState.WANTED);
+    }
+
+    public SpriteState getSpriteState() {
+        return spriteState.get();
+    }
+
+    public boolean hasSprites() {
+        return spriteState.get() == SpriteState.READY;
+    }
+
+    /**
+     * true wenn die Sprites angefordert sind und der Chunk fertig geladen ist
+     * (dann erledigt sie ein eigener Auftrag statt des Chunk-Ladens)
+     */
+    boolean isSpriteJobPending() {
+        ChunkState current = state.get();
+        return spriteState.get() == SpriteState.WANTED
+                && (current == ChunkState.PREPARED || current == ChunkState.ATTACHED);
+    }
+
+    /**
+     * Sprites des Chunks (null solange nicht READY)
+     */
+    public SpriteBatch getSprites() {
+        return sprites;
+    }
+
+    /**
+     * RGB8-AlphaMaps für TerrainLighting (oder null)
+     */
+    public ByteBuffer[] getAlphaMaps() {
+        return alphaMaps.get();
+    }
+
+    public float[] getHeightData() {
+        return heightData;
+    }
+
+    /**
+     * Minimale Terrain-Höhe im Chunk
+     */
+    public float getMinHeight() {
+        return minHeight;
+    }
+
+    /**
+     * Maximale Höhe im Chunk inkl. Wasseroberfläche
+     */
+    public float getMaxHeight() {
+        return maxHeight;
+    }
+
+    /**
+     * Greedy zusammengefasste Wasserflächen (siehe WaterMesher, leer = kein Wasser)
+     */
+    public float[] getWaterRects() {
+        return waterRects;
+    }
+
+    /**
+     * Gras-Dichte pro Sample (0-255, siehe GrassField.buildDensity)
+     */
+    public byte[] getGrassDensity() {
+        return grassDensity;
+    }
+
+    // ==================== Render-Thread ====================
+
+    public TerrainQuad getTerrain() {
+        return terrain;
+    }
+
+    public void setTerrain(TerrainQuad terrain) {
+        this.terrain = terrain;
+    }
+
+    /**
+     * Nur diesem Chunk gehörende Images (AlphaMaps bzw. Materialindex-Textur)
+     */
+    public List<Image> getChunkImages() {
+        return chunkImages;
+    }
+
+    public void setChunkImages(List<Image> chunkImages) {
+        this.chunkImages = chunkImages;
+    }
+
+    /**
+     * Sprite-Geometries des Chunks nach LOD-Teilen
+     */
+    public ChunkSprites getChunkSprites() {
+        return chunkSprites;
+    }
+
+    @Override
+    public String toString() {
+        return "ChunkRecord{" + chunkX + "," + chunkZ + " " + state.get() + '}';
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.jme07;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * ChunkRegistry - Zentrale Verwaltung aller Chunks und ihrer Zustände
+ *
+ * Ersetzt die verteilten Maps in TerrainLayer und ChunkLoader. Ein Chunk existiert genau dann,
+ * wenn er einen Record in der Registry hat; sein Zustand wird lock-frei per CAS im Record
+ * weitergeschaltet. Fertig vorbereitete Chunks landen in der Ready-Queue, die der
+ * Render-Thread abarbeitet.
+ */
+public class ChunkRegistry {
+
+    private final ConcurrentHashMap<Long, ChunkRecord> records = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<ChunkRecord> readyQueue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Legt einen neuen Record im Zustand REQUESTED an
+     * @return den neuen Record, oder null wenn der Chunk bereits existiert
+     */
+    public ChunkRecord requestIfAbsent(int chunkX, int chunkZ) {
+        ChunkRecord record = new ChunkRecord(chunkX, chunkZ);
+        return records.putIfAbsent(key(chunkX, chunkZ), record) == null ? record : null;
+    }
+
+    /**
+     * Holt den Record eines Chunks (oder null)
+     */
+    public ChunkRecord get(int chunkX, int chunkZ) {
+        return records.get(key(chunkX, chunkZ));
+    }
+
+    /**
+     * Entfernt einen Chunk: Zustand -> EVICTING, danach aus der Registry
+     * @return den entfernten Record (Render-Thread räumt dessen Scene-Graph-Ressourcen auf), oder null
+     */
+    public ChunkRecord evict(int chunkX, int chunkZ) {
+        ChunkRecord record = records.get(key(chunkX, chunkZ));
+        return record != null && evict(record) ? record : null;
+    }
+
+    /**
+     * Entfernt genau diesen Record (nicht einen neueren Record mit gleichen Koordinaten)
+     * @return false wenn er bereits entladen wird
+     */
+    public boolean evict(ChunkRecord record) {
+        if (!record.markEvicting()) {
+            return false;
+        }
+        records.remove(key(record.getChunkX(), record.getChunkZ()), record);
+        return true;
+    }
+
+    /**
+     * Vom Loader-Thread aufgerufen, sobald ein Chunk PREPARED ist
+     */
+    public void markReady(ChunkRecord record) {
+        readyQueue.offer(record);
+    }
+
+    /**
+     * Nächster vorbereiteter Chunk für den Render-Thread (oder null).
+     * Zwischenzeitlich entladene Records werden übersprungen.
+     */
+    public ChunkRecord pollReady() {
+        ChunkRecord record;
+        while ((record = readyQueue.poll()) != null) {
+            if (record.getState() == ChunkState.PREPARED) {
+                return record;
+            }
+        }
+        return null;
+    }
+
+    public Collection<ChunkRecord> getRecords() {
+        return records.values();
+    }
+
+    public int size() {
+        return records.size();
+    }
+
+    /**
+     * Anzahl der Chunks in einem Zustand (für Statistiken)
+     */
+    public int countInState(ChunkState state) {
+        int count = 0;
+        for (ChunkRecord record : records.values()) {
+            if (record.getState() == state) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public static long key(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+}
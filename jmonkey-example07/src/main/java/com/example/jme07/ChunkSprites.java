@@ -0,0 +1,145 @@
+package com.example.jme07;
+
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
+import com.jme3.scene.instancing.InstancedNode;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ChunkSprites - Die Sprite-Geometries eines Chunks, aufgeteilt in LOD-Teile
+ *
+ * Teile werden erst gebaut, wenn eine Stufe sie braucht, und danach nur noch per CullHint
+ * ein- und ausgeblendet. Ein Stufenwechsel baut den Chunk also nicht neu auf.
+ * Sichtbar ist ein Teil, wenn die aktuelle Stufe ihn zeigt und der Chunk nicht
+ * durch Horizon-Culling verdeckt ist. Horizon-Culling schaltet den Chunk-Node als Ganzes,
+ * nur instanzierte Modelle (am gemeinsamen InstancedNode) brauchen eigene CullHints.
+ *
+ * Nur Render-Thread.
+ */
+public class ChunkSprites {
+
+    public enum Part {
+        SMALL,            // Kleine Sprites (Gras, Blumen, kleine Modelle)
+        BIG_BILLBOARDS,   // Große Billboards (Bäume, Steine)
+        BIG_MODELS,       // Große 3D-Modelle (instanziert)
+        IMPOSTORS         // Große 3D-Modelle als vorgerenderte Karten
+    }
+
+    private final Map<Part, List<Geometry>> parts = new EnumMap<>(Part.class);
+    private SpriteTier tier = SpriteTier.NONE;
+    private boolean culled = false;
+    private Node node;   // Chunk-Node in SpriteRegions (null solange nicht angehängt)
+
+    public Node getNode() {
+        return node;
+    }
+
+    public void setNode(Node node) {
+        this.node = node;
+        if (node != null) {
+            node.setCullHint(culled ? Spatial.CullHint.Always : Spatial.CullHint.Inherit);
+        }
+    }
+
+    public SpriteTier getTier() {
+        return tier;
+    }
+
+    public void setTier(SpriteTier tier) {
+        this.tier = tier;
+        applyVisibility();
+    }
+
+    public void setCulled(boolean culled) {
+        if (this.culled == culled) {
+            return;
+        }
+        this.culled = culled;
+        if (node != null) {
+            node.setCullHint(culled ? Spatial.CullHint.Always : Spatial.CullHint.Inherit);
+        }
+        applyVisibility();
+    }
+
+    public boolean hasPart(Part part) {
+        return parts.containsKey(part);
+    }
+
+    public List<Geometry> getPart(Part part) {
+        return parts.get(part);
+    }
+
+    public void setPart(Part part, List<Geometry> geometries) {
+        parts.put(part, geometries);
+        applyVisibility(part, geometries);
+    }
+
+    /**
+     * Nimmt einen Teil heraus (Aufrufer gibt die Geometries frei)
+     */
+    public List<Geometry> removePart(Part part) {
+        return parts.remove(part);
+    }
+
+    public boolean isEmpty() {
+        return parts.isEmpty();
+    }
+
+    private void applyVisibility() {
+        for (Map.Entry<Part, List<Geometry>> entry : parts.entrySet()) {
+            applyVisibility(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void applyVisibility(Part part, List<Geometry> geometries) {
+        boolean shown = tier.shows(part);
+        for (Geometry geom : geometries) {
+            // Am Chunk-Node übernimmt dessen CullHint das Horizon-Culling
+            boolean visible = shown && !(culled && geom.getParent() instanceof InstancedNode);
+            geom.setCullHint(visible ? Spatial.CullHint.Inherit : Spatial.CullHint.Always);
+        }
+    }
+
+    // ==================== Statistik ====================
+
+    /**
+     * Draw-Calls der aktuellen Stufe (ohne Horizon-Culling). Instanzierte Modelle
+     * teilen sich ihre Draw-Calls chunkübergreifend und zählen hier nicht.
+     */
+    public int getTierDrawCalls() {
+        int drawCalls = 0;
+        for (Map.Entry<Part, List<Geometry>> entry : parts.entrySet()) {
+            if (tier.shows(entry.getKey())) {
+                for (Geometry geom : entry.getValue()) {
+                    if (!(geom.getParent() instanceof InstancedNode)) {
+                        drawCalls++;
+                    }
+                }
+            }
+        }
+        return drawCalls;
+    }
+
+    /**
+     * Gerenderte Vertices der aktuellen Stufe (ohne Horizon-Culling)
+     */
+    public int getTierVertexCount() {
+        int vertices = 0;
+        for (Map.Entry<Part, List<Geometry>> entry : parts.entrySet()) {
+            if (tier.shows(entry.getKey())) {
+                for (Geometry geom : entry.getValue()) {
+                    if (geom.getMesh() instanceof SpriteBatchMesh) {
+                        vertices += 4 * ((SpriteBatchMesh) geom.getMesh()).getSpriteCount();
+                    } else {
+                        vertices += geom.getMesh().getVertexCount();
+                    }
+                }
+            }
+        }
+        return vertices;
+    }
+}
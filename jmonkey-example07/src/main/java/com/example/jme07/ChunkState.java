@@ -0,0 +1,19 @@
+package com.example.jme07;
+
+/**
+ * Lebenszyklus eines Chunks in der ChunkRegistry
+ *
+ * REQUESTED -> GENERATING -> GENERATED -> PREPARED -> ATTACHED
+ *
+ * Aus jedem Zustand kann ein Chunk nach EVICTING wechseln. Danach ist der Record tot:
+ * ein Loader-Thread, der noch daran arbeitet, verwirft sein Ergebnis beim nächsten
+ * fehlgeschlagenen Übergang.
+ */
+public enum ChunkState {
+    REQUESTED,   // Vom Render-Thread angefordert, wartet in der Loader-Queue
+    GENERATING,  // Loader-Thread erzeugt Tiles und Sprites
+    GENERATED,   // Tiles und Sprites liegen im Record
+    PREPARED,    // Abgeleitete Daten (Höhen, Höhenbereich) fertig, wartet in der Ready-Queue
+    ATTACHED,    // Terrain, Wasser und Sprites hängen im Scene-Graph
+    EVICTING     // Wird entladen - keine weiteren Übergänge
+}
@@ -0,0 +1,68 @@
+package com.example.jme07;
+
+import com.jme3.math.Vector3f;
+import com.jme3.terrain.geomipmap.TerrainQuad;
+import com.jme3.terrain.geomipmap.UpdatedTerrainPatch;
+import com.jme3.terrain.geomipmap.lodcalc.LodCalculator;
+
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * ChunkTerrainQuad - TerrainQuad eines Chunks, dessen LOD der TerrainLodManager berechnet
+ *
+ * Macht die einzelnen Schritte der LOD-Berechnung von TerrainQuad (sonst nur für
+ * TerrainLodControl erreichbar) für den gemeinsamen Manager zugänglich und merkt sich
+ * die Chunk-Koordinaten für die Nachbarsuche über Chunk-Grenzen.
+ */
+public class ChunkTerrainQuad extends TerrainQuad {
+
+    private final int chunkX;
+    private final int chunkZ;
+
+    public ChunkTerrainQuad(String name, int patchSize, int totalSize, float[] heightMap, int chunkX, int chunkZ) {
+        super(name, patchSize, totalSize, heightMap);
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+    }
+
+    public int getChunkX() {
+        return chunkX;
+    }
+
+    public int getChunkZ() {
+        return chunkZ;
+    }
+
+    /**
+     * Merkt sich die Welt-Transformation der Patches (Grundlage der Distanzberechnung).
+     * Erst aufrufen, wenn der Chunk einmal durch updateGeometricState gelaufen ist.
+     */
+    void cacheTransforms() {
+        cacheTerrainTransforms();
+    }
+
+    /**
+     * Schritt 1: neue LOD pro Patch (unabhängig von anderen Chunks, parallelisierbar)
+     * @return true wenn sich mindestens eine LOD geändert hat
+     */
+    boolean computeLod(List<Vector3f> locations, HashMap<String, UpdatedTerrainPatch> updated, LodCalculator lodCalculator) {
+        return calculateLod(locations, updated, lodCalculator);
+    }
+
+    /**
+     * Schritt 2 und 3: LOD der Nachbar-Patches eintragen (auch aus Nachbar-Chunks) und
+     * Kanten markieren, deren Nachbar sich geändert hat. Schreibt in die gemeinsame Map.
+     */
+    void stitchNeighbours(HashMap<String, UpdatedTerrainPatch> updated) {
+        findNeighboursLod(updated);
+        fixEdges(updated);
+    }
+
+    /**
+     * Schritt 4: Index-Buffer der geänderten Patches bauen (nur Lesen der Map, parallelisierbar)
+     */
+    void buildIndices(HashMap<String, UpdatedTerrainPatch> updated, boolean useVariableLod) {
+        reIndexPages(updated, useVariableLod);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.jme07;
+
+/**
+ * ChunkWindowTracker - Inkrementelle Differenz des quadratischen Chunk-Fensters um die Kamera.
+ *
+ * Beim Wechsel des Kamera-Chunks werden nur die Chunks aufgezählt, die ein Fenster (Sichtweite
+ * oder Sprite-Ring) betreten oder verlassen. Die Differenz zweier Quadrate wird zeilenweise
+ * mit reiner Arithmetik berechnet - ohne Maps, Sets oder Vector2f-Allokationen.
+ */
+public class ChunkWindowTracker {
+
+    /**
+     * Callback für einen einzelnen Chunk
+     */
+    public interface ChunkVisitor {
+        void visit(int chunkX, int chunkZ);
+    }
+
+    private int centerX;
+    private int centerZ;
+    private int previousX;
+    private int previousZ;
+    private boolean hasCenter = false;
+    private boolean hasPrevious = false;
+
+    /**
+     * Setzt das neue Fenster-Zentrum. Das bisherige Zentrum wird zur Referenz für die Differenzen.
+     */
+    public void moveTo(int chunkX, int chunkZ) {
+        previousX = centerX;
+        previousZ = centerZ;
+        hasPrevious = hasCenter;
+        centerX = chunkX;
+        centerZ = chunkZ;
+        hasCenter = true;
+    }
+
+    /**
+     * Chunks die beim letzten moveTo in das Fenster mit diesem Radius eingetreten sind
+     *
+     * @return Anzahl der besuchten Chunks
+     */
+    public int forEachEntering(int radius, ChunkVisitor visitor) {
+        return forEachEntering(radius, radius, visitor);
+    }
+
+    /**
+     * Wie {@link #forEachEntering(int, ChunkVisitor)}, aber mit unterschiedlichem alten und neuen Radius
+     * (z.B. wenn sich die Sichtweite zur Laufzeit ändert)
+     */
+    public int forEachEntering(int oldRadius, int newRadius, ChunkVisitor visitor) {
+        return forEachDifference(centerX, centerZ, newRadius,
+                previousX, previousZ, hasPrevious ? oldRadius : -1, visitor);
+    }
+
+    /**
+     * Chunks die beim letzten moveTo das Fenster mit diesem Radius verlassen haben
+     *
+     * @return Anzahl der besuchten Chunks
+     */
+    public int forEachLeaving(int radius, ChunkVisitor visitor) {
+        return forEachLeaving(radius, radius, visitor);
+    }
+
+    public int forEachLeaving(int oldRadius, int newRadius, ChunkVisitor visitor) {
+        if (!hasPrevious) {
+            return 0;
+        }
+        return forEachDifference(previousX, previousZ, oldRadius, centerX, centerZ, newRadius, visitor);
+    }
+
+    public int getCenterX() {
+        return centerX;
+    }
+
+    public int getCenterZ() {
+        return centerZ;
+    }
+
+    /**
+     * Besucht alle Chunks im Quadrat A, die nicht im Quadrat B liegen.
+     *
+     * @param bRadius Radius von B, negativ = B ist leer
+     * @return Anzahl der besuchten Chunks
+     */
+    public static int forEachDifference(int aX, int aZ, int aRadius, int bX, int bZ, int bRadius, ChunkVisitor visitor) {
+        if (aRadius < 0) {
+            return 0;
+        }
+
+        int aMinX = aX - aRadius;
+        int aMaxX = aX + aRadius;
+        int bMinX = bX - bRadius;
+        int bMaxX = bX + bRadius;
+        int count = 0;
+
+        for (int z = aZ - aRadius; z <= aZ + aRadius; z++) {
+            boolean rowInB = bRadius >= 0 && z >= bZ - bRadius && z <= bZ + bRadius;
+
+            if (!rowInB) {
+                // Ganze Zeile liegt außerhalb von B
+                for (int x = aMinX; x <= aMaxX; x++) {
+                    visitor.visit(x, z);
+                    count++;
+                }
+            } else {
+                // Nur die Abschnitte links und rechts von B
+                for (int x = aMinX; x <= Math.min(aMaxX, bMinX - 1); x++) {
+                    visitor.visit(x, z);
+                    count++;
+                }
+                for (int x = Math.max(aMinX, bMaxX + 1); x <= aMaxX; x++) {
+                    visitor.visit(x, z);
+                    count++;
+                }
+            }
+        }
+
+        return count;
+    }
+}
@@ -0,0 +1,386 @@
+package com.example.jme07;
+
+import com.jme3.asset.AssetManager;
+import com.jme3.bounding.BoundingBox;
+import com.jme3.material.Material;
+import com.jme3.math.Vector3f;
+import com.jme3.math.Vector4f;
+import com.jme3.renderer.queue.RenderQueue;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.Node;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.shader.VarType;
+import com.jme3.texture.Image;
+import com.jme3.texture.Texture;
+import com.jme3.texture.Texture2D;
+import com.jme3.texture.TextureArray;
+import com.jme3.util.BufferUtils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * ClipmapTerrainRenderer - Terrain als Geometry-Clipmap statt eines TerrainQuads pro Chunk
+ *
+ * LEVELS verschachtelte Ebenen mit je GRID_SIZE x GRID_SIZE Zellen; Ebene l hat den Sample-Abstand 2^l.
+ * Alle Ebenen teilen sich zwei statische Meshes (volles Gitter für Ebene 0, Ring für alle weiteren)
+ * und werden nur verschoben - auf Vielfache ihres doppelten Sample-Abstands, damit die feinere
+ * Ebene immer auf ganzen Zellen der gröberen liegt. Die Höhen liest der Vertex-Shader aus einer
+ * toroidal adressierten Textur pro Ebene (Texel = Sample-Koordinate modulo TEXTURE_SIZE).
+ *
+ * Wandert das Textur-Fenster einer Ebene mit der Kamera, werden nur die neu hinzugekommenen
+ * Zeilen und Spalten aus den geladenen Chunks gefüllt; ein neu geladener Chunk schreibt seine
+ * Samples in alle Ebenen. Meshes werden nie neu gebaut, es ändern sich nur Texturen.
+ *
+ * Nur Render-Thread.
+ */
+public class ClipmapTerrainRenderer {
+
+    /**
+     * Liefert Chunks mit Höhendaten (oder null, solange ein Chunk nicht geladen ist)
+     */
+    public interface ChunkSource {
+        ChunkRecord getChunk(int chunkX, int chunkZ);
+    }
+
+    private static final int LEVELS = 5;               // Sample-Abstand 1, 2, 4, 8, 16
+    private static final int GRID_SIZE = 88;           // Zellen pro Kante (durch 4 teilbar, Reichweite 704 in Ebene 4, darüber fernes Terrain)
+    private static final int TEXTURE_SIZE = 128;       // Toroidale Textur pro Ebene (> GRID_SIZE + Rand für Normalen)
+    private static final int MORPH_WIDTH = 8;          // Übergangsbreite zur gröberen Ebene in Zellen
+    private static final float BOUND_MIN_HEIGHT = -50f;  // Höhenbereich für das Frustum-Culling
+    private static final float BOUND_MAX_HEIGHT = 200f;
+
+    private static class Level {
+        final int spacing;
+        final Geometry geometry;
+        final Material material;
+        final Image heightImage;
+        final Image materialImage;
+        final ByteBuffer heights;
+        final ByteBuffer materials;
+        // Welt-Position der Gitter-Ecke und Sample-Koordinate der Textur-Fenster-Ecke
+        int originX;
+        int originZ;
+        int windowX;
+        int windowZ;
+        boolean placed = false;
+        boolean dirty = false;
+
+        Level(int spacing, Geometry geometry, Material material, Image heightImage, Image materialImage) {
+            this.spacing = spacing;
+            this.geometry = geometry;
+            this.material = material;
+            this.heightImage = heightImage;
+            this.materialImage = materialImage;
+            this.heights = heightImage.getData(0);
+            this.materials = materialImage.getData(0);
+        }
+    }
+
+    private final TerrainMaterialIndex materialIndex;
+    private final ChunkSource chunkSource;
+    private final int chunkSize;
+    private final int chunkWorldSize;
+    private final float defaultHeight;
+    private final Level[] levels = new Level[LEVELS];
+    private final Node clipmapNode;
+
+    // Statistik
+    private long writtenSamples = 0;
+    private int textureUploads = 0;
+
+    /**
+     * @param terrainTextures das TextureArray der Terrain-Materialien (wie im TerrainArray-Material)
+     * @param chunkSize Samples pro Chunk-Kante (z.B. 65)
+     * @param defaultHeight Höhe für Samples, deren Chunk noch nicht geladen ist
+     */
+    public ClipmapTerrainRenderer(AssetManager assetManager, Node parentNode, TextureArray terrainTextures,
+                                  TerrainMaterialIndex materialIndex, ChunkSource chunkSource, int chunkSize, float defaultHeight) {
+        this.materialIndex = materialIndex;
+        this.chunkSource = chunkSource;
+        this.chunkSize = chunkSize;
+        this.chunkWorldSize = chunkSize - 1;
+        this.defaultHeight = defaultHeight;
+
+        this.clipmapNode = new Node("ClipmapTerrain");
+        parentNode.attachChild(clipmapNode);
+
+        Mesh fullGrid = createGridMesh(false);
+        Mesh ringGrid = createGridMesh(true);
+        for (int l = 0; l < LEVELS; l++) {
+            int spacing = 1 << l;
+            Image heightImage = new Image(Image.Format.R32F, TEXTURE_SIZE, TEXTURE_SIZE,
+                    BufferUtils.createByteBuffer(TEXTURE_SIZE * TEXTURE_SIZE * 4), com.jme3.texture.image.ColorSpace.Linear);
+            Image materialImage = new Image(Image.Format.R8UI, TEXTURE_SIZE, TEXTURE_SIZE,
+                    BufferUtils.createByteBuffer(TEXTURE_SIZE * TEXTURE_SIZE), com.jme3.texture.image.ColorSpace.Linear);
+
+            Material mat = new Material(assetManager, "MatDefs/ClipmapTerrain.j3md");
+            mat.setTexture("TerrainTextures", terrainTextures);
+            mat.setParam("LayerScales", VarType.FloatArray, materialIndex.getTextureScales());
+            mat.setInt("LayerCount", materialIndex.getMaterialCount());
+            mat.setTexture("HeightMap", createSampleTexture(heightImage));
+            mat.setTexture("MaterialIndexMap", createSampleTexture(materialImage));
+            mat.setFloat("Spacing", spacing);
+            mat.setFloat("GridSize", GRID_SIZE);
+            mat.setFloat("MorphWidth", MORPH_WIDTH);
+            mat.setFloat("TexCoordScale", 1f / chunkWorldSize);
+            // Ebene 0 hat keine feinere Ebene: leeres Rechteck
+            mat.setVector4("InnerRect", new Vector4f(1, 1, 0, 0));
+
+            Geometry geometry = new Geometry("ClipmapLevel_" + l, l == 0 ? fullGrid : ringGrid);
+            geometry.setMaterial(mat);
+            geometry.setLocalScale(spacing, 1f, spacing);
+            geometry.setQueueBucket(RenderQueue.Bucket.Opaque);
+            clipmapNode.attachChild(geometry);
+
+            levels[l] = new Level(spacing, geometry, mat, heightImage, materialImage);
+        }
+
+        System.out.println("ClipmapTerrainRenderer initialisiert - " + LEVELS + " Ebenen mit " + GRID_SIZE + "x" + GRID_SIZE +
+                " Zellen, Reichweite " + (GRID_SIZE / 2 * (1 << (LEVELS - 1))) + " Einheiten");
+    }
+
+    private Texture2D createSampleTexture(Image image) {
+        // Der Shader liest mit texelFetch: kein Filter, keine Mipmaps
+        Texture2D texture = new Texture2D(image);
+        texture.setMinFilter(Texture.MinFilter.NearestNoMipMaps);
+        texture.setMagFilter(Texture.MagFilter.Nearest);
+        texture.setWrap(Texture.WrapMode.Repeat);
+        return texture;
+    }
+
+    /**
+     * Gitter mit (GRID_SIZE + 1)² Vertices in Zell-Koordinaten. Der Ring lässt den Kern aus,
+     * den die feinere Ebene unabhängig von ihrer Verschiebung immer abdeckt; den verbleibenden
+     * Streifen von einer Zelle verwirft der Fragment-Shader über InnerRect.
+     */
+    private static Mesh createGridMesh(boolean ring) {
+        int vertices = GRID_SIZE + 1;
+        float[] positions = new float[vertices * vertices * 3];
+        for (int z = 0; z < vertices; z++) {
+            for (int x = 0; x < vertices; x++) {
+                int v = (z * vertices + x) * 3;
+                positions[v] = x;
+                positions[v + 2] = z;
+            }
+        }
+
+        int coreMin = GRID_SIZE / 4 + 1;
+        int coreMax = GRID_SIZE * 3 / 4;
+        short[] indices = new short[GRID_SIZE * GRID_SIZE * 6];
+        int count = 0;
+        for (int z = 0; z < GRID_SIZE; z++) {
+            for (int x = 0; x < GRID_SIZE; x++) {
+                if (ring && x >= coreMin && x < coreMax && z >= coreMin && z < coreMax) {
+                    continue;
+                }
+                int topLeft = z * vertices + x;
+                int bottomLeft = topLeft + vertices;
+                indices[count++] = (short) topLeft;
+                indices[count++] = (short) bottomLeft;
+                indices[count++] = (short) (topLeft + 1);
+                indices[count++] = (short) (topLeft + 1);
+                indices[count++] = (short) bottomLeft;
+                indices[count++] = (short) (bottomLeft + 1);
+            }
+        }
+
+        Mesh mesh = new Mesh();
+        mesh.setBuffer(VertexBuffer.Type.Position, 3, BufferUtils.createFloatBuffer(positions));
+        mesh.setBuffer(VertexBuffer.Type.Index, 3, BufferUtils.createShortBuffer(java.util.Arrays.copyOf(indices, count)));
+        // Höhen entstehen erst im Shader: Bounding-Box über den ganzen Höhenbereich
+        mesh.setBound(new BoundingBox(new Vector3f(0, BOUND_MIN_HEIGHT, 0), new Vector3f(GRID_SIZE, BOUND_MAX_HEIGHT, GRID_SIZE)));
+        mesh.setStatic();
+        return mesh;
+    }
+
+    /**
+     * Verschiebt die Ebenen mit der Kamera, füllt neu sichtbare Samples und lädt geänderte Texturen hoch
+     */
+    public void update(Vector3f camPos) {
+        int camX = (int) Math.floor(camPos.x);
+        int camZ = (int) Math.floor(camPos.z);
+
+        for (int l = 0; l < LEVELS; l++) {
+            Level level = levels[l];
+            int snap = level.spacing * 2;
+            int originX = Math.floorDiv(camX, snap) * snap - GRID_SIZE / 2 * level.spacing;
+            int originZ = Math.floorDiv(camZ, snap) * snap - GRID_SIZE / 2 * level.spacing;
+            if (level.placed && originX == level.originX && originZ == level.originZ) {
+                continue;
+            }
+            moveLevel(level, originX, originZ);
+
+            // Die nächstgröbere Ebene spart die Fläche dieser Ebene aus
+            if (l + 1 < LEVELS) {
+                float extent = GRID_SIZE * level.spacing;
+                levels[l + 1].material.setVector4("InnerRect",
+                        new Vector4f(originX, originZ, originX + extent, originZ + extent));
+            }
+        }
+
+        for (Level level : levels) {
+            if (level.dirty) {
+                level.heightImage.setUpdateNeeded();
+                level.materialImage.setUpdateNeeded();
+                level.dirty = false;
+                textureUploads++;
+            }
+        }
+    }
+
+    private void moveLevel(Level level, int originX, int originZ) {
+        level.originX = originX;
+        level.originZ = originZ;
+        level.geometry.setLocalTranslation(originX, 0, originZ);
+
+        // Textur-Fenster zentriert um das Gitter
+        int margin = (TEXTURE_SIZE - GRID_SIZE) / 2;
+        int windowX = originX / level.spacing - margin;
+        int windowZ = originZ / level.spacing - margin;
+        int oldX = level.windowX;
+        int oldZ = level.windowZ;
+        boolean wasPlaced = level.placed;
+        level.windowX = windowX;
+        level.windowZ = windowZ;
+        level.placed = true;
+
+        if (!wasPlaced || Math.abs(windowX - oldX) >= TEXTURE_SIZE || Math.abs(windowZ - oldZ) >= TEXTURE_SIZE) {
+            fillSamples(level, windowX, windowZ, windowX + TEXTURE_SIZE, windowZ + TEXTURE_SIZE);
+            return;
+        }
+        // Nur die neu hinzugekommenen Spalten und Zeilen
+        if (windowX > oldX) {
+            fillSamples(level, oldX + TEXTURE_SIZE, windowZ, windowX + TEXTURE_SIZE, windowZ + TEXTURE_SIZE);
+        } else if (windowX < oldX) {
+            fillSamples(level, windowX, windowZ, oldX, windowZ + TEXTURE_SIZE);
+        }
+        if (windowZ > oldZ) {
+            fillSamples(level, windowX, oldZ + TEXTURE_SIZE, windowX + TEXTURE_SIZE, windowZ + TEXTURE_SIZE);
+        } else if (windowZ < oldZ) {
+            fillSamples(level, windowX, windowZ, windowX + TEXTURE_SIZE, oldZ);
+        }
+    }
+
+    /**
+     * Übernimmt die Samples eines neu geladenen Chunks in alle Ebenen, deren Fenster ihn schneidet
+     */
+    public void addChunk(ChunkRecord record) {
+        int minX = record.getChunkX() * chunkWorldSize;
+        int minZ = record.getChunkZ() * chunkWorldSize;
+        for (Level level : levels) {
+            if (!level.placed) {
+                continue;
+            }
+            int fromX = Math.max(level.windowX, Math.floorDiv(minX + level.spacing - 1, level.spacing));
+            int fromZ = Math.max(level.windowZ, Math.floorDiv(minZ + level.spacing - 1, level.spacing));
+            // Nur eigene Samples: die letzte Zeile/Spalte gehört schon zum Nachbar-Chunk
+            int toX = Math.min(level.windowX + TEXTURE_SIZE, Math.floorDiv(minX + chunkWorldSize - 1, level.spacing) + 1);
+            int toZ = Math.min(level.windowZ + TEXTURE_SIZE, Math.floorDiv(minZ + chunkWorldSize - 1, level.spacing) + 1);
+            if (fromX < toX && fromZ < toZ) {
+                fillSamples(level, fromX, fromZ, toX, toZ);
+            }
+        }
+    }
+
+    /**
+     * Schreibt die Samples [fromX, toX) x [fromZ, toZ) (Sample-Koordinaten) aus den geladenen Chunks
+     */
+    private void fillSamples(Level level, int fromX, int fromZ, int toX, int toZ) {
+        ChunkRecord record = null;
+        int recordX = Integer.MIN_VALUE;
+        int recordZ = Integer.MIN_VALUE;
+
+        for (int sz = fromZ; sz < toZ; sz++) {
+            int worldZ = sz * level.spacing;
+            int chunkZ = Math.floorDiv(worldZ, chunkWorldSize);
+            int localZ = worldZ - chunkZ * chunkWorldSize;
+            int row = Math.floorMod(sz, TEXTURE_SIZE) * TEXTURE_SIZE;
+
+            for (int sx = fromX; sx < toX; sx++) {
+                int worldX = sx * level.spacing;
+                int chunkX = Math.floorDiv(worldX, chunkWorldSize);
+                int localX = worldX - chunkX * chunkWorldSize;
+                if (chunkX != recordX || chunkZ != recordZ) {
+                    record = chunkSource.getChunk(chunkX, chunkZ);
+                    recordX = chunkX;
+                    recordZ = chunkZ;
+                }
+
+                float height = defaultHeight;
+                int materialId = 0;
+                if (record != null) {
+                    int index = localZ * chunkSize + localX;
+                    height = record.getHeightData()[index];
+                    materialId = materialIndex.getId(record.getTiles()[index].getMaterialKey());
+                }
+                int texel = row + Math.floorMod(sx, TEXTURE_SIZE);
+                level.heights.putFloat(texel * 4, height);
+                level.materials.put(texel, (byte) materialId);
+            }
+        }
+        writtenSamples += (long) (toX - fromX) * (toZ - fromZ);
+        level.dirty = true;
+    }
+
+    /**
+     * Höhe, die Ebene level für eine Welt-Position auf ihrem Sample-Raster gespeichert hat (für Tests)
+     */
+    public float getStoredHeight(int level, int worldX, int worldZ) {
+        Level l = levels[level];
+        int texel = Math.floorMod(Math.floorDiv(worldZ, l.spacing), TEXTURE_SIZE) * TEXTURE_SIZE
+                + Math.floorMod(Math.floorDiv(worldX, l.spacing), TEXTURE_SIZE);
+        return l.heights.getFloat(texel * 4);
+    }
+
+    /**
+     * true wenn das Textur-Fenster der Ebene das Sample an dieser Welt-Position enthält
+     */
+    public boolean isInWindow(int level, int worldX, int worldZ) {
+        Level l = levels[level];
+        int sx = Math.floorDiv(worldX, l.spacing);
+        int sz = Math.floorDiv(worldZ, l.spacing);
+        return l.placed && sx >= l.windowX && sx < l.windowX + TEXTURE_SIZE && sz >= l.windowZ && sz < l.windowZ + TEXTURE_SIZE;
+    }
+
+    public int getLevelCount() {
+        return LEVELS;
+    }
+
+    /**
+     * Mindestabstand von der Kamera bis zum Außenrand der gröbsten Ebene
+     * (das Einrasten auf doppelten Sample-Abstand kostet bis zu zwei Zellen)
+     */
+    public static float getCoveredDistance() {
+        return (GRID_SIZE / 2 - 2) * (1 << (LEVELS - 1));
+    }
+
+    /**
+     * Summe aller bisher geschriebenen Samples (Maß für die CPU-Arbeit)
+     */
+    public long getWrittenSamples() {
+        return writtenSamples;
+    }
+
+    /**
+     * Anzahl der Frames x Ebenen mit Textur-Upload
+     */
+    public int getTextureUploads() {
+        return textureUploads;
+    }
+
+    public Node getNode() {
+        return clipmapNode;
+    }
+
+    /**
+     * Registriert Texturen und die geteilten Gitter-Meshes beim NativeMemoryTracker
+     */
+    public void retainResources(NativeMemoryTracker memoryTracker) {
+        for (Level level : levels) {
+            memoryTracker.retain(NativeMemoryTracker.Category.TERRAIN, level.heightImage, true);
+            memoryTracker.retain(NativeMemoryTracker.Category.TERRAIN, level.materialImage, true);
+            memoryTracker.retain(NativeMemoryTracker.Category.TERRAIN, level.geometry.getMesh(), true);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.jme07;
+
+import com.jme3.util.BufferUtils;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DirectBufferPool - Wiederverwendbare Direct-ByteBuffer fester Größe
+ *
+ * Direct-Buffer sind teuer anzulegen und werden erst spät vom GC freigegeben. Chunks geben
+ * ihre Buffer beim Entladen zurück, neue Chunks bekommen sie wieder. Thread-safe, damit
+ * Loader-Threads und Render-Thread gleichzeitig darauf zugreifen können.
+ */
+public class DirectBufferPool {
+
+    private final int bufferSize;
+    private final int maxPooled;
+    private final ConcurrentLinkedQueue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger freeCount = new AtomicInteger();
+    private final AtomicInteger allocatedCount = new AtomicInteger();
+
+    /**
+     * @param bufferSize Größe jedes Buffers in Bytes
+     * @param maxPooled  maximale Anzahl freier Buffer im Pool (Rest wird dem GC überlassen)
+     */
+    public DirectBufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    /**
+     * Holt einen Buffer (position 0, limit = bufferSize). Inhalt ist undefiniert.
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = free.poll();
+        if (buffer != null) {
+            freeCount.decrementAndGet();
+            buffer.clear();
+            return buffer;
+        }
+        allocatedCount.incrementAndGet();
+        return BufferUtils.createByteBuffer(bufferSize);
+    }
+
+    /**
+     * Gibt einen Buffer zurück. Fremde Buffer (andere Größe) werden ignoriert.
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || buffer.capacity() != bufferSize) {
+            return;
+        }
+        if (freeCount.incrementAndGet() <= maxPooled) {
+            free.offer(buffer);
+        } else {
+            freeCount.decrementAndGet();
+        }
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public int getFreeCount() {
+        return freeCount.get();
+    }
+
+    /**
+     * Anzahl der insgesamt neu angelegten Buffer (für Statistiken)
+     */
+    public int getAllocatedCount() {
+        return allocatedCount.get();
+    }
+}
@@ -0,0 +1,339 @@
+package com.example.jme07;
+
+import com.jme3.asset.AssetManager;
+import com.jme3.material.Material;
+import com.jme3.math.ColorRGBA;
+import com.jme3.math.Vector3f;
+import com.jme3.renderer.Camera;
+import com.jme3.renderer.queue.RenderQueue;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.texture.Image;
+import com.jme3.texture.image.ImageRaster;
+
+import java.nio.ShortBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * FarTerrainLayer - Echtes Terrain jenseits der Sichtweite in grober Auflösung
+ *
+ * Statt einer erfundenen Kulisse wird der TileProvider alle CELL_SIZE Einheiten abgetastet.
+ * Der Bereich bis FAR_DISTANCE ist in große, weltfeste Kacheln (je ein Mesh und ein Draw-Call)
+ * aufgeteilt. Beim Bewegen der Kamera werden nur neu benötigte Kacheln im Hintergrund erzeugt
+ * und zu weit entfernte entladen.
+ *
+ * Wo die nahen Chunks liegen, lässt jede Kachel ein Loch im Index-Buffer. Das Loch endet einen
+ * Chunk vor dem Rand des Sichtfensters; im überlappenden Streifen liegt das ferne Terrain um
+ * SINK_DEPTH tiefer und wird von den nahen Chunks verdeckt, auch solange diese noch laden.
+ */
+public class FarTerrainLayer extends Layer {
+
+    private static final int CELL_SIZE = 16;           // Welteinheiten pro Höhen-Sample
+    private static final int TILE_CELLS = 128;         // Zellen pro Kachel-Kante (2048 Einheiten, 129² Vertices)
+    private static final int FAR_DISTANCE = 2560;      // Reichweite ab Kamera in Welteinheiten
+    private static final int UNLOAD_MARGIN = 512;      // Kacheln erst jenseits FAR_DISTANCE + Rand entladen
+    private static final float SINK_DEPTH = 4f;        // Fernes Terrain liegt unter dem nahen
+    private static final float FRUSTUM_FAR = 4000f;    // Sichtweite der Kamera (Diagonale des Bereichs)
+    private static final int COLOR_SAMPLE_STEP = 4;    // Pixel-Abstand beim Mitteln der Textur-Farben
+
+    private static class FarTile {
+        final int tileX;
+        final int tileZ;
+        final Geometry geometry;
+        final ShortBuffer indices;
+
+        FarTile(int tileX, int tileZ, Geometry geometry, ShortBuffer indices) {
+            this.tileX = tileX;
+            this.tileZ = tileZ;
+            this.geometry = geometry;
+            this.indices = indices;
+        }
+    }
+
+    private final TileProvider tileProvider;
+    private final NativeMemoryTracker memoryTracker;
+    private final int chunkWorldSize;
+    private int viewDistance;
+    private float maxHoleDistance = Float.MAX_VALUE;
+    private final Node farNode;
+    private final Material material;
+    private final Map<String, float[]> materialColors;
+
+    // Nur Render-Thread
+    private final Map<Long, FarTile> tiles = new HashMap<>();
+    private final Set<Long> requested = new HashSet<>();
+    // Vom Hintergrund-Thread fertig gesampelte Kacheln
+    private final Queue<FarTerrainMesher.TileData> finished = new ConcurrentLinkedQueue<>();
+    private final ExecutorService executor;
+
+    private int centerChunkX = Integer.MAX_VALUE;
+    private int centerChunkZ = Integer.MAX_VALUE;
+    // Loch der nahen Chunks in Zell-Koordinaten
+    private int holeMinX, holeMinZ, holeMaxX, holeMaxZ;
+
+    /**
+     * @param chunkWorldSize Welteinheiten pro nahem Chunk (Vielfaches von CELL_SIZE)
+     * @param viewDistance Sichtweite der nahen Chunks (quadratisches Fenster)
+     */
+    public FarTerrainLayer(AssetManager assetManager, Node rootNode, Camera cam, TileProvider tileProvider,
+                           NativeMemoryTracker memoryTracker, int chunkWorldSize, int viewDistance) {
+        super("FarTerrainLayer", assetManager, rootNode, cam);
+        this.tileProvider = tileProvider;
+        this.memoryTracker = memoryTracker;
+        this.chunkWorldSize = chunkWorldSize;
+        this.viewDistance = viewDistance;
+        this.materialColors = createMaterialColors();
+        this.material = createMaterial();
+
+        this.farNode = new Node("FarTerrainNode");
+        rootNode.attachChild(farNode);
+
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "FarTerrain-Thread");
+            t.setDaemon(true);
+            return t;
+        });
+
+        // Standard-Frustum (1000) endet vor dem fernen Terrain
+        cam.setFrustumFar(FRUSTUM_FAR);
+
+        System.out.println("FarTerrainLayer initialisiert - Sample alle " + CELL_SIZE + " Einheiten, Kacheln "
+                + (TILE_CELLS * CELL_SIZE) + " Einheiten, Reichweite " + FAR_DISTANCE);
+    }
+
+    /**
+     * Mittlere Farbe der Material-Texturen: das ferne Terrain passt farblich zu den nahen Chunks
+     */
+    private Map<String, float[]> createMaterialColors() {
+        Map<String, float[]> colors = new HashMap<>();
+        for (TerrainMaterial terrainMaterial : tileProvider.getMaterials().values()) {
+            try {
+                Image image = assetManager.loadTexture(terrainMaterial.getTexturePath()).getImage();
+                ImageRaster raster = ImageRaster.create(image);
+                ColorRGBA pixel = new ColorRGBA();
+                float r = 0, g = 0, b = 0;
+                int count = 0;
+                for (int y = 0; y < image.getHeight(); y += COLOR_SAMPLE_STEP) {
+                    for (int x = 0; x < image.getWidth(); x += COLOR_SAMPLE_STEP) {
+                        raster.getPixel(x, y, pixel);
+                        r += pixel.r;
+                        g += pixel.g;
+                        b += pixel.b;
+                        count++;
+                    }
+                }
+                colors.put(terrainMaterial.getKey(), new float[]{r / count, g / count, b / count});
+            } catch (Exception e) {
+                System.err.println("FarTerrainLayer: Keine Farbe für Material " + terrainMaterial.getKey() + ": " + e.getMessage());
+            }
+        }
+        return colors;
+    }
+
+    private Material createMaterial() {
+        // Beleuchtet wie die nahen Chunks, Farbe pro Vertex aus dem Material des Samples
+        Material mat = new Material(assetManager, "Common/MatDefs/Light/Lighting.j3md");
+        mat.setBoolean("UseVertexColor", true);
+        return mat;
+    }
+
+    @Override
+    public void update(float tpf) {
+        // Fertige Kacheln übernehmen
+        FarTerrainMesher.TileData data;
+        while ((data = finished.poll()) != null) {
+            long key = ChunkRegistry.key(data.getTileX(), data.getTileZ());
+            if (requested.remove(key) && isInRange(data.getTileX(), data.getTileZ(), FAR_DISTANCE + UNLOAD_MARGIN)) {
+                attachTile(key, data);
+            }
+        }
+
+        Vector3f camPos = cam.getLocation();
+        int chunkX = (int) Math.floor(camPos.x / chunkWorldSize);
+        int chunkZ = (int) Math.floor(camPos.z / chunkWorldSize);
+        if (chunkX == centerChunkX && chunkZ == centerChunkZ) {
+            return;
+        }
+        centerChunkX = chunkX;
+        centerChunkZ = chunkZ;
+
+        int[] hole = computeHole(chunkX, chunkZ, viewDistance, chunkWorldSize, maxHoleDistance);
+        holeMinX = hole[0];
+        holeMinZ = hole[1];
+        holeMaxX = hole[2];
+        holeMaxZ = hole[3];
+
+        unloadDistantTiles();
+        for (FarTile tile : tiles.values()) {
+            rebuildIndices(tile);
+        }
+        requestMissingTiles();
+    }
+
+    /**
+     * Loch: Sichtfenster der nahen Chunks minus ein Chunk Überlappung, höchstens maxHoleDistance
+     * von jeder Kamera-Position im Chunk entfernt
+     * @return {minX, minZ, maxX, maxZ} in Zell-Koordinaten (max exklusiv)
+     */
+    static int[] computeHole(int chunkX, int chunkZ, int viewDistance, int chunkWorldSize, float maxHoleDistance) {
+        int cellsPerChunk = chunkWorldSize / CELL_SIZE;
+        int minX = (chunkX - viewDistance + 1) * cellsPerChunk;
+        int minZ = (chunkZ - viewDistance + 1) * cellsPerChunk;
+        int maxX = (chunkX + viewDistance) * cellsPerChunk;
+        int maxZ = (chunkZ + viewDistance) * cellsPerChunk;
+        if (maxHoleDistance < Float.MAX_VALUE) {
+            // Das Loch wird nur beim Chunk-Wechsel neu berechnet: gegen den ungünstigsten Kamera-Punkt begrenzen
+            minX = Math.max(minX, (int) Math.ceil(((chunkX + 1) * chunkWorldSize - maxHoleDistance) / CELL_SIZE));
+            minZ = Math.max(minZ, (int) Math.ceil(((chunkZ + 1) * chunkWorldSize - maxHoleDistance) / CELL_SIZE));
+            maxX = Math.min(maxX, (int) Math.floor((chunkX * chunkWorldSize + maxHoleDistance) / CELL_SIZE));
+            maxZ = Math.min(maxZ, (int) Math.floor((chunkZ * chunkWorldSize + maxHoleDistance) / CELL_SIZE));
+        }
+        return new int[]{minX, minZ, maxX, maxZ};
+    }
+
+    private void attachTile(long key, FarTerrainMesher.TileData data) {
+        Mesh mesh = FarTerrainMesher.createMesh(data, TILE_CELLS);
+        Geometry geometry = new Geometry("FarTile_" + data.getTileX() + "_" + data.getTileZ(), mesh);
+        geometry.setMaterial(material);
+        geometry.setQueueBucket(RenderQueue.Bucket.Opaque);
+        geometry.setLocalTranslation(data.getTileX() * TILE_CELLS * CELL_SIZE, 0, data.getTileZ() * TILE_CELLS * CELL_SIZE);
+
+        FarTile tile = new FarTile(data.getTileX(), data.getTileZ(), geometry, (ShortBuffer) mesh.getBuffer(VertexBuffer.Type.Index).getData());
+        rebuildIndices(tile);
+        farNode.attachChild(geometry);
+        memoryTracker.retain(NativeMemoryTracker.Category.TERRAIN, mesh, true);
+        tiles.put(key, tile);
+
+        System.out.println(String.format("FarTerrainLayer: Kachel %d,%d in %.1f ms gesampelt, %d Kacheln aktiv",
+                data.getTileX(), data.getTileZ(), data.buildNanos / 1_000_000f, tiles.size()));
+    }
+
+    private void rebuildIndices(FarTile tile) {
+        Geometry geometry = tile.geometry;
+        int triangles = FarTerrainMesher.buildIndices(tile.tileX, tile.tileZ, TILE_CELLS,
+                holeMinX, holeMinZ, holeMaxX, holeMaxZ, tile.indices);
+        FarTerrainMesher.updateIndices(geometry.getMesh(), tile.indices);
+        geometry.setCullHint(triangles > 0 ? Spatial.CullHint.Inherit : Spatial.CullHint.Always);
+    }
+
+    private void unloadDistantTiles() {
+        List<Long> distant = new ArrayList<>();
+        for (Map.Entry<Long, FarTile> entry : tiles.entrySet()) {
+            if (!isInRange(entry.getValue().tileX, entry.getValue().tileZ, FAR_DISTANCE + UNLOAD_MARGIN)) {
+                distant.add(entry.getKey());
+            }
+        }
+        for (long key : distant) {
+            FarTile tile = tiles.remove(key);
+            tile.geometry.removeFromParent();
+            memoryTracker.release(tile.geometry.getMesh());
+        }
+        // Noch laufende, inzwischen zu ferne Anfragen werden bei der Übernahme verworfen
+    }
+
+    /**
+     * Fordert alle fehlenden Kacheln in Reichweite an, die nächsten zuerst
+     */
+    private void requestMissingTiles() {
+        int tileWorldSize = TILE_CELLS * CELL_SIZE;
+        float centerX = (centerChunkX + 0.5f) * chunkWorldSize;
+        float centerZ = (centerChunkZ + 0.5f) * chunkWorldSize;
+        int minTileX = Math.floorDiv((int) centerX - FAR_DISTANCE, tileWorldSize);
+        int maxTileX = Math.floorDiv((int) centerX + FAR_DISTANCE, tileWorldSize);
+        int minTileZ = Math.floorDiv((int) centerZ - FAR_DISTANCE, tileWorldSize);
+        int maxTileZ = Math.floorDiv((int) centerZ + FAR_DISTANCE, tileWorldSize);
+
+        List<int[]> missing = new ArrayList<>();
+        for (int tileZ = minTileZ; tileZ <= maxTileZ; tileZ++) {
+            for (int tileX = minTileX; tileX <= maxTileX; tileX++) {
+                long key = ChunkRegistry.key(tileX, tileZ);
+                if (!tiles.containsKey(key) && !requested.contains(key)) {
+                    missing.add(new int[]{tileX, tileZ});
+                }
+            }
+        }
+        missing.sort((a, b) -> Float.compare(tileDistance(a[0], a[1], centerX, centerZ), tileDistance(b[0], b[1], centerX, centerZ)));
+
+        for (int[] tile : missing) {
+            requested.add(ChunkRegistry.key(tile[0], tile[1]));
+            executor.submit(() -> {
+                try {
+                    finished.add(FarTerrainMesher.sampleTile(tileProvider, materialColors,
+                            tile[0], tile[1], TILE_CELLS, CELL_SIZE, SINK_DEPTH));
+                } catch (Exception e) {
+                    System.err.println("FEHLER beim Sampeln der Fern-Kachel " + tile[0] + "," + tile[1] + ": " + e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * true wenn die Kachel das Quadrat mit Radius distance um das Kamera-Chunk-Zentrum schneidet
+     */
+    private boolean isInRange(int tileX, int tileZ, int distance) {
+        int tileWorldSize = TILE_CELLS * CELL_SIZE;
+        float centerX = (centerChunkX + 0.5f) * chunkWorldSize;
+        float centerZ = (centerChunkZ + 0.5f) * chunkWorldSize;
+        return tileX * tileWorldSize < centerX + distance && (tileX + 1) * tileWorldSize > centerX - distance
+                && tileZ * tileWorldSize < centerZ + distance && (tileZ + 1) * tileWorldSize > centerZ - distance;
+    }
+
+    private float tileDistance(int tileX, int tileZ, float x, float z) {
+        float half = TILE_CELLS * CELL_SIZE * 0.5f;
+        float dx = tileX * TILE_CELLS * CELL_SIZE + half - x;
+        float dz = tileZ * TILE_CELLS * CELL_SIZE + half - z;
+        return dx * dx + dz * dz;
+    }
+
+    /**
+     * Reichweite des fernen Terrains ab Kamera in Welteinheiten
+     */
+    public float getFarDistance() {
+        return FAR_DISTANCE;
+    }
+
+    /**
+     * Passt das Loch an eine geänderte Sichtweite der nahen Chunks an (wirkt im nächsten update)
+     */
+    public void setViewDistance(int viewDistance) {
+        if (this.viewDistance == viewDistance) {
+            return;
+        }
+        this.viewDistance = viewDistance;
+        centerChunkX = Integer.MAX_VALUE;
+        centerChunkZ = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Begrenzt das Loch auf die Reichweite eines anderen Nah-Renderers (Clipmap), damit kein Ring ohne Terrain bleibt
+     */
+    public void setMaxHoleDistance(float maxHoleDistance) {
+        this.maxHoleDistance = maxHoleDistance;
+        centerChunkX = Integer.MAX_VALUE;
+        centerChunkZ = Integer.MAX_VALUE;
+    }
+
+    @Override
+    public void cleanup() {
+        executor.shutdownNow();
+        for (FarTile tile : tiles.values()) {
+            memoryTracker.release(tile.geometry.getMesh());
+        }
+        tiles.clear();
+        if (farNode.getParent() != null) {
+            farNode.removeFromParent();
+        }
+    }
+}
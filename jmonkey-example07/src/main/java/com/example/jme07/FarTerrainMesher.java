@@ -0,0 +1,175 @@
+package com.example.jme07;
+
+import com.jme3.scene.Mesh;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.util.BufferUtils;
+
+import java.nio.ShortBuffer;
+import java.util.Map;
+
+/**
+ * FarTerrainMesher - Grobe Terrain-Kacheln für den Bereich jenseits der Sichtweite
+ *
+ * Eine Kachel umfasst tileCells x tileCells Zellen mit je einem Höhen-Sample pro cellSize
+ * Welteinheiten, direkt aus dem TileProvider (gleiche Daten wie die nahen Chunks).
+ * Die Vertex-Daten entstehen im Hintergrund; die Indizes werden im Render-Thread geschrieben,
+ * damit das Loch für die nahen Chunks beim Chunk-Wechsel nur die Indizes ändert.
+ *
+ * Zell-Koordinaten sind Weltkoordinaten / cellSize; Kachel (tileX, tileZ) beginnt bei
+ * Zelle (tileX * tileCells, tileZ * tileCells).
+ */
+public final class FarTerrainMesher {
+
+    private static final float[] WATER_COLOR = {0.25f, 0.42f, 0.7f};
+    private static final float[] DEFAULT_COLOR = {0.45f, 0.45f, 0.4f};
+
+    /**
+     * Vertex-Daten einer Kachel ((tileCells + 1)² Vertices, relativ zum Kachel-Ursprung)
+     */
+    public static class TileData {
+        final int tileX;
+        final int tileZ;
+        final float[] positions;
+        final float[] normals;
+        final float[] colors;
+        final long buildNanos;
+
+        TileData(int tileX, int tileZ, float[] positions, float[] normals, float[] colors, long buildNanos) {
+            this.tileX = tileX;
+            this.tileZ = tileZ;
+            this.positions = positions;
+            this.normals = normals;
+            this.colors = colors;
+            this.buildNanos = buildNanos;
+        }
+
+        public int getTileX() {
+            return tileX;
+        }
+
+        public int getTileZ() {
+            return tileZ;
+        }
+
+        public float[] getPositions() {
+            return positions;
+        }
+    }
+
+    private FarTerrainMesher() {
+    }
+
+    /**
+     * Sampelt eine Kachel aus dem TileProvider (Hintergrund-Thread)
+     * @param materialColors RGB-Farbe pro Material-Key (fehlende Keys -> Grau)
+     * @param sinkDepth so weit liegt das ferne Terrain unter dem echten (die nahen Chunks überdecken es)
+     */
+    public static TileData sampleTile(TileProvider provider, Map<String, float[]> materialColors,
+                                      int tileX, int tileZ, int tileCells, int cellSize, float sinkDepth) {
+        long start = System.nanoTime();
+        int vertices = tileCells + 1;
+        // Ein Sample Rand für die Normalen
+        int samples = vertices + 2;
+        int firstCellX = tileX * tileCells - 1;
+        int firstCellZ = tileZ * tileCells - 1;
+
+        float[] heights = new float[samples * samples];
+        float[] colors = new float[vertices * vertices * 4];
+        for (int z = 0; z < samples; z++) {
+            for (int x = 0; x < samples; x++) {
+                TerrainTile tile = provider.getTileAt((firstCellX + x) * cellSize, (firstCellZ + z) * cellSize);
+                float height = tile.getHeight();
+                float[] color = materialColors.getOrDefault(tile.getMaterialKey(), DEFAULT_COLOR);
+                if (tile.hasWater()) {
+                    height = Math.max(height, tile.getWater().getWaterHeight());
+                    color = WATER_COLOR;
+                }
+                heights[z * samples + x] = height - sinkDepth;
+
+                // Farben nur für die eigentlichen Vertices (ohne Rand)
+                if (x > 0 && z > 0 && x <= vertices && z <= vertices) {
+                    int c = ((z - 1) * vertices + (x - 1)) * 4;
+                    colors[c] = color[0];
+                    colors[c + 1] = color[1];
+                    colors[c + 2] = color[2];
+                    colors[c + 3] = 1f;
+                }
+            }
+        }
+
+        float[] positions = new float[vertices * vertices * 3];
+        float[] normals = new float[vertices * vertices * 3];
+        for (int z = 0; z < vertices; z++) {
+            for (int x = 0; x < vertices; x++) {
+                int s = (z + 1) * samples + (x + 1);
+                int v = (z * vertices + x) * 3;
+                positions[v] = x * cellSize;
+                positions[v + 1] = heights[s];
+                positions[v + 2] = z * cellSize;
+
+                // Zentrale Differenzen: n = (hLinks - hRechts, 2 * cellSize, hVorne - hHinten)
+                float nx = heights[s - 1] - heights[s + 1];
+                float ny = 2f * cellSize;
+                float nz = heights[s - samples] - heights[s + samples];
+                float length = (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+                normals[v] = nx / length;
+                normals[v + 1] = ny / length;
+                normals[v + 2] = nz / length;
+            }
+        }
+        return new TileData(tileX, tileZ, positions, normals, colors, System.nanoTime() - start);
+    }
+
+    /**
+     * Erzeugt das Mesh einer Kachel mit einem Index-Buffer für alle Zellen (Render-Thread).
+     * Die Indizes werden danach über buildIndices() und updateIndices() gesetzt.
+     */
+    public static Mesh createMesh(TileData data, int tileCells) {
+        Mesh mesh = new Mesh();
+        mesh.setBuffer(VertexBuffer.Type.Position, 3, BufferUtils.createFloatBuffer(data.positions));
+        mesh.setBuffer(VertexBuffer.Type.Normal, 3, BufferUtils.createFloatBuffer(data.normals));
+        mesh.setBuffer(VertexBuffer.Type.Color, 4, BufferUtils.createFloatBuffer(data.colors));
+        mesh.setBuffer(VertexBuffer.Type.Index, 3, BufferUtils.createShortBuffer(tileCells * tileCells * 6));
+        mesh.updateBound();
+        mesh.setStatic();
+        return mesh;
+    }
+
+    /**
+     * Schreibt die Dreiecke aller Zellen der Kachel außerhalb des Lochs
+     * [holeMinX, holeMaxX) x [holeMinZ, holeMaxZ) (Zell-Koordinaten) in den Buffer (ab Position 0, danach geflippt)
+     * @return Anzahl der geschriebenen Dreiecke
+     */
+    public static int buildIndices(int tileX, int tileZ, int tileCells,
+                                   int holeMinX, int holeMinZ, int holeMaxX, int holeMaxZ, ShortBuffer target) {
+        int firstCellX = tileX * tileCells;
+        int firstCellZ = tileZ * tileCells;
+        int vertices = tileCells + 1;
+        int triangles = 0;
+
+        target.clear();
+        for (int z = 0; z < tileCells; z++) {
+            boolean rowInHole = firstCellZ + z >= holeMinZ && firstCellZ + z < holeMaxZ;
+            for (int x = 0; x < tileCells; x++) {
+                if (rowInHole && firstCellX + x >= holeMinX && firstCellX + x < holeMaxX) {
+                    continue;
+                }
+                int topLeft = z * vertices + x;
+                int bottomLeft = topLeft + vertices;
+                target.put((short) topLeft).put((short) bottomLeft).put((short) (topLeft + 1));
+                target.put((short) (topLeft + 1)).put((short) bottomLeft).put((short) (bottomLeft + 1));
+                triangles += 2;
+            }
+        }
+        target.flip();
+        return triangles;
+    }
+
+    /**
+     * Übernimmt die neu geschriebenen Indizes (gleicher Buffer, nur geänderte Länge)
+     */
+    public static void updateIndices(Mesh mesh, ShortBuffer indices) {
+        mesh.getBuffer(VertexBuffer.Type.Index).updateData(indices);
+        mesh.updateCounts();
+    }
+}
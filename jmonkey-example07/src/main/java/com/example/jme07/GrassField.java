@@ -0,0 +1,333 @@
+package com.example.jme07;
+
+import com.jme3.asset.AssetManager;
+import com.jme3.bounding.BoundingBox;
+import com.jme3.material.Material;
+import com.jme3.math.ColorRGBA;
+import com.jme3.math.Vector2f;
+import com.jme3.math.Vector3f;
+import com.jme3.renderer.queue.RenderQueue;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.Node;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.texture.Image;
+import com.jme3.texture.Texture;
+import com.jme3.texture.Texture2D;
+import com.jme3.util.BufferUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+/**
+ * GrassField - Dichtes Gras um die Kamera als ein instanzierter Draw-Call
+ *
+ * Ein statisches Gitter aus GRID_CELLS x GRID_CELLS Halmen (je eine Instanz eines kleinen
+ * Halm-Meshes) wandert mit der Kamera. Position, Drehung, Größe und ob ein Halm überhaupt
+ * wächst, berechnet der Vertex-Shader aus einem Hash der Welt-Zelle - Halme bleiben beim
+ * Verschieben des Gitters also an ihrem Platz. Dazu kommen Distanz-Fade und Wind.
+ *
+ * Höhe und Gras-Dichte liest der Shader aus zwei toroidal adressierten Texturen
+ * (FIELD_SIZE x FIELD_SIZE Samples, wie Ebene 0 im ClipmapTerrainRenderer). Pro Chunk gibt es
+ * nur die Dichte-Karte aus dem Loader-Thread (ein Byte pro Sample), keine Objekte pro Halm.
+ *
+ * Nur Render-Thread.
+ */
+public class GrassField {
+
+    private static final float BLADE_SPACING = 0.5f;   // Abstand der Gitter-Zellen (ein Halm pro Zelle)
+    private static final int GRID_CELLS = 320;         // Zellen pro Kante (160 Einheiten, Reichweite 80)
+    private static final int FIELD_SIZE = 256;         // Toroidale Textur in Samples (> Gitter + Rand)
+    private static final int WINDOW_SNAP = 16;         // Textur-Fenster wandert in Schritten von 16 Samples
+    private static final float FADE_START = 50f;       // Ab hier werden Halme kleiner
+    private static final float FADE_END = 78f;         // Ab hier kein Gras mehr (innerhalb der Gitter-Reichweite)
+    private static final float BLADE_HEIGHT = 0.9f;
+    private static final float BLADE_WIDTH = 0.14f;
+    private static final float WIND_STRENGTH = 0.2f;
+    private static final float WIND_SPEED = 1.7f;
+    private static final float BOUND_MIN_HEIGHT = -50f;  // Höhenbereich für das Frustum-Culling
+    private static final float BOUND_MAX_HEIGHT = 200f;
+
+    private static final float MIN_DENSITY = 0.3f;     // Dichte auf trockenem Gras
+    private static final float WETNESS_DENSITY = 0.7f; // Zusätzliche Dichte bei voller Feuchtigkeit
+    private static final float SPARSE_FACTOR = 0.25f;  // Anteil auf anderem Boden (Sand, Fels)
+
+    private final ClipmapTerrainRenderer.ChunkSource chunkSource;
+    private final int chunkSize;
+    private final int chunkWorldSize;
+    private final float defaultHeight;
+
+    private final Geometry geometry;
+    private final Material material;
+    private final Image heightImage;
+    private final Image densityImage;
+    private final ByteBuffer heights;
+    private final ByteBuffer densities;
+    private final Vector2f gridOrigin = new Vector2f();
+
+    // Sample-Koordinate der Textur-Fenster-Ecke
+    private int windowX;
+    private int windowZ;
+    private boolean placed = false;
+    private boolean dirty = false;
+
+    // Statistik
+    private long writtenSamples = 0;
+
+    /**
+     * Dichte pro Sample (0-255): voll auf Gras, spärlich auf anderem Boden, nichts auf Straßen
+     * oder im Wasser; feuchter = dichter. Läuft im Loader-Thread.
+     */
+    public static byte[] buildDensity(TerrainTile[] tiles) {
+        byte[] density = new byte[tiles.length];
+        for (int i = 0; i < tiles.length; i++) {
+            TerrainTile tile = tiles[i];
+            String materialKey = tile.getMaterialKey();
+            if (tile.hasWater() || materialKey.startsWith("road")) {
+                continue;
+            }
+            float wetness = Math.max(0f, Math.min(1f, tile.getWetness()));
+            float value = MIN_DENSITY + WETNESS_DENSITY * wetness;
+            if (!materialKey.equals("grass")) {
+                value *= SPARSE_FACTOR;
+            }
+            density[i] = (byte) Math.round(value * 255f);
+        }
+        return density;
+    }
+
+    /**
+     * @param chunkSize Samples pro Chunk-Kante (z.B. 65)
+     * @param defaultHeight Höhe für Samples, deren Chunk noch nicht geladen ist (dort wächst kein Gras)
+     */
+    public GrassField(AssetManager assetManager, Node parentNode, ClipmapTerrainRenderer.ChunkSource chunkSource,
+                      int chunkSize, float defaultHeight) {
+        this.chunkSource = chunkSource;
+        this.chunkSize = chunkSize;
+        this.chunkWorldSize = chunkSize - 1;
+        this.defaultHeight = defaultHeight;
+
+        heightImage = new Image(Image.Format.R32F, FIELD_SIZE, FIELD_SIZE,
+                BufferUtils.createByteBuffer(FIELD_SIZE * FIELD_SIZE * 4), com.jme3.texture.image.ColorSpace.Linear);
+        densityImage = new Image(Image.Format.R8UI, FIELD_SIZE, FIELD_SIZE,
+                BufferUtils.createByteBuffer(FIELD_SIZE * FIELD_SIZE), com.jme3.texture.image.ColorSpace.Linear);
+        heights = heightImage.getData(0);
+        densities = densityImage.getData(0);
+
+        material = new Material(assetManager, "MatDefs/GrassField.j3md");
+        material.setTexture("HeightMap", createSampleTexture(heightImage));
+        material.setTexture("DensityMap", createSampleTexture(densityImage));
+        material.setFloat("Spacing", BLADE_SPACING);
+        material.setFloat("BladeHeight", BLADE_HEIGHT);
+        material.setFloat("BladeWidth", BLADE_WIDTH);
+        material.setFloat("FadeStart", FADE_START);
+        material.setFloat("FadeEnd", FADE_END);
+        material.setFloat("WindStrength", WIND_STRENGTH);
+        material.setFloat("WindSpeed", WIND_SPEED);
+        material.setColor("BaseColor", new ColorRGBA(0.18f, 0.32f, 0.08f, 1f));
+        material.setColor("TipColor", new ColorRGBA(0.55f, 0.7f, 0.25f, 1f));
+        material.setVector2("GridOrigin", gridOrigin);
+
+        geometry = new Geometry("GrassField", createBladeMesh());
+        geometry.setMaterial(material);
+        geometry.setQueueBucket(RenderQueue.Bucket.Opaque);
+        parentNode.attachChild(geometry);
+
+        System.out.println("GrassField initialisiert - " + (GRID_CELLS * GRID_CELLS) + " Halme, Reichweite " + FADE_END);
+    }
+
+    private Texture2D createSampleTexture(Image image) {
+        // Der Shader liest mit texelFetch: kein Filter, keine Mipmaps
+        Texture2D texture = new Texture2D(image);
+        texture.setMinFilter(Texture.MinFilter.NearestNoMipMaps);
+        texture.setMagFilter(Texture.MagFilter.Nearest);
+        texture.setWrap(Texture.WrapMode.Repeat);
+        return texture;
+    }
+
+    /**
+     * Halm (5 Vertices, 3 Dreiecke, x -0.5..0.5, y 0..1) plus eine Instanz pro Gitter-Zelle
+     */
+    private static Mesh createBladeMesh() {
+        Mesh mesh = new Mesh();
+        mesh.setBuffer(VertexBuffer.Type.Position, 3, new float[]{
+                -0.5f, 0f, 0f,
+                0.5f, 0f, 0f,
+                -0.3f, 0.5f, 0f,
+                0.3f, 0.5f, 0f,
+                0f, 1f, 0f});
+        mesh.setBuffer(VertexBuffer.Type.Index, 3, new short[]{0, 1, 2, 2, 1, 3, 2, 3, 4});
+
+        // Pro Instanz nur die Zelle im Gitter, alles Weitere im Shader
+        FloatBuffer cells = BufferUtils.createFloatBuffer(GRID_CELLS * GRID_CELLS * 2);
+        for (int z = 0; z < GRID_CELLS; z++) {
+            for (int x = 0; x < GRID_CELLS; x++) {
+                cells.put(x).put(z);
+            }
+        }
+        cells.flip();
+        VertexBuffer cellBuffer = new VertexBuffer(VertexBuffer.Type.TexCoord2);
+        cellBuffer.setInstanceSpan(1);
+        cellBuffer.setupData(VertexBuffer.Usage.Static, 2, VertexBuffer.Format.Float, cells);
+        mesh.setBuffer(cellBuffer);
+
+        // Halme entstehen erst im Shader: Bounding-Box über Gitter und Höhenbereich (Geometry sitzt an der Gitter-Ecke)
+        float extent = GRID_CELLS * BLADE_SPACING;
+        mesh.setBound(new BoundingBox(new Vector3f(0, BOUND_MIN_HEIGHT, 0), new Vector3f(extent, BOUND_MAX_HEIGHT, extent)));
+        mesh.setStatic();
+        return mesh;
+    }
+
+    /**
+     * Verschiebt Gitter und Textur-Fenster mit der Kamera und lädt geänderte Texturen hoch
+     */
+    public void update(Vector3f camPos) {
+        // Gitter auf ganze Zellen: Halme hängen an Welt-Zellen und springen nicht
+        int cellX = (int) Math.floor(camPos.x / BLADE_SPACING) - GRID_CELLS / 2;
+        int cellZ = (int) Math.floor(camPos.z / BLADE_SPACING) - GRID_CELLS / 2;
+        if (cellX != gridOrigin.x || cellZ != gridOrigin.y) {
+            gridOrigin.set(cellX, cellZ);
+            material.setVector2("GridOrigin", gridOrigin);
+            geometry.setLocalTranslation(cellX * BLADE_SPACING, 0, cellZ * BLADE_SPACING);
+        }
+
+        int camX = (int) Math.floor(camPos.x);
+        int camZ = (int) Math.floor(camPos.z);
+        int newWindowX = Math.floorDiv(camX, WINDOW_SNAP) * WINDOW_SNAP - FIELD_SIZE / 2;
+        int newWindowZ = Math.floorDiv(camZ, WINDOW_SNAP) * WINDOW_SNAP - FIELD_SIZE / 2;
+        if (!placed || newWindowX != windowX || newWindowZ != windowZ) {
+            moveWindow(newWindowX, newWindowZ);
+        }
+
+        if (dirty) {
+            heightImage.setUpdateNeeded();
+            densityImage.setUpdateNeeded();
+            dirty = false;
+        }
+    }
+
+    private void moveWindow(int newWindowX, int newWindowZ) {
+        int oldX = windowX;
+        int oldZ = windowZ;
+        boolean wasPlaced = placed;
+        windowX = newWindowX;
+        windowZ = newWindowZ;
+        placed = true;
+
+        if (!wasPlaced || Math.abs(newWindowX - oldX) >= FIELD_SIZE || Math.abs(newWindowZ - oldZ) >= FIELD_SIZE) {
+            fillSamples(newWindowX, newWindowZ, newWindowX + FIELD_SIZE, newWindowZ + FIELD_SIZE);
+            return;
+        }
+        // Nur die neu hinzugekommenen Spalten und Zeilen
+        if (newWindowX > oldX) {
+            fillSamples(oldX + FIELD_SIZE, newWindowZ, newWindowX + FIELD_SIZE, newWindowZ + FIELD_SIZE);
+        } else if (newWindowX < oldX) {
+            fillSamples(newWindowX, newWindowZ, oldX, newWindowZ + FIELD_SIZE);
+        }
+        if (newWindowZ > oldZ) {
+            fillSamples(newWindowX, oldZ + FIELD_SIZE, newWindowX + FIELD_SIZE, newWindowZ + FIELD_SIZE);
+        } else if (newWindowZ < oldZ) {
+            fillSamples(newWindowX, newWindowZ, newWindowX + FIELD_SIZE, oldZ);
+        }
+    }
+
+    /**
+     * Übernimmt Höhen und Dichte eines neu geladenen Chunks, falls er im Textur-Fenster liegt
+     */
+    public void addChunk(ChunkRecord record) {
+        if (!placed) {
+            return;
+        }
+        int minX = record.getChunkX() * chunkWorldSize;
+        int minZ = record.getChunkZ() * chunkWorldSize;
+        // Nur eigene Samples: die letzte Zeile/Spalte gehört schon zum Nachbar-Chunk
+        int fromX = Math.max(windowX, minX);
+        int fromZ = Math.max(windowZ, minZ);
+        int toX = Math.min(windowX + FIELD_SIZE, minX + chunkWorldSize);
+        int toZ = Math.min(windowZ + FIELD_SIZE, minZ + chunkWorldSize);
+        if (fromX < toX && fromZ < toZ) {
+            fillSamples(fromX, fromZ, toX, toZ);
+        }
+    }
+
+    /**
+     * Schreibt die Samples [fromX, toX) x [fromZ, toZ) (Welt-Koordinaten) aus den geladenen Chunks
+     */
+    private void fillSamples(int fromX, int fromZ, int toX, int toZ) {
+        ChunkRecord record = null;
+        int recordX = Integer.MIN_VALUE;
+        int recordZ = Integer.MIN_VALUE;
+
+        for (int worldZ = fromZ; worldZ < toZ; worldZ++) {
+            int chunkZ = Math.floorDiv(worldZ, chunkWorldSize);
+            int localZ = worldZ - chunkZ * chunkWorldSize;
+            int row = Math.floorMod(worldZ, FIELD_SIZE) * FIELD_SIZE;
+
+            for (int worldX = fromX; worldX < toX; worldX++) {
+                int chunkX = Math.floorDiv(worldX, chunkWorldSize);
+                int localX = worldX - chunkX * chunkWorldSize;
+                if (chunkX != recordX || chunkZ != recordZ) {
+                    record = chunkSource.getChunk(chunkX, chunkZ);
+                    recordX = chunkX;
+                    recordZ = chunkZ;
+                }
+
+                float height = defaultHeight;
+                byte density = 0;
+                if (record != null && record.getGrassDensity() != null) {
+                    int index = localZ * chunkSize + localX;
+                    height = record.getHeightData()[index];
+                    density = record.getGrassDensity()[index];
+                }
+                int texel = row + Math.floorMod(worldX, FIELD_SIZE);
+                heights.putFloat(texel * 4, height);
+                densities.put(texel, density);
+            }
+        }
+        writtenSamples += (long) (toX - fromX) * (toZ - fromZ);
+        dirty = true;
+    }
+
+    /**
+     * Gespeicherte Dichte (0-255) für eine Welt-Position (für Tests)
+     */
+    public int getStoredDensity(int worldX, int worldZ) {
+        int texel = Math.floorMod(worldZ, FIELD_SIZE) * FIELD_SIZE + Math.floorMod(worldX, FIELD_SIZE);
+        return densities.get(texel) & 0xFF;
+    }
+
+    /**
+     * Gespeicherte Höhe für eine Welt-Position (für Tests)
+     */
+    public float getStoredHeight(int worldX, int worldZ) {
+        int texel = Math.floorMod(worldZ, FIELD_SIZE) * FIELD_SIZE + Math.floorMod(worldX, FIELD_SIZE);
+        return heights.getFloat(texel * 4);
+    }
+
+    /**
+     * Anzahl der Halm-Instanzen (unabhängig von der Dichte, ein Draw-Call)
+     */
+    public int getBladeCount() {
+        return GRID_CELLS * GRID_CELLS;
+    }
+
+    /**
+     * Summe aller bisher geschriebenen Samples (Maß für die CPU-Arbeit)
+     */
+    public long getWrittenSamples() {
+        return writtenSamples;
+    }
+
+    public Geometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Registriert Texturen und das Halm-Mesh beim NativeMemoryTracker
+     */
+    public void retainResources(NativeMemoryTracker memoryTracker) {
+        memoryTracker.retain(NativeMemoryTracker.Category.SPRITES, heightImage, true);
+        memoryTracker.retain(NativeMemoryTracker.Category.SPRITES, densityImage, true);
+        memoryTracker.retain(NativeMemoryTracker.Category.SPRITES, geometry.getMesh(), true);
+    }
+}
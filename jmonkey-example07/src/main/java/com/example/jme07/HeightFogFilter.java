@@ -0,0 +1,114 @@
+package com.example.jme07;
+
+import com.jme3.asset.AssetManager;
+import com.jme3.material.Material;
+import com.jme3.math.ColorRGBA;
+import com.jme3.math.Matrix4f;
+import com.jme3.post.Filter;
+import com.jme3.renderer.Camera;
+import com.jme3.renderer.RenderManager;
+import com.jme3.renderer.ViewPort;
+
+/**
+ * Atmosphärischer Nebel als ein Vollbild-Pass über den Tiefenpuffer
+ *
+ * Rekonstruiert pro Pixel die Weltposition und kombiniert zwei Anteile:
+ * - Distanz-Nebel (horizontal), der bei fogEnd vollständig deckt - so bleibt der Rand
+ *   der geladenen Chunks immer unsichtbar
+ * - Höhen-Nebel mit exponentieller Abnahme nach oben (Dunst in Tälern)
+ * Der Himmel wird nur knapp über dem Horizont eingefärbt.
+ */
+public class HeightFogFilter extends Filter {
+
+    private Material material;
+    private Camera cam;
+    private final Matrix4f viewProjectionInverse = new Matrix4f();
+
+    private ColorRGBA fogColor = new ColorRGBA(0.65f, 0.8f, 0.95f, 1.0f);
+    private float fogStart;
+    private float fogEnd;
+    private float fogDensity = 0.002f;
+    private float fogBaseHeight = 0f;
+    private float fogHeightFalloff = 0.03f;
+
+    /**
+     * @param fogStart Distanz, ab der der Distanz-Nebel beginnt
+     * @param fogEnd   Distanz, ab der alles vollständig im Nebel liegt (Sichtweite)
+     */
+    public HeightFogFilter(float fogStart, float fogEnd) {
+        super("HeightFogFilter");
+        this.fogStart = fogStart;
+        this.fogEnd = fogEnd;
+    }
+
+    @Override
+    protected boolean isRequiresDepthTexture() {
+        return true;
+    }
+
+    @Override
+    protected void initFilter(AssetManager manager, RenderManager renderManager, ViewPort vp, int w, int h) {
+        cam = vp.getCamera();
+        material = new Material(manager, "MatDefs/HeightFog.j3md");
+        material.setColor("FogColor", fogColor);
+        material.setFloat("FogStart", fogStart);
+        material.setFloat("FogEnd", fogEnd);
+        material.setFloat("FogDensity", fogDensity);
+        material.setFloat("FogBaseHeight", fogBaseHeight);
+        material.setFloat("FogHeightFalloff", fogHeightFalloff);
+    }
+
+    @Override
+    protected Material getMaterial() {
+        return material;
+    }
+
+    @Override
+    protected void preFrame(float tpf) {
+        // Kamera-Matrizen für die Rekonstruktion der Weltposition
+        viewProjectionInverse.set(cam.getViewProjectionMatrix()).invertLocal();
+        material.setMatrix4("ViewProjectionMatrixInverse", viewProjectionInverse);
+        material.setVector3("CameraPosition", cam.getLocation());
+    }
+
+    public void setFogColor(ColorRGBA color) {
+        fogColor = color.clone();
+        if (material != null) {
+            material.setColor("FogColor", fogColor);
+        }
+    }
+
+    public ColorRGBA getFogColor() {
+        return fogColor;
+    }
+
+    /**
+     * Setzt den Distanz-Nebel: beginnt bei start, deckt ab end vollständig
+     */
+    public void setFogDistance(float start, float end) {
+        fogStart = start;
+        fogEnd = end;
+        if (material != null) {
+            material.setFloat("FogStart", fogStart);
+            material.setFloat("FogEnd", fogEnd);
+        }
+    }
+
+    public float getFogEnd() {
+        return fogEnd;
+    }
+
+    /**
+     * Setzt den Höhen-Nebel: Dichte auf baseHeight, Abnahme pro Einheit nach oben
+     */
+    public void setHeightFog(float density, float baseHeight, float falloff) {
+        fogDensity = density;
+        fogBaseHeight = baseHeight;
+        fogHeightFalloff = falloff;
+        if (material != null) {
+            material.setFloat("FogDensity", fogDensity);
+            material.setFloat("FogBaseHeight", fogBaseHeight);
+            material.setFloat("FogHeightFalloff", fogHeightFalloff);
+        }
+    }
+}
@@ -0,0 +1,677 @@
+package com.example.jme07;
+
+import com.jme3.math.Vector3f;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HierarchicalPathfinder - Hierarchischer A* (HPA*) über das Speed-Multiplier Kostenfeld.
+ *
+ * Ebene 1 (abstrakt): Jeder 64x64 Chunk wird auf Portal-Knoten an seinen vier Kanten reduziert.
+ * Die Kosten zwischen den Portalen eines Chunks werden einmal per Dijkstra berechnet und pro
+ * Chunk gecacht. Die Suche läuft zuerst nur über diesen Portal-Graphen.
+ *
+ * Ebene 0 (lokal): Der gefundene Portal-Pfad wird anschließend Chunk für Chunk mit einem
+ * lokalen A* auf den Tiles verfeinert.
+ *
+ * Kosten: Ein Schritt zwischen zwei Tiles kostet den Mittelwert von 1 / speedMultiplier
+ * beider Tiles (Straße 0.67, Gras 1.11, Wasser 3.33), diagonal mal sqrt(2).
+ *
+ * Die Klasse ist thread-safe und wird vom PathfindingService auf Worker-Threads verwendet.
+ */
+public class HierarchicalPathfinder {
+
+    private static final int CELLS = 64;                    // Tiles pro Chunk-Kante (CHUNK_SIZE - 1)
+    private static final int CHUNK_SIZE = CELLS + 1;        // Samples pro Chunk-Kante vom TileProvider
+    private static final int CELL_COUNT = CELLS * CELLS;
+    private static final int PORTALS_PER_EDGE = 4;          // Ein Portal pro 16 Tiles Kantenlänge
+    private static final int PORTALS_PER_CHUNK = 4 * PORTALS_PER_EDGE;
+    private static final int SEGMENT_LENGTH = CELLS / PORTALS_PER_EDGE;
+
+    private static final float MAX_SPEED = 1.5f;            // Schnellster Untergrund (Straße)
+    private static final float MIN_STEP_COST = 1f / MAX_SPEED;
+    private static final float HEURISTIC_WEIGHT = 1.5f;     // Leicht gewichteter A* für weite Pfade
+    private static final int MAX_ABSTRACT_EXPANSIONS = 250_000;
+
+    private static final int MAX_CACHED_PORTALS = 4096;
+    private static final int MAX_CACHED_COST_FIELDS = 256;
+
+    private static final float SQRT2 = (float) Math.sqrt(2.0);
+
+    // Kanten-Reihenfolge der Portale: West (-X), Ost (+X), Nord (-Z), Süd (+Z)
+    private static final int SIDE_WEST = 0;
+    private static final int SIDE_EAST = 1;
+    private static final int SIDE_NORTH = 2;
+    private static final int SIDE_SOUTH = 3;
+
+    private static final int[] NEIGHBOR_DX = {1, -1, 0, 0, 1, 1, -1, -1};
+    private static final int[] NEIGHBOR_DZ = {0, 0, 1, -1, 1, -1, 1, -1};
+
+    private final TileProvider tileProvider;
+
+    // LRU-Caches (Zugriff synchronisiert, Aufbau läuft außerhalb des Locks)
+    private final Map<Long, ChunkPortals> portalCache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, ChunkPortals> eldest) {
+            return size() > MAX_CACHED_PORTALS;
+        }
+    };
+    private final Map<Long, CostField> costFieldCache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, CostField> eldest) {
+            return size() > MAX_CACHED_COST_FIELDS;
+        }
+    };
+
+    private final AtomicInteger builtChunkCount = new AtomicInteger();
+
+    public HierarchicalPathfinder(TileProvider tileProvider) {
+        this.tileProvider = tileProvider;
+    }
+
+    /**
+     * Sucht einen Pfad zwischen zwei Tiles (Weltkoordinaten).
+     *
+     * @return Liste von Wegpunkten (Tile-Mitte auf Terrain-Höhe), leer wenn kein Pfad gefunden wurde
+     */
+    public List<Vector3f> findPath(int startX, int startZ, int goalX, int goalZ) {
+        int startChunkX = Math.floorDiv(startX, CELLS);
+        int startChunkZ = Math.floorDiv(startZ, CELLS);
+        int goalChunkX = Math.floorDiv(goalX, CELLS);
+        int goalChunkZ = Math.floorDiv(goalZ, CELLS);
+
+        CostField startField = getCostField(startChunkX, startChunkZ);
+        int startCell = localIndex(startX, startZ);
+        int goalCell = localIndex(goalX, goalZ);
+
+        List<Vector3f> waypoints = new ArrayList<>();
+        if (startChunkX == goalChunkX && startChunkZ == goalChunkZ) {
+            // Start und Ziel im selben Chunk: direkt lokal suchen
+            appendLocalPath(waypoints, startField, startCell, goalCell);
+        } else {
+            List<SearchNode> abstractPath = searchAbstract(startField, startCell, goalChunkX, goalChunkZ, goalCell, goalX, goalZ);
+            if (abstractPath == null) {
+                return Collections.emptyList();
+            }
+            refine(waypoints, startField, startCell, abstractPath, goalChunkX, goalChunkZ, goalCell);
+        }
+
+        return waypoints;
+    }
+
+    /**
+     * Verwirft die gecachte Abstraktion eines Chunks (z.B. wenn sich seine Tiles geändert haben).
+     * Die Nachbarn werden mit invalidiert (Portale und Kostenfelder), da sie sich die
+     * Portal-Kanten mit diesem Chunk teilen.
+     */
+    public void invalidateChunk(int chunkX, int chunkZ) {
+        synchronized (portalCache) {
+            portalCache.remove(chunkKey(chunkX, chunkZ));
+            portalCache.remove(chunkKey(chunkX - 1, chunkZ));
+            portalCache.remove(chunkKey(chunkX + 1, chunkZ));
+            portalCache.remove(chunkKey(chunkX, chunkZ - 1));
+            portalCache.remove(chunkKey(chunkX, chunkZ + 1));
+        }
+        // Die Kanten-Linien der Nachbarn enthalten die Samples dieses Chunks: Kostenfelder mit verwerfen
+        synchronized (costFieldCache) {
+            costFieldCache.remove(chunkKey(chunkX, chunkZ));
+            costFieldCache.remove(chunkKey(chunkX - 1, chunkZ));
+            costFieldCache.remove(chunkKey(chunkX + 1, chunkZ));
+            costFieldCache.remove(chunkKey(chunkX, chunkZ - 1));
+            costFieldCache.remove(chunkKey(chunkX, chunkZ + 1));
+        }
+    }
+
+    /**
+     * Anzahl der bisher aufgebauten Chunk-Abstraktionen (für Benchmarks)
+     */
+    public int getBuiltChunkCount() {
+        return builtChunkCount.get();
+    }
+
+    public int getCachedChunkCount() {
+        synchronized (portalCache) {
+            return portalCache.size();
+        }
+    }
+
+    // ==================== Abstrakte Suche ====================
+
+    private List<SearchNode> searchAbstract(CostField startField, int startCell,
+                                            int goalChunkX, int goalChunkZ, int goalCell, int goalX, int goalZ) {
+        CostField goalField = getCostField(goalChunkX, goalChunkZ);
+        float[] startDistances = dijkstra(startField, startCell);
+        float[] goalDistances = dijkstra(goalField, goalCell);
+
+        Map<Long, SearchNode> nodes = new HashMap<>();
+        PriorityQueue<QueueEntry> open = new PriorityQueue<>();
+
+        // Virtueller Zielknoten
+        SearchNode goalNode = new SearchNode(goalChunkX, goalChunkZ, -1, goalX, goalZ);
+
+        // Start: Verbinde Start-Tile mit allen erreichbaren Portalen des Start-Chunks
+        ChunkPortals startPortals = getPortals(startField.chunkX, startField.chunkZ);
+        for (int i = 0; i < PORTALS_PER_CHUNK; i++) {
+            float cost = startDistances[startPortals.cells[i]];
+            if (cost < Float.POSITIVE_INFINITY) {
+                relax(nodes, open, startPortals, i, cost, null, goalX, goalZ);
+            }
+        }
+
+        int expansions = 0;
+        while (!open.isEmpty()) {
+            QueueEntry entry = open.poll();
+            SearchNode node = entry.node;
+            if (node.closed || entry.g != node.g) {
+                continue; // Veralteter Eintrag
+            }
+            if (node == goalNode) {
+                break;
+            }
+            node.closed = true;
+
+            if (++expansions > MAX_ABSTRACT_EXPANSIONS) {
+                System.err.println("HierarchicalPathfinder: Suche abgebrochen nach " + expansions + " Expansionen");
+                return null;
+            }
+
+            ChunkPortals portals = getPortals(node.chunkX, node.chunkZ);
+
+            // Ziel-Chunk erreicht: Kante zum virtuellen Zielknoten
+            if (node.chunkX == goalChunkX && node.chunkZ == goalChunkZ) {
+                float cost = node.g + goalDistances[portals.cells[node.portal]];
+                if (cost < goalNode.g) {
+                    goalNode.g = cost;
+                    goalNode.parent = node;
+                    open.add(new QueueEntry(goalNode, cost, cost));
+                }
+            }
+
+            // Intra-Chunk Kanten zu den anderen Portalen
+            for (int j = 0; j < PORTALS_PER_CHUNK; j++) {
+                float cost = portals.intraCosts[node.portal * PORTALS_PER_CHUNK + j];
+                if (j != node.portal && cost < Float.POSITIVE_INFINITY) {
+                    relax(nodes, open, portals, j, node.g + cost, node, goalX, goalZ);
+                }
+            }
+
+            // Inter-Chunk Kante zum gegenüberliegenden Portal im Nachbar-Chunk
+            int side = node.portal / PORTALS_PER_EDGE;
+            int slot = node.portal % PORTALS_PER_EDGE;
+            int neighborX = node.chunkX + (side == SIDE_WEST ? -1 : side == SIDE_EAST ? 1 : 0);
+            int neighborZ = node.chunkZ + (side == SIDE_NORTH ? -1 : side == SIDE_SOUTH ? 1 : 0);
+            int oppositeSide = side == SIDE_WEST ? SIDE_EAST : side == SIDE_EAST ? SIDE_WEST
+                    : side == SIDE_NORTH ? SIDE_SOUTH : SIDE_NORTH;
+            ChunkPortals neighborPortals = getPortals(neighborX, neighborZ);
+            int neighborPortal = oppositeSide * PORTALS_PER_EDGE + slot;
+            float crossCost = (portals.cellCosts[node.portal] + neighborPortals.cellCosts[neighborPortal]) * 0.5f;
+            relax(nodes, open, neighborPortals, neighborPortal, node.g + crossCost, node, goalX, goalZ);
+        }
+
+        if (goalNode.parent == null) {
+            return null;
+        }
+
+        List<SearchNode> path = new ArrayList<>();
+        for (SearchNode n = goalNode.parent; n != null; n = n.parent) {
+            path.add(n);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    private void relax(Map<Long, SearchNode> nodes, PriorityQueue<QueueEntry> open, ChunkPortals portals, int portal,
+                       float g, SearchNode parent, int goalX, int goalZ) {
+        long key = nodeKey(portals.chunkX, portals.chunkZ, portal);
+        SearchNode node = nodes.get(key);
+        if (node == null) {
+            int cell = portals.cells[portal];
+            node = new SearchNode(portals.chunkX, portals.chunkZ, portal,
+                    portals.chunkX * CELLS + cell % CELLS, portals.chunkZ * CELLS + cell / CELLS);
+            nodes.put(key, node);
+        }
+        if (node.closed || g >= node.g) {
+            return;
+        }
+        node.g = g;
+        node.parent = parent;
+        float h = octile(node.worldX, node.worldZ, goalX, goalZ) * MIN_STEP_COST * HEURISTIC_WEIGHT;
+        open.add(new QueueEntry(node, g, g + h));
+    }
+
+    // ==================== Verfeinerung ====================
+
+    private void refine(List<Vector3f> waypoints, CostField startField, int startCell, List<SearchNode> abstractPath,
+                        int goalChunkX, int goalChunkZ, int goalCell) {
+        CostField currentField = startField;
+        int currentCell = startCell;
+        waypoints.add(waypoint(startField, startCell));
+
+        for (SearchNode node : abstractPath) {
+            int nodeCell = localIndex(node.worldX, node.worldZ);
+            if (node.chunkX == currentField.chunkX && node.chunkZ == currentField.chunkZ) {
+                // Innerhalb des Chunks: lokale Suche
+                appendLocalPath(waypoints, currentField, currentCell, nodeCell);
+            } else {
+                // Übergang in den Nachbar-Chunk: Portale liegen direkt nebeneinander
+                currentField = getCostField(node.chunkX, node.chunkZ);
+                waypoints.add(waypoint(currentField, nodeCell));
+            }
+            currentCell = nodeCell;
+        }
+
+        if (currentField.chunkX != goalChunkX || currentField.chunkZ != goalChunkZ) {
+            currentField = getCostField(goalChunkX, goalChunkZ);
+        }
+        appendLocalPath(waypoints, currentField, currentCell, goalCell);
+    }
+
+    /**
+     * Lokaler A* innerhalb eines Chunks. Hängt den Pfad ohne die Start-Zelle an.
+     */
+    private void appendLocalPath(List<Vector3f> waypoints, CostField field, int startCell, int goalCell) {
+        if (waypoints.isEmpty()) {
+            waypoints.add(waypoint(field, startCell));
+        }
+        if (startCell == goalCell) {
+            return;
+        }
+
+        float[] g = new float[CELL_COUNT];
+        int[] parent = new int[CELL_COUNT];
+        boolean[] closed = new boolean[CELL_COUNT];
+        Arrays.fill(g, Float.POSITIVE_INFINITY);
+        Arrays.fill(parent, -1);
+
+        int goalX = goalCell % CELLS;
+        int goalZ = goalCell / CELLS;
+        CellHeap heap = new CellHeap();
+        g[startCell] = 0f;
+        heap.push(startCell, octile(startCell % CELLS, startCell / CELLS, goalX, goalZ) * MIN_STEP_COST);
+
+        while (!heap.isEmpty()) {
+            int current = heap.pop();
+            if (closed[current]) {
+                continue;
+            }
+            if (current == goalCell) {
+                break;
+            }
+            closed[current] = true;
+
+            int cx = current % CELLS;
+            int cz = current / CELLS;
+            for (int n = 0; n < NEIGHBOR_DX.length; n++) {
+                int nx = cx + NEIGHBOR_DX[n];
+                int nz = cz + NEIGHBOR_DZ[n];
+                if (nx < 0 || nx >= CELLS || nz < 0 || nz >= CELLS) {
+                    continue;
+                }
+                int next = nz * CELLS + nx;
+                if (closed[next]) {
+                    continue;
+                }
+                float cost = g[current] + stepCost(field, current, next, n >= 4);
+                if (cost < g[next]) {
+                    g[next] = cost;
+                    parent[next] = current;
+                    heap.push(next, cost + octile(nx, nz, goalX, goalZ) * MIN_STEP_COST);
+                }
+            }
+        }
+
+        if (parent[goalCell] < 0) {
+            return; // Innerhalb eines Chunks ist jedes Tile begehbar - sollte nicht passieren
+        }
+
+        List<Vector3f> segment = new ArrayList<>();
+        for (int cell = goalCell; cell != startCell; cell = parent[cell]) {
+            segment.add(waypoint(field, cell));
+        }
+        Collections.reverse(segment);
+        waypoints.addAll(segment);
+    }
+
+    /**
+     * Dijkstra innerhalb eines Chunks von einer Zelle zu allen anderen
+     */
+    private float[] dijkstra(CostField field, int sourceCell) {
+        return dijkstra(field, sourceCell, null, 0);
+    }
+
+    /**
+     * Dijkstra innerhalb eines Chunks. Bricht ab, sobald alle Ziel-Zellen ab targetStart feststehen.
+     */
+    private float[] dijkstra(CostField field, int sourceCell, int[] targets, int targetStart) {
+        float[] distances = new float[CELL_COUNT];
+        boolean[] closed = new boolean[CELL_COUNT];
+        Arrays.fill(distances, Float.POSITIVE_INFINITY);
+
+        boolean[] isTarget = null;
+        int remainingTargets = 0;
+        if (targets != null) {
+            isTarget = new boolean[CELL_COUNT];
+            for (int i = targetStart; i < targets.length; i++) {
+                if (!isTarget[targets[i]]) {
+                    isTarget[targets[i]] = true;
+                    remainingTargets++;
+                }
+            }
+        }
+
+        CellHeap heap = new CellHeap();
+        distances[sourceCell] = 0f;
+        heap.push(sourceCell, 0f);
+
+        while (!heap.isEmpty()) {
+            int current = heap.pop();
+            if (closed[current]) {
+                continue;
+            }
+            closed[current] = true;
+            if (isTarget != null && isTarget[current] && --remainingTargets == 0) {
+                break;
+            }
+
+            int cx = current % CELLS;
+            int cz = current / CELLS;
+            for (int n = 0; n < NEIGHBOR_DX.length; n++) {
+                int nx = cx + NEIGHBOR_DX[n];
+                int nz = cz + NEIGHBOR_DZ[n];
+                if (nx < 0 || nx >= CELLS || nz < 0 || nz >= CELLS) {
+                    continue;
+                }
+                int next = nz * CELLS + nx;
+                float cost = distances[current] + stepCost(field, current, next, n >= 4);
+                if (cost < distances[next]) {
+                    distances[next] = cost;
+                    heap.push(next, cost);
+                }
+            }
+        }
+
+        return distances;
+    }
+
+    private float stepCost(CostField field, int from, int to, boolean diagonal) {
+        float cost = (field.costs[from] + field.costs[to]) * 0.5f;
+        return diagonal ? cost * SQRT2 : cost;
+    }
+
+    /**
+     * Wegpunkt in der Mitte eines Tiles auf Terrain-Höhe
+     */
+    private Vector3f waypoint(CostField field, int cell) {
+        return new Vector3f(field.chunkX * CELLS + cell % CELLS + 0.5f, field.heights[cell],
+                field.chunkZ * CELLS + cell / CELLS + 0.5f);
+    }
+
+    // ==================== Chunk-Abstraktion ====================
+
+    private ChunkPortals getPortals(int chunkX, int chunkZ) {
+        long key = chunkKey(chunkX, chunkZ);
+        synchronized (portalCache) {
+            ChunkPortals portals = portalCache.get(key);
+            if (portals != null) {
+                return portals;
+            }
+        }
+
+        // Bauen zwei Threads denselben Chunk, gewinnt der erste Eintrag und nur er wird gezählt
+        ChunkPortals portals = buildPortals(getCostField(chunkX, chunkZ));
+        synchronized (portalCache) {
+            ChunkPortals existing = portalCache.putIfAbsent(key, portals);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        builtChunkCount.incrementAndGet();
+        return portals;
+    }
+
+    /**
+     * Baut die Portal-Abstraktion eines Chunks: wählt pro Kanten-Segment das günstigste Tile
+     * und berechnet die Kosten zwischen allen Portalen.
+     *
+     * Die Portal-Positionen einer Kante werden nur aus der gemeinsamen Tile-Reihe beider Chunks
+     * bestimmt (Sample 0 bzw. 64), damit beide Seiten unabhängig dieselben Portale wählen.
+     */
+    private ChunkPortals buildPortals(CostField field) {
+        ChunkPortals portals = new ChunkPortals(field.chunkX, field.chunkZ);
+
+        for (int slot = 0; slot < PORTALS_PER_EDGE; slot++) {
+            int west = selectPortal(field.westLine, slot);
+            int east = selectPortal(field.eastLine, slot);
+            int north = selectPortal(field.northLine, slot);
+            int south = selectPortal(field.southLine, slot);
+
+            portals.cells[SIDE_WEST * PORTALS_PER_EDGE + slot] = west * CELLS;
+            portals.cells[SIDE_EAST * PORTALS_PER_EDGE + slot] = east * CELLS + (CELLS - 1);
+            portals.cells[SIDE_NORTH * PORTALS_PER_EDGE + slot] = north;
+            portals.cells[SIDE_SOUTH * PORTALS_PER_EDGE + slot] = (CELLS - 1) * CELLS + south;
+        }
+
+        for (int i = 0; i < PORTALS_PER_CHUNK; i++) {
+            portals.cellCosts[i] = field.costs[portals.cells[i]];
+        }
+
+        // Schrittkosten sind symmetrisch: von Portal i aus genügen die Portale j > i
+        for (int i = 0; i < PORTALS_PER_CHUNK - 1; i++) {
+            float[] distances = dijkstra(field, portals.cells[i], portals.cells, i + 1);
+            for (int j = i + 1; j < PORTALS_PER_CHUNK; j++) {
+                float cost = distances[portals.cells[j]];
+                portals.intraCosts[i * PORTALS_PER_CHUNK + j] = cost;
+                portals.intraCosts[j * PORTALS_PER_CHUNK + i] = cost;
+            }
+        }
+
+        return portals;
+    }
+
+    /**
+     * Wählt im Segment das Tile mit den geringsten Kosten (bei Gleichstand das mittigste)
+     */
+    private int selectPortal(float[] line, int slot) {
+        int start = slot * SEGMENT_LENGTH;
+        float center = start + (SEGMENT_LENGTH - 1) * 0.5f;
+        int best = start;
+        float bestScore = Float.POSITIVE_INFINITY;
+        for (int i = start; i < start + SEGMENT_LENGTH; i++) {
+            float score = line[i] + Math.abs(i - center) * 0.0001f;
+            if (score < bestScore) {
+                bestScore = score;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private CostField getCostField(int chunkX, int chunkZ) {
+        long key = chunkKey(chunkX, chunkZ);
+        synchronized (costFieldCache) {
+            CostField field = costFieldCache.get(key);
+            if (field != null) {
+                return field;
+            }
+        }
+
+        CostField field = new CostField(chunkX, chunkZ, tileProvider.getTileData(chunkX, chunkZ, CHUNK_SIZE));
+        synchronized (costFieldCache) {
+            costFieldCache.put(key, field);
+        }
+        return field;
+    }
+
+    // ==================== Hilfsfunktionen ====================
+
+    private static int localIndex(int worldX, int worldZ) {
+        return Math.floorMod(worldZ, CELLS) * CELLS + Math.floorMod(worldX, CELLS);
+    }
+
+    private static float octile(int x0, int z0, int x1, int z1) {
+        int dx = Math.abs(x1 - x0);
+        int dz = Math.abs(z1 - z0);
+        return Math.max(dx, dz) + (SQRT2 - 1f) * Math.min(dx, dz);
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private static long nodeKey(int chunkX, int chunkZ, int portal) {
+        return ((long) (chunkX & 0xFFFFFF) << 40) | ((long) (chunkZ & 0xFFFFFF) << 16) | portal;
+    }
+
+    private static float travelCost(TerrainTile tile) {
+        return 1f / Math.max(0.05f, tile.getSpeedMultiplier());
+    }
+
+    /**
+     * Bewegungskosten und Höhen eines Chunks (64x64 Tiles) plus die gemeinsamen Kanten-Reihen
+     */
+    private static class CostField {
+        final int chunkX;
+        final int chunkZ;
+        final float[] costs = new float[CELL_COUNT];
+        final float[] heights = new float[CELL_COUNT];
+        final float[] westLine = new float[CELLS];   // Sample-Spalte 0  (= Spalte 64 des West-Nachbarn)
+        final float[] eastLine = new float[CELLS];   // Sample-Spalte 64 (= Spalte 0 des Ost-Nachbarn)
+        final float[] northLine = new float[CELLS];  // Sample-Zeile 0
+        final float[] southLine = new float[CELLS];  // Sample-Zeile 64
+
+        CostField(int chunkX, int chunkZ, TerrainTile[] tiles) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            for (int z = 0; z < CELLS; z++) {
+                for (int x = 0; x < CELLS; x++) {
+                    TerrainTile tile = tiles[z * CHUNK_SIZE + x];
+                    costs[z * CELLS + x] = travelCost(tile);
+                    heights[z * CELLS + x] = tile.getHeight();
+                }
+            }
+            for (int i = 0; i < CELLS; i++) {
+                westLine[i] = travelCost(tiles[i * CHUNK_SIZE]);
+                eastLine[i] = travelCost(tiles[i * CHUNK_SIZE + CELLS]);
+                northLine[i] = travelCost(tiles[i]);
+                southLine[i] = travelCost(tiles[CELLS * CHUNK_SIZE + i]);
+            }
+        }
+    }
+
+    /**
+     * Gecachte Abstraktion eines Chunks: Portal-Zellen und Kostenmatrix zwischen ihnen
+     */
+    private static class ChunkPortals {
+        final int chunkX;
+        final int chunkZ;
+        final int[] cells = new int[PORTALS_PER_CHUNK];          // Lokaler Zell-Index (z * 64 + x)
+        final float[] cellCosts = new float[PORTALS_PER_CHUNK];  // Bewegungskosten der Portal-Zelle
+        final float[] intraCosts = new float[PORTALS_PER_CHUNK * PORTALS_PER_CHUNK];
+
+        ChunkPortals(int chunkX, int chunkZ) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+    }
+
+    private static class SearchNode {
+        final int chunkX;
+        final int chunkZ;
+        final int portal;
+        final int worldX;
+        final int worldZ;
+        float g = Float.POSITIVE_INFINITY;
+        SearchNode parent;
+        boolean closed;
+
+        SearchNode(int chunkX, int chunkZ, int portal, int worldX, int worldZ) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            this.portal = portal;
+            this.worldX = worldX;
+            this.worldZ = worldZ;
+        }
+    }
+
+    private static class QueueEntry implements Comparable<QueueEntry> {
+        final SearchNode node;
+        final float g;
+        final float f;
+
+        QueueEntry(SearchNode node, float g, float f) {
+            this.node = node;
+            this.g = g;
+            this.f = f;
+        }
+
+        @Override
+        public int compareTo(QueueEntry other) {
+            return Float.compare(f, other.f);
+        }
+    }
+
+    /**
+     * Minimaler Binär-Heap für Zell-Indizes mit float-Priorität (ohne Boxing)
+     */
+    private static class CellHeap {
+        private int[] cells = new int[256];
+        private float[] keys = new float[256];
+        private int size = 0;
+
+        void push(int cell, float key) {
+            if (size == cells.length) {
+                cells = Arrays.copyOf(cells, size * 2);
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                cells[i] = cells[parent];
+                keys[i] = keys[parent];
+                i = parent;
+            }
+            cells[i] = cell;
+            keys[i] = key;
+        }
+
+        int pop() {
+            int result = cells[0];
+            int lastCell = cells[--size];
+            float lastKey = keys[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (keys[child] >= lastKey) {
+                    break;
+                }
+                cells[i] = cells[child];
+                keys[i] = keys[child];
+                i = child;
+            }
+            cells[i] = lastCell;
+            keys[i] = lastKey;
+            return result;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.jme07;
+
+import java.util.Arrays;
+
+/**
+ * HorizonCuller - Konservatives Horizon-Culling für Terrain-Chunks auf der CPU.
+ *
+ * Die Chunks werden von vorne nach hinten (aufsteigende Distanz zur Kamera) getestet.
+ * Für jeden Azimut-Sektor wird die höchste bisher gesehene Steigung (Höhe / Distanz)
+ * gespeichert. Ein Chunk ist verdeckt, wenn seine maximale Steigung in allen
+ * überdeckten Sektoren unter dem Horizont liegt und er vollständig hinter den
+ * Chunks liegt, die den Horizont aufgebaut haben.
+ *
+ * Konservativ:
+ *   - Verdecker tragen nur die Minimalhöhe des Chunks in der ungünstigsten Distanz bei
+ *   - Verdecker tragen nur Sektoren bei, die vollständig im Chunk liegen
+ *   - Getestet wird mit der Maximalhöhe in der günstigsten Distanz
+ */
+public class HorizonCuller {
+
+    private static final int HORIZON_BINS = 512;
+    private static final float BIN_SIZE = (float) (2.0 * Math.PI / HORIZON_BINS);
+
+    // Höchste Steigung pro Sektor und die größte Distanz der Verdecker, die sie aufgebaut haben
+    private final float[] horizonSlope = new float[HORIZON_BINS];
+    private final float[] horizonDistance = new float[HORIZON_BINS];
+
+    private float camX;
+    private float camY;
+    private float camZ;
+
+    /**
+     * Startet einen neuen Durchlauf für die aktuelle Kameraposition
+     */
+    public void begin(float camX, float camY, float camZ) {
+        this.camX = camX;
+        this.camY = camY;
+        this.camZ = camZ;
+        Arrays.fill(horizonSlope, Float.NEGATIVE_INFINITY);
+        Arrays.fill(horizonDistance, 0f);
+    }
+
+    /**
+     * Testet einen Chunk gegen den Horizont und erweitert danach den Horizont um den Chunk.
+     * Muss in aufsteigender Reihenfolge von {@link #nearestDistance} aufgerufen werden.
+     *
+     * @param minX Minimale X-Weltkoordinate des Chunks
+     * @param minZ Minimale Z-Weltkoordinate des Chunks
+     * @param maxX Maximale X-Weltkoordinate des Chunks
+     * @param maxZ Maximale Z-Weltkoordinate des Chunks
+     * @param minHeight Minimale Terrain-Höhe (für den Verdecker-Beitrag)
+     * @param maxHeight Maximale Höhe inkl. Wasser und Sprites (für den Sichtbarkeitstest)
+     * @return true wenn der Chunk sichtbar sein kann, false wenn er sicher verdeckt ist
+     */
+    public boolean testAndOcclude(float minX, float minZ, float maxX, float maxZ, float minHeight, float maxHeight) {
+        float dNear = nearestDistance(minX, minZ, maxX, maxZ);
+        if (dNear <= 0f) {
+            // Kamera steht über dem Chunk - immer sichtbar, kein sinnvoller Verdecker
+            return true;
+        }
+        float dFar = farthestDistance(minX, minZ, maxX, maxZ);
+
+        // Winkelbereich des Chunks relativ zur Richtung seines Mittelpunkts (vermeidet Probleme am +-PI Übergang)
+        float centerAngle = (float) Math.atan2((minZ + maxZ) * 0.5f - camZ, (minX + maxX) * 0.5f - camX);
+        float offset00 = cornerOffset(minX, minZ, centerAngle);
+        float offset10 = cornerOffset(maxX, minZ, centerAngle);
+        float offset01 = cornerOffset(minX, maxZ, centerAngle);
+        float offset11 = cornerOffset(maxX, maxZ, centerAngle);
+        float startAngle = centerAngle + Math.min(Math.min(offset00, offset10), Math.min(offset01, offset11));
+        float endAngle = centerAngle + Math.max(Math.max(offset00, offset10), Math.max(offset01, offset11));
+
+        // Sichtbarkeitstest: größtmögliche Steigung des Chunks
+        float upperHeight = maxHeight - camY;
+        float upperSlope = upperHeight >= 0f ? upperHeight / dNear : upperHeight / dFar;
+
+        int firstBin = (int) Math.floor(startAngle / BIN_SIZE);
+        int lastBin = (int) Math.floor(endAngle / BIN_SIZE);
+
+        boolean visible = false;
+        for (int bin = firstBin; bin <= lastBin && !visible; bin++) {
+            int index = Math.floorMod(bin, HORIZON_BINS);
+            if (upperSlope >= horizonSlope[index] || dNear < horizonDistance[index]) {
+                visible = true;
+            }
+        }
+
+        // Verdecker-Beitrag: kleinstmögliche Steigung, nur für vollständig überdeckte Sektoren
+        float lowerHeight = minHeight - camY;
+        float lowerSlope = lowerHeight >= 0f ? lowerHeight / dFar : lowerHeight / dNear;
+        int firstFullBin = (int) Math.ceil(startAngle / BIN_SIZE);
+        int lastFullBin = (int) Math.floor(endAngle / BIN_SIZE) - 1;
+        for (int bin = firstFullBin; bin <= lastFullBin; bin++) {
+            int index = Math.floorMod(bin, HORIZON_BINS);
+            if (lowerSlope > horizonSlope[index]) {
+                horizonSlope[index] = lowerSlope;
+                horizonDistance[index] = Math.max(horizonDistance[index], dFar);
+            }
+        }
+
+        return visible;
+    }
+
+    /**
+     * Kleinste horizontale Distanz von der Kamera zum Chunk-Rechteck (0 wenn die Kamera darüber steht)
+     */
+    public float nearestDistance(float minX, float minZ, float maxX, float maxZ) {
+        float dx = Math.max(Math.max(minX - camX, 0f), camX - maxX);
+        float dz = Math.max(Math.max(minZ - camZ, 0f), camZ - maxZ);
+        return (float) Math.sqrt(dx * dx + dz * dz);
+    }
+
+    private float farthestDistance(float minX, float minZ, float maxX, float maxZ) {
+        float dx = Math.max(Math.abs(minX - camX), Math.abs(maxX - camX));
+        float dz = Math.max(Math.abs(minZ - camZ), Math.abs(maxZ - camZ));
+        return (float) Math.sqrt(dx * dx + dz * dz);
+    }
+
+    private float cornerOffset(float x, float z, float centerAngle) {
+        return wrapAngle((float) Math.atan2(z - camZ, x - camX) - centerAngle);
+    }
+
+    private static float wrapAngle(float angle) {
+        while (angle > Math.PI) {
+            angle -= (float) (2.0 * Math.PI);
+        }
+        while (angle < -Math.PI) {
+            angle += (float) (2.0 * Math.PI);
+        }
+        return angle;
+    }
+}
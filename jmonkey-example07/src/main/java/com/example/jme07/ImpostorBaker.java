@@ -0,0 +1,191 @@
+package com.example.jme07;
+
+import com.jme3.asset.AssetManager;
+import com.jme3.bounding.BoundingBox;
+import com.jme3.light.AmbientLight;
+import com.jme3.light.DirectionalLight;
+import com.jme3.material.Material;
+import com.jme3.material.RenderState;
+import com.jme3.math.ColorRGBA;
+import com.jme3.math.Transform;
+import com.jme3.math.Vector3f;
+import com.jme3.renderer.Camera;
+import com.jme3.renderer.RenderManager;
+import com.jme3.renderer.ViewPort;
+import com.jme3.renderer.queue.RenderQueue;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
+import com.jme3.texture.FrameBuffer;
+import com.jme3.texture.Image;
+import com.jme3.texture.Texture;
+import com.jme3.texture.Texture2D;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ImpostorBaker - Rendert 3D-Modelle einmalig von der Seite in eine Textur und
+ * ersetzt sie in der Ferne durch Karten (SpriteBatchMesh + MatDefs/SpriteBatch.j3md)
+ *
+ * Pro Modellpfad wird beim ersten Bedarf ein Pre-View mit orthografischer Kamera und
+ * eigenem Licht angelegt, der genau einen Frame in ein FrameBuffer-Texture rendert und
+ * danach wieder entfernt wird. Die Karten eines Chunks sind ein Draw-Call pro Modelltyp.
+ *
+ * Nur Render-Thread.
+ */
+public class ImpostorBaker {
+
+    private static final int TEXTURE_WIDTH = 128;
+    private static final int TEXTURE_HEIGHT = 256;
+    private static final float ALPHA_DISCARD_THRESHOLD = 0.5f;
+    private static final float CAMERA_DISTANCE = 100f;   // Abstand der Bake-Kamera (in Modell-Einheiten)
+
+    /**
+     * Gebackene Karte eines Modells (Maße bei Skalierung 1)
+     */
+    private static class Impostor {
+        final Material material;
+        final float width;
+        final float height;
+        final float baseOffset;   // Unterkante des Modells relativ zu seinem Ursprung
+
+        Impostor(Material material, float width, float height, float baseOffset) {
+            this.material = material;
+            this.width = width;
+            this.height = height;
+            this.baseOffset = baseOffset;
+        }
+    }
+
+    private final AssetManager assetManager;
+    private final RenderManager renderManager;
+
+    // Gebackene Karten pro Modellpfad (null-Eintrag = Modell nicht ladbar)
+    private final Map<String, Impostor> impostors = new HashMap<>();
+    // Pre-Views, die in diesem Frame rendern und im nächsten Update entfernt werden
+    private final List<ViewPort> bakingViews = new ArrayList<>();
+
+    public ImpostorBaker(AssetManager assetManager, RenderManager renderManager) {
+        this.assetManager = assetManager;
+        this.renderManager = renderManager;
+    }
+
+    /**
+     * Entfernt die Pre-Views, die im letzten Frame ihre Textur gerendert haben
+     */
+    public void update() {
+        for (ViewPort view : bakingViews) {
+            renderManager.removePreView(view);
+        }
+        bakingViews.clear();
+    }
+
+    /**
+     * Erstellt eine Karten-Geometry pro Modelltyp (noch nicht angehängt)
+     */
+    public List<Geometry> createBatches(String name, List<ModelSprite> sprites) {
+        Map<String, List<ModelSprite>> byModel = new LinkedHashMap<>();
+        for (ModelSprite sprite : sprites) {
+            byModel.computeIfAbsent(sprite.getModelPath(), k -> new ArrayList<>()).add(sprite);
+        }
+
+        List<Geometry> batches = new ArrayList<>(byModel.size());
+        for (Map.Entry<String, List<ModelSprite>> entry : byModel.entrySet()) {
+            Impostor impostor = getImpostor(entry.getKey());
+            if (impostor == null) {
+                continue;
+            }
+
+            List<ModelSprite> group = entry.getValue();
+            float[] placements = new float[group.size() * SpriteBatchMesh.PLACEMENT_STRIDE];
+            int offset = 0;
+            for (ModelSprite sprite : group) {
+                Vector3f pos = sprite.getPosition();
+                float scale = sprite.getScale();
+                placements[offset++] = pos.x;
+                placements[offset++] = pos.y + impostor.baseOffset * scale;
+                placements[offset++] = pos.z;
+                placements[offset++] = impostor.width * scale;
+                placements[offset++] = impostor.height * scale;
+            }
+            SpriteBatchMesh mesh = new SpriteBatchMesh(placements, group.size());
+
+            Geometry geom = new Geometry(name + "_" + entry.getKey().hashCode(), mesh);
+            geom.setMaterial(impostor.material);
+            geom.setQueueBucket(RenderQueue.Bucket.Opaque);
+            geom.setModelBound(mesh.getBound());
+            batches.add(geom);
+        }
+        return batches;
+    }
+
+    private Impostor getImpostor(String modelPath) {
+        if (impostors.containsKey(modelPath)) {
+            return impostors.get(modelPath);
+        }
+
+        Impostor impostor = null;
+        try {
+            impostor = bake(modelPath);
+            System.out.println("ImpostorBaker: " + modelPath + " gebacken (" + TEXTURE_WIDTH + "x" + TEXTURE_HEIGHT + ")");
+        } catch (Exception e) {
+            System.err.println("FEHLER beim Backen von Impostor " + modelPath + ": " + e.getMessage());
+        }
+        impostors.put(modelPath, impostor);
+        return impostor;
+    }
+
+    private Impostor bake(String modelPath) {
+        // Vorlage in Bind-Pose, ohne Animation
+        Spatial model = assetManager.loadModel(modelPath);
+        ModelInstancer.stripControls(model);
+        model.setLocalTransform(Transform.IDENTITY);
+
+        Node scene = new Node("Impostor_" + modelPath);
+        scene.attachChild(model);
+        scene.addLight(new AmbientLight(ColorRGBA.White.mult(0.6f)));
+        DirectionalLight sun = new DirectionalLight();
+        sun.setDirection(new Vector3f(-0.5f, -0.7f, -0.5f).normalizeLocal());
+        sun.setColor(ColorRGBA.White.mult(0.8f));
+        scene.addLight(sun);
+        scene.updateLogicalState(0);
+        scene.updateGeometricState();
+
+        // Karte um den Modell-Ursprung zentriert, da die Sprite-Position der Ursprung ist
+        BoundingBox bound = (BoundingBox) model.getWorldBound();
+        Vector3f min = bound.getMin(null);
+        Vector3f max = bound.getMax(null);
+        float halfWidth = Math.max(Math.max(Math.abs(min.x), Math.abs(max.x)), Math.max(Math.abs(min.z), Math.abs(max.z)));
+
+        Camera bakeCam = new Camera(TEXTURE_WIDTH, TEXTURE_HEIGHT);
+        bakeCam.setParallelProjection(true);
+        bakeCam.setFrustum(1f, CAMERA_DISTANCE * 2f, -halfWidth, halfWidth, max.y, min.y);
+        bakeCam.setLocation(new Vector3f(0, 0, CAMERA_DISTANCE + halfWidth));
+        bakeCam.lookAtDirection(new Vector3f(0, 0, -1), Vector3f.UNIT_Y);
+
+        Texture2D texture = new Texture2D(TEXTURE_WIDTH, TEXTURE_HEIGHT, Image.Format.RGBA8);
+        texture.setMinFilter(Texture.MinFilter.BilinearNoMipMaps);
+        texture.setMagFilter(Texture.MagFilter.Bilinear);
+        FrameBuffer frameBuffer = new FrameBuffer(TEXTURE_WIDTH, TEXTURE_HEIGHT, 1);
+        frameBuffer.addColorTarget(FrameBuffer.FrameBufferTarget.newTarget(texture));
+        frameBuffer.setDepthTarget(FrameBuffer.FrameBufferTarget.newTarget(Image.Format.Depth));
+
+        ViewPort view = renderManager.createPreView("ImpostorBake_" + modelPath, bakeCam);
+        view.setClearFlags(true, true, true);
+        view.setBackgroundColor(new ColorRGBA(0, 0, 0, 0));
+        view.setOutputFrameBuffer(frameBuffer);
+        view.attachScene(scene);
+        bakingViews.add(view);
+
+        Material material = new Material(assetManager, "MatDefs/SpriteBatch.j3md");
+        material.setTexture("ColorMap", texture);
+        material.setFloat("AlphaDiscardThreshold", ALPHA_DISCARD_THRESHOLD);
+        material.getAdditionalRenderState().setFaceCullMode(RenderState.FaceCullMode.Off);
+
+        return new Impostor(material, 2f * halfWidth, max.y - min.y, min.y);
+    }
+}
@@ -22,6 +22,10 @@ public class ManualTerrainGridApp extends SimpleApplication {
     private float basicWalkSpeed = 20f;
     private float basicFlightSpeed = 50f;
 
+    // Sprite-Kollision (über den SpriteSpatialIndex statt Scene-Graph-Kollision)
+    private static final float PLAYER_RADIUS = 0.5f;
+    private final int[] collisionHandles = new int[64];
+
     // Debug mode
     private boolean debugMode = false;
 
@@ -33,6 +37,10 @@ public class ManualTerrainGridApp extends SimpleApplication {
     private List<Layer> layers = new ArrayList<>();
     private TerrainLayer terrainLayer; // Spezielle Referenz für Terrain-Kollision
     private EffectLayer effectLayer; // Effekte wie Nebel
+    private FarTerrainLayer farTerrainLayer; // null bei Box-Kulisse
+    private int appliedViewDistance; // Sichtweite, auf die Fern-Terrain bzw. Nebel eingestellt sind
+    private static final boolean USE_FAR_TERRAIN = true; // true = grobes Terrain aus dem TileProvider, false = Box-Kulisse
+    private static final TerrainRenderMode TERRAIN_RENDER_MODE = TerrainRenderMode.TERRAIN_QUAD; // CLIPMAP = Clipmap-Ringe statt TerrainQuads
 
     @Override
     public void simpleInitApp() {
@@ -58,17 +66,30 @@ public class ManualTerrainGridApp extends SimpleApplication {
         System.out.println("\n=== Initialisiere Layer-System ===");
 
         // 0. Terrain Layer - Dynamisches Terrain mit Chunk-Loading
-        terrainLayer = new TerrainLayer(assetManager, rootNode, cam);
+        terrainLayer = new TerrainLayer(assetManager, rootNode, cam, renderManager, TERRAIN_RENDER_MODE);
         layers.add(terrainLayer);
 
         // 1. Sky Layer - Himmel im Hintergrund mit Sonnen-Glow
         layers.add(new SkyLayer(assetManager, rootNode, cam, viewPort));
 
-        // 2. Backdrop Layer - Ferne Berge/Landschaft
-        layers.add(new BackdropLayer(assetManager, rootNode, cam));
+        // 2. Ferne Landschaft - grobes echtes Terrain oder Box-Kulisse
+        float visibleDistance = terrainLayer.getViewDistance() * terrainLayer.getChunkWorldSize();
+        if (USE_FAR_TERRAIN) {
+            farTerrainLayer = new FarTerrainLayer(assetManager, rootNode, cam, terrainLayer.getTileProvider(),
+                    terrainLayer.getMemoryTracker(), terrainLayer.getChunkWorldSize(), terrainLayer.getViewDistance());
+            if (TERRAIN_RENDER_MODE == TerrainRenderMode.CLIPMAP) {
+                // Die Clipmap endet vor dem Rand des Sichtfensters
+                farTerrainLayer.setMaxHoleDistance(ClipmapTerrainRenderer.getCoveredDistance());
+            }
+            layers.add(farTerrainLayer);
+            visibleDistance = farTerrainLayer.getFarDistance();
+        } else {
+            layers.add(new BackdropLayer(assetManager, rootNode, cam));
+        }
 
-        // 3. Effect Layer - Nebel und andere Effekte
-        effectLayer = new EffectLayer(assetManager, rootNode, cam);
+        // 3. Effect Layer - Tiefen-Nebel, deckt am Rand des geladenen Bereichs vollständig
+        effectLayer = new EffectLayer(assetManager, viewPort, visibleDistance);
+        appliedViewDistance = terrainLayer.getViewDistance();
 
         System.out.println("=== " + layers.size() + " Layer initialisiert + EffectLayer ===\n");
         for (Layer layer : layers) {
@@ -114,9 +135,14 @@ public class ManualTerrainGridApp extends SimpleApplication {
             layer.update(tpf);
         }
 
-        // Update EffectLayer (Nebel folgt Kamera)
-        if (effectLayer != null) {
-            effectLayer.update(tpf);
+        // Sichtweite folgt der Qualitätsstufe: Loch im Fern-Terrain bzw. Nebel-Distanz nachziehen
+        if (terrainLayer.getViewDistance() != appliedViewDistance) {
+            appliedViewDistance = terrainLayer.getViewDistance();
+            if (farTerrainLayer != null) {
+                farTerrainLayer.setViewDistance(appliedViewDistance);
+            } else if (effectLayer != null) {
+                effectLayer.setVisibleDistance(appliedViewDistance * terrainLayer.getChunkWorldSize());
+            }
         }
 
         // Walk-Modus Physik (wie in example04)
@@ -134,6 +160,10 @@ public class ManualTerrainGridApp extends SimpleApplication {
         if (isWalkMode) {
 
             flyCam.setMoveSpeed(basicWalkSpeed * speedMultiplier);
+
+            // Aus großen Sprites (Bäume, Steine, Modelle) herausschieben
+            resolveSpriteCollisions(camPos);
+
             // Anwenden der Gravitation wenn über dem Boden
             if (camPos.y > groundHeight) {
                 verticalVelocity += GRAVITY * tpf;
@@ -165,18 +195,55 @@ public class ManualTerrainGridApp extends SimpleApplication {
         }
     }
 
+    /**
+     * Schiebt die Kamera horizontal aus allen großen Sprites heraus, die sie berührt
+     */
+    private void resolveSpriteCollisions(Vector3f camPos) {
+        SpriteSpatialIndex spriteIndex = terrainLayer.getSpriteIndex();
+        int count = spriteIndex.queryRadius(camPos.x, camPos.z, PLAYER_RADIUS, collisionHandles);
+
+        for (int i = 0; i < count; i++) {
+            int handle = collisionHandles[i];
+            if (!spriteIndex.isBig(handle)) {
+                continue; // Gras und Büsche sind begehbar
+            }
+
+            float dx = camPos.x - spriteIndex.getX(handle);
+            float dz = camPos.z - spriteIndex.getZ(handle);
+            float minDistance = PLAYER_RADIUS + spriteIndex.getRadius(handle);
+            float distance = (float) Math.sqrt(dx * dx + dz * dz);
+
+            if (distance < minDistance) {
+                if (distance < 0.0001f) {
+                    dx = 1f;
+                    dz = 0f;
+                    distance = 1f;
+                }
+                float push = (minDistance - distance) / distance;
+                camPos.x += dx * push;
+                camPos.z += dz * push;
+            }
+        }
+    }
+
     private void toggleDebugMode(boolean enable) {
-        traverseSceneGraph(rootNode, enable);
+        // Sprites, Instanzen und Chunks teilen sich Materialien: jedes nur einmal umschalten
+        java.util.Set<com.jme3.material.Material> materials =
+                java.util.Collections.newSetFromMap(new java.util.IdentityHashMap<>());
+        traverseSceneGraph(rootNode, materials);
+        for (com.jme3.material.Material material : materials) {
+            material.getAdditionalRenderState().setWireframe(enable);
+        }
     }
 
-    private void traverseSceneGraph(com.jme3.scene.Spatial spatial, boolean enableDebug) {
+    private void traverseSceneGraph(com.jme3.scene.Spatial spatial, java.util.Set<com.jme3.material.Material> materials) {
         if (spatial instanceof com.jme3.scene.Geometry) {
             com.jme3.scene.Geometry geom = (com.jme3.scene.Geometry) spatial;
-            geom.getMaterial().getAdditionalRenderState().setWireframe(enableDebug);
+            materials.add(geom.getMaterial());
         } else if (spatial instanceof com.jme3.scene.Node) {
             com.jme3.scene.Node node = (com.jme3.scene.Node) spatial;
             for (com.jme3.scene.Spatial child : node.getChildren()) {
-                traverseSceneGraph(child, enableDebug);
+                traverseSceneGraph(child, materials);
             }
         }
     }
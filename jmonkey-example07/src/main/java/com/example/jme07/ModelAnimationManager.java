@@ -0,0 +1,357 @@
+package com.example.jme07;
+
+import com.jme3.anim.AnimClip;
+import com.jme3.anim.AnimComposer;
+import com.jme3.anim.SkinningControl;
+import com.jme3.anim.util.AnimMigrationUtils;
+import com.jme3.asset.AssetManager;
+import com.jme3.math.FastMath;
+import com.jme3.math.Vector3f;
+import com.jme3.renderer.Camera;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ModelAnimationManager - Animations-LOD für ModelSprites
+ *
+ * Instanzierte Modelle stehen in Bind-Pose und teilen sich ein Mesh (ModelInstancer). Nur die
+ * MAX_ANIMATED nächsten sichtbaren Modelle innerhalb ANIMATION_DISTANCE bekommen eine animierte
+ * Kopie aus einem Pool pro Modelltyp; ihre Instanzen werden solange ausgeblendet.
+ * Die Controls der Kopien laufen nicht über updateLogicalState, sondern werden hier getaktet:
+ * - nah an der Kamera (FULL_RATE_DISTANCE) in jedem Frame
+ * - weiter weg nur alle REDUCED_RATE_INTERVAL Sekunden (mit der aufgelaufenen Zeit)
+ * - außerhalb des Frustums oder ausgeblendet gar nicht (Pose bleibt eingefroren)
+ * Der SkinningControl ist nur in Frames mit Takt aktiv, sonst bleibt die letzte Pose stehen.
+ *
+ * Nicht instanzierbare Modelle (eigene Kopien am Chunk-Node) werden gleich behandelt: ihre
+ * Controls werden beim Registrieren abgeschaltet und nur für die nächsten Modelle getaktet.
+ * Die Kosten pro Frame hängen damit von MAX_ANIMATED ab, nicht von der Anzahl der Modelle.
+ *
+ * Nur Render-Thread.
+ */
+public class ModelAnimationManager {
+
+    private static final int MAX_ANIMATED = 16;                 // Maximal gleichzeitig animierte Modelle
+    private static final float ANIMATION_DISTANCE = 64f;        // Weiter entfernte Modelle bleiben in Bind-Pose
+    private static final float FULL_RATE_DISTANCE = 24f;        // Bis hier wird jeden Frame animiert
+    private static final float REDUCED_RATE_INTERVAL = 0.1f;    // Takt dahinter (Sekunden)
+    private static final float SELECT_INTERVAL = 0.25f;         // Neuauswahl der animierten Modelle (Sekunden)
+
+    private static class Entry {
+        final ModelSprite sprite;
+        final List<Geometry> geometries;   // Instanzen bzw. Geometries der eigenen Kopie
+        final boolean instanced;
+        Spatial model;                     // Animierte Kopie (bei Instanzen nur solange aktiv)
+        AnimComposer composer;
+        SkinningControl skinning;
+        float accumulated;
+        float distanceSquared;
+
+        Entry(ModelSprite sprite, List<Geometry> geometries, boolean instanced) {
+            this.sprite = sprite;
+            this.geometries = geometries;
+            this.instanced = instanced;
+        }
+    }
+
+    private final AssetManager assetManager;
+    private final Node animatedNode;
+    private final Camera cam;
+    private final ModelInstancer modelInstancer;
+
+    // Registrierte Modelle, Schlüssel ist jeweils die erste Geometry
+    private final Map<Geometry, Entry> entries = new IdentityHashMap<>();
+    private final List<Entry> active = new ArrayList<>();
+    // Freie animierte Kopien pro Modellpfad
+    private final Map<String, ArrayDeque<Spatial>> pool = new HashMap<>();
+    // Modellpfade ohne Animationen (bleiben immer instanziert)
+    private final Set<String> staticModels = new HashSet<>();
+    private final List<SkinningControl> skinnedLastFrame = new ArrayList<>();
+    private float selectTimer = SELECT_INTERVAL;
+
+    // Statistik
+    private long ticks = 0;
+    private int frozen = 0;
+
+    public ModelAnimationManager(AssetManager assetManager, Node parentNode, Camera cam, ModelInstancer modelInstancer) {
+        this.assetManager = assetManager;
+        this.cam = cam;
+        this.modelInstancer = modelInstancer;
+        this.animatedNode = new Node("AnimatedModels");
+        parentNode.attachChild(animatedNode);
+    }
+
+    /**
+     * Registriert die Instanzen eines Modells (bleiben in Bind-Pose, bis das Modell nah genug ist)
+     */
+    public void addInstanced(ModelSprite sprite, List<Geometry> instances) {
+        if (!instances.isEmpty() && !staticModels.contains(sprite.getModelPath())) {
+            entries.put(instances.get(0), new Entry(sprite, instances, true));
+        }
+    }
+
+    /**
+     * Registriert eine eigene Kopie eines Modells, ihre Controls werden ab jetzt hier getaktet
+     */
+    public void addClone(ModelSprite sprite, Spatial model, List<Geometry> geometries) {
+        if (geometries.isEmpty()) {
+            return;
+        }
+        Entry entry = new Entry(sprite, geometries, false);
+        entry.model = model;
+        if (initControls(entry)) {
+            entries.put(geometries.get(0), entry);
+        }
+    }
+
+    /**
+     * Meldet alle Modelle ab, deren Geometries in der Liste enthalten sind
+     */
+    public void release(Collection<Geometry> geometries) {
+        if (geometries == null || entries.isEmpty()) {
+            return;
+        }
+        for (Geometry geom : geometries) {
+            Entry entry = entries.remove(geom);
+            if (entry != null && active.remove(entry)) {
+                deactivate(entry);
+            }
+        }
+    }
+
+    public void update(float tpf) {
+        // Skinning nur im Frame eines Takts
+        for (SkinningControl skinning : skinnedLastFrame) {
+            skinning.setEnabled(false);
+        }
+        skinnedLastFrame.clear();
+
+        Vector3f camPos = cam.getLocation();
+        selectTimer += tpf;
+        if (selectTimer >= SELECT_INTERVAL) {
+            selectTimer = 0f;
+            select(camPos);
+        }
+
+        frozen = 0;
+        for (Entry entry : active) {
+            entry.distanceSquared = entry.sprite.getPosition().distanceSquared(camPos);
+            entry.accumulated += tpf;
+
+            // Ausgeblendete Instanzen (LOD-Stufe, Horizon-Culling) -> Kopie ebenfalls aus
+            boolean hidden = isHidden(entry.geometries.get(0));
+            if (entry.instanced) {
+                entry.model.setCullHint(hidden ? Spatial.CullHint.Always : Spatial.CullHint.Inherit);
+            }
+            if (hidden || entry.model.getWorldBound() != null
+                    && cam.contains(entry.model.getWorldBound()) == Camera.FrustumIntersect.Outside) {
+                // Eingefroren: keine Zeit ansammeln, beim Auftauchen nur ein normaler Takt
+                entry.accumulated = Math.min(entry.accumulated, REDUCED_RATE_INTERVAL);
+                frozen++;
+                continue;
+            }
+
+            boolean fullRate = entry.distanceSquared <= FULL_RATE_DISTANCE * FULL_RATE_DISTANCE;
+            if (!fullRate && entry.accumulated < REDUCED_RATE_INTERVAL) {
+                continue;
+            }
+            tick(entry);
+        }
+    }
+
+    /**
+     * Wählt die nächsten sichtbaren Modelle innerhalb ANIMATION_DISTANCE aus
+     */
+    private void select(Vector3f camPos) {
+        float maxSquared = ANIMATION_DISTANCE * ANIMATION_DISTANCE;
+        List<Entry> candidates = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            entry.distanceSquared = entry.sprite.getPosition().distanceSquared(camPos);
+            if (entry.distanceSquared <= maxSquared && !isHidden(entry.geometries.get(0))
+                    && !(entry.instanced && staticModels.contains(entry.sprite.getModelPath()))) {
+                candidates.add(entry);
+            }
+        }
+        candidates.sort((a, b) -> Float.compare(a.distanceSquared, b.distanceSquared));
+        List<Entry> selected = candidates.subList(0, Math.min(MAX_ANIMATED, candidates.size()));
+
+        // Nicht mehr ausgewählte abgeben, danach neue aktivieren
+        for (int i = active.size() - 1; i >= 0; i--) {
+            Entry entry = active.get(i);
+            if (!selected.contains(entry)) {
+                active.remove(i);
+                deactivate(entry);
+            }
+        }
+        for (Entry entry : selected) {
+            if (!active.contains(entry) && activate(entry)) {
+                active.add(entry);
+            }
+        }
+    }
+
+    /**
+     * Ersetzt Instanzen durch eine animierte Kopie (eigene Kopien sind schon animierbar)
+     */
+    private boolean activate(Entry entry) {
+        if (!entry.instanced) {
+            entry.accumulated = 0f;
+            return true;
+        }
+        ArrayDeque<Spatial> free = pool.get(entry.sprite.getModelPath());
+        Spatial model = free != null ? free.poll() : null;
+        if (model == null) {
+            model = entry.sprite.createModel(assetManager);
+            if (model == null) {
+                return false;
+            }
+        } else {
+            entry.sprite.applyTransform(model);
+        }
+        entry.model = model;
+        if (!initControls(entry)) {
+            entry.model = null;
+            staticModels.add(entry.sprite.getModelPath());
+            return false;
+        }
+
+        animatedNode.attachChild(model);
+        modelInstancer.setHidden(entry.geometries, true);
+        return true;
+    }
+
+    /**
+     * Gibt die Kopie zurück in den Pool und blendet die Instanzen wieder ein;
+     * eigene Kopien bleiben in ihrer letzten Pose stehen
+     */
+    private void deactivate(Entry entry) {
+        if (!entry.instanced) {
+            return;
+        }
+        modelInstancer.setHidden(entry.geometries, false);
+        entry.model.removeFromParent();
+        entry.model.setCullHint(Spatial.CullHint.Inherit);
+        pool.computeIfAbsent(entry.sprite.getModelPath(), key -> new ArrayDeque<>()).push(entry.model);
+        entry.model = null;
+        entry.composer = null;
+        entry.skinning = null;
+    }
+
+    /**
+     * Sucht die Controls der Kopie, schaltet sie ab und startet eine Leerlauf-Animation
+     * mit zufälliger Phase (damit nicht alle Figuren im Gleichschritt laufen)
+     * @return false wenn das Modell keine Animationen hat
+     */
+    private boolean initControls(Entry entry) {
+        AnimComposer composer = findControl(entry.model, AnimComposer.class);
+        if (composer == null) {
+            // Ältere Modelle mit AnimControl auf das neue Animationssystem umstellen
+            AnimMigrationUtils.migrate(entry.model);
+            composer = findControl(entry.model, AnimComposer.class);
+        }
+        if (composer == null || composer.getAnimClipsNames().isEmpty()) {
+            return false;
+        }
+        SkinningControl skinning = findControl(entry.model, SkinningControl.class);
+        composer.setEnabled(false);
+        if (skinning != null) {
+            skinning.setHardwareSkinningPreferred(true);
+            skinning.setEnabled(false);
+        }
+
+        if (composer.getCurrentAction() == null) {
+            String clipName = chooseIdleClip(composer);
+            composer.setCurrentAction(clipName);
+            AnimClip clip = composer.getAnimClip(clipName);
+            composer.setTime(AnimComposer.DEFAULT_LAYER, FastMath.nextRandomFloat() * clip.getLength());
+        }
+        entry.composer = composer;
+        entry.skinning = skinning;
+        // Erster Takt sofort, sonst erscheint die Kopie einen Frame lang in Bind-Pose
+        entry.accumulated = REDUCED_RATE_INTERVAL;
+        return true;
+    }
+
+    private String chooseIdleClip(AnimComposer composer) {
+        String first = null;
+        for (String name : composer.getAnimClipsNames()) {
+            String lower = name.toLowerCase();
+            if (lower.contains("idle") || lower.contains("stand")) {
+                return name;
+            }
+            if (first == null) {
+                first = name;
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Spielt die aufgelaufene Zeit ab; Skinning läuft nur in diesem Frame
+     */
+    private void tick(Entry entry) {
+        entry.composer.setEnabled(true);
+        entry.composer.update(entry.accumulated);
+        entry.composer.setEnabled(false);
+        entry.accumulated = 0f;
+        if (entry.skinning != null) {
+            entry.skinning.setEnabled(true);
+            skinnedLastFrame.add(entry.skinning);
+        }
+        ticks++;
+    }
+
+    /**
+     * Ausgeblendet per CullHint (Geometry selbst oder ein Eltern-Node wie der Chunk-Node)
+     */
+    private boolean isHidden(Spatial spatial) {
+        for (Spatial s = spatial; s != null; s = s.getParent()) {
+            if (s.getCullHint() == Spatial.CullHint.Always) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <T extends com.jme3.scene.control.Control> T findControl(Spatial spatial, Class<T> type) {
+        T control = spatial.getControl(type);
+        if (control == null && spatial instanceof Node) {
+            for (Spatial child : ((Node) spatial).getChildren()) {
+                control = findControl(child, type);
+                if (control != null) {
+                    break;
+                }
+            }
+        }
+        return control;
+    }
+
+    // ==================== Statistik ====================
+
+    public int getRegisteredCount() {
+        return entries.size();
+    }
+
+    public int getActiveCount() {
+        return active.size();
+    }
+
+    public int getFrozenCount() {
+        return frozen;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.jme07;
+
+import com.jme3.asset.AssetManager;
+import com.jme3.material.Material;
+import com.jme3.math.Quaternion;
+import com.jme3.math.Transform;
+import com.jme3.math.Vector3f;
+import com.jme3.renderer.Camera;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
+import com.jme3.scene.instancing.InstancedGeometry;
+import com.jme3.scene.instancing.InstancedNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * ModelInstancer - Rendert ModelSprites über einen gemeinsamen InstancedNode
+ *
+ * Pro Modell wird die Vorlage einmal geladen, von Animations-Controls befreit und in ihre
+ * Teile (Mesh + Material + Transform relativ zur Wurzel) zerlegt. Jede Platzierung erzeugt
+ * nur noch leichte Geometries, die Mesh und Material teilen; der InstancedNode fasst sie
+ * pro Mesh und Material zu je einem InstancedGeometry (ein Draw-Call) zusammen.
+ * Speicher und Draw-Calls wachsen damit mit der Anzahl der Modelltypen, nicht der Instanzen.
+ *
+ * Modelle mit Materialien ohne UseInstancing-Parameter liefern null; der Aufrufer
+ * verwendet dann weiterhin ModelSprite.createGeometries().
+ */
+public class ModelInstancer {
+
+    private static class TemplatePart {
+        final String name;
+        final Mesh mesh;
+        final Material material;
+        final Transform transform;
+
+        TemplatePart(String name, Mesh mesh, Material material, Transform transform) {
+            this.name = name;
+            this.mesh = mesh;
+            this.material = material;
+            this.transform = transform;
+        }
+    }
+
+    private final AssetManager assetManager;
+    private final InstancedNode instancedNode;
+
+    // Zerlegte Vorlagen pro Modellpfad (null-Eintrag = nicht instanzierbar)
+    private final Map<String, List<TemplatePart>> templates = new HashMap<>();
+    // Instanzen, die gerade durch eine animierte Kopie ersetzt sind (ModelAnimationManager)
+    private final Set<Geometry> hidden = Collections.newSetFromMap(new IdentityHashMap<>());
+    private boolean dirty = false;
+    // Vorherige (globale) Culling-Funktion aller InstancedGeometries, wird bei cleanup wiederhergestellt
+    private final BiFunction<Camera, Geometry, Boolean> previousCulling;
+
+    public ModelInstancer(AssetManager assetManager, Node parentNode) {
+        this.assetManager = assetManager;
+        this.instancedNode = new InstancedNode("ModelInstances");
+        parentNode.attachChild(instancedNode);
+
+        // Die Funktion ist statisch und gilt auch für BillboardBatcher und GrassField:
+        // nur eigene Instanzen mit CullHint.Always (z.B. Horizon-Culling) oder animierter Kopie ausblenden
+        previousCulling = InstancedGeometry.getInstanceCullingFunction();
+        InstancedGeometry.setInstanceCullingFunction((camera, geom) -> {
+            if (geom.getParent() == instancedNode
+                    && (geom.getCullHint() == Spatial.CullHint.Always || hidden.contains(geom))) {
+                return false;
+            }
+            return previousCulling.apply(camera, geom);
+        });
+    }
+
+    /**
+     * Erstellt die Instanz-Geometries eines ModelSprites (hängen am InstancedNode)
+     * @return die Geometries, oder null wenn das Modell nicht instanziert werden kann
+     */
+    public List<Geometry> createInstances(ModelSprite sprite) {
+        List<TemplatePart> parts = getTemplate(sprite.getModelPath());
+        if (parts == null) {
+            return null;
+        }
+
+        Quaternion rotation = new Quaternion().fromAngleAxis(sprite.getRotation(), Vector3f.UNIT_Y);
+        float scale = sprite.getScale();
+        Transform spriteTransform = new Transform(sprite.getPosition(), rotation, new Vector3f(scale, scale, scale));
+
+        List<Geometry> instances = new ArrayList<>(parts.size());
+        for (TemplatePart part : parts) {
+            Geometry geom = new Geometry(part.name, part.mesh);
+            geom.setMaterial(part.material);
+            geom.setLocalTransform(part.transform.clone().combineWithParent(spriteTransform));
+            instancedNode.attachChild(geom);
+            instances.add(geom);
+        }
+        dirty = true;
+        return instances;
+    }
+
+    /**
+     * Ordnet neu hinzugefügte Geometries ihren InstancedGeometries zu (einmal pro Frame)
+     */
+    public void update() {
+        if (dirty) {
+            instancedNode.instance();
+            dirty = false;
+        }
+    }
+
+    public Node getNode() {
+        return instancedNode;
+    }
+
+    /**
+     * Blendet Instanzen aus bzw. wieder ein, unabhängig von ihrem CullHint
+     */
+    public void setHidden(List<Geometry> instances, boolean hide) {
+        if (hide) {
+            hidden.addAll(instances);
+        } else {
+            hidden.removeAll(instances);
+        }
+    }
+
+    /**
+     * Anzahl der Modelltypen, die instanziert gerendert werden
+     */
+    public int getModelTypeCount() {
+        int count = 0;
+        for (List<TemplatePart> parts : templates.values()) {
+            if (parts != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Stellt die vorherige Culling-Funktion der InstancedGeometries wieder her
+     */
+    public void cleanup() {
+        InstancedGeometry.setInstanceCullingFunction(previousCulling);
+    }
+
+    private List<TemplatePart> getTemplate(String modelPath) {
+        if (templates.containsKey(modelPath)) {
+            return templates.get(modelPath);
+        }
+
+        List<TemplatePart> parts = null;
+        try {
+            Spatial model = assetManager.loadModel(modelPath);
+            parts = decompose(model);
+            if (parts == null) {
+                System.out.println("ModelInstancer: " + modelPath + " nicht instanzierbar (Material ohne UseInstancing)");
+            } else {
+                System.out.println("ModelInstancer: Vorlage " + modelPath + " mit " + parts.size() + " Teilen");
+            }
+        } catch (Exception e) {
+            System.err.println("FEHLER beim Laden von Modell " + modelPath + ": " + e.getMessage());
+        }
+        templates.put(modelPath, parts);
+        return parts;
+    }
+
+    /**
+     * Zerlegt eine Modell-Vorlage in ihre Geometry-Teile (in Bind-Pose, ohne Controls)
+     */
+    private List<TemplatePart> decompose(Spatial model) {
+        stripControls(model);
+        model.setLocalTransform(Transform.IDENTITY);
+        model.updateGeometricState();
+
+        List<Geometry> geometries = new ArrayList<>();
+        collectGeometries(model, geometries);
+
+        // Gleiches Ausgangsmaterial -> gleiches Instancing-Material (sonst getrennte Draw-Calls)
+        Map<Material, Material> instancingMaterials = new IdentityHashMap<>();
+        List<TemplatePart> parts = new ArrayList<>(geometries.size());
+        for (Geometry geom : geometries) {
+            Material source = geom.getMaterial();
+            if (source.getMaterialDef().getMaterialParam("UseInstancing") == null) {
+                return null;
+            }
+            Material material = instancingMaterials.computeIfAbsent(source, m -> {
+                Material clone = m.clone();
+                clone.setBoolean("UseInstancing", true);
+                return clone;
+            });
+            parts.add(new TemplatePart(geom.getName(), geom.getMesh(), material, geom.getWorldTransform().clone()));
+        }
+        return parts;
+    }
+
+    /**
+     * Entfernt Animations- und Skinning-Controls: Instanzen teilen sich das Mesh in Bind-Pose
+     */
+    static void stripControls(Spatial spatial) {
+        while (spatial.getNumControls() > 0) {
+            spatial.removeControl(spatial.getControl(0));
+        }
+        if (spatial instanceof Node) {
+            for (Spatial child : ((Node) spatial).getChildren()) {
+                stripControls(child);
+            }
+        }
+    }
+
+    private void collectGeometries(Spatial spatial, List<Geometry> geometries) {
+        if (spatial instanceof Geometry) {
+            geometries.add((Geometry) spatial);
+        } else if (spatial instanceof Node) {
+            for (Spatial child : ((Node) spatial).getChildren()) {
+                collectGeometries(child, geometries);
+            }
+        }
+    }
+}
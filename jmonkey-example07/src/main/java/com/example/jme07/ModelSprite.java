@@ -26,17 +26,43 @@ public class ModelSprite extends Sprite {
         this.modelPath = modelPath;
     }
 
+    public String getModelPath() {
+        return modelPath;
+    }
+
+    @Override
+    public float getRadius() {
+        // scale entspricht der Modellhöhe, Figuren sind etwa halb so breit wie hoch
+        return scale * 0.25f;
+    }
+
     @Override
     public List<Geometry> createGeometries(AssetManager assetManager, Node parentNode) {
         List<Geometry> geometries = new ArrayList<>();
 
+        Spatial modelNode = createModel(assetManager);
+        if (modelNode != null) {
+            parentNode.attachChild(modelNode);
+
+            // Sammle alle Geometries für Cleanup
+            collectGeometries(modelNode, geometries);
+        }
+
+        return geometries;
+    }
+
+    /**
+     * Erstellt eine eigene, positionierte Kopie des Modells (noch nicht angehängt)
+     * @return der Node des Modells, oder null wenn das Modell nicht geladen werden kann
+     */
+    public Spatial createModel(AssetManager assetManager) {
         try {
             // Lade oder hole 3D-Modell aus Cache
             Spatial modelTemplate = getModel(assetManager);
 
             if (modelTemplate == null) {
                 System.err.println("FEHLER: Modell nicht gefunden: " + modelPath);
-                return geometries;
+                return null;
             }
 
             // Clone das Modell (wichtig! Sonst werden alle Instanzen verändert)
@@ -45,28 +71,30 @@ public class ModelSprite extends Sprite {
             // Erstelle Node für dieses Modell
             Node modelNode = new Node("model_" + modelPath.hashCode());
             modelNode.attachChild(model);
-
-            // Positioniere Modell
-            modelNode.setLocalTranslation(position);
-
-            // Skaliere Modell (scale enthält bereits die gewünschte Höhe)
-            modelNode.setLocalScale(scale);
-
-            // Rotiere Modell um Y-Achse
-            Quaternion rot = new Quaternion();
-            rot.fromAngleAxis(rotation, Vector3f.UNIT_Y);
-            modelNode.setLocalRotation(rot);
-
-            parentNode.attachChild(modelNode);
-
-            // Sammle alle Geometries für Cleanup
-            collectGeometries(modelNode, geometries);
+            applyTransform(modelNode);
+            return modelNode;
 
         } catch (Exception e) {
             System.err.println("FEHLER beim Laden von Modell " + modelPath + ": " + e.getMessage());
+            return null;
         }
+    }
 
-        return geometries;
+    /**
+     * Setzt Position, Skalierung und Drehung dieses Sprites auf einen Modell-Node
+     * (auch für wiederverwendete Kopien desselben Modells)
+     */
+    public void applyTransform(Spatial modelNode) {
+        // Positioniere Modell
+        modelNode.setLocalTranslation(position);
+
+        // Skaliere Modell (scale enthält bereits die gewünschte Höhe)
+        modelNode.setLocalScale(scale);
+
+        // Rotiere Modell um Y-Achse
+        Quaternion rot = new Quaternion();
+        rot.fromAngleAxis(rotation, Vector3f.UNIT_Y);
+        modelNode.setLocalRotation(rot);
     }
 
     /**
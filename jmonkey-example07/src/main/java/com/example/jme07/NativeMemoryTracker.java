@@ -0,0 +1,218 @@
+package com.example.jme07;
+
+import com.jme3.renderer.Renderer;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.texture.Image;
+import com.jme3.util.BufferUtils;
+
+import java.nio.Buffer;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * NativeMemoryTracker - Zählt die lebenden nativen Bytes (Direct-Buffer von Meshes und Images)
+ * pro Kategorie und gibt sie beim Entladen deterministisch frei
+ *
+ * Jedes Mesh bzw. Image wird per Referenzzählung geführt: geteilte Ressourcen (Wasser-Quad,
+ * Sprite-Modelle) zählen genau einmal. Nur Ressourcen, die als "owned" registriert wurden,
+ * werden beim letzten release() auf der GPU gelöscht und ihre Direct-Buffer zerstört -
+ * geteilte Vorlagen bleiben unangetastet.
+ *
+ * Nur vom Render-Thread verwenden (GPU-Löschen braucht den GL-Kontext).
+ */
+public class NativeMemoryTracker {
+
+    public enum Category {
+        TERRAIN,
+        WATER,
+        SPRITES
+    }
+
+    private static class Entry {
+        final Category category;
+        final long bytes;
+        final boolean owned;
+        int refs;
+
+        Entry(Category category, long bytes, boolean owned) {
+            this.category = category;
+            this.bytes = bytes;
+            this.owned = owned;
+        }
+    }
+
+    private final Renderer renderer;
+    private final Map<Object, Entry> entries = new IdentityHashMap<>();
+    private final long[] liveBytes = new long[Category.values().length];
+    private final int[] liveObjects = new int[Category.values().length];
+    private long destroyedBytes = 0;
+
+    /**
+     * @param renderer zum Löschen der GPU-Objekte (null = nur Direct-Buffer freigeben)
+     */
+    public NativeMemoryTracker(Renderer renderer) {
+        this.renderer = renderer;
+    }
+
+    // ==================== Meshes ====================
+
+    public void retain(Category category, Mesh mesh, boolean owned) {
+        retainObject(category, mesh, owned);
+    }
+
+    /**
+     * Gibt eine Referenz frei; beim letzten Release wird ein owned Mesh gelöscht
+     */
+    public void release(Mesh mesh) {
+        Entry entry = releaseObject(mesh);
+        if (entry != null && entry.owned) {
+            destroyMesh(mesh);
+            destroyedBytes += entry.bytes;
+        }
+    }
+
+    /**
+     * Registriert alle Meshes unterhalb eines Spatials
+     */
+    public void retainAll(Category category, Spatial spatial, boolean owned) {
+        if (spatial instanceof Geometry) {
+            retain(category, ((Geometry) spatial).getMesh(), owned);
+        } else if (spatial instanceof Node) {
+            for (Spatial child : ((Node) spatial).getChildren()) {
+                retainAll(category, child, owned);
+            }
+        }
+    }
+
+    public void releaseAll(Spatial spatial) {
+        if (spatial instanceof Geometry) {
+            release(((Geometry) spatial).getMesh());
+        } else if (spatial instanceof Node) {
+            for (Spatial child : ((Node) spatial).getChildren()) {
+                releaseAll(child);
+            }
+        }
+    }
+
+    // ==================== Images ====================
+
+    public void retain(Category category, Image image, boolean owned) {
+        retainObject(category, image, owned);
+    }
+
+    /**
+     * Gibt eine Referenz frei; beim letzten Release wird das Image auf der GPU gelöscht.
+     * @param destroyData false wenn die Buffer einem Pool gehören und dorthin zurückgehen
+     */
+    public void release(Image image, boolean destroyData) {
+        Entry entry = releaseObject(image);
+        if (entry != null && entry.owned) {
+            if (renderer != null) {
+                renderer.deleteImage(image);
+            }
+            if (destroyData) {
+                for (int i = 0; i < image.getData().size(); i++) {
+                    BufferUtils.destroyDirectBuffer(image.getData(i));
+                }
+                // Zerstörte Buffer dürfen nicht mehr erreichbar sein
+                image.setData(new ArrayList<>());
+                destroyedBytes += entry.bytes;
+            }
+        }
+    }
+
+    // ==================== Statistik ====================
+
+    public long getLiveBytes(Category category) {
+        return liveBytes[category.ordinal()];
+    }
+
+    public int getLiveObjects(Category category) {
+        return liveObjects[category.ordinal()];
+    }
+
+    /**
+     * Summe der bisher deterministisch zerstörten Bytes (nicht gepoolt)
+     */
+    public long getDestroyedBytes() {
+        return destroyedBytes;
+    }
+
+    public String report() {
+        StringBuilder sb = new StringBuilder("Native-Speicher:");
+        for (Category category : Category.values()) {
+            sb.append(String.format(" %s %.1f MB (%d)", category.name().toLowerCase(),
+                    getLiveBytes(category) / (1024f * 1024f), getLiveObjects(category)));
+        }
+        sb.append(String.format(", bisher freigegeben %.1f MB", destroyedBytes / (1024f * 1024f)));
+        return sb.toString();
+    }
+
+    // ==================== Intern ====================
+
+    private void retainObject(Category category, Object object, boolean owned) {
+        Entry entry = entries.get(object);
+        if (entry == null) {
+            long bytes = object instanceof Mesh ? meshBytes((Mesh) object) : imageBytes((Image) object);
+            entry = new Entry(category, bytes, owned);
+            entries.put(object, entry);
+            liveBytes[category.ordinal()] += bytes;
+            liveObjects[category.ordinal()]++;
+        }
+        entry.refs++;
+    }
+
+    /**
+     * @return den Eintrag, wenn dies die letzte Referenz war (sonst null)
+     */
+    private Entry releaseObject(Object object) {
+        Entry entry = entries.get(object);
+        if (entry == null || --entry.refs > 0) {
+            return null;
+        }
+        entries.remove(object);
+        liveBytes[entry.category.ordinal()] -= entry.bytes;
+        liveObjects[entry.category.ordinal()]--;
+        return entry;
+    }
+
+    private void destroyMesh(Mesh mesh) {
+        for (VertexBuffer vb : mesh.getBufferList().toArray(new VertexBuffer[0])) {
+            if (renderer != null) {
+                renderer.deleteBuffer(vb);
+            }
+            Buffer data = vb.getData();
+            if (data != null && data.isDirect()) {
+                BufferUtils.destroyDirectBuffer(data);
+            }
+            // Zerstörte Buffer dürfen nicht mehr erreichbar sein
+            mesh.clearBuffer(vb.getBufferType());
+        }
+    }
+
+    public static long meshBytes(Mesh mesh) {
+        long bytes = 0;
+        for (VertexBuffer vb : mesh.getBufferList()) {
+            Buffer data = vb.getData();
+            if (data != null) {
+                bytes += (long) data.capacity() * vb.getFormat().getComponentSize();
+            }
+        }
+        return bytes;
+    }
+
+    public static long imageBytes(Image image) {
+        long bytes = 0;
+        for (int i = 0; i < image.getData().size(); i++) {
+            if (image.getData(i) != null) {
+                bytes += image.getData(i).capacity();
+            }
+        }
+        return bytes;
+    }
+}
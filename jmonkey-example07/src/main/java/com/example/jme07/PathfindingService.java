@@ -0,0 +1,74 @@
+package com.example.jme07;
+
+import com.jme3.math.Vector3f;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchrone Pfadsuche für NPCs und Click-to-Move.
+ *
+ * Die Suche läuft auf eigenen Worker-Threads, der Render-Thread wird nie blockiert.
+ * Ergebnisse kommen als CompletableFuture zurück; Änderungen am Scene-Graph müssen
+ * vom Aufrufer per app.enqueue() zurück auf den Render-Thread gebracht werden.
+ */
+public class PathfindingService {
+
+    private static final int WORKER_THREADS = 2;
+
+    private final HierarchicalPathfinder pathfinder;
+    private final ExecutorService executor;
+
+    public PathfindingService(TileProvider tileProvider) {
+        this.pathfinder = new HierarchicalPathfinder(tileProvider);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(WORKER_THREADS, r -> {
+            Thread t = new Thread(r, "Pathfinding-Thread-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Sucht einen Pfad zwischen zwei Weltpositionen (non-blocking)
+     *
+     * @return Future mit den Wegpunkten, leere Liste wenn kein Pfad gefunden wurde
+     */
+    public CompletableFuture<List<Vector3f>> findPath(Vector3f from, Vector3f to) {
+        // Koordinaten sofort übernehmen - die Vektoren (z.B. Kameraposition) können sich ändern
+        int startX = (int) Math.floor(from.x);
+        int startZ = (int) Math.floor(from.z);
+        int goalX = (int) Math.floor(to.x);
+        int goalZ = (int) Math.floor(to.z);
+
+        return CompletableFuture.supplyAsync(() -> pathfinder.findPath(startX, startZ, goalX, goalZ), executor);
+    }
+
+    /**
+     * Verwirft die gecachten Portale eines Chunks (z.B. nach Änderung der Tiles)
+     */
+    public void invalidateChunk(int chunkX, int chunkZ) {
+        pathfinder.invalidateChunk(chunkX, chunkZ);
+    }
+
+    public HierarchicalPathfinder getPathfinder() {
+        return pathfinder;
+    }
+
+    /**
+     * Shutdown der Worker-Threads
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(2, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,19 +1,17 @@
 package com.example.jme07;
 
-import com.jme3.math.Vector3f;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 /**
  * ProceduralSpriteProvider - Generiert Sprites prozedural basierend auf Terrain
- * Verwendet Seed für deterministische Generierung
+ * Verwendet Seed für deterministische Generierung, schreibt direkt in einen SpriteBatch
  */
 public class ProceduralSpriteProvider implements SpriteProvider {
 
     private final long seed;
     private final TileProvider terrainProvider;
     private final int chunkSize;
+    private final boolean grassSprites;
 
     // Dichte-Parameter (Sprites pro Chunk)
     private static final int TREE_DENSITY = 5;
@@ -23,14 +21,23 @@ public class ProceduralSpriteProvider implements SpriteProvider {
     private static final int MODEL_DENSITY = 2;  // 3D Modelle (seltener)
 
     public ProceduralSpriteProvider(long seed, TileProvider terrainProvider, int chunkSize) {
+        this(seed, terrainProvider, chunkSize, true);
+    }
+
+    /**
+     * @param grassSprites false wenn Gras separat gerendert wird (GrassField)
+     */
+    public ProceduralSpriteProvider(long seed, TileProvider terrainProvider, int chunkSize, boolean grassSprites) {
         this.seed = seed;
         this.terrainProvider = terrainProvider;
         this.chunkSize = chunkSize;
+        this.grassSprites = grassSprites;
     }
 
     @Override
-    public List<Sprite> getSprites(int chunkX, int chunkZ, int chunkSize, TerrainTile[] tiles) {
-        List<Sprite> sprites = new ArrayList<>();
+    public SpriteBatch getSprites(int chunkX, int chunkZ, int chunkSize, TerrainTile[] tiles) {
+        SpriteBatch sprites = new SpriteBatch(TREE_DENSITY + BUSH_DENSITY + ROCK_DENSITY
+                + (grassSprites ? GRASS_DENSITY : 0) + MODEL_DENSITY);
 
         // Deterministischer Random basierend auf Chunk-Koordinaten
         Random random = new Random(seed + chunkX * 73856093L + chunkZ * 19349663L);
@@ -39,15 +46,18 @@ public class ProceduralSpriteProvider implements SpriteProvider {
         generateTreeSprites(sprites, random, tiles, chunkX, chunkZ, chunkSize);
         generateBushSprites(sprites, random, tiles, chunkX, chunkZ, chunkSize);
         generateRockSprites(sprites, random, tiles, chunkX, chunkZ, chunkSize);
-        generateGrassSprites(sprites, random, tiles, chunkX, chunkZ, chunkSize);
+        if (grassSprites) {
+            generateGrassSprites(sprites, random, tiles, chunkX, chunkZ, chunkSize);
+        }
 
         // Generiere 3D Model Sprites (immer, auch bei bigOnly)
         generateModelSprites(sprites, random, tiles, chunkX, chunkZ, chunkSize);
 
+        sprites.trimToSize();
         return sprites;
     }
 
-    private void generateTreeSprites(List<Sprite> sprites, Random random, TerrainTile[] tiles, int chunkX, int chunkZ, int chunkSize) {
+    private void generateTreeSprites(SpriteBatch sprites, Random random, TerrainTile[] tiles, int chunkX, int chunkZ, int chunkSize) {
         for (int i = 0; i < TREE_DENSITY; i++) {
             // Zufällige Position im Chunk
             int localX = random.nextInt(chunkSize);
@@ -63,14 +73,13 @@ public class ProceduralSpriteProvider implements SpriteProvider {
                     float worldZ = chunkZ * (chunkSize - 1) + localZ;
                     float height = tile.getHeight();
 
-                    Vector3f position = new Vector3f(worldX, height, worldZ);
-                    sprites.add(SpriteBuilders.createRandomTree(position, random));
+                    SpriteBuilders.addRandomTree(sprites, worldX, height, worldZ, random);
                 }
             }
         }
     }
 
-    private void generateBushSprites(List<Sprite> sprites, Random random, TerrainTile[] tiles, int chunkX, int chunkZ, int chunkSize) {
+    private void generateBushSprites(SpriteBatch sprites, Random random, TerrainTile[] tiles, int chunkX, int chunkZ, int chunkSize) {
         for (int i = 0; i < BUSH_DENSITY; i++) {
             int localX = random.nextInt(chunkSize);
             int localZ = random.nextInt(chunkSize);
@@ -84,14 +93,13 @@ public class ProceduralSpriteProvider implements SpriteProvider {
                     float worldZ = chunkZ * (chunkSize - 1) + localZ;
                     float height = tile.getHeight();
 
-                    Vector3f position = new Vector3f(worldX, height, worldZ);
-                    sprites.add(SpriteBuilders.createRandomBush(position, random));
+                    SpriteBuilders.addRandomBush(sprites, worldX, height, worldZ, random);
                 }
             }
         }
     }
 
-    private void generateRockSprites(List<Sprite> sprites, Random random, TerrainTile[] tiles, int chunkX, int chunkZ, int chunkSize) {
+    private void generateRockSprites(SpriteBatch sprites, Random random, TerrainTile[] tiles, int chunkX, int chunkZ, int chunkSize) {
         for (int i = 0; i < ROCK_DENSITY; i++) {
             int localX = random.nextInt(chunkSize);
             int localZ = random.nextInt(chunkSize);
@@ -106,14 +114,13 @@ public class ProceduralSpriteProvider implements SpriteProvider {
                     float worldZ = chunkZ * (chunkSize - 1) + localZ;
                     float height = tile.getHeight();
 
-                    Vector3f position = new Vector3f(worldX, height, worldZ);
-                    sprites.add(SpriteBuilders.createRandomRock(position, random));
+                    SpriteBuilders.addRandomRock(sprites, worldX, height, worldZ, random);
                 }
             }
         }
     }
 
-    private void generateGrassSprites(List<Sprite> sprites, Random random, TerrainTile[] tiles, int chunkX, int chunkZ, int chunkSize) {
+    private void generateGrassSprites(SpriteBatch sprites, Random random, TerrainTile[] tiles, int chunkX, int chunkZ, int chunkSize) {
         for (int i = 0; i < GRASS_DENSITY; i++) {
             int localX = random.nextInt(chunkSize);
             int localZ = random.nextInt(chunkSize);
@@ -128,14 +135,13 @@ public class ProceduralSpriteProvider implements SpriteProvider {
                     float worldZ = chunkZ * (chunkSize - 1) + localZ;
                     float height = tile.getHeight();
 
-                    Vector3f position = new Vector3f(worldX, height, worldZ);
-                    sprites.add(SpriteBuilders.createRandomGrass(position, random));
+                    SpriteBuilders.addRandomGrass(sprites, worldX, height, worldZ, random);
                 }
             }
         }
     }
 
-    private void generateModelSprites(List<Sprite> sprites, Random random, TerrainTile[] tiles, int chunkX, int chunkZ, int chunkSize) {
+    private void generateModelSprites(SpriteBatch sprites, Random random, TerrainTile[] tiles, int chunkX, int chunkZ, int chunkSize) {
         for (int i = 0; i < MODEL_DENSITY; i++) {
             int localX = random.nextInt(chunkSize);
             int localZ = random.nextInt(chunkSize);
@@ -150,8 +156,7 @@ public class ProceduralSpriteProvider implements SpriteProvider {
                     float worldZ = chunkZ * (chunkSize - 1) + localZ;
                     float height = tile.getHeight();
 
-                    Vector3f position = new Vector3f(worldX, height, worldZ);
-                    sprites.add(SpriteBuilders.createRandomModel(position, random));
+                    SpriteBuilders.addRandomModel(sprites, worldX, height, worldZ, random);
                 }
             }
         }
@@ -160,7 +165,7 @@ public class ProceduralSpriteProvider implements SpriteProvider {
     @Override
     public String getName() {
         return "ProceduralSpriteProvider(seed=" + seed + ", densities=[trees=" + TREE_DENSITY +
-                ", bushes=" + BUSH_DENSITY + ", rocks=" + ROCK_DENSITY + ", grass=" + GRASS_DENSITY +
+                ", bushes=" + BUSH_DENSITY + ", rocks=" + ROCK_DENSITY + ", grass=" + (grassSprites ? GRASS_DENSITY : 0) +
                 ", models=" + MODEL_DENSITY + "])";
     }
 }
@@ -0,0 +1,277 @@
+package com.example.jme07;
+
+import com.jme3.math.Vector3f;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * QualityGovernor - Passt Sichtweite, Sprite-Ringe und Terrain-LOD zur Laufzeit an
+ *
+ * Beobachtet die (geglättete) Frame-Zeit, den Rückstand des ChunkLoaders und die
+ * Kamera-Geschwindigkeit und wechselt zwischen festen Qualitätsstufen, jeweils um eine Stufe:
+ * - runter, wenn die Frame-Zeit über dem Ziel liegt, der Loader nicht nachkommt oder schnell
+ *   geflogen wird (schneller Flug allein nur bis FAST_FLIGHT_LEVEL)
+ * - hoch, wenn deutlich Luft ist, der Loader leer ist und die Kamera ruht
+ * Hysterese: getrennte Schwellen für runter/hoch, der Zustand muss eine Weile anhalten und
+ * nach jedem Wechsel gilt eine Pause (der Wechsel selbst lädt bzw. entlädt Chunks).
+ *
+ * Jeder Wechsel wird als QualityEvent ausgegeben und gespeichert, damit sich Qualitätswechsel
+ * mit der Performance vergleichen lassen.
+ *
+ * Nur Render-Thread.
+ */
+public class QualityGovernor {
+
+    /**
+     * Eine Qualitätsstufe (Distanzen in Chunks)
+     */
+    public static class QualityLevel {
+        private final int viewDistance;
+        private final int spriteNearDistance;
+        private final int spriteFarDistance;
+        private final int spriteImpostorDistance;
+        private final float lodMultiplier;
+
+        public QualityLevel(int viewDistance, int spriteNearDistance, int spriteFarDistance,
+                            int spriteImpostorDistance, float lodMultiplier) {
+            this.viewDistance = viewDistance;
+            this.spriteNearDistance = spriteNearDistance;
+            this.spriteFarDistance = spriteFarDistance;
+            this.spriteImpostorDistance = spriteImpostorDistance;
+            this.lodMultiplier = lodMultiplier;
+        }
+
+        public int getViewDistance() {
+            return viewDistance;
+        }
+
+        public int getSpriteNearDistance() {
+            return spriteNearDistance;
+        }
+
+        public int getSpriteFarDistance() {
+            return spriteFarDistance;
+        }
+
+        public int getSpriteImpostorDistance() {
+            return spriteImpostorDistance;
+        }
+
+        public float getLodMultiplier() {
+            return lodMultiplier;
+        }
+
+        @Override
+        public String toString() {
+            return "Sicht " + viewDistance + ", Sprites " + spriteNearDistance + "/" + spriteFarDistance + "/"
+                    + spriteImpostorDistance + ", LOD x" + lodMultiplier;
+        }
+    }
+
+    /**
+     * Ein Qualitätswechsel mit den Messwerten zum Zeitpunkt des Wechsels
+     */
+    public static class QualityEvent {
+        private final float time;
+        private final int fromLevel;
+        private final int toLevel;
+        private final String reason;
+        private final float frameMillis;
+        private final int loaderBacklog;
+        private final float cameraSpeed;
+
+        QualityEvent(float time, int fromLevel, int toLevel, String reason, float frameMillis, int loaderBacklog, float cameraSpeed) {
+            this.time = time;
+            this.fromLevel = fromLevel;
+            this.toLevel = toLevel;
+            this.reason = reason;
+            this.frameMillis = frameMillis;
+            this.loaderBacklog = loaderBacklog;
+            this.cameraSpeed = cameraSpeed;
+        }
+
+        public float getTime() {
+            return time;
+        }
+
+        public int getFromLevel() {
+            return fromLevel;
+        }
+
+        public int getToLevel() {
+            return toLevel;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public float getFrameMillis() {
+            return frameMillis;
+        }
+
+        public int getLoaderBacklog() {
+            return loaderBacklog;
+        }
+
+        public float getCameraSpeed() {
+            return cameraSpeed;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("[%.1fs] Qualität %d -> %d (%s) - Frame %.1fms, Loader %d, Kamera %.1f E/s",
+                    time, fromLevel, toLevel, reason, frameMillis, loaderBacklog, cameraSpeed);
+        }
+    }
+
+    // Stufe 3 entspricht den bisherigen festen Werten (12 / 4 / 8 / 10 / 2.7)
+    private static final QualityLevel[] LEVELS = {
+            new QualityLevel(6, 2, 4, 5, 1.6f),
+            new QualityLevel(8, 3, 5, 7, 2.0f),
+            new QualityLevel(10, 3, 6, 8, 2.3f),
+            new QualityLevel(12, 4, 8, 10, 2.7f),
+            new QualityLevel(14, 5, 9, 12, 3.1f),
+            new QualityLevel(16, 6, 11, 14, 3.5f)
+    };
+    private static final int DEFAULT_LEVEL = 3;
+    private static final int FAST_FLIGHT_LEVEL = 1;          // Tiefste Stufe, auf die schneller Flug allein zurückschaltet
+
+    private static final float TARGET_FPS = 60f;              // Ziel-Framerate
+    private static final float DOWNGRADE_FACTOR = 1.2f;       // Runter ab Frame-Zeit > Ziel * Faktor
+    private static final float UPGRADE_FACTOR = 0.7f;         // Hoch erst unter Ziel * Faktor
+    private static final float FRAME_SMOOTHING = 0.05f;       // Gewicht eines Frames im gleitenden Mittel
+    private static final float DOWNGRADE_DELAY = 1.5f;        // Sekunden unter Druck bis zum Runterschalten
+    private static final float UPGRADE_DELAY = 5f;            // Sekunden mit Luft bis zum Hochschalten
+    private static final float COOLDOWN = 3f;                 // Pause nach jedem Wechsel (und beim Start)
+    private static final int BACKLOG_HIGH = 40;               // Loader kommt nicht nach (wartende Chunks)
+    private static final int BACKLOG_LOW = 4;                 // Loader praktisch leer
+    private static final float FAST_SPEED = 60f;              // Schneller Flug (Einheiten pro Sekunde)
+    private static final float IDLE_SPEED = 5f;               // Kamera ruht
+    private static final int MAX_EVENTS = 100;                // Gespeicherte Wechsel
+
+    private final float targetFrameMillis;
+    private int level = DEFAULT_LEVEL;
+
+    private float time = 0f;
+    private float frameMillis;
+    private float cameraSpeed = 0f;
+    private final Vector3f lastCamPos = new Vector3f();
+    private boolean hasCamPos = false;
+    private float downTimer = 0f;
+    private float upTimer = 0f;
+    private float cooldown = COOLDOWN;
+
+    private final ArrayDeque<QualityEvent> events = new ArrayDeque<>();
+
+    public QualityGovernor() {
+        this(TARGET_FPS);
+    }
+
+    public QualityGovernor(float targetFps) {
+        this.targetFrameMillis = 1000f / targetFps;
+        this.frameMillis = targetFrameMillis;
+    }
+
+    /**
+     * Nimmt die Messwerte eines Frames auf und schaltet bei Bedarf eine Stufe weiter
+     * @return true wenn sich die Stufe geändert hat
+     */
+    public boolean update(float tpf, Vector3f camPos, int loaderBacklog) {
+        if (tpf <= 0f) {
+            return false;
+        }
+        time += tpf;
+        frameMillis += (tpf * 1000f - frameMillis) * FRAME_SMOOTHING;
+        if (hasCamPos) {
+            float speed = camPos.distance(lastCamPos) / tpf;
+            cameraSpeed += (speed - cameraSpeed) * FRAME_SMOOTHING;
+        }
+        lastCamPos.set(camPos);
+        hasCamPos = true;
+
+        boolean tooSlow = frameMillis > targetFrameMillis * DOWNGRADE_FACTOR;
+        boolean backlogHigh = loaderBacklog > BACKLOG_HIGH;
+        boolean fastFlight = cameraSpeed > FAST_SPEED;
+        boolean headroom = frameMillis < targetFrameMillis * UPGRADE_FACTOR
+                && loaderBacklog <= BACKLOG_LOW && cameraSpeed < IDLE_SPEED;
+
+        // Schneller Flug allein schaltet nur bis FAST_FLIGHT_LEVEL zurück
+        boolean downWanted = (tooSlow || backlogHigh) && level > 0
+                || fastFlight && level > FAST_FLIGHT_LEVEL;
+        if (downWanted) {
+            downTimer += tpf;
+            upTimer = 0f;
+        } else if (headroom && level < LEVELS.length - 1) {
+            upTimer += tpf;
+            downTimer = 0f;
+        } else {
+            downTimer = 0f;
+            upTimer = 0f;
+        }
+
+        if (cooldown > 0f) {
+            cooldown -= tpf;
+            return false;
+        }
+
+        if (downTimer >= DOWNGRADE_DELAY) {
+            String reason = tooSlow ? String.format("Frame-Zeit über %.1fms", targetFrameMillis * DOWNGRADE_FACTOR)
+                    : backlogHigh ? "Loader-Rückstand über " + BACKLOG_HIGH + " Chunks"
+                    : "schneller Flug";
+            changeLevel(level - 1, reason, loaderBacklog);
+            return true;
+        }
+        if (upTimer >= UPGRADE_DELAY) {
+            changeLevel(level + 1, "Leerlauf mit Reserve", loaderBacklog);
+            return true;
+        }
+        return false;
+    }
+
+    private void changeLevel(int newLevel, String reason, int loaderBacklog) {
+        QualityEvent event = new QualityEvent(time, level, newLevel, reason, frameMillis, loaderBacklog, cameraSpeed);
+        if (events.size() >= MAX_EVENTS) {
+            events.removeFirst();
+        }
+        events.addLast(event);
+        System.out.println("QualityGovernor: " + event + " -> " + LEVELS[newLevel]);
+
+        level = newLevel;
+        downTimer = 0f;
+        upTimer = 0f;
+        cooldown = COOLDOWN;
+    }
+
+    public int getLevelIndex() {
+        return level;
+    }
+
+    public QualityLevel getLevel() {
+        return LEVELS[level];
+    }
+
+    /**
+     * Größte Sichtweite aller Stufen (für Pools, die für das größte Fenster reichen müssen)
+     */
+    public static int getMaxViewDistance() {
+        return LEVELS[LEVELS.length - 1].getViewDistance();
+    }
+
+    public float getFrameMillis() {
+        return frameMillis;
+    }
+
+    public float getCameraSpeed() {
+        return cameraSpeed;
+    }
+
+    /**
+     * Die letzten Qualitätswechsel, ältester zuerst
+     */
+    public List<QualityEvent> getEvents() {
+        return new ArrayList<>(events);
+    }
+}
@@ -18,21 +18,25 @@ import com.jme3.util.SkyFactory;
 
 /**
  * SkyLayer - Erzeugt einen dynamischen Himmel mit Beleuchtung
- * Verwendet eine Sky-Sphere die der Kamera folgt
+ * Himmel, Sonnenscheibe und Glow berechnet ein prozeduraler Shader aus der Lichtrichtung
  */
 public class SkyLayer extends Layer {
 
     private Spatial sky;
-    private Geometry sunGeometry;
+    private Material skyMaterial;
     private DirectionalLight sun;
     private AmbientLight ambient;
     private ViewPort viewPort;
     private FilterPostProcessor fpp;
     private BloomFilter bloomFilter;
 
-    private static final float SKY_RADIUS = 1000f;
-    private static final float SUN_SIZE = 120f;
-    private static final float SUN_DISTANCE = 850f;
+    private static final float SKY_RADIUS = 10f;        // Klein genug für jede Near/Far-Plane, der Shader ignoriert die Position
+    private static final boolean USE_BLOOM = false;     // Sonnen-Glow kommt aus dem Sky-Shader, Bloom nur noch optional
+    private static final float SUN_LIGHT_INTENSITY = 1.5f;
+    private static final float AMBIENT_DAY = 0.5f;
+    private static final float AMBIENT_NIGHT = 0.1f;
+
+    private float dayFactor = 1f;                       // 0 = Nacht, 1 = Tag
 
     public SkyLayer(AssetManager assetManager, Node rootNode, Camera cam, ViewPort viewPort) {
         super("SkyLayer", assetManager, rootNode, cam);
@@ -40,41 +44,40 @@ public class SkyLayer extends Layer {
 
         createLighting();
         createSky();
-        createSun();
-        createSunGlow();
+        if (USE_BLOOM) {
+            createSunGlow();
+        }
         System.out.println("SkyLayer initialisiert - Radius: " + SKY_RADIUS);
     }
 
     private void createLighting() {
         // Ambient Light - Grundbeleuchtung
         ambient = new AmbientLight();
-        ambient.setColor(ColorRGBA.White.mult(0.5f));
+        ambient.setColor(ColorRGBA.White.mult(AMBIENT_DAY));
         rootNode.addLight(ambient);
 
         // Directional Light - Sonne
         sun = new DirectionalLight();
         sun.setDirection(new Vector3f(-0.5f, -0.7f, -0.3f).normalizeLocal());
-        sun.setColor(ColorRGBA.White.mult(1.5f));
+        sun.setColor(ColorRGBA.White.mult(SUN_LIGHT_INTENSITY));
         rootNode.addLight(sun);
 
         System.out.println("Sun direction: " + sun.getDirection());
     }
 
     private void createSky() {
-        // Einfacher Farbverlaufs-Himmel
-        // WICHTIG: Die Sphere muss von INNEN sichtbar sein (invertierte Normalen)
-
-        // Erstelle eine große Sphere für den Himmel mit invertierten Normalen
+        // Prozeduraler Himmel: Farbverlauf, Sonnenscheibe und Glow in einem Shader
+        // Die Kuppel wird im Shader nur mit der Kamera-Rotation transformiert und liegt
+        // dadurch immer um die Kamera - ein Draw-Call, kein Nachführen nötig
         Sphere sphere = new Sphere(32, 32, SKY_RADIUS, false, true);
         Geometry skyGeom = new Geometry("Sky", sphere);
 
-        // Material mit Gradient-Farbe (Himmelblau)
-        Material skyMat = new Material(assetManager, "Common/MatDefs/Misc/Unshaded.j3md");
-        skyMat.setColor("Color", new ColorRGBA(0.5f, 0.7f, 1.0f, 1.0f));
-        skyMat.getAdditionalRenderState().setFaceCullMode(com.jme3.material.RenderState.FaceCullMode.Off);
-        skyGeom.setMaterial(skyMat);
+        skyMaterial = new Material(assetManager, "MatDefs/SkyDome.j3md");
+        skyMaterial.setVector3("SunDirection", sun.getDirection().negate());
+        skyMaterial.setFloat("DayFactor", dayFactor);
+        skyGeom.setMaterial(skyMaterial);
 
-        // Setze auf Sky-Bucket für korrektes Rendering (wird zuerst gerendert)
+        // Sky-Bucket: wird zuerst und immer hinter allem anderen gerendert
         skyGeom.setQueueBucket(com.jme3.renderer.queue.RenderQueue.Bucket.Sky);
         skyGeom.setCullHint(Spatial.CullHint.Never);
 
@@ -82,72 +85,8 @@ public class SkyLayer extends Layer {
         rootNode.attachChild(sky);
     }
 
-    private void createSun() {
-        // Erstelle einen Node für Sonne + Glow
-        Node sunNode = new Node("SunNode");
-
-        // Erstelle mehrere Glow-Schichten mit abnehmender Helligkeit und zunehmender Größe
-        // für einen weichen, verlaufenden Effekt
-
-        float[] glowSizes = {1.0f, 1.3f, 1.6f, 2.0f, 2.5f, 3.2f, 4.0f};
-        float[] glowAlphas = {1.0f, 0.7f, 0.5f, 0.35f, 0.22f, 0.12f, 0.06f};
-
-        for (int i = 0; i < glowSizes.length; i++) {
-            Sphere glowSphere = new Sphere(32, 32, SUN_SIZE * glowSizes[i]);
-            Geometry glowGeom = new Geometry("SunGlow" + i, glowSphere);
-
-            Material glowMat = new Material(assetManager, "Common/MatDefs/Misc/Unshaded.j3md");
-
-            // Farbe wird mit jeder Schicht etwas dunkler und röter
-            float colorIntensity = 1.0f - (i * 0.08f);
-            ColorRGBA color;
-            if (i == 0) {
-                // Innerer Kern - sehr hell
-                color = new ColorRGBA(10.0f, 9.5f, 7.0f, 1.0f);
-            } else {
-                // Äußere Schichten - warmes Gelb-Orange
-                color = new ColorRGBA(
-                    1.0f * colorIntensity,
-                    0.9f * colorIntensity,
-                    0.5f * colorIntensity,
-                    glowAlphas[i]
-                );
-            }
-
-            glowMat.setColor("Color", color);
-            glowMat.getAdditionalRenderState().setBlendMode(com.jme3.material.RenderState.BlendMode.Alpha);
-            glowMat.getAdditionalRenderState().setDepthTest(false);
-            glowMat.getAdditionalRenderState().setDepthWrite(false);
-
-            glowGeom.setMaterial(glowMat);
-            sunNode.attachChild(glowGeom);
-
-            if (i == 0) {
-                sunGeometry = glowGeom; // Für spätere Updates
-            }
-        }
-
-        // Positioniere die Sonne entsprechend der Lichtrichtung
-        Vector3f sunDirection = sun.getDirection().negate().normalizeLocal();
-        Vector3f sunPosition = cam.getLocation().add(sunDirection.mult(SUN_DISTANCE));
-        sunNode.setLocalTranslation(sunPosition);
-
-        System.out.println("=== SUN DEBUG ===");
-        System.out.println("Sun position: " + sunPosition);
-        System.out.println("Sun direction: " + sunDirection);
-        System.out.println("Camera position: " + cam.getLocation());
-
-        // Setze auf Transparent-Bucket
-        sunNode.setQueueBucket(com.jme3.renderer.queue.RenderQueue.Bucket.Transparent);
-        sunNode.setCullHint(Spatial.CullHint.Never);
-
-        rootNode.attachChild(sunNode);
-
-        System.out.println("Sun with " + glowSizes.length + " glow layers attached to root node");
-    }
-
     private void createSunGlow() {
-        // Bloom Filter für den Leucht-Effekt der Sonne
+        // Optionaler Bloom Filter - kostet mehrere Vollbild-Passes pro Frame
         fpp = new FilterPostProcessor(assetManager);
         bloomFilter = new BloomFilter(BloomFilter.GlowMode.Objects);
 
@@ -187,31 +126,33 @@ public class SkyLayer extends Layer {
 
     @Override
     public void update(float tpf) {
-        Vector3f camPos = cam.getLocation();
-
-        // Himmel folgt der Kamera Position
-        if (sky != null) {
-            sky.setLocalTranslation(camPos);
-        }
+        // Nichts zu tun: die Kuppel folgt der Kamera im Vertex-Shader
+    }
 
-        // Sonne-Node folgt der Kamera, behält aber ihre relative Position
-        if (sunGeometry != null && sunGeometry.getParent() != null) {
-            Node sunNode = sunGeometry.getParent();
-            Vector3f sunDirection = sun.getDirection().negate().normalizeLocal();
-            Vector3f sunPosition = camPos.add(sunDirection.mult(SUN_DISTANCE));
-            sunNode.setLocalTranslation(sunPosition);
+    /**
+     * Ändert die Himmelsfarbe am Tag (Zenit)
+     */
+    public void setSkyColor(ColorRGBA color) {
+        if (skyMaterial != null) {
+            skyMaterial.setColor("DayZenithColor", color);
         }
     }
 
     /**
-     * Ändert die Himmelsfarbe (z.B. für Tag/Nacht-Zyklus)
+     * Tag/Nacht-Übergang: 0 = Nacht, 1 = Tag
+     * Mischt die Himmelsfarben im Shader und dimmt Sonne und Umgebungslicht
      */
-    public void setSkyColor(ColorRGBA color) {
-        if (sky instanceof Geometry) {
-            Geometry geom = (Geometry) sky;
-            Material mat = geom.getMaterial();
-            mat.setColor("Color", color);
+    public void setDayFactor(float factor) {
+        dayFactor = Math.max(0f, Math.min(1f, factor));
+        if (skyMaterial != null) {
+            skyMaterial.setFloat("DayFactor", dayFactor);
         }
+        sun.setColor(ColorRGBA.White.mult(SUN_LIGHT_INTENSITY * dayFactor));
+        ambient.setColor(ColorRGBA.White.mult(AMBIENT_NIGHT + (AMBIENT_DAY - AMBIENT_NIGHT) * dayFactor));
+    }
+
+    public float getDayFactor() {
+        return dayFactor;
     }
 
     @Override
@@ -219,16 +160,16 @@ public class SkyLayer extends Layer {
         if (sky != null && sky.getParent() != null) {
             sky.removeFromParent();
         }
-        if (sunGeometry != null && sunGeometry.getParent() != null) {
-            sunGeometry.removeFromParent();
+        if (fpp != null) {
+            viewPort.removeProcessor(fpp);
         }
     }
 
     /**
-     * Gibt die Sonnen-Geometrie zurück
+     * Gibt die Sonne (DirectionalLight) zurück
      */
-    public Geometry getSunGeometry() {
-        return sunGeometry;
+    public DirectionalLight getSun() {
+        return sun;
     }
 
     /**
@@ -238,6 +179,8 @@ public class SkyLayer extends Layer {
         if (sun != null) {
             sun.setDirection(direction.normalize());
         }
-        // Update sun position in next update cycle
+        if (skyMaterial != null) {
+            skyMaterial.setVector3("SunDirection", sun.getDirection().negate());
+        }
     }
 }
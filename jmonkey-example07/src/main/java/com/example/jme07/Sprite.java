@@ -31,6 +31,11 @@ public abstract class Sprite {
      */
     public abstract List<com.jme3.scene.Geometry> createGeometries(AssetManager assetManager, Node parentNode);
 
+    /**
+     * Radius der Grundfläche (XZ) für Kollision und Nachbarschaftsabfragen
+     */
+    public abstract float getRadius();
+
     public Vector3f getPosition() {
         return position;
     }
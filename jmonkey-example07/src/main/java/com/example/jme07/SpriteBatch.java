@@ -0,0 +1,156 @@
+package com.example.jme07;
+
+import com.jme3.math.Vector3f;
+
+import java.util.Arrays;
+
+/**
+ * SpriteBatch - Die Sprites eines Chunks als Struct-of-Arrays
+ *
+ * Statt eines Objekts pro Sprite (eigener Vector3f, Pfad-String, Objekt-Header) liegen
+ * Position, Skalierung und Rotation in float-Arrays, der Typ als short-Id in die
+ * SpriteTypeRegistry und Zustände als Flag-Byte. Ein Chunk kostet damit etwa 23 Byte pro Sprite.
+ *
+ * Der Loader-Thread schreibt (SpriteBuilders.addX), danach wird nur noch gelesen:
+ * Rendering und SpriteSpatialIndex greifen direkt auf die Arrays zu.
+ * getSprite(i) erzeugt bei Bedarf ein Sprite-Objekt als Ansicht (Kopie) eines Eintrags.
+ */
+public class SpriteBatch {
+
+    public static final byte FLAG_BIG = 1;          // Wird auch in Far-LOD angezeigt
+
+    private static final int DEFAULT_CAPACITY = 32;
+
+    private float[] xs;
+    private float[] ys;
+    private float[] zs;
+    private float[] scales;
+    private float[] rotations;
+    private short[] types;
+    private byte[] flags;
+    private int size = 0;
+
+    public SpriteBatch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public SpriteBatch(int capacity) {
+        xs = new float[capacity];
+        ys = new float[capacity];
+        zs = new float[capacity];
+        scales = new float[capacity];
+        rotations = new float[capacity];
+        types = new short[capacity];
+        flags = new byte[capacity];
+    }
+
+    /**
+     * Hängt einen Sprite an (Flags aus dem Typ)
+     * @return Index des neuen Eintrags
+     */
+    public int add(SpriteTypeRegistry.SpriteType type, float x, float y, float z, float scale, float rotation) {
+        if (size == xs.length) {
+            grow();
+        }
+        int i = size++;
+        xs[i] = x;
+        ys[i] = y;
+        zs[i] = z;
+        scales[i] = scale;
+        rotations[i] = rotation;
+        types[i] = type.getId();
+        flags[i] = type.isBig() ? FLAG_BIG : 0;
+        return i;
+    }
+
+    private void grow() {
+        int capacity = Math.max(DEFAULT_CAPACITY, xs.length * 2);
+        resize(capacity);
+    }
+
+    /**
+     * Gibt ungenutzte Kapazität frei (nach der Generierung, bevor der Batch im Record landet)
+     */
+    public void trimToSize() {
+        if (size < xs.length) {
+            resize(size);
+        }
+    }
+
+    private void resize(int capacity) {
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        zs = Arrays.copyOf(zs, capacity);
+        scales = Arrays.copyOf(scales, capacity);
+        rotations = Arrays.copyOf(rotations, capacity);
+        types = Arrays.copyOf(types, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public float getX(int i) {
+        return xs[i];
+    }
+
+    public float getY(int i) {
+        return ys[i];
+    }
+
+    public float getZ(int i) {
+        return zs[i];
+    }
+
+    public float getScale(int i) {
+        return scales[i];
+    }
+
+    public float getRotation(int i) {
+        return rotations[i];
+    }
+
+    public short getTypeId(int i) {
+        return types[i];
+    }
+
+    public SpriteTypeRegistry.SpriteType getType(int i) {
+        return SpriteTypeRegistry.get(types[i]);
+    }
+
+    public byte getFlags(int i) {
+        return flags[i];
+    }
+
+    public boolean isBig(int i) {
+        return (flags[i] & FLAG_BIG) != 0;
+    }
+
+    /**
+     * Radius der Grundfläche (XZ) für Kollision und Nachbarschaftsabfragen
+     */
+    public float getRadius(int i) {
+        return getType(i).getRadius(scales[i]);
+    }
+
+    /**
+     * Ansicht eines Eintrags als Sprite-Objekt (neue Instanz, Änderungen wirken nicht zurück)
+     */
+    public Sprite getSprite(int i) {
+        SpriteTypeRegistry.SpriteType type = getType(i);
+        Vector3f position = new Vector3f(xs[i], ys[i], zs[i]);
+        Sprite sprite = type.isBillboard()
+                ? new BillboardSprite(position, type.getAssetPath(), BillboardSprite.heightForScale(scales[i]),
+                        rotations[i], isBig(i), type.getFallbackColor())
+                : new ModelSprite(position, type.getAssetPath(), scales[i], rotations[i], isBig(i));
+        // Skalierung exakt übernehmen (der Billboard-Konstruktor rechnet über die Höhe)
+        sprite.setScale(scales[i]);
+        return sprite;
+    }
+
+    @Override
+    public String toString() {
+        return "SpriteBatch{size=" + size + ", capacity=" + xs.length + '}';
+    }
+}
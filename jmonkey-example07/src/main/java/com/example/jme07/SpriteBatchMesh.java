@@ -0,0 +1,145 @@
+package com.example.jme07;
+
+import com.jme3.bounding.BoundingBox;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.util.BufferUtils;
+
+import java.nio.FloatBuffer;
+
+/**
+ * SpriteBatchMesh - Ein instanziertes Einheits-Quad für viele Billboards auf einmal
+ *
+ * Pro Vertex nur die vier Ecken des Quads (0..1), pro Instanz:
+ *   TexCoord2 = (x, y, z, Breite)  - Fußpunkt in Weltkoordinaten
+ *   TexCoord3 = Höhe
+ *   TexCoord4 = (u0, v0, u1, v1)   - UV-Rechteck im Texture-Atlas (ohne Atlas 0, 0, 1, 1)
+ * Die Ausrichtung zur Kamera (zylindrisch, um die Y-Achse) macht der Vertex-Shader
+ * (MatDefs/SpriteBatch.j3md). Ein Batch ist genau ein Draw-Call.
+ */
+public class SpriteBatchMesh extends Mesh {
+
+    public static final int PLACEMENT_STRIDE = 5;  // x, y, z, Breite, Höhe
+    public static final int UV_STRIDE = 4;         // u0, v0, u1, v1
+
+    private final int instanceCount;
+
+    /**
+     * Batch aus Billboard-Einträgen eines SpriteBatch (Fußpunkt = Sprite-Position)
+     *
+     * @param indices Indizes der Einträge im SpriteBatch (die ersten count Werte)
+     * @param typeRegions UV-Rechteck im Atlas pro Typ-Id (null bzw. fehlender Eintrag = ganze Textur)
+     */
+    public static SpriteBatchMesh fromBatch(SpriteBatch batch, int[] indices, int count,
+                                            TextureAtlasBuilder.Region[] typeRegions) {
+        float[] placements = new float[count * PLACEMENT_STRIDE];
+        float[] uvRects = new float[count * UV_STRIDE];
+        int offset = 0;
+        int uvOffset = 0;
+        for (int n = 0; n < count; n++) {
+            int i = indices[n];
+            float scale = batch.getScale(i);
+            placements[offset++] = batch.getX(i);
+            placements[offset++] = batch.getY(i);
+            placements[offset++] = batch.getZ(i);
+            placements[offset++] = BillboardSprite.widthForScale(scale);
+            placements[offset++] = BillboardSprite.heightForScale(scale);
+
+            int typeId = batch.getTypeId(i);
+            TextureAtlasBuilder.Region region = typeRegions != null && typeId < typeRegions.length
+                    ? typeRegions[typeId] : null;
+            uvRects[uvOffset++] = region != null ? region.getU0() : 0f;
+            uvRects[uvOffset++] = region != null ? region.getV0() : 0f;
+            uvRects[uvOffset++] = region != null ? region.getU1() : 1f;
+            uvRects[uvOffset++] = region != null ? region.getV1() : 1f;
+        }
+        return new SpriteBatchMesh(placements, uvRects, count);
+    }
+
+    /**
+     * @param placements pro Instanz x, y, z, Breite, Höhe (PLACEMENT_STRIDE Werte)
+     */
+    public SpriteBatchMesh(float[] placements, int count) {
+        this(placements, null, count);
+    }
+
+    /**
+     * @param placements pro Instanz x, y, z, Breite, Höhe (PLACEMENT_STRIDE Werte)
+     * @param uvRects pro Instanz u0, v0, u1, v1 (UV_STRIDE Werte), null = ganze Textur
+     */
+    public SpriteBatchMesh(float[] placements, float[] uvRects, int count) {
+        this.instanceCount = count;
+
+        setBuffer(VertexBuffer.Type.Position, 3, new float[]{
+                0, 0, 0,
+                1, 0, 0,
+                1, 1, 0,
+                0, 1, 0});
+        setBuffer(VertexBuffer.Type.TexCoord, 2, new float[]{
+                0, 0,
+                1, 0,
+                1, 1,
+                0, 1});
+        setBuffer(VertexBuffer.Type.Index, 3, new short[]{0, 1, 2, 0, 2, 3});
+
+        FloatBuffer placement = BufferUtils.createFloatBuffer(instanceCount * 4);
+        FloatBuffer heights = BufferUtils.createFloatBuffer(instanceCount);
+        FloatBuffer uvs = BufferUtils.createFloatBuffer(instanceCount * UV_STRIDE);
+        float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+
+        for (int i = 0; i < count; i++) {
+            int offset = i * PLACEMENT_STRIDE;
+            float x = placements[offset];
+            float y = placements[offset + 1];
+            float z = placements[offset + 2];
+            float width = placements[offset + 3];
+            float height = placements[offset + 4];
+            placement.put(x).put(y).put(z).put(width);
+            heights.put(height);
+            if (uvRects != null) {
+                uvs.put(uvRects, i * UV_STRIDE, UV_STRIDE);
+            } else {
+                uvs.put(0f).put(0f).put(1f).put(1f);
+            }
+
+            // Bounding-Box über alle Instanzen (Billboard dreht sich, daher halbe Breite in X und Z)
+            float halfWidth = width * 0.5f;
+            minX = Math.min(minX, x - halfWidth);
+            minY = Math.min(minY, y);
+            minZ = Math.min(minZ, z - halfWidth);
+            maxX = Math.max(maxX, x + halfWidth);
+            maxY = Math.max(maxY, y + height);
+            maxZ = Math.max(maxZ, z + halfWidth);
+        }
+        placement.flip();
+        heights.flip();
+        uvs.flip();
+
+        VertexBuffer placementBuffer = new VertexBuffer(VertexBuffer.Type.TexCoord2);
+        placementBuffer.setInstanceSpan(1);
+        placementBuffer.setupData(VertexBuffer.Usage.Static, 4, VertexBuffer.Format.Float, placement);
+        setBuffer(placementBuffer);
+
+        VertexBuffer heightBuffer = new VertexBuffer(VertexBuffer.Type.TexCoord3);
+        heightBuffer.setInstanceSpan(1);
+        heightBuffer.setupData(VertexBuffer.Usage.Static, 1, VertexBuffer.Format.Float, heights);
+        setBuffer(heightBuffer);
+
+        VertexBuffer uvBuffer = new VertexBuffer(VertexBuffer.Type.TexCoord4);
+        uvBuffer.setInstanceSpan(1);
+        uvBuffer.setupData(VertexBuffer.Usage.Static, UV_STRIDE, VertexBuffer.Format.Float, uvs);
+        setBuffer(uvBuffer);
+
+        // Nicht updateBound(): das würde nur das Einheits-Quad umfassen
+        setBound(instanceCount > 0
+                ? new BoundingBox(new Vector3f(minX, minY, minZ), new Vector3f(maxX, maxY, maxZ))
+                : new BoundingBox());
+        setStatic();
+    }
+
+    public int getSpriteCount() {
+        return instanceCount;
+    }
+}
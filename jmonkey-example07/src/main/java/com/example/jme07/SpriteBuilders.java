@@ -1,88 +1,79 @@
 package com.example.jme07;
 
-import com.jme3.math.Vector3f;
+import java.util.List;
 import java.util.Random;
 
 /**
- * SpriteBuilders - Vordefinierte Builder für häufig verwendete Sprite-Typen
+ * SpriteBuilders - Vordefinierte Sprite-Typen und Builder, die direkt in einen SpriteBatch schreiben
  */
 public class SpriteBuilders {
 
-    // Billboard Sprites
-    public static Sprite createTreeSmall(Vector3f position, float scale, float rotation) {
-        return new BillboardSprite(position, "Textures/Sprites/tree_small.png", 3f * scale, rotation, true);
-    }
-
-    public static Sprite createTreeLarge(Vector3f position, float scale, float rotation) {
-        return new BillboardSprite(position, "Textures/Sprites/tree_large.png", 5f * scale, rotation, true);
-    }
-
-    public static Sprite createBush(Vector3f position, float scale, float rotation) {
-        return new BillboardSprite(position, "Textures/Sprites/bush.png", 1f * scale, rotation, false);
-    }
-
-    public static Sprite createGrass(Vector3f position, float scale, float rotation) {
-        return new BillboardSprite(position, "Textures/Sprites/grass.png", 0.5f * scale, rotation, false);
-    }
-
-    public static Sprite createRock(Vector3f position, float scale, float rotation) {
-        return new BillboardSprite(position, "Textures/Sprites/rock.png", 1.5f * scale, rotation, true);
-    }
-
-    // Model Sprites
-    public static Sprite createModelJaime(Vector3f position, float scale, float rotation) {
-        return new ModelSprite(position, "Models/Jaime/Jaime.j3o", 1.5f * scale, rotation, true);
-    }
-
-    public static Sprite createModelNinja(Vector3f position, float scale, float rotation) {
-        return new ModelSprite(position, "Models/Ninja/Ninja.j3o", 1.5f * scale, rotation, true);
-    }
-
-    public static Sprite createModelOto(Vector3f position, float scale, float rotation) {
-        return new ModelSprite(position, "Models/Oto/Oto.j3o", 2.0f * scale, rotation, true);
-    }
-
-    public static Sprite createModelSinbad(Vector3f position, float scale, float rotation) {
-        return new ModelSprite(position, "Models/Sinbad/Sinbad.j3o", 1.8f * scale, rotation, true);
+    private static final String TREE_SMALL_TEXTURE = "Textures/Sprites/tree_small.png";
+    private static final String TREE_LARGE_TEXTURE = "Textures/Sprites/tree_large.png";
+    private static final String BUSH_TEXTURE = "Textures/Sprites/bush.png";
+    private static final String GRASS_TEXTURE = "Textures/Sprites/grass.png";
+    private static final String ROCK_TEXTURE = "Textures/Sprites/rock.png";
+
+    // Alle Billboard-Texturen (werden beim Start in den Sprite-Atlas gepackt)
+    public static final List<String> BILLBOARD_TEXTURES = List.of(
+            TREE_SMALL_TEXTURE, TREE_LARGE_TEXTURE, BUSH_TEXTURE, GRASS_TEXTURE, ROCK_TEXTURE);
+
+    // Billboard-Typen (Grundgröße = Höhe bei Skalierung 1)
+    public static final SpriteTypeRegistry.SpriteType TREE_SMALL = SpriteTypeRegistry.registerBillboard("tree_small", TREE_SMALL_TEXTURE, 3f, true);
+    public static final SpriteTypeRegistry.SpriteType TREE_LARGE = SpriteTypeRegistry.registerBillboard("tree_large", TREE_LARGE_TEXTURE, 5f, true);
+    public static final SpriteTypeRegistry.SpriteType BUSH = SpriteTypeRegistry.registerBillboard("bush", BUSH_TEXTURE, 1f, false);
+    public static final SpriteTypeRegistry.SpriteType GRASS = SpriteTypeRegistry.registerBillboard("grass", GRASS_TEXTURE, 0.5f, false);
+    public static final SpriteTypeRegistry.SpriteType ROCK = SpriteTypeRegistry.registerBillboard("rock", ROCK_TEXTURE, 1.5f, true);
+
+    // Model-Typen
+    public static final SpriteTypeRegistry.SpriteType MODEL_JAIME = SpriteTypeRegistry.registerModel("jaime", "Models/Jaime/Jaime.j3o", 1.5f, true);
+    public static final SpriteTypeRegistry.SpriteType MODEL_NINJA = SpriteTypeRegistry.registerModel("ninja", "Models/Ninja/Ninja.j3o", 1.5f, true);
+    public static final SpriteTypeRegistry.SpriteType MODEL_OTO = SpriteTypeRegistry.registerModel("oto", "Models/Oto/Oto.j3o", 2.0f, true);
+    public static final SpriteTypeRegistry.SpriteType MODEL_SINBAD = SpriteTypeRegistry.registerModel("sinbad", "Models/Sinbad/Sinbad.j3o", 1.8f, true);
+
+    /**
+     * Schreibt einen Sprite eines Typs in den Batch
+     * @param scale Größenfaktor relativ zur Grundgröße des Typs
+     */
+    public static int add(SpriteBatch batch, SpriteTypeRegistry.SpriteType type, float x, float y, float z, float scale, float rotation) {
+        return batch.add(type, x, y, z, type.scaleFor(scale), rotation);
     }
 
     // Convenience methods mit Random
-    public static Sprite createRandomTree(Vector3f position, Random random) {
+    public static int addRandomTree(SpriteBatch batch, float x, float y, float z, Random random) {
         float scale = 0.8f + random.nextFloat() * 0.4f; // 0.8 - 1.2
         float rotation = random.nextFloat() * (float) Math.PI * 2f;
-        return random.nextBoolean()
-                ? createTreeSmall(position, scale, rotation)
-                : createTreeLarge(position, scale, rotation);
+        return add(batch, random.nextBoolean() ? TREE_SMALL : TREE_LARGE, x, y, z, scale, rotation);
     }
 
-    public static Sprite createRandomBush(Vector3f position, Random random) {
+    public static int addRandomBush(SpriteBatch batch, float x, float y, float z, Random random) {
         float scale = 0.7f + random.nextFloat() * 0.6f;
         float rotation = random.nextFloat() * (float) Math.PI * 2f;
-        return createBush(position, scale, rotation);
+        return add(batch, BUSH, x, y, z, scale, rotation);
     }
 
-    public static Sprite createRandomGrass(Vector3f position, Random random) {
+    public static int addRandomGrass(SpriteBatch batch, float x, float y, float z, Random random) {
         float scale = 0.5f + random.nextFloat() * 0.5f;
         float rotation = random.nextFloat() * (float) Math.PI * 2f;
-        return createGrass(position, scale, rotation);
+        return add(batch, GRASS, x, y, z, scale, rotation);
     }
 
-    public static Sprite createRandomRock(Vector3f position, Random random) {
+    public static int addRandomRock(SpriteBatch batch, float x, float y, float z, Random random) {
         float scale = 0.5f + random.nextFloat() * 1.0f;
         float rotation = random.nextFloat() * (float) Math.PI * 2f;
-        return createRock(position, scale, rotation);
+        return add(batch, ROCK, x, y, z, scale, rotation);
     }
 
-    public static Sprite createRandomModel(Vector3f position, Random random) {
+    public static int addRandomModel(SpriteBatch batch, float x, float y, float z, Random random) {
         float scale = 0.8f + random.nextFloat() * 0.4f; // 0.8 - 1.2
         float rotation = random.nextFloat() * (float) Math.PI * 2f;
 
         int type = random.nextInt(4);
         switch (type) {
-            case 0: return createModelJaime(position, scale, rotation);
-            case 1: return createModelNinja(position, scale, rotation);
-            case 2: return createModelOto(position, scale, rotation);
-            default: return createModelSinbad(position, scale, rotation);
+            case 0: return add(batch, MODEL_JAIME, x, y, z, scale, rotation);
+            case 1: return add(batch, MODEL_NINJA, x, y, z, scale, rotation);
+            case 2: return add(batch, MODEL_OTO, x, y, z, scale, rotation);
+            default: return add(batch, MODEL_SINBAD, x, y, z, scale, rotation);
         }
     }
 }
@@ -1,8 +1,5 @@
 package com.example.jme07;
 
-import com.jme3.math.Vector2f;
-import java.util.List;
-
 /**
  * SpriteProvider - Interface für Sprite-Generierung
  * Gibt Sprites für einen bestimmten Chunk zurück
@@ -15,9 +12,9 @@ public interface SpriteProvider {
      * @param chunkX X-Koordinate des Chunks
      * @param chunkZ Z-Koordinate des Chunks
      * @param chunkSize Größe des Chunks
-     * @return Liste von Sprites in diesem Chunk
+     * @return Sprites in diesem Chunk (Struct-of-Arrays)
      */
-    List<Sprite> getSprites(int chunkX, int chunkZ, int chunkSize, TerrainTile[] tiles);
+    SpriteBatch getSprites(int chunkX, int chunkZ, int chunkSize, TerrainTile[] tiles);
 
     /**
      * Gibt den Namen des Providers zurück
@@ -0,0 +1,70 @@
+package com.example.jme07;
+
+import com.jme3.scene.Node;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SpriteRegions - Hierarchie der Sprite-Nodes: SpriteNode -> Region (REGION_SIZE x REGION_SIZE
+ * Chunks) -> Chunk -> Sprite-Geometries
+ *
+ * jME verschmilzt die Bounds der Kinder nur bei Änderungen eines Teilbaums, Frustum-Culling
+ * verwirft dann ganze Regionen bzw. Chunks mit einem Test. Das Entladen eines Chunks ist ein
+ * einziges Detach seines Nodes (lineare Suche nur über die Chunks der Region).
+ *
+ * Instanzierte Modelle hängen weiterhin am gemeinsamen InstancedNode des ModelInstancers.
+ *
+ * Nur Render-Thread.
+ */
+public class SpriteRegions {
+
+    private final Node parentNode;
+    private final int regionSize;
+    private final Map<Long, Node> regions = new HashMap<>();
+
+    public SpriteRegions(Node parentNode, int regionSize) {
+        this.parentNode = parentNode;
+        this.regionSize = regionSize;
+    }
+
+    /**
+     * Erstellt den Node eines Chunks und hängt ihn in seine Region (Region wird bei Bedarf angelegt)
+     */
+    public Node attachChunk(int chunkX, int chunkZ) {
+        int regionX = Math.floorDiv(chunkX, regionSize);
+        int regionZ = Math.floorDiv(chunkZ, regionSize);
+        Node region = regions.computeIfAbsent(ChunkRegistry.key(regionX, regionZ), key -> {
+            Node node = new Node("sprite_region_" + regionX + "_" + regionZ);
+            parentNode.attachChild(node);
+            return node;
+        });
+
+        Node chunkNode = new Node("sprites_" + chunkX + "_" + chunkZ);
+        region.attachChild(chunkNode);
+        return chunkNode;
+    }
+
+    /**
+     * Hängt den Node eines Chunks samt aller Sprites ab, leere Regionen werden entfernt
+     */
+    public void detachChunk(int chunkX, int chunkZ, Node chunkNode) {
+        long regionKey = ChunkRegistry.key(Math.floorDiv(chunkX, regionSize), Math.floorDiv(chunkZ, regionSize));
+        Node region = regions.get(regionKey);
+        if (region == null) {
+            return;
+        }
+        region.detachChild(chunkNode);
+        if (region.getQuantity() == 0) {
+            region.removeFromParent();
+            regions.remove(regionKey);
+        }
+    }
+
+    /**
+     * Anzahl der Regionen mit Sprites
+     */
+    public int getRegionCount() {
+        return regions.size();
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.jme07;
+
+/**
+ * SpriteSpatialIndex - Räumlicher Index über Sprite-Positionen und -Radien
+ *
+ * Pro Chunk ein gepacktes Grid (8x8 Zellen à 8 Einheiten): Die Sprites liegen sortiert nach
+ * Zelle in flachen Arrays, cellStart zeigt auf den ersten Eintrag jeder Zelle. Gelesen wird
+ * direkt aus dem SpriteBatch des Chunks, pro Eintrag bleibt nur sein Index im Batch.
+ * Die Chunks liegen in einem toroidalen Slot-Array, damit Abfragen ohne Map-Lookup
+ * und ohne Allokation auskommen.
+ *
+ * Abfragen liefern Handles (Slot << 16 | Sprite-Index) in ein vom Aufrufer übergebenes int[].
+ * Nicht thread-safe - wird nur vom Render-Thread verwendet.
+ */
+public class SpriteSpatialIndex {
+
+    private static final int CHUNK_CELLS = 64;              // Einheiten pro Chunk-Kante
+    private static final int GRID_SIZE = 8;                 // Grid-Zellen pro Chunk-Kante
+    private static final int CELL_SIZE = CHUNK_CELLS / GRID_SIZE;
+    private static final int SLOTS_PER_AXIS = 128;          // Muss größer als 2 * Sichtweite + 1 sein
+    private static final float CHUNK_OVERHANG = 1f;         // Sprites dürfen auf Sample 64 liegen (= Nachbar-Chunk)
+    private static final int HANDLE_SHIFT = 16;
+    private static final int HANDLE_MASK = (1 << HANDLE_SHIFT) - 1;
+
+    private final ChunkGrid[] slots = new ChunkGrid[SLOTS_PER_AXIS * SLOTS_PER_AXIS];
+
+    // Größter Sprite-Radius aller Chunks (erweitert die Zellsuche)
+    private float maxRadius = 0f;
+    private int spriteCount = 0;
+
+    /**
+     * Fügt die Sprites eines Chunks in den Index ein (ersetzt einen vorhandenen Eintrag)
+     */
+    public void addChunk(int chunkX, int chunkZ, SpriteBatch sprites) {
+        int slot = slotIndex(chunkX, chunkZ);
+        if (slots[slot] != null) {
+            spriteCount -= slots[slot].indices.length;
+        }
+
+        ChunkGrid grid = new ChunkGrid(chunkX, chunkZ, sprites);
+        slots[slot] = grid;
+        spriteCount += grid.indices.length;
+        maxRadius = Math.max(maxRadius, grid.maxRadius);
+    }
+
+    /**
+     * Entfernt die Sprites eines Chunks aus dem Index
+     */
+    public void removeChunk(int chunkX, int chunkZ) {
+        int slot = slotIndex(chunkX, chunkZ);
+        ChunkGrid grid = slots[slot];
+        if (grid != null && grid.chunkX == chunkX && grid.chunkZ == chunkZ) {
+            spriteCount -= grid.indices.length;
+            slots[slot] = null;
+        }
+    }
+
+    /**
+     * Sucht alle Sprites deren Grundfläche den Kreis (x, z, radius) berührt
+     *
+     * @param out Ziel-Array für die Handles
+     * @return Anzahl der gefundenen Handles (höchstens out.length)
+     */
+    public int queryRadius(float x, float z, float radius, int[] out) {
+        return query(x - radius, z - radius, x + radius, z + radius, x, z, radius, out);
+    }
+
+    /**
+     * Sucht alle Sprites deren Grundfläche das Rechteck berührt
+     *
+     * @param out Ziel-Array für die Handles
+     * @return Anzahl der gefundenen Handles (höchstens out.length)
+     */
+    public int queryBox(float minX, float minZ, float maxX, float maxZ, int[] out) {
+        return query(minX, minZ, maxX, maxZ, 0f, 0f, -1f, out);
+    }
+
+    /**
+     * Sprite-Objekt als Ansicht (neue Instanz pro Aufruf, für Abfragen besser isBig/getX/... verwenden)
+     */
+    public Sprite getSprite(int handle) {
+        return getBatch(handle).getSprite(getBatchIndex(handle));
+    }
+
+    /**
+     * SpriteBatch des Chunks, in dem der Sprite liegt
+     */
+    public SpriteBatch getBatch(int handle) {
+        return slots[handle >>> HANDLE_SHIFT].batch;
+    }
+
+    /**
+     * Index des Sprites in seinem SpriteBatch
+     */
+    public int getBatchIndex(int handle) {
+        return slots[handle >>> HANDLE_SHIFT].indices[handle & HANDLE_MASK];
+    }
+
+    public boolean isBig(int handle) {
+        return getBatch(handle).isBig(getBatchIndex(handle));
+    }
+
+    public float getX(int handle) {
+        return slots[handle >>> HANDLE_SHIFT].xs[handle & HANDLE_MASK];
+    }
+
+    public float getZ(int handle) {
+        return slots[handle >>> HANDLE_SHIFT].zs[handle & HANDLE_MASK];
+    }
+
+    public float getRadius(int handle) {
+        return slots[handle >>> HANDLE_SHIFT].radii[handle & HANDLE_MASK];
+    }
+
+    public int getSpriteCount() {
+        return spriteCount;
+    }
+
+    /**
+     * Gemeinsame Suche: Rechteck (erweitert um maxRadius) über die Grid-Zellen,
+     * danach exakter Test gegen Kreis (circleRadius >= 0) oder Rechteck.
+     */
+    private int query(float minX, float minZ, float maxX, float maxZ,
+                      float circleX, float circleZ, float circleRadius, int[] out) {
+        int count = 0;
+
+        // Suchbereich um den größten Sprite-Radius erweitern
+        float searchMinX = minX - maxRadius;
+        float searchMinZ = minZ - maxRadius;
+        float searchMaxX = maxX + maxRadius;
+        float searchMaxZ = maxZ + maxRadius;
+
+        int minChunkX = Math.floorDiv((int) Math.floor(searchMinX - CHUNK_OVERHANG), CHUNK_CELLS);
+        int maxChunkX = Math.floorDiv((int) Math.floor(searchMaxX), CHUNK_CELLS);
+        int minChunkZ = Math.floorDiv((int) Math.floor(searchMinZ - CHUNK_OVERHANG), CHUNK_CELLS);
+        int maxChunkZ = Math.floorDiv((int) Math.floor(searchMaxZ), CHUNK_CELLS);
+
+        for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+            for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+                int slot = slotIndex(chunkX, chunkZ);
+                ChunkGrid grid = slots[slot];
+                if (grid == null || grid.chunkX != chunkX || grid.chunkZ != chunkZ) {
+                    continue;
+                }
+
+                float originX = chunkX * CHUNK_CELLS;
+                float originZ = chunkZ * CHUNK_CELLS;
+                int cellMinX = clampCell((int) Math.floor((searchMinX - originX) / CELL_SIZE));
+                int cellMaxX = clampCell((int) Math.floor((searchMaxX - originX) / CELL_SIZE));
+                int cellMinZ = clampCell((int) Math.floor((searchMinZ - originZ) / CELL_SIZE));
+                int cellMaxZ = clampCell((int) Math.floor((searchMaxZ - originZ) / CELL_SIZE));
+
+                for (int cz = cellMinZ; cz <= cellMaxZ; cz++) {
+                    for (int cx = cellMinX; cx <= cellMaxX; cx++) {
+                        int cell = cz * GRID_SIZE + cx;
+                        for (int i = grid.cellStart[cell]; i < grid.cellStart[cell + 1]; i++) {
+                            float sx = grid.xs[i];
+                            float sz = grid.zs[i];
+                            float sr = grid.radii[i];
+
+                            boolean hit;
+                            if (circleRadius >= 0f) {
+                                float dx = sx - circleX;
+                                float dz = sz - circleZ;
+                                float r = circleRadius + sr;
+                                hit = dx * dx + dz * dz <= r * r;
+                            } else {
+                                hit = sx + sr >= minX && sx - sr <= maxX && sz + sr >= minZ && sz - sr <= maxZ;
+                            }
+
+                            if (hit) {
+                                if (count == out.length) {
+                                    return count;
+                                }
+                                out[count++] = (slot << HANDLE_SHIFT) | i;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        return count;
+    }
+
+    private static int clampCell(int cell) {
+        return Math.max(0, Math.min(GRID_SIZE - 1, cell));
+    }
+
+    private static int slotIndex(int chunkX, int chunkZ) {
+        return Math.floorMod(chunkZ, SLOTS_PER_AXIS) * SLOTS_PER_AXIS + Math.floorMod(chunkX, SLOTS_PER_AXIS);
+    }
+
+    /**
+     * Gepacktes Grid eines Chunks (Counting-Sort nach Zelle)
+     */
+    private static class ChunkGrid {
+        final int chunkX;
+        final int chunkZ;
+        final int[] cellStart = new int[GRID_SIZE * GRID_SIZE + 1];
+        final float[] xs;
+        final float[] zs;
+        final float[] radii;
+        final int[] indices;
+        final SpriteBatch batch;
+        float maxRadius = 0f;
+
+        ChunkGrid(int chunkX, int chunkZ, SpriteBatch batch) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            this.batch = batch;
+
+            int count = Math.min(batch.size(), HANDLE_MASK + 1);
+            xs = new float[count];
+            zs = new float[count];
+            radii = new float[count];
+            indices = new int[count];
+
+            // Zelle pro Sprite bestimmen und zählen
+            int[] cellOf = new int[count];
+            for (int i = 0; i < count; i++) {
+                int cx = clampCell((int) Math.floor((batch.getX(i) - chunkX * CHUNK_CELLS) / CELL_SIZE));
+                int cz = clampCell((int) Math.floor((batch.getZ(i) - chunkZ * CHUNK_CELLS) / CELL_SIZE));
+                cellOf[i] = cz * GRID_SIZE + cx;
+                cellStart[cellOf[i] + 1]++;
+            }
+            for (int c = 0; c < GRID_SIZE * GRID_SIZE; c++) {
+                cellStart[c + 1] += cellStart[c];
+            }
+
+            // Einsortieren
+            int[] fill = new int[GRID_SIZE * GRID_SIZE];
+            for (int i = 0; i < count; i++) {
+                int index = cellStart[cellOf[i]] + fill[cellOf[i]]++;
+                xs[index] = batch.getX(i);
+                zs[index] = batch.getZ(i);
+                radii[index] = batch.getRadius(i);
+                indices[index] = i;
+                maxRadius = Math.max(maxRadius, radii[index]);
+            }
+        }
+    }
+}
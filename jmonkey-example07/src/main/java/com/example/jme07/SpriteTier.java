@@ -0,0 +1,64 @@
+package com.example.jme07;
+
+/**
+ * SpriteTier - LOD-Stufe der Sprites eines Chunks, abhängig von seiner Distanz zur Kamera
+ *
+ * Jede Stufe legt fest, welche Teile (ChunkSprites.Part) sichtbar sind:
+ *   NEAR - alles in voller Detailstufe
+ *   MID  - nur große Sprites (Bäume, Steine, Figuren)
+ *   FAR  - große Billboards, Modelle nur noch als vorgerenderte Impostor-Karten
+ *   NONE - keine Sprites
+ */
+public enum SpriteTier {
+
+    NEAR(ChunkSprites.Part.SMALL, ChunkSprites.Part.BIG_BILLBOARDS, ChunkSprites.Part.BIG_MODELS),
+    MID(ChunkSprites.Part.BIG_BILLBOARDS, ChunkSprites.Part.BIG_MODELS),
+    FAR(ChunkSprites.Part.BIG_BILLBOARDS, ChunkSprites.Part.IMPOSTORS),
+    NONE;
+
+    private final ChunkSprites.Part[] parts;
+
+    SpriteTier(ChunkSprites.Part... parts) {
+        this.parts = parts;
+    }
+
+    public boolean shows(ChunkSprites.Part part) {
+        for (ChunkSprites.Part p : parts) {
+            if (p == part) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * true wenn diese oder eine benachbarte Stufe den Teil zeigt.
+     * Solche Teile bleiben beim Stufenwechsel erhalten, damit Hin- und Herpendeln
+     * an einer Ring-Grenze nichts neu aufbaut.
+     */
+    public boolean keeps(ChunkSprites.Part part) {
+        SpriteTier[] tiers = values();
+        for (int i = Math.max(0, ordinal() - 1); i <= Math.min(tiers.length - 1, ordinal() + 1); i++) {
+            if (tiers[i].shows(part)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stufe für eine Chunk-Distanz (Chebyshev, in Chunks)
+     */
+    public static SpriteTier forDistance(int distance, int nearDistance, int midDistance, int farDistance) {
+        if (distance <= nearDistance) {
+            return NEAR;
+        }
+        if (distance <= midDistance) {
+            return MID;
+        }
+        if (distance <= farDistance) {
+            return FAR;
+        }
+        return NONE;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.jme07;
+
+import com.jme3.math.ColorRGBA;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * SpriteTypeRegistry - Alle Sprite-Typen mit kurzer Id (Index in SpriteBatch.types)
+ *
+ * Ein Typ bündelt, was bisher jedes Sprite-Objekt einzeln trug: Art (Billboard/Modell),
+ * Textur- bzw. Modellpfad, Fallback-Farbe, Grundgröße und ob er zu den großen Sprites gehört.
+ * Registriert wird beim Laden von SpriteBuilders; Lesen ist ohne Lock möglich
+ * (Copy-on-Write-Array), damit Loader-Threads und Render-Thread den Typ direkt nachschlagen.
+ */
+public final class SpriteTypeRegistry {
+
+    public enum Kind {
+        BILLBOARD,
+        MODEL
+    }
+
+    /**
+     * Ein registrierter Sprite-Typ (unveränderlich)
+     */
+    public static final class SpriteType {
+        private final short id;
+        private final String name;
+        private final Kind kind;
+        private final String assetPath;
+        private final float baseSize;
+        private final boolean big;
+        private final ColorRGBA fallbackColor;
+
+        private SpriteType(short id, String name, Kind kind, String assetPath, float baseSize, boolean big, ColorRGBA fallbackColor) {
+            this.id = id;
+            this.name = name;
+            this.kind = kind;
+            this.assetPath = assetPath;
+            this.baseSize = baseSize;
+            this.big = big;
+            this.fallbackColor = fallbackColor;
+        }
+
+        public short getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public boolean isBillboard() {
+            return kind == Kind.BILLBOARD;
+        }
+
+        /**
+         * Texturpfad (Billboard) bzw. Modellpfad (Modell)
+         */
+        public String getAssetPath() {
+            return assetPath;
+        }
+
+        public boolean isBig() {
+            return big;
+        }
+
+        public ColorRGBA getFallbackColor() {
+            return fallbackColor;
+        }
+
+        /**
+         * Gespeicherte Skalierung für einen Größenfaktor (wie die Sprite-Konstruktoren:
+         * Billboards height / 0.7, Modelle die Höhe selbst)
+         */
+        public float scaleFor(float sizeFactor) {
+            float height = baseSize * sizeFactor;
+            return kind == Kind.BILLBOARD ? height / 0.7f : height;
+        }
+
+        /**
+         * Radius der Grundfläche bei gegebener Skalierung (wie Sprite.getRadius)
+         */
+        public float getRadius(float scale) {
+            return kind == Kind.BILLBOARD
+                    ? BillboardSprite.widthForScale(scale) * 0.3f
+                    : scale * 0.25f;
+        }
+
+        @Override
+        public String toString() {
+            return name + "#" + id + "(" + kind + ", " + assetPath + ")";
+        }
+    }
+
+    private static final ColorRGBA DEFAULT_FALLBACK_COLOR = new ColorRGBA(0.5f, 0.8f, 0.4f, 1f); // Default grün
+
+    private static volatile SpriteType[] types = new SpriteType[0];
+
+    private SpriteTypeRegistry() {
+    }
+
+    public static SpriteType registerBillboard(String name, String texturePath, float baseSize, boolean big) {
+        return register(name, Kind.BILLBOARD, texturePath, baseSize, big);
+    }
+
+    public static SpriteType registerModel(String name, String modelPath, float baseSize, boolean big) {
+        return register(name, Kind.MODEL, modelPath, baseSize, big);
+    }
+
+    private static synchronized SpriteType register(String name, Kind kind, String assetPath, float baseSize, boolean big) {
+        SpriteType[] current = types;
+        for (SpriteType type : current) {
+            if (type.name.equals(name)) {
+                throw new IllegalArgumentException("Sprite-Typ bereits registriert: " + name);
+            }
+        }
+        if (current.length > Short.MAX_VALUE) {
+            throw new IllegalStateException("Zu viele Sprite-Typen");
+        }
+
+        SpriteType type = new SpriteType((short) current.length, name, kind, assetPath, baseSize, big, DEFAULT_FALLBACK_COLOR);
+        SpriteType[] next = Arrays.copyOf(current, current.length + 1);
+        next[type.id] = type;
+        types = next;
+        return type;
+    }
+
+    public static SpriteType get(short id) {
+        return types[id];
+    }
+
+    public static int size() {
+        return types.length;
+    }
+
+    public static List<SpriteType> getAll() {
+        return List.of(types);
+    }
+}
@@ -1,13 +1,15 @@
 package com.example.jme07;
 
 import com.jme3.asset.AssetManager;
+import com.jme3.material.MatParamOverride;
 import com.jme3.material.Material;
 import com.jme3.math.ColorRGBA;
 import com.jme3.math.Vector2f;
 import com.jme3.math.Vector3f;
 import com.jme3.renderer.Camera;
+import com.jme3.renderer.RenderManager;
 import com.jme3.scene.Node;
-import com.jme3.terrain.geomipmap.TerrainLodControl;
+import com.jme3.shader.VarType;
 import com.jme3.terrain.geomipmap.TerrainQuad;
 import com.jme3.terrain.geomipmap.lodcalc.DistanceLodCalculator;
 import com.jme3.texture.Texture;
@@ -28,52 +30,136 @@ public class TerrainLayer extends Layer {
     private TileProvider tileProvider;
     private SpriteProvider spriteProvider;
     private ChunkLoader chunkLoader;
+    private PathfindingService pathfindingService;
     private Node terrainNode;
     private Node waterNode;
     private Node spriteNode;
-    private Map<Vector2f, TerrainQuad> loadedChunks = new HashMap<>();
-    private Map<Vector2f, com.jme3.scene.Geometry> loadedWaterChunks = new HashMap<>();
-    private Map<Vector2f, List<com.jme3.scene.Geometry>> loadedSpriteChunks = new HashMap<>();
+    private SpriteRegions spriteRegions;
 
-    // Cache für Höhendaten (unabhängig vom Rendering)
-    private Map<Vector2f, float[]> heightDataCache = new HashMap<>();
+    // Zentrale Verwaltung aller Chunks (Zustand, Daten und Scene-Graph-Ressourcen)
+    private final ChunkRegistry chunkRegistry = new ChunkRegistry();
 
-    // Set für Chunks die gerade angefordert wurden (um Duplikate zu vermeiden)
-    private java.util.Set<Vector2f> requestedChunks = new java.util.HashSet<>();
+    // Inkrementelle Differenz des Sichtfensters beim Chunk-Wechsel
+    private final ChunkWindowTracker windowTracker = new ChunkWindowTracker();
+
+    // Räumlicher Index aller Sprites der geladenen Chunks (Kollision, Interaktion, Audio)
+    private final SpriteSpatialIndex spriteIndex = new SpriteSpatialIndex();
+
+    // Eine LOD-Berechnung für alle Terrain-Chunks (inkl. Nähte zwischen Chunks)
+    private final TerrainLodManager lodManager;
+    private final DistanceLodCalculator lodCalculator;
+
+    // Sichtweite, Sprite-Ringe und LOD-Faktor aus der aktuellen Qualitätsstufe
+    private final QualityGovernor qualityGovernor = new QualityGovernor();
+    private int viewDistance;
+    private int spriteNearDistance;      // Volle Sprites (alle Typen)
+    private int spriteFarDistance;       // Nur große Sprites (Bäume, Steine)
+    private int spriteImpostorDistance;  // Große Billboards + Modelle als Impostor-Karten
+
+    // TerrainQuad pro Chunk oder Clipmap-Ringe (Chunks liefern dann nur Textur-Samples)
+    private final TerrainRenderMode renderMode;
+    private ClipmapTerrainRenderer clipmapRenderer;
+    private GrassField grassField;
+
+    // Wasserflächen, regional zu je einem Mesh zusammengefasst
+    private final WaterRegions waterRegions;
+
+    // Instanzierte Billboard-Batches (pro Chunk und Textur), Modelle (pro Modelltyp) und Impostor-Karten
+    private final BillboardBatcher billboardBatcher;
+    private final ModelInstancer modelInstancer;
+    private final ModelAnimationManager modelAnimations;
+    private final ImpostorBaker impostorBaker;
 
     private static final int CHUNK_SIZE = 65;
-    private static final int VIEW_DISTANCE = 12;
-    private static final int SPRITE_NEAR_DISTANCE = 4;   // Volle Sprites (alle Typen)
-    private static final int SPRITE_FAR_DISTANCE = 8;    // Nur große Sprites (Bäume, Steine)
+    private static final int WATER_REGION_SIZE = 4;      // Chunks pro Kante einer Wasser-Region (ein Draw-Call)
+    private static final int SPRITE_REGION_SIZE = 4;     // Chunks pro Kante einer Sprite-Region (ein Node, Culling pro Teilbaum)
+    private static final int SPRITE_PREFETCH_MARGIN = 1;  // Sprites schon so viele Chunks vor dem Impostor-Ring erzeugen
+    private static final float DEFAULT_HEIGHT = 10f;    // Höhe solange ein Chunk noch nicht geladen ist
     private static final float GROUND_OFFSET = 5.0f;  // Erhöht für bessere Sicht (Augenhöhe + Sicherheitsabstand)
     private static final boolean SHOW_CURRENT_TILE = true;  // true = zeigt aktuelle Tile rot an
+    private static final boolean USE_HORIZON_CULLING = true; // true = Chunks hinter Bergrücken ausblenden
+    private static final float OCCLUSION_HEIGHT_MARGIN = 8f;  // Höchste Sprites/Modelle über dem Terrain
+    private static final float OCCLUSION_MOVE_THRESHOLD = 2f; // Neu-Auswertung erst ab dieser Kamera-Bewegung
+    private static final float LOAD_VIEW_MOVE_THRESHOLD = 4f;     // Lade-Priorität neu ab dieser Kamera-Bewegung
+    private static final float LOAD_VIEW_TURN_THRESHOLD = 0.9986f; // ... oder dieser Drehung (cos 3°)
+    private static final float MEMORY_REPORT_INTERVAL = 10f;  // Sekunden zwischen zwei Native-Speicher-Ausgaben
+    private static final boolean USE_GRASS_FIELD = true;      // true = instanziertes Gras-Feld um die Kamera, false = Gras als BillboardSprites
+    private static final boolean USE_TEXTURE_ARRAY = true;    // true = ein Material + TextureArray für alle Chunks, false = TerrainLighting pro Chunk
+    private static final boolean USE_QUALITY_GOVERNOR = true; // true = Sichtweite/Sprite-Ringe/LOD nach Frame-Zeit anpassen, false = feste Standard-Stufe
 
     private Vector2f lastCameraChunk = new Vector2f(Float.MAX_VALUE, Float.MAX_VALUE);
+    private final Vector3f lastLoadViewPos = new Vector3f(Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE);
+    private final Vector3f lastLoadViewDir = new Vector3f();
     private com.jme3.scene.Geometry currentTileMarker = null;
     private Vector2f lastMarkedTile = new Vector2f(Float.MAX_VALUE, Float.MAX_VALUE);
 
-    // Cache für Materialien und Texturen
-    private Material waterMat;
+    // Horizon-Culling Zustand und Zähler (Stand des letzten Frames)
+    private final HorizonCuller horizonCuller = new HorizonCuller();
+    private Vector3f lastOcclusionCamPos = new Vector3f(Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE);
+    private boolean occlusionDirty = true;
+    private int culledChunkCount = 0;
+    private int savedDrawCalls = 0;
+    private final java.util.Set<Long> culledChunkKeys = new java.util.HashSet<>();  // Verdeckte Chunks des letzten Durchlaufs
+
+    // Native Ressourcen: Zählung und deterministische Freigabe beim Entladen
+    private final NativeMemoryTracker memoryTracker;
+    private float memoryReportTimer = 0f;
+
+    // Cache für Materialien, Texturen und geteilte Meshes
     private Material tileMarkerMat;
     private Map<String, Texture> textureCache = new HashMap<>();
     private Map<String, MaterialMapping> materialMappingCache = new HashMap<>();
 
-    public TerrainLayer(AssetManager assetManager, Node rootNode, Camera cam) {
+    // Material-IDs (gemeinsam für beide Material-Pfade)
+    private TerrainMaterialIndex materialIndex;
+    // Gemeinsames Terrain-Material (USE_TEXTURE_ARRAY): Chunks liefern nur ihre Materialindex-Textur
+    private Material sharedTerrainMat;
+    // TerrainLighting-Pfad: AlphaMaps aus dem Loader-Thread, Buffer aus einem Pool
+    private AlphaMapBuilder alphaMapBuilder;
+
+    public TerrainLayer(AssetManager assetManager, Node rootNode, Camera cam, RenderManager renderManager) {
+        this(assetManager, rootNode, cam, renderManager, TerrainRenderMode.TERRAIN_QUAD);
+    }
+
+    public TerrainLayer(AssetManager assetManager, Node rootNode, Camera cam, RenderManager renderManager, TerrainRenderMode renderMode) {
         super("TerrainLayer", assetManager, rootNode, cam);
+        this.renderMode = renderMode;
+        this.memoryTracker = new NativeMemoryTracker(renderManager.getRenderer());
+        this.billboardBatcher = new BillboardBatcher(assetManager);
+        this.impostorBaker = new ImpostorBaker(assetManager, renderManager);
 
         this.terrainNode = new Node("TerrainNode");
         rootNode.attachChild(terrainNode);
+        QualityGovernor.QualityLevel quality = qualityGovernor.getLevel();
+        this.viewDistance = quality.getViewDistance();
+        this.spriteNearDistance = quality.getSpriteNearDistance();
+        this.spriteFarDistance = quality.getSpriteFarDistance();
+        this.spriteImpostorDistance = quality.getSpriteImpostorDistance();
+        this.lodCalculator = new DistanceLodCalculator(CHUNK_SIZE, quality.getLodMultiplier());
+        this.lodManager = new TerrainLodManager(cam, lodCalculator);
 
         this.waterNode = new Node("WaterNode");
         rootNode.attachChild(waterNode);
+        this.waterRegions = new WaterRegions(waterNode, createWaterMaterial(), memoryTracker, WATER_REGION_SIZE, CHUNK_SIZE - 1);
 
         this.spriteNode = new Node("SpriteNode");
         rootNode.attachChild(spriteNode);
+        this.spriteRegions = new SpriteRegions(spriteNode, SPRITE_REGION_SIZE);
+        this.modelInstancer = new ModelInstancer(assetManager, spriteNode);
+        this.modelAnimations = new ModelAnimationManager(assetManager, spriteNode, cam, modelInstancer);
 
         initTileProvider();
         initSpriteProvider();
         initChunkLoader();
-        System.out.println("TerrainLayer initialisiert - Chunk-Größe: " + CHUNK_SIZE + ", Sichtweite: " + VIEW_DISTANCE);
+        initPathfinding();
+        if (renderMode == TerrainRenderMode.CLIPMAP) {
+            initClipmap();
+        }
+        if (USE_GRASS_FIELD) {
+            initGrassField();
+        }
+        System.out.println("TerrainLayer initialisiert - Chunk-Größe: " + CHUNK_SIZE + ", Sichtweite: " + viewDistance +
+                ", Darstellung: " + renderMode);
     }
 
     private void initTileProvider() {
@@ -88,37 +174,128 @@ public class TerrainLayer extends Layer {
 
     private void initSpriteProvider() {
         // ProceduralSpriteProvider mit gleichem Seed wie Terrain für Konsistenz
-        spriteProvider = new ProceduralSpriteProvider(12345L, tileProvider, CHUNK_SIZE);
+        // Mit GrassField kommt das Gras nicht mehr als Sprites
+        spriteProvider = new ProceduralSpriteProvider(12345L, tileProvider, CHUNK_SIZE, !USE_GRASS_FIELD);
         System.out.println("SpriteProvider: " + spriteProvider.getName());
     }
 
     private void initChunkLoader() {
         // Erstelle ChunkLoader mit TileProvider und SpriteProvider
-        chunkLoader = new ChunkLoader(tileProvider, spriteProvider);
-        System.out.println("ChunkLoader initialisiert (Background-Thread läuft)");
+        chunkLoader = new ChunkLoader(tileProvider, spriteProvider, chunkRegistry);
+        materialIndex = new TerrainMaterialIndex(tileProvider.getMaterials());
+
+        if (!USE_TEXTURE_ARRAY) {
+            // Pool hält die Buffer von etwa einer Fensterkante entladener Chunks (größte Qualitätsstufe)
+            int maxPooledBuffers = 2 * (2 * QualityGovernor.getMaxViewDistance() + 1) * 2;
+            alphaMapBuilder = new AlphaMapBuilder(materialIndex, createMaterialMappings(tileProvider.getMaterials()),
+                    CHUNK_SIZE, maxPooledBuffers);
+            chunkLoader.setAlphaMapBuilder(alphaMapBuilder);
+        }
+        System.out.println("ChunkLoader initialisiert (Background-Threads laufen)");
+    }
+
+    private void initPathfinding() {
+        // Hierarchische Pfadsuche auf eigenen Worker-Threads (gleicher TileProvider wie das Terrain)
+        pathfindingService = new PathfindingService(tileProvider);
+        System.out.println("PathfindingService initialisiert");
+    }
+
+    private void initClipmap() {
+        // Gleiche Texturen wie das TextureArray-Material, Höhen nur aus bereits vorbereiteten Chunks
+        clipmapRenderer = new ClipmapTerrainRenderer(assetManager, terrainNode, materialIndex.createTextureArray(assetManager),
+                materialIndex, (chunkX, chunkZ) -> {
+                    ChunkRecord record = chunkRegistry.get(chunkX, chunkZ);
+                    return record != null && record.hasHeightData() ? record : null;
+                }, CHUNK_SIZE, DEFAULT_HEIGHT);
+        clipmapRenderer.retainResources(memoryTracker);
+    }
+
+    private void initGrassField() {
+        // Höhen und Gras-Dichte nur aus bereits vorbereiteten Chunks
+        grassField = new GrassField(assetManager, spriteNode, (chunkX, chunkZ) -> {
+            ChunkRecord record = chunkRegistry.get(chunkX, chunkZ);
+            return record != null && record.hasHeightData() ? record : null;
+        }, CHUNK_SIZE, DEFAULT_HEIGHT);
+        grassField.retainResources(memoryTracker);
     }
 
     @Override
     public void update(float tpf) {
+        // Impostor-Texturen des letzten Frames sind gerendert, ihre Pre-Views werden nicht mehr gebraucht
+        impostorBaker.update();
+
         // Chunk-Management
         Vector3f camPos = cam.getLocation();
         int chunkX = (int) Math.floor(camPos.x / (CHUNK_SIZE - 1));
         int chunkZ = (int) Math.floor(camPos.z / (CHUNK_SIZE - 1));
         Vector2f currentChunk = new Vector2f(chunkX, chunkZ);
 
+        // Sichtkegel für die Lade-Reihenfolge (vor neuen Requests)
+        updateLoaderView(camPos);
+
         if (!currentChunk.equals(lastCameraChunk)) {
             System.out.println("Kamera-Chunk gewechselt: (" + chunkX + ", " + chunkZ + ")");
+            if (USE_HORIZON_CULLING) {
+                System.out.println("Horizon-Culling: " + culledChunkCount + " Chunks verdeckt, " + savedDrawCalls + " Draw-Calls gespart");
+            }
             updateVisibleChunks(chunkX, chunkZ);
             lastCameraChunk = currentChunk;
         }
 
-        // Prüfe auf fertig geladene Chunks und rendere sie
-        checkAndRenderLoadedChunks();
+        // Qualität an Frame-Zeit, Loader-Rückstand und Kamera-Geschwindigkeit anpassen
+        if (USE_QUALITY_GOVERNOR && qualityGovernor.update(tpf, camPos, chunkLoader.getPendingRequestCount())) {
+            applyQualityLevel(qualityGovernor.getLevel());
+        }
+
+        // Hänge fertig vorbereitete Chunks in den Scene-Graph
+        attachReadyChunks();
+        attachReadySprites();
+
+        // Clipmap-Ebenen mit der Kamera verschieben, geänderte Höhen-Texturen hochladen
+        if (clipmapRenderer != null) {
+            clipmapRenderer.update(camPos);
+        }
+
+        // Gras-Feld mit der Kamera verschieben
+        if (grassField != null) {
+            grassField.update(camPos);
+        }
+
+        // Geänderte Wasser-Regionen einmal pro Frame neu zusammenbauen
+        waterRegions.update();
+
+        // Blende Chunks hinter Bergrücken aus
+        if (USE_HORIZON_CULLING) {
+            updateHorizonCulling(camPos);
+        }
+
+        // Terrain-LOD aller Chunks in einem Durchlauf (nur nach Kamera-Bewegung oder Chunk-Wechsel)
+        lodManager.update();
+
+        // Neue Modell-Instanzen ihren InstancedGeometries zuordnen
+        modelInstancer.update();
+
+        // Nur die nächsten Modelle animieren, gedrosselt nach Distanz
+        modelAnimations.update(tpf);
 
         // Aktualisiere Tile-Marker wenn aktiviert
         if (SHOW_CURRENT_TILE) {
             updateCurrentTileMarker(camPos);
         }
+
+        memoryReportTimer += tpf;
+        if (memoryReportTimer >= MEMORY_REPORT_INTERVAL) {
+            memoryReportTimer = 0f;
+            System.out.println(memoryTracker.report() + " - " + chunkRegistry.countInState(ChunkState.ATTACHED) + " Chunks angehängt");
+            if (clipmapRenderer != null) {
+                System.out.println(String.format("Clipmap: %d Ebenen, %d Samples geschrieben, %d Textur-Uploads",
+                        clipmapRenderer.getLevelCount(), clipmapRenderer.getWrittenSamples(), clipmapRenderer.getTextureUploads()));
+            } else {
+                System.out.println(String.format("Terrain-LOD: %d Chunks, %d Durchläufe, letzter %.1fms, %d Patches neu indiziert",
+                        lodManager.getChunkCount(), lodManager.getPassCount(), lodManager.getLastPassMillis(),
+                        lodManager.getLastUpdatedPatches()));
+            }
+        }
     }
 
     public float getTerrainHeightAtRange(float x, float z, int range) {
@@ -144,78 +321,49 @@ public class TerrainLayer extends Layer {
         // Berechne den Chunk, in dem sich die Position befindet
         int chunkX = (int) Math.floor(x / (CHUNK_SIZE - 1));
         int chunkZ = (int) Math.floor(z / (CHUNK_SIZE - 1));
-        Vector2f chunkCoord = new Vector2f(chunkX, chunkZ);
 
-        // Versuche zuerst vom gerenderten TerrainQuad zu holen
-        TerrainQuad terrain = loadedChunks.get(chunkCoord);
+        ChunkRecord record = chunkRegistry.get(chunkX, chunkZ);
+        if (record == null || !record.hasHeightData()) {
+            // Chunk noch nicht geladen - keine Tile-Generierung auf dem Render-Thread
+            return DEFAULT_HEIGHT;
+        }
+
+        // Versuche zuerst vom gerenderten TerrainQuad zu holen (interpoliert)
+        TerrainQuad terrain = record.isAttached() ? record.getTerrain() : null;
         if (terrain != null) {
-            try {
-                float height = terrain.getHeight(new Vector2f(x, z));
-                if (!Float.isNaN(height) && !Float.isInfinite(height)) {
-                    return height;
-                }
-            } catch (Exception e) {
-                // Fehler beim Abrufen der Höhe, nutze Fallback
+            float height = terrain.getHeight(new Vector2f(x, z));
+            if (!Float.isNaN(height) && !Float.isInfinite(height)) {
+                return height;
             }
         }
 
-        // Versuche aus Height-Cache zu holen (schneller als TileProvider)
-        float[] cachedHeights = heightDataCache.get(chunkCoord);
-        if (cachedHeights != null) {
-            try {
-                float localX = x - (chunkX * (CHUNK_SIZE - 1));
-                float localZ = z - (chunkZ * (CHUNK_SIZE - 1));
-
-                int ix = (int) Math.floor(localX);
-                int iz = (int) Math.floor(localZ);
+        // Sonst direkt aus den Höhendaten des Records
+        return record.getHeightData()[localIndex(x, z, chunkX, chunkZ)];
+    }
 
-                // Clamp auf gültigen Bereich
-                if (ix < 0) ix = 0;
-                if (ix >= CHUNK_SIZE) ix = CHUNK_SIZE - 1;
-                if (iz < 0) iz = 0;
-                if (iz >= CHUNK_SIZE) iz = CHUNK_SIZE - 1;
+    /**
+     * Index eines Samples im Chunk (auf gültigen Bereich geklemmt)
+     */
+    private int localIndex(float x, float z, int chunkX, int chunkZ) {
+        int ix = (int) Math.floor(x - chunkX * (CHUNK_SIZE - 1));
+        int iz = (int) Math.floor(z - chunkZ * (CHUNK_SIZE - 1));
+        ix = Math.max(0, Math.min(CHUNK_SIZE - 1, ix));
+        iz = Math.max(0, Math.min(CHUNK_SIZE - 1, iz));
+        return iz * CHUNK_SIZE + ix;
+    }
 
-                int index = iz * CHUNK_SIZE + ix;
-                if (index < cachedHeights.length) {
-                    return cachedHeights[index];
-                }
-            } catch (Exception e) {
-                // Fehler beim Cache-Zugriff, nutze TileProvider
-            }
-        }
+    /**
+     * Tile an einer Weltposition, oder null wenn der Chunk noch keine Daten hat
+     */
+    private TerrainTile getTileAt(float x, float z) {
+        int chunkX = (int) Math.floor(x / (CHUNK_SIZE - 1));
+        int chunkZ = (int) Math.floor(z / (CHUNK_SIZE - 1));
 
-        System.out.println("++++++++++++++++ OHHH NOOOO %d0 %d0".formatted(chunkX, chunkZ));
-        // Fallback: Berechne Höhe direkt vom TileProvider (auch für noch nicht gerenderte Chunks)
-        try {
-            // Lokale Koordinaten im Chunk
-            float localX = x - (chunkX * (CHUNK_SIZE - 1));
-            float localZ = z - (chunkZ * (CHUNK_SIZE - 1));
-
-            // Hole Tile-Daten vom Provider
-            TerrainTile[] tiles = tileProvider.getTileData(chunkX, chunkZ, CHUNK_SIZE);
-
-            // Berechne Array-Index (clamped auf gültigen Bereich)
-            int ix = (int) Math.floor(localX);
-            int iz = (int) Math.floor(localZ);
-
-            // Clamp auf gültigen Bereich
-            if (ix < 0) ix = 0;
-            if (ix >= CHUNK_SIZE) ix = CHUNK_SIZE - 1;
-            if (iz < 0) iz = 0;
-            if (iz >= CHUNK_SIZE) iz = CHUNK_SIZE - 1;
-
-            // Hole direkt die Höhe vom Tile
-            int index = iz * CHUNK_SIZE + ix;
-            if (index >= 0 && index < tiles.length) {
-                return tiles[index].getHeight();
-            }
-        } catch (Exception e) {
-            // Bei Fehler: Standardhöhe zurückgeben
-            System.err.println("FEHLER in getTerrainHeightAt(" + x + ", " + z + "): " + e.getMessage());
+        ChunkRecord record = chunkRegistry.get(chunkX, chunkZ);
+        if (record == null || !record.hasTileData()) {
+            return null;
         }
-
-        System.out.println("++++++++++++++++ RETURN 10f");
-        return 10f;
+        return record.getTiles()[localIndex(x, z, chunkX, chunkZ)];
     }
 
     public float getGroundOffset() {
@@ -223,34 +371,10 @@ public class TerrainLayer extends Layer {
     }
 
     public float getWaterHeight(float x, float z) {
-        // Berechne den Chunk, in dem sich die Position befindet
-        int chunkX = (int) Math.floor(x / (CHUNK_SIZE - 1));
-        int chunkZ = (int) Math.floor(z / (CHUNK_SIZE - 1));
-
-        try {
-            // Hole Tile-Daten
-            TerrainTile[] tiles = tileProvider.getTileData(chunkX, chunkZ, CHUNK_SIZE);
-
-            // Berechne lokale Koordinaten
-            float localX = x - (chunkX * (CHUNK_SIZE - 1));
-            float localZ = z - (chunkZ * (CHUNK_SIZE - 1));
-
-            int ix = (int) Math.floor(localX);
-            int iz = (int) Math.floor(localZ);
-
-            if (ix >= 0 && ix < CHUNK_SIZE && iz >= 0 && iz < CHUNK_SIZE) {
-                int index = iz * CHUNK_SIZE + ix;
-                if (index >= 0 && index < tiles.length) {
-                    TerrainTile tile = tiles[index];
-                    if (tile.hasWater() && tile.getWater() != null) {
-                        return tile.getWater().getWaterHeight();
-                    }
-                }
-            }
-        } catch (Exception e) {
-            // Bei Fehler: Kein Wasser
+        TerrainTile tile = getTileAt(x, z);
+        if (tile != null && tile.hasWater() && tile.getWater() != null) {
+            return tile.getWater().getWaterHeight();
         }
-
         return Float.NEGATIVE_INFINITY; // Kein Wasser an dieser Position
     }
 
@@ -273,375 +397,510 @@ public class TerrainLayer extends Layer {
     }
 
     private float getSpeedMultiplierAt(float x, float z) {
-        // Berechne den Chunk, in dem sich die Position befindet
-        int chunkX = (int) Math.floor(x / (CHUNK_SIZE - 1));
-        int chunkZ = (int) Math.floor(z / (CHUNK_SIZE - 1));
-        Vector2f chunkCoord = new Vector2f(chunkX, chunkZ);
+        TerrainTile tile = getTileAt(x, z);
+        return tile != null ? tile.getSpeedMultiplier() : 1.0f; // Default Speed
+    }
 
-        TerrainQuad terrain = loadedChunks.get(chunkCoord);
-        if (terrain != null) {
-            try {
-                // Berechne lokale Koordinaten im Chunk
-                float localX = x - (chunkX * (CHUNK_SIZE - 1));
-                float localZ = z - (chunkZ * (CHUNK_SIZE - 1));
-
-                int ix = (int) Math.floor(localX);
-                int iz = (int) Math.floor(localZ);
-
-                if (ix >= 0 && ix < CHUNK_SIZE && iz >= 0 && iz < CHUNK_SIZE) {
-                    // Hole Speed-Multiplier vom TileProvider
-                    TerrainTile[] tiles = tileProvider.getTileData(chunkX, chunkZ, CHUNK_SIZE);
-                    int index = iz * CHUNK_SIZE + ix;
-                    if (index >= 0 && index < tiles.length) {
-                        return tiles[index].getSpeedMultiplier();
-                    }
-                }
-            } catch (Exception e) {
-                // Bei Fehler: Default-Speed zurückgeben
-            }
+    /**
+     * Veröffentlicht Kamera-Position und -Richtung an den ChunkLoader, wenn sie sich merklich geändert haben
+     */
+    private void updateLoaderView(Vector3f camPos) {
+        Vector3f dir = cam.getDirection();
+        if (camPos.distance(lastLoadViewPos) < LOAD_VIEW_MOVE_THRESHOLD && dir.dot(lastLoadViewDir) > LOAD_VIEW_TURN_THRESHOLD) {
+            return;
         }
+        lastLoadViewPos.set(camPos);
+        lastLoadViewDir.set(dir);
 
-        return 1.0f; // Default Speed
+        float chunkWorldSize = CHUNK_SIZE - 1;
+        float halfFov = (float) Math.atan(Math.abs(cam.getFrustumRight()) / cam.getFrustumNear());
+        chunkLoader.updateView(new ChunkLoadScheduler.ViewSnapshot(
+                camPos.x / chunkWorldSize, camPos.z / chunkWorldSize, dir.x, dir.z, halfFov));
     }
 
     private void updateVisibleChunks(int centerX, int centerZ) {
         System.out.println("Aktualisiere sichtbare Chunks um (" + centerX + ", " + centerZ + ")");
 
-        Map<Vector2f, Boolean> shouldBeLoaded = new HashMap<>();
-        Map<Vector2f, Boolean> shouldHaveSprites = new HashMap<>();
-
-        for (int x = centerX - VIEW_DISTANCE; x <= centerX + VIEW_DISTANCE; x++) {
-            for (int z = centerZ - VIEW_DISTANCE; z <= centerZ + VIEW_DISTANCE; z++) {
-                Vector2f chunkCoord = new Vector2f(x, z);
-                shouldBeLoaded.put(chunkCoord, true);
-
-                // Berechne Distanz zum Kamera-Chunk
-                int distance = Math.max(Math.abs(x - centerX), Math.abs(z - centerZ));
+        // Nur Chunks die das Fenster verlassen oder betreten werden angefasst
+        windowTracker.moveTo(centerX, centerZ);
+        int leaving = windowTracker.forEachLeaving(viewDistance, this::unloadChunkResources);
+        int entering = windowTracker.forEachEntering(viewDistance, this::requestChunkIfMissing);
+
+        // Sprite-LOD ändert sich nur auf den Rändern des Vorlade-, Nah-, Mittel- und Impostor-Rings
+        ChunkWindowTracker.ChunkVisitor spriteUpdate = (x, z) -> updateChunkSprites(x, z, centerX, centerZ);
+        int spriteTransitions = 0;
+        for (int ringDistance : new int[]{spriteImpostorDistance + SPRITE_PREFETCH_MARGIN, spriteImpostorDistance,
+                spriteFarDistance, spriteNearDistance}) {
+            spriteTransitions += windowTracker.forEachLeaving(ringDistance, spriteUpdate)
+                    + windowTracker.forEachEntering(ringDistance, spriteUpdate);
+        }
 
-                // Entscheide ob und welche Sprites geladen werden sollen
-                if (distance <= SPRITE_FAR_DISTANCE) {
-                    shouldHaveSprites.put(chunkCoord, true);
-                }
+        occlusionDirty = true;
+        System.out.println("Fenster-Update: " + entering + " neu, " + leaving + " entladen, " + spriteTransitions + " Sprite-LOD Übergänge");
+        System.out.println("Wasser: " + waterRegions.getRegionCount() + " Regionen (Draw-Calls), " + waterRegions.getQuadCount() + " Quads");
+        logSpriteTierStatistics();
+        System.out.println("Chunks: " + chunkRegistry.size() + " registriert, " + chunkRegistry.countInState(ChunkState.ATTACHED) +
+                " angehängt, " + chunkLoader.getPendingRequestCount() + " in der Loader-Queue");
+        System.out.println("Sprites: " + chunkLoader.getSpriteStatistics());
+    }
 
-                if (!loadedChunks.containsKey(chunkCoord)) {
-                    // Fordere Chunk an (falls noch nicht angefordert)
-                    if (!requestedChunks.contains(chunkCoord)) {
-                        chunkLoader.requestChunk(x, z);
-                        requestedChunks.add(chunkCoord);
-                    }
-                } else {
-                    // Update Sprites wenn LOD sich geändert hat
-                    updateChunkSprites(x, z, centerX, centerZ, chunkCoord);
-                }
-            }
+    /**
+     * Übernimmt eine neue Qualitätsstufe: Chunks zwischen altem und neuem Fenster werden
+     * entladen bzw. angefordert, Sprite-Stufen und Terrain-LOD neu berechnet
+     */
+    private void applyQualityLevel(QualityGovernor.QualityLevel quality) {
+        int oldViewDistance = viewDistance;
+        viewDistance = quality.getViewDistance();
+        spriteNearDistance = quality.getSpriteNearDistance();
+        spriteFarDistance = quality.getSpriteFarDistance();
+        spriteImpostorDistance = quality.getSpriteImpostorDistance();
+        lodCalculator.setLodMultiplier(quality.getLodMultiplier());
+        lodManager.invalidate();
+
+        int centerX = windowTracker.getCenterX();
+        int centerZ = windowTracker.getCenterZ();
+        int leaving = ChunkWindowTracker.forEachDifference(centerX, centerZ, oldViewDistance,
+                centerX, centerZ, viewDistance, this::unloadChunkResources);
+        int entering = ChunkWindowTracker.forEachDifference(centerX, centerZ, viewDistance,
+                centerX, centerZ, oldViewDistance, this::requestChunkIfMissing);
+
+        // Ringe haben sich verschoben: alle angehängten Chunks prüfen (nur bei Stufenwechsel)
+        for (ChunkRecord record : new java.util.ArrayList<>(chunkRegistry.getRecords())) {
+            updateChunkSprites(record.getChunkX(), record.getChunkZ(), centerX, centerZ);
         }
 
-        loadedChunks.entrySet().removeIf(entry -> {
-            if (!shouldBeLoaded.containsKey(entry.getKey())) {
-                System.out.println("Entlade Chunk: " + entry.getKey());
-                terrainNode.detachChild(entry.getValue());
-                requestedChunks.remove(entry.getKey());
-                heightDataCache.remove(entry.getKey());  // Entferne auch aus Height-Cache
-                chunkLoader.unloadChunk((int)entry.getKey().x, (int)entry.getKey().y);
-                return true;
-            }
-            return false;
-        });
-
-        // Entlade auch Wasser-Chunks
-        loadedWaterChunks.entrySet().removeIf(entry -> {
-            if (!shouldBeLoaded.containsKey(entry.getKey())) {
-                System.out.println("Entlade Wasser-Chunk: " + entry.getKey());
-                waterNode.detachChild(entry.getValue());
-                return true;
-            }
-            return false;
-        });
-
-        // Entlade Sprite-Chunks die außerhalb der Sprite-Distanz sind
-        loadedSpriteChunks.entrySet().removeIf(entry -> {
-            if (!shouldHaveSprites.containsKey(entry.getKey())) {
-                System.out.println("Entlade Sprite-Chunk: " + entry.getKey());
-                for (com.jme3.scene.Geometry sprite : entry.getValue()) {
-                    spriteNode.detachChild(sprite);
-                }
-                return true;
-            }
-            return false;
-        });
-
-        System.out.println("Geladene Chunks: " + loadedChunks.size() + ", Wasser-Chunks: " + loadedWaterChunks.size() + ", Sprite-Chunks: " + loadedSpriteChunks.size());
+        occlusionDirty = true;
+        System.out.println("Qualitätsstufe übernommen: " + entering + " Chunks angefordert, " + leaving + " entladen");
     }
 
     /**
-     * Prüft auf fertig geladene Chunks und rendert sie
+     * Fordert einen Chunk beim ChunkLoader an, falls er noch keinen Record in der Registry hat.
+     * Sprites werden nur für Chunks im Sprite-Ring gleich mit erzeugt.
      */
-    private void checkAndRenderLoadedChunks() {
-        // Erstelle Kopie von requestedChunks zum Iterieren (vermeidet ConcurrentModificationException)
-        java.util.Set<Vector2f> toCheck = new java.util.HashSet<>(requestedChunks);
+    private void requestChunkIfMissing(int chunkX, int chunkZ) {
+        chunkLoader.requestChunk(chunkX, chunkZ,
+                wantsSprites(chunkX, chunkZ, windowTracker.getCenterX(), windowTracker.getCenterZ()));
+    }
 
-        for (Vector2f chunkCoord : toCheck) {
-            int chunkX = (int) chunkCoord.x;
-            int chunkZ = (int) chunkCoord.y;
+    /**
+     * Entfernt Terrain, Wasser und Sprites eines Chunks der das Sichtfenster verlassen hat
+     */
+    private void unloadChunkResources(int chunkX, int chunkZ) {
+        ChunkRecord record = chunkRegistry.evict(chunkX, chunkZ);
+        if (record == null) {
+            return;
+        }
 
-            // Hole geladenen Chunk
-            LoadedChunk loadedChunk = chunkLoader.getLoadedChunk(chunkX, chunkZ);
+        TerrainQuad terrain = record.getTerrain();
+        if (terrain != null) {
+            System.out.println("Entlade Chunk: " + chunkX + "," + chunkZ);
+            terrainNode.detachChild(terrain);
 
-            if (loadedChunk != null) {
-                // Chunk ist fertig geladen -> rendere ihn
-                renderChunk(loadedChunk);
-                requestedChunks.remove(chunkCoord);
+            // Laufende LOD-Ergebnisse für diesen Chunk werden nicht mehr übernommen
+            lodManager.removeChunk((ChunkTerrainQuad) terrain);
+            memoryTracker.releaseAll(terrain);
+            record.setTerrain(null);
+        }
+        if (record.getChunkImages() != null) {
+            // AlphaMap-Buffer gehören dem Pool, Materialindex-Texturen werden zerstört
+            for (Image image : record.getChunkImages()) {
+                memoryTracker.release(image, alphaMapBuilder == null);
             }
+            record.setChunkImages(null);
+        }
+        waterRegions.removeChunk(chunkX, chunkZ);
+        removeChunkSprites(record);
+        spriteIndex.removeChunk(chunkX, chunkZ);
+        // Gecachte Pfad-Abstraktion gilt nicht mehr, falls der Chunk neu generiert wird
+        pathfindingService.invalidateChunk(chunkX, chunkZ);
+
+        if (alphaMapBuilder != null) {
+            alphaMapBuilder.release(record.takeAlphaMaps());
         }
     }
 
     /**
-     * Rendert einen fertig geladenen Chunk
+     * Hängt alle Chunks aus der Ready-Queue in den Scene-Graph
      */
-    private void renderChunk(LoadedChunk loadedChunk) {
-        int chunkX = loadedChunk.getChunkX();
-        int chunkZ = loadedChunk.getChunkZ();
-        Vector2f chunkCoord = new Vector2f(chunkX, chunkZ);
+    private void attachReadyChunks() {
+        ChunkRecord record;
+        while ((record = chunkRegistry.pollReady()) != null) {
+            renderChunk(record);
+        }
+    }
 
-        try {
-            // Erstelle Terrain aus geladenen Tiles
-            Map<String, TerrainTile> tilesMap = loadedChunk.getTiles();
-
-            // Konvertiere Map zu Array für bestehende Methoden
-            TerrainTile[] tiles = new TerrainTile[CHUNK_SIZE * CHUNK_SIZE];
-            float[] heightData = new float[CHUNK_SIZE * CHUNK_SIZE];
-
-            for (int z = 0; z < CHUNK_SIZE; z++) {
-                for (int x = 0; x < CHUNK_SIZE; x++) {
-                    int worldX = chunkX * (CHUNK_SIZE - 1) + x;
-                    int worldZ = chunkZ * (CHUNK_SIZE - 1) + z;
-                    String key = worldX + "," + worldZ;
-
-                    TerrainTile tile = tilesMap.get(key);
-                    if (tile != null) {
-                        tiles[z * CHUNK_SIZE + x] = tile;
-                        heightData[z * CHUNK_SIZE + x] = tile.getHeight();
-                    } else {
-                        heightData[z * CHUNK_SIZE + x] = 10f;
-                    }
-                }
+    /**
+     * Übernimmt nachträglich im Loader erzeugte Sprites (nur für noch angehängte Chunks)
+     */
+    private void attachReadySprites() {
+        ChunkRecord record;
+        while ((record = chunkLoader.pollSpriteResult()) != null) {
+            int chunkX = record.getChunkX();
+            int chunkZ = record.getChunkZ();
+            if (chunkRegistry.get(chunkX, chunkZ) != record || !record.isAttached()) {
+                continue;
             }
+            spriteIndex.addChunk(chunkX, chunkZ, record.getSprites());
+            applySpriteTier(record, spriteTierFor(chunkX, chunkZ, windowTracker.getCenterX(), windowTracker.getCenterZ()));
+        }
+    }
 
-            // Erstelle TerrainQuad
-            // TerrainQuad(name, patchSize, totalSize, heightMap)
-            // totalSize muss 2^N + 1 sein (z.B. 65, 129, 257)
-            TerrainQuad terrain = new TerrainQuad("Chunk_" + chunkX + "_" + chunkZ, 65, CHUNK_SIZE, heightData);
-            terrain.setLocalTranslation(chunkX * (CHUNK_SIZE - 1), 0, chunkZ * (CHUNK_SIZE - 1));
-
-            // Material (mit cached Textures)
-            Material mat = createTerrainMaterial(tiles);
-            terrain.setMaterial(mat);
+    /**
+     * Rendert einen vorbereiteten Chunk (PREPARED -> ATTACHED)
+     */
+    private void renderChunk(ChunkRecord record) {
+        int chunkX = record.getChunkX();
+        int chunkZ = record.getChunkZ();
 
-            // LOD Control
-            TerrainLodControl control = new TerrainLodControl(terrain, cam);
-            control.setLodCalculator(new DistanceLodCalculator(CHUNK_SIZE, 2.7f));
-            terrain.addControl(control);
+        try {
+            if (clipmapRenderer != null) {
+                // Nur Samples in die Clipmap-Texturen, kein Mesh pro Chunk
+                clipmapRenderer.addChunk(record);
+            } else {
+                attachTerrainQuad(record);
+            }
+            if (grassField != null) {
+                grassField.addChunk(record);
+            }
 
-            terrainNode.attachChild(terrain);
-            loadedChunks.put(chunkCoord, terrain);
+            occlusionDirty = true;
 
-            // Speichere Höhendaten im Cache
-            heightDataCache.put(chunkCoord, heightData);
+            // Wasser (Rechtecke aus dem Loader-Thread, Mesh pro Region)
+            waterRegions.addChunk(chunkX, chunkZ, record.getWaterRects());
 
-            // Wasser
-            float worldX = chunkX * (CHUNK_SIZE - 1);
-            float worldZ = chunkZ * (CHUNK_SIZE - 1);
-            createWaterOverlay(chunkX, chunkZ, tiles, worldX, worldZ);
+            // Neu generierter Chunk: zwischenzeitlich aufgebaute Portale und Kostenfelder verwerfen
+            pathfindingService.invalidateChunk(chunkX, chunkZ);
 
-            // Sprites (mit LOD)
+            // Sprites (mit LOD), falls schon erzeugt - sonst bei Bedarf im Loader anfordern
             Vector3f camPos = cam.getLocation();
             int centerX = (int) Math.floor(camPos.x / (CHUNK_SIZE - 1));
             int centerZ = (int) Math.floor(camPos.z / (CHUNK_SIZE - 1));
-            int distance = Math.max(Math.abs(chunkX - centerX), Math.abs(chunkZ - centerZ));
-
-            if (distance <= SPRITE_FAR_DISTANCE) {
-                boolean bigOnly = distance > SPRITE_NEAR_DISTANCE;
-                createSpritesFromLoadedChunk(loadedChunk, bigOnly);
+            if (record.hasSprites()) {
+                spriteIndex.addChunk(chunkX, chunkZ, record.getSprites());
+                applySpriteTier(record, spriteTierFor(chunkX, chunkZ, centerX, centerZ));
+            } else if (wantsSprites(chunkX, chunkZ, centerX, centerZ)) {
+                chunkLoader.requestSprites(record);
             }
 
+            record.transition(ChunkState.PREPARED, ChunkState.ATTACHED);
+
             System.out.println("Chunk gerendert: (" + chunkX + ", " + chunkZ + ") - " +
-                             (System.currentTimeMillis() - loadedChunk.getLoadTime()) + "ms seit Laden");
+                             (System.currentTimeMillis() - record.getRequestTime()) + "ms seit Anforderung");
 
         } catch (Exception e) {
             System.err.println("FEHLER beim Rendern von Chunk (" + chunkX + ", " + chunkZ + "): " + e.getMessage());
             e.printStackTrace();
+            unloadChunkResources(chunkX, chunkZ);
         }
     }
 
     /**
-     * Erstellt Sprites aus einem geladenen Chunk
+     * Erstellt das TerrainQuad eines Chunks samt Material und nimmt es in die LOD-Berechnung auf
      */
-    private void createSpritesFromLoadedChunk(LoadedChunk loadedChunk, boolean bigOnly) {
-        int chunkX = loadedChunk.getChunkX();
-        int chunkZ = loadedChunk.getChunkZ();
-        Vector2f chunkCoord = new Vector2f(chunkX, chunkZ);
-
-        List<Sprite> sprites = loadedChunk.getSprites();
-        List<com.jme3.scene.Geometry> geometries = new java.util.ArrayList<>();
-
-        for (Sprite sprite : sprites) {
-            // Filtere nach bigOnly
-            if (bigOnly && !sprite.isBig()) {
-                continue;
-            }
-
-            List<com.jme3.scene.Geometry> spriteGeoms = sprite.createGeometries(assetManager, spriteNode);
-            geometries.addAll(spriteGeoms);
+    private void attachTerrainQuad(ChunkRecord record) {
+        int chunkX = record.getChunkX();
+        int chunkZ = record.getChunkZ();
+        TerrainTile[] tiles = record.getTiles();
+
+        // Erstelle TerrainQuad
+        // TerrainQuad(name, patchSize, totalSize, heightMap)
+        // totalSize muss 2^N + 1 sein (z.B. 65, 129, 257)
+        ChunkTerrainQuad terrain = new ChunkTerrainQuad("Chunk_" + chunkX + "_" + chunkZ, 65, CHUNK_SIZE, record.getHeightData(), chunkX, chunkZ);
+        terrain.setLocalTranslation(chunkX * (CHUNK_SIZE - 1), 0, chunkZ * (CHUNK_SIZE - 1));
+
+        // Material: gemeinsames TextureArray-Material + Materialindex pro Chunk, sonst eigenes TerrainLighting-Material
+        List<Image> chunkImages = new java.util.ArrayList<>();
+        if (USE_TEXTURE_ARRAY) {
+            Texture2D indexTexture = createMaterialIndexTexture(tiles);
+            terrain.setMaterial(getSharedTerrainMaterial());
+            terrain.addMatParamOverride(new MatParamOverride(VarType.Texture2D, "MaterialIndexMap", indexTexture));
+            chunkImages.add(indexTexture.getImage());
+        } else {
+            terrain.setMaterial(createTerrainMaterial(record, chunkImages));
+        }
+        record.setChunkImages(chunkImages);
+        for (Image image : chunkImages) {
+            memoryTracker.retain(NativeMemoryTracker.Category.TERRAIN, image, true);
         }
+        memoryTracker.retainAll(NativeMemoryTracker.Category.TERRAIN, terrain, true);
 
-        loadedSpriteChunks.put(chunkCoord, geometries);
-        System.out.println("Sprites gerendert für Chunk (" + chunkX + ", " + chunkZ + "): " + geometries.size() + " Geometries (bigOnly=" + bigOnly + ")");
+        terrainNode.attachChild(terrain);
+        lodManager.addChunk(terrain);
+        record.setTerrain(terrain);
     }
 
-    private void updateChunkSprites(int chunkX, int chunkZ, int centerX, int centerZ, Vector2f chunkCoord) {
+    /**
+     * true wenn ein Chunk im Sprite-Ring (samt Vorlade-Rand) liegt und seine Sprites braucht
+     */
+    private boolean wantsSprites(int chunkX, int chunkZ, int centerX, int centerZ) {
         int distance = Math.max(Math.abs(chunkX - centerX), Math.abs(chunkZ - centerZ));
+        return distance <= spriteImpostorDistance + SPRITE_PREFETCH_MARGIN;
+    }
 
-        // Bestimme ob Sprites geladen sein sollten und welche LOD-Stufe
-        boolean shouldHaveSprites = distance <= SPRITE_FAR_DISTANCE;
-        boolean bigOnly = distance > SPRITE_NEAR_DISTANCE;
-        boolean hasSprites = loadedSpriteChunks.containsKey(chunkCoord);
+    private SpriteTier spriteTierFor(int chunkX, int chunkZ, int centerX, int centerZ) {
+        int distance = Math.max(Math.abs(chunkX - centerX), Math.abs(chunkZ - centerZ));
+        return SpriteTier.forDistance(distance, spriteNearDistance, spriteFarDistance, spriteImpostorDistance);
+    }
 
-        if (!shouldHaveSprites && hasSprites) {
-            // Entferne Sprites
-            List<com.jme3.scene.Geometry> sprites = loadedSpriteChunks.remove(chunkCoord);
-            for (com.jme3.scene.Geometry sprite : sprites) {
-                spriteNode.detachChild(sprite);
-            }
-            System.out.println("Sprites entfernt für Chunk (" + chunkX + ", " + chunkZ + ") - zu weit entfernt");
-        } else if (shouldHaveSprites && !hasSprites) {
-            // Lade Sprites
-            try {
-                TerrainTile[] tiles = tileProvider.getTileData(chunkX, chunkZ, CHUNK_SIZE);
-                createSpriteOverlay(chunkX, chunkZ, tiles, bigOnly);
-            } catch (Exception e) {
-                System.err.println("FEHLER beim Laden von Sprites für Chunk (" + chunkX + ", " + chunkZ + "): " + e.getMessage());
+    /**
+     * Bringt die Sprites eines Chunks auf eine LOD-Stufe: fehlende Teile werden gebaut,
+     * Teile die weder diese noch eine Nachbarstufe zeigt werden freigegeben,
+     * alles andere nur per CullHint umgeschaltet.
+     */
+    private void applySpriteTier(ChunkRecord record, SpriteTier tier) {
+        ChunkSprites chunkSprites = record.getChunkSprites();
+        if (chunkSprites.getNode() == null) {
+            chunkSprites.setNode(spriteRegions.attachChunk(record.getChunkX(), record.getChunkZ()));
+        }
+        for (ChunkSprites.Part part : ChunkSprites.Part.values()) {
+            if (!tier.keeps(part)) {
+                releaseSpriteGeometries(chunkSprites.removePart(part), chunkSprites.getNode());
+            } else if (tier.shows(part) && !chunkSprites.hasPart(part)) {
+                chunkSprites.setPart(part, createSpritePart(record, part));
             }
         }
-        // LOD-Update wird nicht durchgeführt (würde Sprites neu erstellen müssen)
+        chunkSprites.setTier(tier);
+        occlusionDirty = true;
     }
 
-    private void loadChunk(int chunkX, int chunkZ, int centerX, int centerZ) {
-        System.out.println("Lade Chunk: (" + chunkX + ", " + chunkZ + ")");
-
-        try {
-            // Hole Tile-Daten (Höhe + Material + Parameter)
-            TerrainTile[] tiles = tileProvider.getTileData(chunkX, chunkZ, CHUNK_SIZE);
-
-            // Extrahiere Höhendaten für TerrainQuad
-            float[] heightData = new float[tiles.length];
-            for (int i = 0; i < tiles.length; i++) {
-                heightData[i] = tiles[i].getHeight();
+    /**
+     * Erstellt die Geometries eines Sprite-Teils aus den Daten eines Chunk-Records
+     */
+    private List<com.jme3.scene.Geometry> createSpritePart(ChunkRecord record, ChunkSprites.Part part) {
+        Node chunkNode = record.getChunkSprites().getNode();
+        List<com.jme3.scene.Geometry> geometries = new java.util.ArrayList<>();
+        SpriteBatch sprites = record.getSprites();
+        int[] billboards = new int[sprites.size()];
+        int billboardCount = 0;
+        List<ModelSprite> models = new java.util.ArrayList<>();
+
+        for (int i = 0; i < sprites.size(); i++) {
+            boolean big = sprites.isBig(i);
+            boolean billboard = sprites.getType(i).isBillboard();
+            boolean inPart;
+            switch (part) {
+                case SMALL:
+                    inPart = !big;
+                    break;
+                case BIG_BILLBOARDS:
+                    inPart = big && billboard;
+                    break;
+                default:
+                    inPart = big && !billboard;
+                    break;
+            }
+            if (!inPart) {
+                continue;
             }
 
-            String name = "chunk_" + chunkX + "_" + chunkZ;
-            TerrainQuad terrain = new TerrainQuad(name, CHUNK_SIZE, CHUNK_SIZE, heightData);
-
-            Material mat = createTerrainMaterial(tiles);
-            terrain.setMaterial(mat);
-
-            float worldX = chunkX * (CHUNK_SIZE - 1);
-            float worldZ = chunkZ * (CHUNK_SIZE - 1);
-            terrain.setLocalTranslation(worldX, 0, worldZ);
+            // Billboards werden unten direkt aus dem SpriteBatch gebatcht, Impostors pro Modelltyp
+            if (billboard) {
+                billboards[billboardCount++] = i;
+                continue;
+            }
+            // Modelle sind selten, für sie reicht die Objekt-Ansicht
+            Sprite sprite = sprites.getSprite(i);
+            if (part == ChunkSprites.Part.IMPOSTORS) {
+                if (sprite instanceof ModelSprite) {
+                    models.add((ModelSprite) sprite);
+                }
+                continue;
+            }
 
-            TerrainLodControl lodControl = new TerrainLodControl(terrain, cam);
-            lodControl.setLodCalculator(new DistanceLodCalculator(CHUNK_SIZE, 2.7f));
-            terrain.addControl(lodControl);
+            // Modelle instanziert, Fallback: eigene Kopie des Modells
+            List<com.jme3.scene.Geometry> spriteGeoms = sprite instanceof ModelSprite
+                    ? modelInstancer.createInstances((ModelSprite) sprite)
+                    : null;
+            if (spriteGeoms == null) {
+                spriteGeoms = sprite.createGeometries(assetManager, chunkNode);
+                if (sprite instanceof ModelSprite && !spriteGeoms.isEmpty()) {
+                    // Wurzel der Kopie direkt unter dem Chunk-Node
+                    com.jme3.scene.Spatial model = spriteGeoms.get(0);
+                    while (model.getParent() != chunkNode) {
+                        model = model.getParent();
+                    }
+                    modelAnimations.addClone((ModelSprite) sprite, model, spriteGeoms);
+                }
+            } else if (sprite instanceof ModelSprite) {
+                modelAnimations.addInstanced((ModelSprite) sprite, spriteGeoms);
+            }
+            // Modell-Meshes sind geteilte Vorlagen und werden nur gezählt
+            for (com.jme3.scene.Geometry geom : spriteGeoms) {
+                memoryTracker.retain(NativeMemoryTracker.Category.SPRITES, geom.getMesh(), false);
+            }
+            geometries.addAll(spriteGeoms);
+        }
 
-            terrainNode.attachChild(terrain);
-            loadedChunks.put(new Vector2f(chunkX, chunkZ), terrain);
+        // Ein instanzierter Draw-Call pro Textur bzw. Modelltyp und Chunk
+        String batchName = "sprites_" + part.name().toLowerCase() + "_" + record.getChunkX() + "_" + record.getChunkZ();
+        List<com.jme3.scene.Geometry> batches = new java.util.ArrayList<>(
+                billboardBatcher.createBatches(batchName, sprites, billboards, billboardCount));
+        batches.addAll(impostorBaker.createBatches(batchName, models));
+        for (com.jme3.scene.Geometry batch : batches) {
+            chunkNode.attachChild(batch);
+            memoryTracker.retain(NativeMemoryTracker.Category.SPRITES, batch.getMesh(), true);
+            geometries.add(batch);
+        }
+        return geometries;
+    }
 
-            // Erstelle Wasser-Overlay für diesen Chunk
-            createWaterOverlay(chunkX, chunkZ, tiles, worldX, worldZ);
+    /**
+     * Bringt die Sprites eines Chunks auf die LOD-Stufe seiner Distanz (nur bei Änderung)
+     */
+    private void updateChunkSprites(int chunkX, int chunkZ, int centerX, int centerZ) {
+        // Nur angehängte Chunks - neue Chunks erhalten ihre Sprites in renderChunk
+        ChunkRecord record = chunkRegistry.get(chunkX, chunkZ);
+        if (record == null || !record.isAttached()) {
+            return;
+        }
 
-            // Erstelle Sprites für diesen Chunk basierend auf Distanz
-            int distance = Math.max(Math.abs(chunkX - centerX), Math.abs(chunkZ - centerZ));
-            if (distance <= SPRITE_FAR_DISTANCE) {
-                boolean bigOnly = distance > SPRITE_NEAR_DISTANCE;
-                createSpriteOverlay(chunkX, chunkZ, tiles, bigOnly);
-                System.out.println("Sprites geladen für Chunk (" + chunkX + ", " + chunkZ + ") - Distanz: " + distance + ", bigOnly: " + bigOnly);
-            } else {
-                System.out.println("Keine Sprites für Chunk (" + chunkX + ", " + chunkZ + ") - Distanz: " + distance + " > " + SPRITE_FAR_DISTANCE);
+        // Noch keine Sprites: im Loader anfordern, die Stufe setzt attachReadySprites
+        if (!record.hasSprites()) {
+            if (wantsSprites(chunkX, chunkZ, centerX, centerZ)) {
+                chunkLoader.requestSprites(record);
             }
+            return;
+        }
 
-            System.out.println("Chunk geladen: " + name + " at (" + worldX + ", 0, " + worldZ + ")");
-
-        } catch (Exception e) {
-            System.err.println("FEHLER beim Laden von Chunk (" + chunkX + ", " + chunkZ + "): " + e.getMessage());
-            e.printStackTrace();
+        SpriteTier tier = spriteTierFor(chunkX, chunkZ, centerX, centerZ);
+        if (record.getChunkSprites().getTier() != tier) {
+            applySpriteTier(record, tier);
         }
     }
 
-    private void createWaterOverlay(int chunkX, int chunkZ, TerrainTile[] tiles, float worldX, float worldZ) {
-        // Prüfe ob überhaupt Wasser vorhanden ist
-        boolean hasAnyWater = false;
-        for (TerrainTile tile : tiles) {
-            if (tile.hasWater()) {
-                hasAnyWater = true;
-                break;
+    /**
+     * Entfernt alle Sprite-Geometries eines Chunks
+     */
+    private void removeChunkSprites(ChunkRecord record) {
+        ChunkSprites chunkSprites = record.getChunkSprites();
+        for (ChunkSprites.Part part : ChunkSprites.Part.values()) {
+            List<com.jme3.scene.Geometry> sprites = chunkSprites.removePart(part);
+            if (sprites == null) {
+                continue;
+            }
+            modelAnimations.release(sprites);
+            for (com.jme3.scene.Geometry sprite : sprites) {
+                memoryTracker.release(sprite.getMesh());
+                // Instanzen hängen am gemeinsamen InstancedNode und müssen einzeln raus
+                if (sprite.getParent() instanceof com.jme3.scene.instancing.InstancedNode) {
+                    sprite.removeFromParent();
+                }
             }
         }
 
-        if (!hasAnyWater) {
-            return; // Kein Wasser in diesem Chunk
+        // Alles andere hängt am Chunk-Node: ein einziges Detach
+        if (chunkSprites.getNode() != null) {
+            spriteRegions.detachChunk(record.getChunkX(), record.getChunkZ(), chunkSprites.getNode());
+            chunkSprites.setNode(null);
         }
+        chunkSprites.setTier(SpriteTier.NONE);
+    }
 
-        // Erstelle Wasser-Mesh (Quad-Plane auf Wasserhöhe)
-        // Wir erstellen eine einfache Plane die den ganzen Chunk abdeckt
-        com.jme3.scene.shape.Quad waterQuad = new com.jme3.scene.shape.Quad(CHUNK_SIZE - 1, CHUNK_SIZE - 1);
-        com.jme3.scene.Geometry waterGeom = new com.jme3.scene.Geometry("water_" + chunkX + "_" + chunkZ, waterQuad);
+    private void releaseSpriteGeometries(List<com.jme3.scene.Geometry> sprites, Node chunkNode) {
+        if (sprites == null) {
+            return;
+        }
+        modelAnimations.release(sprites);
+        for (com.jme3.scene.Geometry sprite : sprites) {
+            memoryTracker.release(sprite.getMesh());
+
+            // Modelle hängen in eigenen Nodes: leere Eltern bis zum Chunk-Node mit entfernen
+            Node parent = sprite.getParent();
+            sprite.removeFromParent();
+            while (parent != null && parent != chunkNode && parent != modelInstancer.getNode() && parent.getQuantity() == 0) {
+                Node next = parent.getParent();
+                parent.removeFromParent();
+                parent = next;
+            }
+        }
+    }
 
-        // Wasser-Material mit animierten Wellen
-        if (waterMat == null) {
-            waterMat = new Material(assetManager, "MatDefs/Water.j3md");
-            waterMat.setColor("Color", new ColorRGBA(0.2f, 0.4f, 0.8f, 0.5f)); // Halbtransparentes Blau
-            waterMat.setFloat("WaveHeight", 0.3f);     // Höhe der Wellen
-            waterMat.setFloat("WaveSpeed", 1.0f);      // Geschwindigkeit
-            waterMat.setFloat("WaveFrequency", 0.05f); // Frequenz
-            waterMat.getAdditionalRenderState().setBlendMode(com.jme3.material.RenderState.BlendMode.Alpha);
-            waterMat.getAdditionalRenderState().setDepthWrite(false);
-            waterMat.getAdditionalRenderState().setFaceCullMode(com.jme3.material.RenderState.FaceCullMode.Off);
+    /**
+     * Gibt pro Sprite-Ring Chunks, Draw-Calls und Vertices aus
+     */
+    private void logSpriteTierStatistics() {
+        int[] chunks = new int[SpriteTier.values().length];
+        int[] drawCalls = new int[chunks.length];
+        int[] vertices = new int[chunks.length];
+        for (ChunkRecord record : chunkRegistry.getRecords()) {
+            if (!record.isAttached()) {
+                continue;
+            }
+            ChunkSprites chunkSprites = record.getChunkSprites();
+            int tier = chunkSprites.getTier().ordinal();
+            chunks[tier]++;
+            drawCalls[tier] += chunkSprites.getTierDrawCalls();
+            vertices[tier] += chunkSprites.getTierVertexCount();
         }
-        waterGeom.setMaterial(waterMat);
 
-        // Berechne durchschnittliche Wasserhöhe für diesen Chunk
-        float avgWaterHeight = 0f;
-        int waterCount = 0;
-        for (TerrainTile tile : tiles) {
-            if (tile.hasWater() && tile.getWater() != null) {
-                avgWaterHeight += tile.getWater().getWaterHeight();
-                waterCount++;
+        StringBuilder sb = new StringBuilder("Sprite-LOD:");
+        for (SpriteTier tier : SpriteTier.values()) {
+            if (tier == SpriteTier.NONE) {
+                continue;
             }
+            int i = tier.ordinal();
+            sb.append(String.format(" %s %d Chunks / %d Draw-Calls / %d Vertices;",
+                    tier.name().toLowerCase(), chunks[i], drawCalls[i], vertices[i]));
         }
-        avgWaterHeight = waterCount > 0 ? avgWaterHeight / waterCount : 10f;
+        sb.append(" Modelle instanziert: ").append(modelInstancer.getModelTypeCount()).append(" Typen;");
+        sb.append(String.format(" Animiert: %d von %d Modellen (%d eingefroren, %d Takte);",
+                modelAnimations.getActiveCount(), modelAnimations.getRegisteredCount(),
+                modelAnimations.getFrozenCount(), modelAnimations.getTicks()));
+        sb.append(" Sprite-Regionen: ").append(spriteRegions.getRegionCount());
+        System.out.println(sb);
+    }
 
-        // Positioniere Wasser-Quad
-        waterGeom.setLocalTranslation(worldX, avgWaterHeight, worldZ);
-        waterGeom.rotate(-com.jme3.math.FastMath.HALF_PI, 0, 0); // Rotiere um horizontal zu liegen
+    /**
+     * Wasser-Material mit animierten Wellen (gemeinsam für alle Wasser-Regionen)
+     */
+    private Material createWaterMaterial() {
+        Material waterMat = new Material(assetManager, "MatDefs/Water.j3md");
+        waterMat.setColor("Color", new ColorRGBA(0.2f, 0.4f, 0.8f, 0.5f)); // Halbtransparentes Blau
+        waterMat.setFloat("WaveHeight", 0.3f);     // Höhe der Wellen
+        waterMat.setFloat("WaveSpeed", 1.0f);      // Geschwindigkeit
+        waterMat.setFloat("WaveFrequency", 0.05f); // Frequenz
+        waterMat.getAdditionalRenderState().setBlendMode(com.jme3.material.RenderState.BlendMode.Alpha);
+        waterMat.getAdditionalRenderState().setDepthWrite(false);
+        waterMat.getAdditionalRenderState().setFaceCullMode(com.jme3.material.RenderState.FaceCullMode.Off);
+        return waterMat;
+    }
 
-        waterGeom.setQueueBucket(com.jme3.renderer.queue.RenderQueue.Bucket.Transparent);
-        waterNode.attachChild(waterGeom);
-        loadedWaterChunks.put(new Vector2f(chunkX, chunkZ), waterGeom);
+    /**
+     * Das eine Terrain-Material für alle Chunks (wird beim ersten Chunk erstellt).
+     * Alle Material-Texturen liegen in einem TextureArray, die Auswahl pro Tile trifft der Shader.
+     */
+    private Material getSharedTerrainMaterial() {
+        if (sharedTerrainMat == null) {
+            sharedTerrainMat = new Material(assetManager, "MatDefs/TerrainArray.j3md");
+            sharedTerrainMat.setTexture("TerrainTextures", materialIndex.createTextureArray(assetManager));
+            sharedTerrainMat.setParam("LayerScales", VarType.FloatArray, materialIndex.getTextureScales());
+            sharedTerrainMat.setInt("LayerCount", materialIndex.getMaterialCount());
+        }
+        return sharedTerrainMat;
+    }
 
-        System.out.println("Wasser-Overlay erstellt für Chunk (" + chunkX + ", " + chunkZ + ") bei Höhe " + avgWaterHeight);
+    /**
+     * R8UI-Textur mit der Material-ID jedes Tiles. Nearest-Filter: Der Shader liest die
+     * vier Nachbar-Tiles selbst und blendet zwischen ihren Texturen.
+     */
+    private Texture2D createMaterialIndexTexture(TerrainTile[] tiles) {
+        ByteBuffer data = BufferUtils.createByteBuffer(tiles.length);
+        data.put(materialIndex.buildIndexData(tiles));
+        data.flip();
+
+        Image image = new Image(Image.Format.R8UI, CHUNK_SIZE, CHUNK_SIZE, data, com.jme3.texture.image.ColorSpace.Linear);
+        Texture2D texture = new Texture2D(image);
+        texture.setMinFilter(Texture.MinFilter.NearestNoMipMaps);
+        texture.setMagFilter(Texture.MagFilter.Nearest);
+        texture.setWrap(Texture.WrapMode.EdgeClamp);
+        return texture;
     }
 
-    private Material createTerrainMaterial(TerrainTile[] tiles) {
+    private Material createTerrainMaterial(ChunkRecord record, List<Image> chunkImages) {
         Material mat = new Material(assetManager, "Common/MatDefs/Terrain/TerrainLighting.j3md");
 
-        // Lade Materialien vom TileProvider
-        Map<String, TerrainMaterial> materials = tileProvider.getMaterials();
-
-        // Erstelle MaterialMappings mit zugewiesenen Indizes
-        Map<String, MaterialMapping> materialMappings = createMaterialMappings(materials);
-
-        System.out.println("\n========== Material-Mapping für Chunk ==========");
-        System.out.println("Anzahl Materialien verfügbar: " + materials.size());
-        System.out.println("Anzahl Materialien geladen: " + materialMappings.size());
+        // MaterialMappings sind für alle Chunks gleich (gecacht)
+        Map<String, MaterialMapping> materialMappings = createMaterialMappings(tileProvider.getMaterials());
 
         // Lade DiffuseMaps in den Shader (mit Texture-Cache)
         for (MaterialMapping mapping : materialMappings.values()) {
@@ -658,51 +917,27 @@ public class TerrainLayer extends Layer {
 
             mat.setTexture(mapping.getDiffuseMapParamName(), tex);
             mat.setFloat(mapping.getScaleParamName(), mapping.getMaterial().getTextureScale());
-
-            System.out.println("  " + mapping.getDiffuseMapParamName() + " = " + mapping.getKey() +
-                " (DiffuseIdx=" + mapping.getAssignedDiffuseMapIndex() +
-                ", AlphaMap=" + mapping.getAlphaMapIndex() +
-                ", Channel=" + mapping.getAlphaMapChannel() + ")");
         }
 
-        // Erstelle AlphaMaps dynamisch basierend auf MaterialMappings
-        Map<Integer, List<String>> alphaMapMaterials = new java.util.HashMap<>();
-        for (MaterialMapping mapping : materialMappings.values()) {
-            int alphaMapIdx = mapping.getAlphaMapIndex();
-            if (alphaMapIdx >= 0) {
-                alphaMapMaterials.computeIfAbsent(alphaMapIdx, k -> new java.util.ArrayList<>())
-                        .add(mapping.getKey());
-            }
+        // AlphaMaps baut normalerweise schon der Loader-Thread, sonst hier nachholen
+        ByteBuffer[] alphaMaps = record.getAlphaMaps();
+        if (alphaMaps == null) {
+            alphaMaps = alphaMapBuilder.build(record.getTiles());
+            record.setAlphaMaps(alphaMaps);
         }
 
-        // WICHTIG: AlphaMaps müssen sequenziell sein! Wenn AlphaMap_1 verwendet wird,
-        // MUSS auch AlphaMap existieren (auch wenn leer)
-        int maxAlphaMapIdx = alphaMapMaterials.keySet().stream().max(Integer::compareTo).orElse(-1);
-
-        // Erstelle ALLE AlphaMaps von 0 bis maxAlphaMapIdx (auch leere)
-        for (int alphaMapIdx = 0; alphaMapIdx <= maxAlphaMapIdx; alphaMapIdx++) {
-            List<String> materialNames = alphaMapMaterials.get(alphaMapIdx);
-
-            if (materialNames == null) {
-                materialNames = new java.util.ArrayList<>();
-                System.out.println("  Warnung: AlphaMap " + alphaMapIdx + " ist leer (aber wird trotzdem erstellt)");
-            }
+        // Shader erwartet feste Namen: AlphaMap, AlphaMap_1, AlphaMap_2 (sequenziell, auch leere)
+        for (int alphaMapIdx = 0; alphaMapIdx < alphaMaps.length; alphaMapIdx++) {
+            Image image = new Image(Image.Format.RGB8, CHUNK_SIZE, CHUNK_SIZE, alphaMaps[alphaMapIdx],
+                    (com.jme3.texture.image.ColorSpace) null);
+            Texture2D alphaTex = new Texture2D(image);
+            alphaTex.setName("AlphaMap_" + alphaMapIdx);
+            chunkImages.add(image);
 
-            String alphaMapName = materialNames.isEmpty() ?
-                "AlphaMap_empty_" + alphaMapIdx :
-                "AlphaMap_" + String.join("_", materialNames);
-
-            Texture2D alphaTex = new Texture2D(createAlphaMapFromTiles(tiles, materialMappings, alphaMapIdx));
-            alphaTex.setName(alphaMapName);
-
-            // Shader erwartet feste Namen: AlphaMap, AlphaMap_1, AlphaMap_2, AlphaMap_3
             String alphaMapParam = (alphaMapIdx == 0) ? "AlphaMap" : "AlphaMap_" + alphaMapIdx;
             mat.setTexture(alphaMapParam, alphaTex);
-
-            System.out.println("  " + alphaMapParam + " = [" + String.join(", ", materialNames) + "]");
         }
 
-        System.out.println("========== Ende Material-Mapping ==========\n");
         return mat;
     }
 
@@ -737,47 +972,117 @@ public class TerrainLayer extends Layer {
 
             materialMappingCache.putAll(mappings);
             System.out.println("  MaterialMappings erstellt und gecacht: " + mappings.size() + " Mappings");
+            for (MaterialMapping mapping : mappings.values()) {
+                System.out.println("    " + mapping.getDiffuseMapParamName() + " = " + mapping.getKey() +
+                    " (AlphaMap=" + mapping.getAlphaMapIndex() + ", Channel=" + mapping.getAlphaMapChannel() + ")");
+            }
         }
 
         return materialMappingCache;
     }
 
     /**
-     * Erstellt eine AlphaMap für einen bestimmten Index basierend auf MaterialMappings
+     * Horizon-Culling: Läuft die Chunks von vorne nach hinten ab und blendet
+     * Chunks (inkl. Wasser und Sprites) aus, die vollständig hinter dem Horizont liegen.
+     * Wasser-Regionen umfassen mehrere Chunks und werden ausgeblendet, wenn alle ihre Chunks mit Wasser verdeckt sind.
+     * Wird nur neu ausgewertet wenn sich die Kamera merklich bewegt oder Chunks sich ändern.
      */
-    private Image createAlphaMapFromTiles(TerrainTile[] tiles, Map<String, MaterialMapping> materialMappings, int alphaMapIndex) {
-        int alphaMapSize = CHUNK_SIZE;
-        ByteBuffer alphaBuffer = BufferUtils.createByteBuffer(alphaMapSize * alphaMapSize * 3); // RGB
-
-        int redCount = 0, greenCount = 0, blueCount = 0, blackCount = 0;
-
-        for (TerrainTile tile : tiles) {
-            String materialKey = tile.getMaterialKey();
-            MaterialMapping mapping = materialMappings.get(materialKey);
-
-            // Bestimme RGB-Werte basierend auf MaterialMapping
-            float red = 0f;
-            float green = 0f;
-            float blue = 0f;
-
-            if (mapping != null && mapping.getAlphaMapIndex() == alphaMapIndex) {
-                int channel = mapping.getAlphaMapChannel();
-                if (channel == 0) { red = 1f; redCount++; }       // R-Kanal
-                else if (channel == 1) { green = 1f; greenCount++; } // G-Kanal
-                else if (channel == 2) { blue = 1f; blueCount++; }  // B-Kanal
-            } else {
-                blackCount++;
+    private void updateHorizonCulling(Vector3f camPos) {
+        if (!occlusionDirty && camPos.distance(lastOcclusionCamPos) < OCCLUSION_MOVE_THRESHOLD) {
+            return;
+        }
+        occlusionDirty = false;
+        lastOcclusionCamPos.set(camPos);
+
+        horizonCuller.begin(camPos.x, camPos.y, camPos.z);
+
+        // Sortiere angehängte Chunks nach Distanz zur Kamera (front to back)
+        int chunkWorldSize = CHUNK_SIZE - 1;
+        List<ChunkRecord> order = new java.util.ArrayList<>();
+        for (ChunkRecord record : chunkRegistry.getRecords()) {
+            if (record.isAttached()) {
+                order.add(record);
+            }
+        }
+        order.sort((a, b) -> Float.compare(nearestChunkDistance(a, chunkWorldSize), nearestChunkDistance(b, chunkWorldSize)));
+
+        int culled = 0;
+        int drawCalls = 0;
+        culledChunkKeys.clear();
+        for (ChunkRecord record : order) {
+            float minX = record.getChunkX() * chunkWorldSize;
+            float minZ = record.getChunkZ() * chunkWorldSize;
+            boolean visible = horizonCuller.testAndOcclude(minX, minZ, minX + chunkWorldSize, minZ + chunkWorldSize,
+                record.getMinHeight(), record.getMaxHeight() + OCCLUSION_HEIGHT_MARGIN);
+
+            int chunkDrawCalls = setChunkCulled(record, !visible);
+            if (!visible) {
+                culled++;
+                drawCalls += chunkDrawCalls;
+                culledChunkKeys.add(ChunkRegistry.key(record.getChunkX(), record.getChunkZ()));
             }
+        }
 
-            alphaBuffer.put((byte) (red * 255));
-            alphaBuffer.put((byte) (green * 255));
-            alphaBuffer.put((byte) (blue * 255));
+        // Wasser-Regionen nach dem Zustand ihrer Chunks
+        drawCalls += waterRegions.applyCulling(culledChunkKeys::contains);
+
+        culledChunkCount = culled;
+        savedDrawCalls = drawCalls;
+    }
+
+    private float nearestChunkDistance(ChunkRecord record, int chunkWorldSize) {
+        float minX = record.getChunkX() * chunkWorldSize;
+        float minZ = record.getChunkZ() * chunkWorldSize;
+        return horizonCuller.nearestDistance(minX, minZ, minX + chunkWorldSize, minZ + chunkWorldSize);
+    }
+
+    /**
+     * Setzt den CullHint für Terrain und Sprites eines Chunks
+     * @return Anzahl der Geometries (= Draw-Calls) dieses Chunks
+     */
+    private int setChunkCulled(ChunkRecord record, boolean culled) {
+        com.jme3.scene.Spatial.CullHint hint = culled ? com.jme3.scene.Spatial.CullHint.Always : com.jme3.scene.Spatial.CullHint.Inherit;
+        int drawCalls = 0;
+
+        TerrainQuad terrain = record.getTerrain();
+        if (terrain != null) {
+            terrain.setCullHint(hint);
+            drawCalls += countGeometries(terrain);
         }
 
-        System.out.println("    AlphaMap " + alphaMapIndex + " Statistik: R=" + redCount + ", G=" + greenCount + ", B=" + blueCount + ", Black=" + blackCount);
+        // Sprites kombinieren Culling mit ihrer LOD-Stufe
+        ChunkSprites chunkSprites = record.getChunkSprites();
+        chunkSprites.setCulled(culled);
+        drawCalls += chunkSprites.getTierDrawCalls();
 
-        alphaBuffer.flip();
-        return new Image(Image.Format.RGB8, alphaMapSize, alphaMapSize, alphaBuffer, (com.jme3.texture.image.ColorSpace) null);
+        return drawCalls;
+    }
+
+    private int countGeometries(com.jme3.scene.Spatial spatial) {
+        if (spatial instanceof com.jme3.scene.Geometry) {
+            return 1;
+        }
+        int count = 0;
+        if (spatial instanceof Node) {
+            for (com.jme3.scene.Spatial child : ((Node) spatial).getChildren()) {
+                count += countGeometries(child);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Anzahl der Chunks, die im letzten Frame durch Horizon-Culling ausgeblendet waren
+     */
+    public int getCulledChunkCount() {
+        return culledChunkCount;
+    }
+
+    /**
+     * Anzahl der Draw-Calls, die im letzten Frame durch Horizon-Culling gespart wurden
+     */
+    public int getSavedDrawCalls() {
+        return savedDrawCalls;
     }
 
     private float smoothStep(float t) {
@@ -796,9 +1101,8 @@ public class TerrainLayer extends Layer {
             // Berechne Chunk-Position und lokale Tile-Position
             int chunkX = (int) Math.floor((float) tileX / (CHUNK_SIZE - 1));
             int chunkZ = (int) Math.floor((float) tileZ / (CHUNK_SIZE - 1));
-            Vector2f chunkCoord = new Vector2f(chunkX, chunkZ);
-
-            TerrainQuad terrain = loadedChunks.get(chunkCoord);
+            ChunkRecord record = chunkRegistry.get(chunkX, chunkZ);
+            TerrainQuad terrain = record != null && record.isAttached() ? record.getTerrain() : null;
             if (terrain != null) {
                 // Berechne lokale Koordinaten innerhalb des Chunks
                 int localX = tileX - (chunkX * (CHUNK_SIZE - 1));
@@ -813,9 +1117,11 @@ public class TerrainLayer extends Layer {
     }
 
     private void createTileOverlay(TerrainQuad terrain, int localX, int localZ, int worldX, int worldZ) {
-        // Entferne alten Marker
-        if (currentTileMarker != null && currentTileMarker.getParent() != null) {
-            currentTileMarker.removeFromParent();
+        // Marker wird nur einmal erstellt und danach verschoben (kein neues Mesh pro Tile)
+        if (currentTileMarker != null) {
+            float height = getTerrainHeightAt(worldX + 0.5f, worldZ + 0.5f);
+            currentTileMarker.setLocalTranslation(worldX, height + 0.05f, worldZ);
+            return;
         }
 
         // Erstelle Quad für eine einzelne Tile (1x1 auf dem Terrain)
@@ -844,29 +1150,60 @@ public class TerrainLayer extends Layer {
         rootNode.attachChild(currentTileMarker);
     }
 
-    private void createSpriteOverlay(int chunkX, int chunkZ, TerrainTile[] tiles, boolean bigOnly) {
-        List<Sprite> sprites = spriteProvider.getSprites(chunkX, chunkZ, CHUNK_SIZE, tiles);
+    /**
+     * TileProvider der Chunks (zustandslos, auch aus anderen Threads nutzbar)
+     */
+    public TileProvider getTileProvider() {
+        return tileProvider;
+    }
 
-        if (sprites.isEmpty()) {
-            return;
-        }
+    public NativeMemoryTracker getMemoryTracker() {
+        return memoryTracker;
+    }
 
-        List<com.jme3.scene.Geometry> spriteGeometries = new java.util.ArrayList<>();
+    /**
+     * Welteinheiten pro Chunk-Kante
+     */
+    public int getChunkWorldSize() {
+        return CHUNK_SIZE - 1;
+    }
 
-        // Jeder Sprite rendert sich selbst
-        for (Sprite sprite : sprites) {
-//            if (!bigOnly || sprite.isBig()) {
-                List<com.jme3.scene.Geometry> geoms = sprite.createGeometries(assetManager, spriteNode);
-                spriteGeometries.addAll(geoms);
-//            }
-        }
+    /**
+     * Sichtweite in Chunks (quadratisches Fenster um den Kamera-Chunk), ändert sich mit der Qualitätsstufe
+     */
+    public int getViewDistance() {
+        return viewDistance;
+    }
+
+    public QualityGovernor getQualityGovernor() {
+        return qualityGovernor;
+    }
 
-        loadedSpriteChunks.put(new Vector2f(chunkX, chunkZ), spriteGeometries);
-        System.out.println("Sprites erstellt für Chunk (" + chunkX + ", " + chunkZ + "): " + sprites.size() + " Sprites");
+    /**
+     * Räumlicher Index aller Sprites in geladenen Chunks (unabhängig von der Sprite-LOD)
+     */
+    public SpriteSpatialIndex getSpriteIndex() {
+        return spriteIndex;
+    }
+
+    /**
+     * Sucht asynchron einen Pfad über das Terrain (Kosten = 1 / Speed-Multiplier der Tiles).
+     * Das Ergebnis kommt auf einem Worker-Thread an.
+     */
+    public java.util.concurrent.CompletableFuture<List<Vector3f>> findPath(Vector3f from, Vector3f to) {
+        return pathfindingService.findPath(from, to);
     }
 
     @Override
     public void cleanup() {
+        if (pathfindingService != null) {
+            pathfindingService.shutdown();
+        }
+        if (chunkLoader != null) {
+            chunkLoader.shutdown();
+        }
+        lodManager.shutdown();
+        modelInstancer.cleanup();
         if (currentTileMarker != null && currentTileMarker.getParent() != null) {
             currentTileMarker.removeFromParent();
         }
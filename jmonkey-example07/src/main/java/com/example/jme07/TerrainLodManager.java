@@ -0,0 +1,302 @@
+package com.example.jme07;
+
+import com.jme3.math.Vector3f;
+import com.jme3.renderer.Camera;
+import com.jme3.terrain.geomipmap.NeighbourFinder;
+import com.jme3.terrain.geomipmap.TerrainPatch;
+import com.jme3.terrain.geomipmap.TerrainQuad;
+import com.jme3.terrain.geomipmap.UpdatedTerrainPatch;
+import com.jme3.terrain.geomipmap.lodcalc.LodCalculator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * TerrainLodManager - Eine LOD-Berechnung für alle Chunks statt einer TerrainLodControl pro Chunk
+ *
+ * Ein Durchlauf läuft im Hintergrund über alle angehängten Chunks:
+ *   1. LOD pro Patch (parallel pro Chunk)
+ *   2. Nachbar-LODs eintragen und Kanten markieren - über Chunk-Grenzen hinweg, da jeder Chunk
+ *      seine Nachbarn über diesen Manager findet (NeighbourFinder). So passen die Nähte zusammen.
+ *   3. Index-Buffer der geänderten Patches (parallel pro Chunk)
+ * Das Ergebnis wird im Render-Thread in einem Schritt übernommen.
+ *
+ * Ein neuer Durchlauf startet nur, wenn sich die Kamera weit genug bewegt hat oder Chunks
+ * dazugekommen bzw. weggefallen sind.
+ */
+public class TerrainLodManager implements NeighbourFinder {
+
+    private static final float MOVE_THRESHOLD = 4f;   // Welteinheiten bis zur nächsten Neuberechnung
+
+    private final Camera cam;
+    private final LodCalculator lodCalculator;
+
+    private final Map<Long, ChunkTerrainQuad> quads = new ConcurrentHashMap<>();
+    // Neu angehängte Chunks: erst im nächsten Frame (mit gültiger Welt-Transformation) aufnehmen
+    private final List<ChunkTerrainQuad> added = new ArrayList<>();
+    // Neue Chunks und Nachbarn weggefallener Chunks: Kanten im nächsten Durchlauf neu bauen
+    private final Set<ChunkTerrainQuad> pendingStitch = new HashSet<>();
+
+    private final ExecutorService executor;
+    private Future<Map<ChunkTerrainQuad, List<UpdatedTerrainPatch>>> running;
+    private final Vector3f lastLocation = new Vector3f(Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE);
+    private boolean dirty = false;
+
+    // Statistik
+    private int passCount = 0;
+    private volatile long lastPassNanos = 0;
+    private int lastUpdatedPatches = 0;
+
+    public TerrainLodManager(Camera cam, LodCalculator lodCalculator) {
+        this.cam = cam;
+        this.lodCalculator = lodCalculator;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "TerrainLod-Thread");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Nimmt einen Chunk in die LOD-Berechnung auf (Render-Thread, wirkt ab dem nächsten Frame)
+     */
+    public void addChunk(ChunkTerrainQuad quad) {
+        quad.setNeighbourFinder(this);
+        added.add(quad);
+    }
+
+    /**
+     * Entfernt einen Chunk (Render-Thread); seine Nachbarn bauen ihre Kanten neu
+     */
+    public void removeChunk(ChunkTerrainQuad quad) {
+        added.remove(quad);
+        if (quads.remove(ChunkRegistry.key(quad.getChunkX(), quad.getChunkZ()), quad)) {
+            pendingStitch.remove(quad);
+            markNeighbours(quad);
+            dirty = true;
+        }
+    }
+
+    private void markNeighbours(ChunkTerrainQuad quad) {
+        for (int[] offset : new int[][]{{1, 0}, {-1, 0}, {0, 1}, {0, -1}}) {
+            ChunkTerrainQuad neighbour = quads.get(ChunkRegistry.key(quad.getChunkX() + offset[0], quad.getChunkZ() + offset[1]));
+            if (neighbour != null) {
+                pendingStitch.add(neighbour);
+            }
+        }
+    }
+
+    /**
+     * Erzwingt einen neuen Durchlauf, z.B. nach geändertem LOD-Faktor (Render-Thread)
+     */
+    public void invalidate() {
+        dirty = true;
+    }
+
+    /**
+     * Übernimmt ein fertiges Ergebnis und startet bei Bedarf den nächsten Durchlauf (Render-Thread)
+     */
+    public void update() {
+        for (ChunkTerrainQuad quad : added) {
+            quad.cacheTransforms();
+            quads.put(ChunkRegistry.key(quad.getChunkX(), quad.getChunkZ()), quad);
+            pendingStitch.add(quad);
+            markNeighbours(quad);
+            dirty = true;
+        }
+        added.clear();
+
+        if (running != null) {
+            if (!running.isDone()) {
+                return;
+            }
+            applyResult();
+        }
+
+        Vector3f location = cam.getLocation();
+        if (!dirty && location.distance(lastLocation) < MOVE_THRESHOLD) {
+            return;
+        }
+        lastLocation.set(location);
+        dirty = false;
+
+        List<ChunkTerrainQuad> passQuads = new ArrayList<>(quads.values());
+        Set<ChunkTerrainQuad> stitch = new HashSet<>(pendingStitch);
+        pendingStitch.clear();
+        List<Vector3f> locations = Collections.singletonList(location.clone());
+
+        running = executor.submit(() -> calculate(passQuads, stitch, locations));
+    }
+
+    /**
+     * Hintergrund: ein LOD-Durchlauf über alle Chunks
+     * @return die neu indizierten Patches pro Chunk (oder null wenn sich nichts geändert hat)
+     */
+    private Map<ChunkTerrainQuad, List<UpdatedTerrainPatch>> calculate(List<ChunkTerrainQuad> passQuads, Set<ChunkTerrainQuad> stitch,
+                                                         List<Vector3f> locations) {
+        long start = System.nanoTime();
+
+        // Nachbarn haben sich geändert: gecachte Patch-Nachbarn verwerfen
+        for (ChunkTerrainQuad quad : stitch) {
+            quad.resetCachedNeighbours();
+        }
+
+        // 1. LOD pro Chunk (unabhängig voneinander)
+        List<HashMap<String, UpdatedTerrainPatch>> perChunk = Collections.synchronizedList(new ArrayList<>());
+        boolean changed = passQuads.parallelStream()
+                .map(quad -> {
+                    HashMap<String, UpdatedTerrainPatch> chunkUpdates = new HashMap<>();
+                    boolean chunkChanged = quad.computeLod(locations, chunkUpdates, lodCalculator);
+                    perChunk.add(chunkUpdates);
+                    return chunkChanged;
+                })
+                .reduce(false, Boolean::logicalOr);
+
+        HashMap<String, UpdatedTerrainPatch> updated = new HashMap<>();
+        for (HashMap<String, UpdatedTerrainPatch> chunkUpdates : perChunk) {
+            updated.putAll(chunkUpdates);
+        }
+        if (!changed && stitch.isEmpty()) {
+            lastPassNanos = System.nanoTime() - start;
+            return null;
+        }
+
+        // Neue Chunks und ihre Nachbarn: Kanten auch ohne LOD-Wechsel neu bauen
+        List<TerrainPatch> patches = new ArrayList<>();
+        for (ChunkTerrainQuad quad : stitch) {
+            patches.clear();
+            quad.getAllTerrainPatches(patches);
+            for (TerrainPatch patch : patches) {
+                UpdatedTerrainPatch utp = updated.get(patch.getName());
+                if (utp != null) {
+                    utp.setFixEdges(true);
+                }
+            }
+        }
+
+        // 2. Nachbar-LODs und Kanten (schreibt in die gemeinsame Map, daher sequentiell)
+        for (ChunkTerrainQuad quad : passQuads) {
+            quad.stitchNeighbours(updated);
+        }
+
+        // 3. Index-Buffer (liest die Map nur noch)
+        boolean useVariableLod = lodCalculator.usesVariableLod();
+        passQuads.parallelStream().forEach(quad -> quad.buildIndices(updated, useVariableLod));
+
+        // Nur Patches mit neuem Index-Buffer an den Render-Thread geben
+        Map<ChunkTerrainQuad, List<UpdatedTerrainPatch>> result = new HashMap<>();
+        for (ChunkTerrainQuad quad : passQuads) {
+            patches.clear();
+            quad.getAllTerrainPatches(patches);
+            for (TerrainPatch patch : patches) {
+                UpdatedTerrainPatch utp = updated.get(patch.getName());
+                if (utp != null && utp.isReIndexNeeded()) {
+                    result.computeIfAbsent(quad, q -> new ArrayList<>(patches.size())).add(utp);
+                }
+            }
+        }
+
+        lastPassNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    /**
+     * Render-Thread: neue Index-Buffer setzen (nur für weiterhin angehängte Chunks)
+     */
+    private void applyResult() {
+        Map<ChunkTerrainQuad, List<UpdatedTerrainPatch>> result;
+        try {
+            result = running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            System.err.println("FEHLER bei der Terrain-LOD-Berechnung: " + e.getCause());
+            e.getCause().printStackTrace();
+            dirty = true;
+            return;
+        } finally {
+            running = null;
+        }
+        passCount++;
+        if (result == null) {
+            lastUpdatedPatches = 0;
+            return;
+        }
+
+        int applied = 0;
+        for (Map.Entry<ChunkTerrainQuad, List<UpdatedTerrainPatch>> entry : result.entrySet()) {
+            ChunkTerrainQuad quad = entry.getKey();
+            if (quads.get(ChunkRegistry.key(quad.getChunkX(), quad.getChunkZ())) != quad) {
+                continue;
+            }
+            for (UpdatedTerrainPatch utp : entry.getValue()) {
+                utp.updateAll();
+                applied++;
+            }
+        }
+        lastUpdatedPatches = applied;
+    }
+
+    // ==================== NeighbourFinder ====================
+
+    @Override
+    public TerrainQuad getRightQuad(TerrainQuad center) {
+        return neighbour(center, 1, 0);
+    }
+
+    @Override
+    public TerrainQuad getLeftQuad(TerrainQuad center) {
+        return neighbour(center, -1, 0);
+    }
+
+    @Override
+    public TerrainQuad getTopQuad(TerrainQuad center) {
+        return neighbour(center, 0, -1);
+    }
+
+    @Override
+    public TerrainQuad getDownQuad(TerrainQuad center) {
+        return neighbour(center, 0, 1);
+    }
+
+    private TerrainQuad neighbour(TerrainQuad center, int dx, int dz) {
+        if (!(center instanceof ChunkTerrainQuad)) {
+            return null;
+        }
+        ChunkTerrainQuad quad = (ChunkTerrainQuad) center;
+        return quads.get(ChunkRegistry.key(quad.getChunkX() + dx, quad.getChunkZ() + dz));
+    }
+
+    // ==================== Statistik ====================
+
+    public int getChunkCount() {
+        return quads.size() + added.size();
+    }
+
+    public int getPassCount() {
+        return passCount;
+    }
+
+    public int getLastUpdatedPatches() {
+        return lastUpdatedPatches;
+    }
+
+    public float getLastPassMillis() {
+        return lastPassNanos / 1_000_000f;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
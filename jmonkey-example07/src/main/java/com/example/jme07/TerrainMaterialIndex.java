@@ -0,0 +1,169 @@
+package com.example.jme07;
+
+import com.jme3.asset.AssetManager;
+import com.jme3.math.ColorRGBA;
+import com.jme3.texture.Image;
+import com.jme3.texture.Texture;
+import com.jme3.texture.TextureArray;
+import com.jme3.texture.image.ImageRaster;
+import com.jme3.util.BufferUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TerrainMaterialIndex - Vergibt jedem TerrainMaterial eine feste ID (0-255)
+ *
+ * Die ID ist gleichzeitig die Ebene im gemeinsamen TextureArray und der Wert in der
+ * R8UI-Materialindex-Textur eines Chunks. Damit reicht ein einziges Terrain-Material für
+ * alle Chunks, und die Anzahl der Materialien ist nicht mehr durch die 12 DiffuseMap-Slots
+ * von TerrainLighting begrenzt.
+ */
+public class TerrainMaterialIndex {
+
+    public static final int MAX_MATERIALS = 256;      // Wertebereich einer R8UI-Textur
+    private static final int MAX_LAYER_SIZE = 1024;   // Obergrenze für die Kantenlänge einer Ebene
+
+    private final List<TerrainMaterial> materials = new ArrayList<>();
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    public TerrainMaterialIndex(Map<String, TerrainMaterial> providerMaterials) {
+        // Reihenfolge des Providers beibehalten, damit IDs zwischen Läufen stabil bleiben
+        for (TerrainMaterial material : providerMaterials.values()) {
+            if (!material.needsDiffuseMap()) {
+                continue;
+            }
+            if (materials.size() == MAX_MATERIALS) {
+                System.err.println("TerrainMaterialIndex: Mehr als " + MAX_MATERIALS + " Materialien, ignoriere " + material.getKey());
+                continue;
+            }
+            ids.put(material.getKey(), materials.size());
+            materials.add(material);
+        }
+        if (materials.isEmpty()) {
+            throw new IllegalArgumentException("TileProvider definiert keine Terrain-Materialien");
+        }
+        System.out.println("TerrainMaterialIndex: " + materials.size() + " Materialien " + ids);
+    }
+
+    /**
+     * ID eines Materials; unbekannte Keys fallen auf Material 0 zurück
+     */
+    public int getId(String materialKey) {
+        Integer id = ids.get(materialKey);
+        return id != null ? id : 0;
+    }
+
+    public int getMaterialCount() {
+        return materials.size();
+    }
+
+    /**
+     * Textur-Skalierung pro Ebene (Index = Material-ID)
+     */
+    public float[] getTextureScales() {
+        float[] scales = new float[materials.size()];
+        for (int i = 0; i < scales.length; i++) {
+            scales[i] = materials.get(i).getTextureScale();
+        }
+        return scales;
+    }
+
+    /**
+     * Schreibt die Material-IDs der Tiles als R8UI-Daten (eine Zeile pro Z, wie das Tile-Array)
+     */
+    public byte[] buildIndexData(TerrainTile[] tiles) {
+        byte[] data = new byte[tiles.length];
+        for (int i = 0; i < tiles.length; i++) {
+            data[i] = (byte) getId(tiles[i].getMaterialKey());
+        }
+        return data;
+    }
+
+    /**
+     * Lädt alle Material-Texturen und packt sie in ein TextureArray.
+     * Ein TextureArray verlangt gleiche Größe und gleiches Format für alle Ebenen,
+     * daher wird jede Textur auf RGBA8 in der größten vorkommenden Kantenlänge umgerechnet.
+     */
+    public TextureArray createTextureArray(AssetManager assetManager) {
+        // Gleiche Pfade nur einmal laden (grass und rock teilen sich z.B. Rock.PNG)
+        Map<String, Image> sourceImages = new HashMap<>();
+        int layerSize = 1;
+        for (TerrainMaterial material : materials) {
+            Image source = sourceImages.computeIfAbsent(material.getTexturePath(),
+                path -> assetManager.loadTexture(path).getImage());
+            layerSize = Math.max(layerSize, Math.max(source.getWidth(), source.getHeight()));
+        }
+        layerSize = Math.min(layerSize, MAX_LAYER_SIZE);
+
+        Map<String, Image> layerImages = new HashMap<>();
+        List<Image> layers = new ArrayList<>(materials.size());
+        for (TerrainMaterial material : materials) {
+            String path = material.getTexturePath();
+            Image layer = layerImages.get(path);
+            if (layer == null) {
+                layer = resample(sourceImages.get(path), layerSize);
+                layerImages.put(path, layer);
+            }
+            layers.add(layer);
+        }
+
+        TextureArray textureArray = new TextureArray(layers);
+        textureArray.setName("TerrainTextureArray");
+        textureArray.setWrap(Texture.WrapMode.Repeat);
+        textureArray.setMinFilter(Texture.MinFilter.Trilinear);
+        textureArray.setMagFilter(Texture.MagFilter.Bilinear);
+        textureArray.setAnisotropicFilter(4);
+
+        System.out.println("TerrainTextureArray erstellt: " + layers.size() + " Ebenen à " + layerSize + "x" + layerSize +
+                         " (" + layerImages.size() + " verschiedene Texturen)");
+        return textureArray;
+    }
+
+    /**
+     * Bilineares Umrechnen einer beliebigen Textur auf RGBA8 mit size x size
+     */
+    private Image resample(Image source, int size) {
+        ImageRaster src = ImageRaster.create(source);
+        int srcWidth = source.getWidth();
+        int srcHeight = source.getHeight();
+
+        Image target = new Image(Image.Format.RGBA8, size, size,
+                BufferUtils.createByteBuffer(size * size * 4), source.getColorSpace());
+        ImageRaster dst = ImageRaster.create(target);
+
+        ColorRGBA c00 = new ColorRGBA();
+        ColorRGBA c10 = new ColorRGBA();
+        ColorRGBA c01 = new ColorRGBA();
+        ColorRGBA c11 = new ColorRGBA();
+        ColorRGBA result = new ColorRGBA();
+
+        for (int y = 0; y < size; y++) {
+            float sy = Math.max(0f, (y + 0.5f) * srcHeight / size - 0.5f);
+            int y0 = Math.min((int) sy, srcHeight - 1);
+            int y1 = (y0 + 1) % srcHeight;  // Kachelbar: am Rand auf die Gegenseite wickeln
+            float fy = sy - y0;
+
+            for (int x = 0; x < size; x++) {
+                float sx = Math.max(0f, (x + 0.5f) * srcWidth / size - 0.5f);
+                int x0 = Math.min((int) sx, srcWidth - 1);
+                int x1 = (x0 + 1) % srcWidth;
+                float fx = sx - x0;
+
+                src.getPixel(x0, y0, c00);
+                src.getPixel(x1, y0, c10);
+                src.getPixel(x0, y1, c01);
+                src.getPixel(x1, y1, c11);
+
+                c00.interpolateLocal(c10, fx);
+                c01.interpolateLocal(c11, fx);
+                result.set(c00).interpolateLocal(c01, fy);
+                result.a = 1f;
+                dst.setPixel(x, y, result);
+            }
+        }
+        return target;
+    }
+}
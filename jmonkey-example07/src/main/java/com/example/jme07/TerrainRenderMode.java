@@ -0,0 +1,11 @@
+package com.example.jme07;
+
+/**
+ * Wie TerrainLayer die Höhendaten der Chunks darstellt
+ */
+public enum TerrainRenderMode {
+    /** Ein TerrainQuad (65x65 Heightmap-Mesh) pro Chunk, LOD über den TerrainLodManager */
+    TERRAIN_QUAD,
+    /** Wenige statische Clipmap-Ringe um die Kamera, Chunks füllen nur deren Höhen-Texturen */
+    CLIPMAP
+}
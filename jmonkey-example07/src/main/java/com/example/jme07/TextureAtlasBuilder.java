@@ -0,0 +1,425 @@
+package com.example.jme07;
+
+import com.jme3.asset.AssetInfo;
+import com.jme3.asset.AssetKey;
+import com.jme3.asset.AssetManager;
+import com.jme3.math.ColorRGBA;
+import com.jme3.texture.Image;
+import com.jme3.texture.Texture;
+import com.jme3.texture.Texture2D;
+import com.jme3.texture.image.ColorSpace;
+import com.jme3.texture.image.ImageRaster;
+import com.jme3.util.BufferUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * TextureAtlasBuilder - Packt Sprite-Texturen in eine gemeinsame Atlas-Textur
+ *
+ * Jede Textur bekommt eine quadratische Zelle mit Zweierpotenz-Kante, die auf ein Vielfaches
+ * ihrer eigenen Größe ausgerichtet ist (Buddy-Verfahren). Um den Inhalt liegt ein Rand aus
+ * wiederholten Kantenpixeln (mindestens PADDING). Die Mip-Stufen werden selbst pro 2x2 gemittelt
+ * und enden bei MIP_LEVELS: bis dahin bleibt der Rand mindestens einen halben Texel breit,
+ * bilineares Filtern liest also nie aus der Nachbarzelle.
+ *
+ * Das Ergebnis (alle Mip-Stufen + UV-Rechtecke) wird unter einem Schlüssel aus Pfaden und
+ * Dateiinhalten im Cache-Verzeichnis abgelegt; ein späterer Start mit denselben Texturen lädt
+ * es direkt. Weitere Texturen können jederzeit mit add() dazukommen, build() packt dann neu.
+ *
+ * Nur Render-Thread.
+ */
+public class TextureAtlasBuilder {
+
+    private static final int PADDING = 8;                  // Rand um jede Textur (Pixel auf Stufe 0)
+    private static final int MIP_LEVELS = 5;               // Stufe 4: Rand noch 0.5 Texel (PADDING / 2^4)
+    private static final int CACHE_VERSION = 1;            // Bei Formatänderung erhöhen
+    private static final int CACHE_MAGIC = 0x41544C53;     // "ATLS"
+
+    /**
+     * UV-Rechteck einer Textur im Atlas (ohne Rand)
+     */
+    public static class Region {
+        private final float u0, v0, u1, v1;
+
+        public Region(float u0, float v0, float u1, float v1) {
+            this.u0 = u0;
+            this.v0 = v0;
+            this.u1 = u1;
+            this.v1 = v1;
+        }
+
+        public float getU0() {
+            return u0;
+        }
+
+        public float getV0() {
+            return v0;
+        }
+
+        public float getU1() {
+            return u1;
+        }
+
+        public float getV1() {
+            return v1;
+        }
+    }
+
+    /**
+     * Fertiger Atlas: eine Textur und die Regionen pro Texturpfad
+     */
+    public static class Atlas {
+        private final Texture2D texture;
+        private final Map<String, Region> regions;
+
+        Atlas(Texture2D texture, Map<String, Region> regions) {
+            this.texture = texture;
+            this.regions = regions;
+        }
+
+        public Texture2D getTexture() {
+            return texture;
+        }
+
+        /**
+         * @return die Region, oder null wenn die Textur nicht im Atlas ist
+         */
+        public Region getRegion(String texturePath) {
+            return regions.get(texturePath);
+        }
+
+        public int getRegionCount() {
+            return regions.size();
+        }
+    }
+
+    private static class Entry {
+        final String path;
+        final Image image;
+        final int cellSize;
+        int x, y;
+
+        Entry(String path, Image image, int cellSize) {
+            this.path = path;
+            this.image = image;
+            this.cellSize = cellSize;
+        }
+    }
+
+    private final AssetManager assetManager;
+    private final File cacheDir;
+    private final Set<String> texturePaths = new LinkedHashSet<>();
+    private Atlas atlas;
+    private int builtPathCount = 0;   // Anzahl der Pfade beim letzten build()
+
+    /**
+     * @param cacheDir Verzeichnis für gepackte Atlanten, null = kein Cache
+     */
+    public TextureAtlasBuilder(AssetManager assetManager, File cacheDir) {
+        this.assetManager = assetManager;
+        this.cacheDir = cacheDir;
+    }
+
+    /**
+     * Nimmt eine Textur auf (wirkt beim nächsten build())
+     * @return true wenn die Textur neu ist
+     */
+    public boolean add(String texturePath) {
+        return texturePaths.add(texturePath);
+    }
+
+    /**
+     * Liefert den Atlas zu allen bisher aufgenommenen Texturen (aus dem Cache oder neu gepackt)
+     */
+    public Atlas build() {
+        if (atlas != null && builtPathCount == texturePaths.size()) {
+            return atlas;
+        }
+        builtPathCount = texturePaths.size();
+
+        // Nicht ladbare Texturen fehlen im Atlas, der Aufrufer nutzt dann eine Ersatzfarbe
+        Map<String, byte[]> sources = new HashMap<>();
+        for (String path : texturePaths) {
+            byte[] data = readAsset(path);
+            if (data != null) {
+                sources.put(path, data);
+            }
+        }
+        String key = cacheKey(sources);
+
+        File cacheFile = cacheDir != null ? new File(cacheDir, "atlas_" + key + ".bin") : null;
+        if (cacheFile != null && cacheFile.isFile()) {
+            try {
+                atlas = readCache(cacheFile);
+                System.out.println("TextureAtlas aus Cache geladen: " + cacheFile + " (" + atlas.getRegionCount() + " Texturen)");
+                return atlas;
+            } catch (IOException e) {
+                System.err.println("TextureAtlas: Cache nicht lesbar, packe neu: " + e.getMessage());
+            }
+        }
+
+        long start = System.nanoTime();
+        List<Entry> entries = new ArrayList<>();
+        for (String path : texturePaths) {
+            if (!sources.containsKey(path)) {
+                continue;
+            }
+            try {
+                Image image = assetManager.loadTexture(path).getImage();
+                int content = Math.max(image.getWidth(), image.getHeight()) + 2 * PADDING;
+                entries.add(new Entry(path, image, Integer.highestOneBit(content - 1) << 1));
+            } catch (Exception e) {
+                System.err.println("TextureAtlas: Textur nicht ladbar: " + path + " - " + e.getMessage());
+            }
+        }
+        int size = pack(entries);
+        ByteBuffer[] levels = new ByteBuffer[Math.min(MIP_LEVELS, Integer.numberOfTrailingZeros(size) + 1)];
+        Map<String, Region> regions = new HashMap<>();
+        levels[0] = renderLevel0(entries, size, regions);
+        for (int level = 1; level < levels.length; level++) {
+            levels[level] = downsample(levels[level - 1], size >> (level - 1));
+        }
+
+        atlas = new Atlas(createTexture(size, levels), regions);
+        System.out.println(String.format("TextureAtlas gepackt: %d Texturen in %dx%d, %d Mip-Stufen, %.1fms",
+                regions.size(), size, size, levels.length, (System.nanoTime() - start) / 1_000_000f));
+
+        if (cacheFile != null) {
+            try {
+                writeCache(cacheFile, size, levels, regions);
+            } catch (IOException e) {
+                System.err.println("TextureAtlas: Cache nicht schreibbar: " + e.getMessage());
+            }
+        }
+        return atlas;
+    }
+
+    // ==================== Packen ====================
+
+    /**
+     * Verteilt die Zellen (größte zuerst) auf freie Quadrate; reicht der Platz nicht,
+     * verdoppelt sich die Atlas-Kante und die drei neuen Viertel kommen dazu
+     * @return Kantenlänge des Atlas
+     */
+    private static int pack(List<Entry> entries) {
+        entries.sort((a, b) -> Integer.compare(b.cellSize, a.cellSize));
+        int size = entries.isEmpty() ? 1 : entries.get(0).cellSize;
+        List<int[]> free = new ArrayList<>();   // x, y, Kante
+        free.add(new int[]{0, 0, size});
+
+        for (Entry entry : entries) {
+            int[] best = null;
+            while (best == null) {
+                for (int[] square : free) {
+                    if (square[2] >= entry.cellSize && (best == null || square[2] < best[2])) {
+                        best = square;
+                    }
+                }
+                if (best == null) {
+                    free.add(new int[]{size, 0, size});
+                    free.add(new int[]{0, size, size});
+                    free.add(new int[]{size, size, size});
+                    size *= 2;
+                }
+            }
+            free.remove(best);
+            // Viertel abspalten bis die Zelle passt
+            while (best[2] > entry.cellSize) {
+                int half = best[2] / 2;
+                free.add(new int[]{best[0] + half, best[1], half});
+                free.add(new int[]{best[0], best[1] + half, half});
+                free.add(new int[]{best[0] + half, best[1] + half, half});
+                best = new int[]{best[0], best[1], half};
+            }
+            entry.x = best[0];
+            entry.y = best[1];
+        }
+        return size;
+    }
+
+    /**
+     * Kopiert jede Textur mittig in ihre Zelle, der Rest der Zelle wiederholt die Kantenpixel
+     */
+    private ByteBuffer renderLevel0(List<Entry> entries, int size, Map<String, Region> regions) {
+        byte[] pixels = new byte[size * size * 4];
+        ColorRGBA color = new ColorRGBA();
+        for (Entry entry : entries) {
+            ImageRaster raster = ImageRaster.create(entry.image);
+            int width = entry.image.getWidth();
+            int height = entry.image.getHeight();
+            int offsetX = entry.x + (entry.cellSize - width) / 2;
+            int offsetY = entry.y + (entry.cellSize - height) / 2;
+            for (int y = entry.y; y < entry.y + entry.cellSize; y++) {
+                int sourceY = Math.min(Math.max(y - offsetY, 0), height - 1);
+                for (int x = entry.x; x < entry.x + entry.cellSize; x++) {
+                    int sourceX = Math.min(Math.max(x - offsetX, 0), width - 1);
+                    raster.getPixel(sourceX, sourceY, color);
+                    int index = (y * size + x) * 4;
+                    pixels[index] = (byte) Math.round(color.r * 255f);
+                    pixels[index + 1] = (byte) Math.round(color.g * 255f);
+                    pixels[index + 2] = (byte) Math.round(color.b * 255f);
+                    pixels[index + 3] = (byte) Math.round(color.a * 255f);
+                }
+            }
+            regions.put(entry.path, new Region((float) offsetX / size, (float) offsetY / size,
+                    (float) (offsetX + width) / size, (float) (offsetY + height) / size));
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(pixels.length);
+        buffer.put(pixels).flip();
+        return buffer;
+    }
+
+    /**
+     * Nächste Mip-Stufe: Mittel aus je 2x2 Pixeln (Zellen sind ausgerichtet, also kein Übersprechen)
+     */
+    private static ByteBuffer downsample(ByteBuffer source, int sourceSize) {
+        int size = sourceSize / 2;
+        ByteBuffer target = ByteBuffer.allocate(size * size * 4);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                for (int c = 0; c < 4; c++) {
+                    int sum = (source.get(((2 * y) * sourceSize + 2 * x) * 4 + c) & 0xFF)
+                            + (source.get(((2 * y) * sourceSize + 2 * x + 1) * 4 + c) & 0xFF)
+                            + (source.get(((2 * y + 1) * sourceSize + 2 * x) * 4 + c) & 0xFF)
+                            + (source.get(((2 * y + 1) * sourceSize + 2 * x + 1) * 4 + c) & 0xFF);
+                    target.put((byte) ((sum + 2) / 4));
+                }
+            }
+        }
+        target.flip();
+        return target;
+    }
+
+    /**
+     * RGBA8-Textur mit den vorberechneten Mip-Stufen (GL_TEXTURE_MAX_LEVEL = letzte Stufe)
+     */
+    private static Texture2D createTexture(int size, ByteBuffer[] levels) {
+        int total = 0;
+        int[] mipSizes = new int[levels.length];
+        for (int i = 0; i < levels.length; i++) {
+            mipSizes[i] = levels[i].remaining();
+            total += mipSizes[i];
+        }
+        ByteBuffer data = BufferUtils.createByteBuffer(total);
+        for (ByteBuffer level : levels) {
+            data.put(level.duplicate());
+        }
+        data.flip();
+
+        Image image = new Image(Image.Format.RGBA8, size, size, data, mipSizes, ColorSpace.sRGB);
+        Texture2D texture = new Texture2D(image);
+        texture.setMinFilter(Texture.MinFilter.Trilinear);
+        texture.setMagFilter(Texture.MagFilter.Bilinear);
+        texture.setWrap(Texture.WrapMode.EdgeClamp);
+        return texture;
+    }
+
+    // ==================== Cache ====================
+
+    private byte[] readAsset(String path) {
+        AssetInfo info = assetManager.locateAsset(new AssetKey<>(path));
+        if (info == null) {
+            return null;
+        }
+        try (InputStream in = info.openStream()) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Schlüssel aus Format, Pfaden und Dateiinhalten: geänderte Texturen packen neu
+     */
+    private String cacheKey(Map<String, byte[]> sources) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            digest.update((CACHE_VERSION + "/" + PADDING + "/" + MIP_LEVELS).getBytes());
+            for (String path : texturePaths) {
+                byte[] data = sources.get(path);
+                if (data != null) {
+                    digest.update(path.getBytes());
+                    digest.update(data);
+                }
+            }
+            StringBuilder sb = new StringBuilder();
+            for (byte b : digest.digest()) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.substring(0, 16);
+        } catch (java.security.NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void writeCache(File file, int size, ByteBuffer[] levels, Map<String, Region> regions) throws IOException {
+        file.getParentFile().mkdirs();
+        File temp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(CACHE_MAGIC);
+            out.writeInt(CACHE_VERSION);
+            out.writeInt(size);
+            out.writeInt(levels.length);
+            out.writeInt(regions.size());
+            for (Map.Entry<String, Region> entry : regions.entrySet()) {
+                Region region = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeFloat(region.u0);
+                out.writeFloat(region.v0);
+                out.writeFloat(region.u1);
+                out.writeFloat(region.v1);
+            }
+            for (ByteBuffer level : levels) {
+                byte[] bytes = new byte[level.remaining()];
+                level.duplicate().get(bytes);
+                out.write(bytes);
+            }
+        }
+        // Erst vollständig geschrieben umbenennen: ein abgebrochener Start hinterlässt keinen halben Cache
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("Umbenennen fehlgeschlagen: " + temp);
+        }
+        System.out.println("TextureAtlas im Cache abgelegt: " + file);
+    }
+
+    private Atlas readCache(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != CACHE_MAGIC || in.readInt() != CACHE_VERSION) {
+                throw new IOException("falsches Format");
+            }
+            int size = in.readInt();
+            int levelCount = in.readInt();
+            int regionCount = in.readInt();
+            Map<String, Region> regions = new HashMap<>();
+            for (int i = 0; i < regionCount; i++) {
+                String path = in.readUTF();
+                regions.put(path, new Region(in.readFloat(), in.readFloat(), in.readFloat(), in.readFloat()));
+            }
+            ByteBuffer[] levels = new ByteBuffer[levelCount];
+            for (int level = 0; level < levelCount; level++) {
+                int levelSize = size >> level;
+                byte[] bytes = new byte[levelSize * levelSize * 4];
+                in.readFully(bytes);
+                levels[level] = ByteBuffer.wrap(bytes);
+            }
+            return new Atlas(createTexture(size, levels), regions);
+        }
+    }
+}
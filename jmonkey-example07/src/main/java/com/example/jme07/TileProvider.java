@@ -37,6 +37,19 @@ public interface TileProvider {
         return heights;
     }
 
+    /**
+     * Lädt ein einzelnes Tile an einer Weltposition (z.B. für grobe Fern-Darstellung).
+     * Nutzt die Chunk-Konvention worldX = chunkX * (size - 1) + x: mit size 2 ist
+     * Tile 0 genau die gesuchte Weltposition - identisch zum Tile im normalen Chunk.
+     *
+     * @param worldX X-Weltkoordinate
+     * @param worldZ Z-Weltkoordinate
+     * @return das Tile an dieser Position
+     */
+    default TerrainTile getTileAt(int worldX, int worldZ) {
+        return getTileData(worldX, worldZ, 2)[0];
+    }
+
     /**
      * Gibt die Map aller verfügbaren Materialien zurück (Key -> Material)
      */
@@ -0,0 +1,199 @@
+package com.example.jme07;
+
+import com.jme3.scene.Mesh;
+import com.jme3.scene.VertexBuffer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * WaterMesher - Erzeugt Wasserflächen nur über nassen Tiles
+ *
+ * Im Loader-Thread werden die nassen Tiles eines Chunks greedy zu möglichst großen
+ * Rechtecken gleicher Wasserhöhe zusammengefasst. Jedes Tile deckt die Zelle um seinen
+ * Mittelpunkt ab (x - 0.5 bis x + 0.5), die letzte Zeile/Spalte gehört schon zum Nachbar-Chunk.
+ * Beim Zusammenbau einer Region werden die Rechtecke über Chunk-Grenzen hinweg erneut
+ * verschmolzen und zu einem Mesh verbunden.
+ *
+ * Jedes Rechteck ist flach: alle vier Vertices tragen seine Wasserhöhe. Das reicht, solange der
+ * WaterTileProvider nur einen globalen Wasserspiegel kennt; bei unterschiedlich hohen Nachbar-Tiles
+ * (z.B. geneigte Flüsse) entstünden Stufen zwischen den Rechtecken.
+ *
+ * Ein Rechteck ist als RECT_STRIDE Floats abgelegt: minX, minZ, maxX, maxZ, Höhe (Weltkoordinaten).
+ */
+public final class WaterMesher {
+
+    public static final int RECT_STRIDE = 5;
+    private static final float HEIGHT_EPSILON = 0.01f;  // Gleiche Wasserhöhe für das Verschmelzen
+    private static final float[] NO_RECTS = new float[0];
+
+    private WaterMesher() {
+    }
+
+    /**
+     * Greedy-Rechtecke über den nassen Tiles eines Chunks (Loader-Thread)
+     */
+    public static float[] buildRects(TerrainTile[] tiles, int chunkSize, float worldX, float worldZ) {
+        int cells = chunkSize - 1;
+        boolean[] used = new boolean[cells * cells];
+        float[] rects = null;
+        int count = 0;
+
+        for (int z = 0; z < cells; z++) {
+            for (int x = 0; x < cells; x++) {
+                if (used[z * cells + x] || !tiles[z * chunkSize + x].hasWater()) {
+                    continue;
+                }
+                float height = tiles[z * chunkSize + x].getWater().getWaterHeight();
+
+                // Nach rechts erweitern
+                int width = 1;
+                while (x + width < cells && matches(tiles, used, chunkSize, cells, x + width, z, height)) {
+                    width++;
+                }
+                // Ganze Zeilen nach unten erweitern
+                int depth = 1;
+                while (z + depth < cells && rowMatches(tiles, used, chunkSize, cells, x, z + depth, width, height)) {
+                    depth++;
+                }
+                for (int dz = 0; dz < depth; dz++) {
+                    Arrays.fill(used, (z + dz) * cells + x, (z + dz) * cells + x + width, true);
+                }
+
+                if (rects == null) {
+                    rects = new float[16 * RECT_STRIDE];
+                } else if ((count + 1) * RECT_STRIDE > rects.length) {
+                    rects = Arrays.copyOf(rects, rects.length * 2);
+                }
+                int offset = count * RECT_STRIDE;
+                rects[offset] = worldX + x - 0.5f;
+                rects[offset + 1] = worldZ + z - 0.5f;
+                rects[offset + 2] = worldX + x + width - 0.5f;
+                rects[offset + 3] = worldZ + z + depth - 0.5f;
+                rects[offset + 4] = height;
+                count++;
+            }
+        }
+        return rects == null ? NO_RECTS : Arrays.copyOf(rects, count * RECT_STRIDE);
+    }
+
+    private static boolean matches(TerrainTile[] tiles, boolean[] used, int chunkSize, int cells, int x, int z, float height) {
+        TerrainTile tile = tiles[z * chunkSize + x];
+        return !used[z * cells + x] && tile.hasWater() && Math.abs(tile.getWater().getWaterHeight() - height) < HEIGHT_EPSILON;
+    }
+
+    private static boolean rowMatches(TerrainTile[] tiles, boolean[] used, int chunkSize, int cells, int x, int z, int width, float height) {
+        for (int i = 0; i < width; i++) {
+            if (!matches(tiles, used, chunkSize, cells, x + i, z, height)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Verschmilzt die Rechtecke mehrerer Chunks: zuerst in X-Richtung (gleiche Z-Spanne und Höhe,
+     * lückenlos aneinander), danach in Z-Richtung (gleiche X-Spanne und Höhe)
+     */
+    public static List<float[]> mergeRects(List<float[]> chunkRects) {
+        List<float[]> rects = new ArrayList<>();
+        for (float[] packed : chunkRects) {
+            for (int offset = 0; offset < packed.length; offset += RECT_STRIDE) {
+                rects.add(Arrays.copyOfRange(packed, offset, offset + RECT_STRIDE));
+            }
+        }
+        rects = mergeAlong(rects, 0);
+        return mergeAlong(rects, 1);
+    }
+
+    /**
+     * @param axis 0 = entlang X verschmelzen, 1 = entlang Z
+     */
+    private static List<float[]> mergeAlong(List<float[]> rects, int axis) {
+        int other = 1 - axis;
+        rects.sort(Comparator.<float[]>comparingDouble(r -> r[other])
+                .thenComparingDouble(r -> r[other + 2])
+                .thenComparingDouble(r -> r[4])
+                .thenComparingDouble(r -> r[axis]));
+
+        List<float[]> merged = new ArrayList<>(rects.size());
+        float[] current = null;
+        for (float[] rect : rects) {
+            if (current != null
+                    && current[other] == rect[other]
+                    && current[other + 2] == rect[other + 2]
+                    && Math.abs(current[4] - rect[4]) < HEIGHT_EPSILON
+                    && current[axis + 2] == rect[axis]) {
+                current[axis + 2] = rect[axis + 2];
+            } else {
+                current = rect;
+                merged.add(current);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Ein Mesh aus Rechtecken (4 Vertices auf Höhe des Rechtecks, 2 Dreiecke pro Rechteck, Weltkoordinaten)
+     * @param textureScale Welteinheiten pro Textur-Wiederholung
+     */
+    public static Mesh createMesh(List<float[]> rects, float textureScale) {
+        int count = rects.size();
+        float[] positions = new float[count * 12];
+        float[] normals = new float[count * 12];
+        float[] texCoords = new float[count * 8];
+        int[] indices = new int[count * 6];
+
+        for (int i = 0; i < count; i++) {
+            float[] rect = rects.get(i);
+            float minX = rect[0];
+            float minZ = rect[1];
+            float maxX = rect[2];
+            float maxZ = rect[3];
+            float height = rect[4];
+
+            int p = i * 12;
+            float[] corners = {minX, minZ, maxX, minZ, maxX, maxZ, minX, maxZ};
+            for (int c = 0; c < 4; c++) {
+                positions[p + c * 3] = corners[c * 2];
+                positions[p + c * 3 + 1] = height;
+                positions[p + c * 3 + 2] = corners[c * 2 + 1];
+                normals[p + c * 3 + 1] = 1f;
+                texCoords[i * 8 + c * 2] = corners[c * 2] / textureScale;
+                texCoords[i * 8 + c * 2 + 1] = corners[c * 2 + 1] / textureScale;
+            }
+
+            // Gegen den Uhrzeigersinn von oben gesehen (Normale +Y)
+            int v = i * 4;
+            int idx = i * 6;
+            indices[idx] = v;
+            indices[idx + 1] = v + 3;
+            indices[idx + 2] = v + 2;
+            indices[idx + 3] = v;
+            indices[idx + 4] = v + 2;
+            indices[idx + 5] = v + 1;
+        }
+
+        Mesh mesh = new Mesh();
+        mesh.setBuffer(VertexBuffer.Type.Position, 3, positions);
+        mesh.setBuffer(VertexBuffer.Type.Normal, 3, normals);
+        mesh.setBuffer(VertexBuffer.Type.TexCoord, 2, texCoords);
+        mesh.setBuffer(VertexBuffer.Type.Index, 3, indices);
+        mesh.updateBound();
+        mesh.setStatic();
+        return mesh;
+    }
+
+    /**
+     * Gesamtfläche der Rechtecke (zum Vergleich mit der nassen Fläche)
+     */
+    public static float area(List<float[]> rects) {
+        float area = 0f;
+        for (float[] rect : rects) {
+            area += (rect[2] - rect[0]) * (rect[3] - rect[1]);
+        }
+        return area;
+    }
+}
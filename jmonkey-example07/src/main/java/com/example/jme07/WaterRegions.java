@@ -0,0 +1,168 @@
+package com.example.jme07;
+
+import com.jme3.material.Material;
+import com.jme3.renderer.queue.RenderQueue;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongPredicate;
+
+/**
+ * WaterRegions - Fasst die Wasser-Rechtecke von REGION_SIZE x REGION_SIZE Chunks
+ * zu einem Mesh (ein Draw-Call) zusammen
+ *
+ * Ändert sich ein Chunk einer Region, wird sie als dirty markiert und im nächsten
+ * update() einmal neu gebaut - auch wenn mehrere Chunks im selben Frame kommen oder gehen.
+ * Horizon-Culling blendet eine Region aus, wenn alle ihre Chunks mit Wasser verdeckt sind.
+ *
+ * Nur Render-Thread.
+ */
+public class WaterRegions {
+
+    private static class Region {
+        final Map<Long, float[]> chunkRects = new HashMap<>();
+        Geometry geometry;
+        int quadCount;
+        boolean culled;
+    }
+
+    private final Node parentNode;
+    private final Material material;
+    private final NativeMemoryTracker memoryTracker;
+    private final int regionSize;
+    private final float textureScale;
+
+    private final Map<Long, Region> regions = new HashMap<>();
+    private final Set<Long> dirtyRegions = new HashSet<>();
+
+    public WaterRegions(Node parentNode, Material material, NativeMemoryTracker memoryTracker, int regionSize, float textureScale) {
+        this.parentNode = parentNode;
+        this.material = material;
+        this.memoryTracker = memoryTracker;
+        this.regionSize = regionSize;
+        this.textureScale = textureScale;
+    }
+
+    /**
+     * Übernimmt die Wasser-Rechtecke eines Chunks (leeres Array = kein Wasser)
+     */
+    public void addChunk(int chunkX, int chunkZ, float[] rects) {
+        if (rects == null || rects.length == 0) {
+            return;
+        }
+        long regionKey = regionKey(chunkX, chunkZ);
+        regions.computeIfAbsent(regionKey, k -> new Region()).chunkRects.put(ChunkRegistry.key(chunkX, chunkZ), rects);
+        dirtyRegions.add(regionKey);
+    }
+
+    public void removeChunk(int chunkX, int chunkZ) {
+        long regionKey = regionKey(chunkX, chunkZ);
+        Region region = regions.get(regionKey);
+        if (region != null && region.chunkRects.remove(ChunkRegistry.key(chunkX, chunkZ)) != null) {
+            dirtyRegions.add(regionKey);
+        }
+    }
+
+    /**
+     * Baut alle geänderten Regionen neu
+     * @return Anzahl der neu gebauten Regionen
+     */
+    public int update() {
+        if (dirtyRegions.isEmpty()) {
+            return 0;
+        }
+        int rebuilt = dirtyRegions.size();
+        for (long regionKey : dirtyRegions) {
+            rebuild(regionKey, regions.get(regionKey));
+        }
+        dirtyRegions.clear();
+        return rebuilt;
+    }
+
+    private void rebuild(long regionKey, Region region) {
+        if (region == null) {
+            return;
+        }
+        Geometry geometry = region.geometry;
+        if (geometry != null) {
+            memoryTracker.release(geometry.getMesh());
+        }
+
+        if (region.chunkRects.isEmpty()) {
+            if (geometry != null) {
+                geometry.removeFromParent();
+            }
+            regions.remove(regionKey);
+            return;
+        }
+
+        List<float[]> rects = WaterMesher.mergeRects(new ArrayList<>(region.chunkRects.values()));
+        Mesh mesh = WaterMesher.createMesh(rects, textureScale);
+        memoryTracker.retain(NativeMemoryTracker.Category.WATER, mesh, true);
+        region.quadCount = rects.size();
+
+        if (geometry == null) {
+            geometry = new Geometry("water_region_" + (int) (regionKey >> 32) + "_" + (int) regionKey, mesh);
+            geometry.setMaterial(material);
+            geometry.setQueueBucket(RenderQueue.Bucket.Transparent);
+            geometry.setCullHint(region.culled ? Spatial.CullHint.Always : Spatial.CullHint.Inherit);
+            parentNode.attachChild(geometry);
+            region.geometry = geometry;
+        } else {
+            geometry.setMesh(mesh);
+        }
+    }
+
+    /**
+     * Horizon-Culling: Regionen, deren Chunks mit Wasser alle verdeckt sind, per CullHint ausblenden
+     * @param isChunkCulled true für verdeckte Chunks (Schlüssel aus ChunkRegistry.key)
+     * @return Anzahl der ausgeblendeten Regionen (= gesparte Draw-Calls)
+     */
+    public int applyCulling(LongPredicate isChunkCulled) {
+        int culledRegions = 0;
+        for (Region region : regions.values()) {
+            boolean culled = !region.chunkRects.isEmpty();
+            for (long chunkKey : region.chunkRects.keySet()) {
+                if (!isChunkCulled.test(chunkKey)) {
+                    culled = false;
+                    break;
+                }
+            }
+            region.culled = culled;
+            if (region.geometry != null) {
+                region.geometry.setCullHint(culled ? Spatial.CullHint.Always : Spatial.CullHint.Inherit);
+            }
+            if (culled) {
+                culledRegions++;
+            }
+        }
+        return culledRegions;
+    }
+
+    private long regionKey(int chunkX, int chunkZ) {
+        return ChunkRegistry.key(Math.floorDiv(chunkX, regionSize), Math.floorDiv(chunkZ, regionSize));
+    }
+
+    /**
+     * Anzahl der Regionen mit Wasser (= Draw-Calls)
+     */
+    public int getRegionCount() {
+        return regions.size();
+    }
+
+    public int getQuadCount() {
+        int quads = 0;
+        for (Region region : regions.values()) {
+            quads += region.quadCount;
+        }
+        return quads;
+    }
+}
@@ -0,0 +1,75 @@
+#import "Common/ShaderLib/GLSLCompat.glsllib"
+#import "Common/ShaderLib/Lighting.glsllib"
+
+uniform sampler2DArray m_TerrainTextures;
+uniform float m_LayerScales[LAYER_COUNT];
+uniform usampler2D m_MaterialIndexMap;
+uniform float m_Spacing;
+uniform float m_TexCoordScale;
+uniform vec4 m_InnerRect;
+
+uniform vec4 g_LightData[NB_LIGHTS];
+uniform vec4 g_AmbientLightColor;
+
+varying vec3 worldPos;
+varying vec3 viewPos;
+varying vec3 viewNormal;
+
+// Material-ID eines Samples (toroidal abgelegt, R8UI: 0..255)
+int materialAt(vec2 cell) {
+    vec2 size = vec2(textureSize(m_MaterialIndexMap, 0));
+    return int(texelFetch(m_MaterialIndexMap, ivec2(mod(cell, size)), 0).r);
+}
+
+// Ableitungen werden vorab in einheitlichem Kontrollfluss bestimmt (Aufruf auch in Verzweigungen)
+vec3 layerColor(int layer, vec2 texCoord, vec2 texCoordDx, vec2 texCoordDy) {
+    float scale = m_LayerScales[layer];
+    return textureGrad(m_TerrainTextures, vec3(texCoord * scale, float(layer)),
+            texCoordDx * scale, texCoordDy * scale).rgb;
+}
+
+void main() {
+    // Wie TerrainQuad: u = x / Chunk-Breite, v = -z / Chunk-Breite (bis auf ganze Wiederholungen)
+    vec2 texCoord = vec2(worldPos.x, -worldPos.z) * m_TexCoordScale;
+    vec2 texCoordDx = dFdx(texCoord);
+    vec2 texCoordDy = dFdy(texCoord);
+
+    // Bereich der feineren Ebene: dort zeichnet diese Ebene nicht
+    if (all(greaterThan(worldPos.xz, m_InnerRect.xy)) && all(lessThan(worldPos.xz, m_InnerRect.zw))) {
+        discard;
+    }
+
+    vec2 cellPos = worldPos.xz / m_Spacing;
+    vec2 cell0 = floor(cellPos);
+    vec2 weight = cellPos - cell0;
+
+    int m00 = materialAt(cell0);
+    int m10 = materialAt(cell0 + vec2(1.0, 0.0));
+    int m01 = materialAt(cell0 + vec2(0.0, 1.0));
+    int m11 = materialAt(cell0 + vec2(1.0, 1.0));
+
+    // Manuelles bilineares Überblenden der vier Nachbar-Samples; meistens sind alle gleich
+    vec3 diffuse;
+    if (m00 == m10 && m00 == m01 && m00 == m11) {
+        diffuse = layerColor(m00, texCoord, texCoordDx, texCoordDy);
+    } else {
+        vec3 bottom = mix(layerColor(m00, texCoord, texCoordDx, texCoordDy),
+                layerColor(m10, texCoord, texCoordDx, texCoordDy), weight.x);
+        vec3 top = mix(layerColor(m01, texCoord, texCoordDx, texCoordDy),
+                layerColor(m11, texCoord, texCoordDx, texCoordDy), weight.x);
+        diffuse = mix(bottom, top, weight.y);
+    }
+
+    // Lambert-Beleuchtung aus den SinglePass-Lichtdaten
+    vec3 normal = normalize(viewNormal);
+    vec3 light = g_AmbientLightColor.rgb;
+    for (int i = 0; i < NB_LIGHTS; i += 3) {
+        vec4 lightColor = g_LightData[i];
+        vec4 lightDir;
+        vec3 lightVec;
+        lightComputeDir(viewPos, lightColor.w, g_LightData[i + 1], lightDir, lightVec);
+        light += lightColor.rgb * max(dot(normal, lightDir.xyz), 0.0) * lightDir.w;
+    }
+
+    gl_FragColor = vec4(diffuse * light, 1.0);
+}
@@ -0,0 +1,58 @@
+#import "Common/ShaderLib/GLSLCompat.glsllib"
+
+uniform mat4 g_WorldViewProjectionMatrix;
+uniform mat4 g_WorldViewMatrix;
+uniform mat4 g_WorldMatrix;
+uniform mat4 g_ViewMatrix;
+
+uniform sampler2D m_HeightMap;
+uniform float m_Spacing;
+uniform float m_GridSize;
+uniform float m_MorphWidth;
+
+// Gitter-Koordinaten in Zellen (x, 0, z), Skalierung und Position kommen aus der World-Matrix
+attribute vec3 inPosition;
+
+varying vec3 worldPos;
+varying vec3 viewPos;
+varying vec3 viewNormal;
+
+// Höhe eines Samples (Zelle = Welt / Spacing), toroidal in der Textur abgelegt
+float heightAt(vec2 cell) {
+    vec2 size = vec2(textureSize(m_HeightMap, 0));
+    return texelFetch(m_HeightMap, ivec2(mod(cell, size)), 0).r;
+}
+
+void main() {
+    vec4 gridPos = vec4(inPosition.x, 0.0, inPosition.z, 1.0);
+    vec2 cell = floor((g_WorldMatrix * gridPos).xz / m_Spacing + 0.5);
+
+    float height = heightAt(cell);
+
+    // Zum Rand hin auf die Höhen der gröberen Ebene überblenden (keine Risse an den Ebenen-Grenzen)
+    vec2 fromCenter = abs(inPosition.xz - vec2(m_GridSize * 0.5));
+    float edgeDistance = max(fromCenter.x, fromCenter.y);
+    float morph = clamp((edgeDistance - (m_GridSize * 0.5 - m_MorphWidth - 1.0)) / m_MorphWidth, 0.0, 1.0);
+    if (morph > 0.0) {
+        vec2 coarse = floor(cell * 0.5) * 2.0;
+        vec2 f = (cell - coarse) * 0.5;
+        float bottom = mix(heightAt(coarse), heightAt(coarse + vec2(2.0, 0.0)), f.x);
+        float top = mix(heightAt(coarse + vec2(0.0, 2.0)), heightAt(coarse + vec2(2.0, 2.0)), f.x);
+        height = mix(height, mix(bottom, top, f.y), morph);
+    }
+
+    // Normale aus den Nachbar-Samples (zentrale Differenzen)
+    float left = heightAt(cell - vec2(1.0, 0.0));
+    float right = heightAt(cell + vec2(1.0, 0.0));
+    float back = heightAt(cell - vec2(0.0, 1.0));
+    float front = heightAt(cell + vec2(0.0, 1.0));
+    vec3 normal = normalize(vec3(left - right, 2.0 * m_Spacing, back - front));
+
+    vec4 pos = vec4(inPosition.x, height, inPosition.z, 1.0);
+    gl_Position = g_WorldViewProjectionMatrix * pos;
+    worldPos = (g_WorldMatrix * pos).xyz;
+
+    // Beleuchtung im View-Space (so liefert SinglePass die Lichtdaten)
+    viewPos = (g_WorldViewMatrix * pos).xyz;
+    viewNormal = mat3(g_ViewMatrix) * normal;
+}
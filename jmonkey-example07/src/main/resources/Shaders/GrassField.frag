@@ -0,0 +1,12 @@
+#import "Common/ShaderLib/GLSLCompat.glsllib"
+
+uniform vec4 m_BaseColor;
+uniform vec4 m_TipColor;
+
+varying float bladeY;
+varying float shade;
+
+void main() {
+    // Farbverlauf von der Basis zur Spitze, leichte Variation pro Halm
+    gl_FragColor = vec4(mix(m_BaseColor.rgb, m_TipColor.rgb, bladeY) * shade, 1.0);
+}
@@ -0,0 +1,81 @@
+#import "Common/ShaderLib/GLSLCompat.glsllib"
+
+uniform mat4 g_ViewProjectionMatrix;
+uniform vec3 g_CameraPosition;
+uniform float g_Time;
+
+uniform sampler2D m_HeightMap;
+uniform usampler2D m_DensityMap;
+uniform vec2 m_GridOrigin;
+uniform float m_Spacing;
+uniform float m_BladeHeight;
+uniform float m_BladeWidth;
+uniform float m_FadeStart;
+uniform float m_FadeEnd;
+uniform float m_WindStrength;
+uniform float m_WindSpeed;
+
+// Halm-Form: x -0.5..0.5 (Breite), y 0..1 (Höhe)
+attribute vec3 inPosition;
+// Pro Instanz: Zelle im Gitter
+attribute vec2 inTexCoord2;
+
+varying float bladeY;
+varying float shade;
+
+// Vier Pseudo-Zufallswerte 0..1 pro Welt-Zelle
+vec4 hash4(vec2 cell) {
+    vec4 p = vec4(dot(cell, vec2(127.1, 311.7)), dot(cell, vec2(269.5, 183.3)),
+                  dot(cell, vec2(419.2, 371.9)), dot(cell, vec2(113.5, 271.9)));
+    return fract(sin(p) * 43758.5453);
+}
+
+ivec2 wrapTexel(ivec2 texel) {
+    ivec2 size = textureSize(m_HeightMap, 0);
+    return ivec2(mod(vec2(texel), vec2(size)));
+}
+
+float heightAt(ivec2 texel) {
+    return texelFetch(m_HeightMap, wrapTexel(texel), 0).r;
+}
+
+// Bilineare Terrain-Höhe wie zwischen den Vertices des Terrain-Meshes
+float groundHeight(vec2 pos) {
+    vec2 base = floor(pos);
+    vec2 f = pos - base;
+    ivec2 s = ivec2(base);
+    float h00 = heightAt(s);
+    float h10 = heightAt(s + ivec2(1, 0));
+    float h01 = heightAt(s + ivec2(0, 1));
+    float h11 = heightAt(s + ivec2(1, 1));
+    return mix(mix(h00, h10, f.x), mix(h01, h11, f.x), f.y);
+}
+
+void main() {
+    vec2 cell = m_GridOrigin + inTexCoord2;
+    vec4 rnd = hash4(cell);
+    vec2 root = (cell + rnd.xy) * m_Spacing;
+
+    float density = float(texelFetch(m_DensityMap, wrapTexel(ivec2(floor(root + 0.5))), 0).r) / 255.0;
+    float fade = 1.0 - smoothstep(m_FadeStart, m_FadeEnd, distance(root, g_CameraPosition.xz));
+
+    bladeY = inPosition.y;
+    shade = 0.8 + 0.4 * rnd.y;
+    if (rnd.z >= density || fade <= 0.0) {
+        // Kein Halm: alle Vertices hinter die Far-Plane, das Dreieck wird verworfen
+        gl_Position = vec4(0.0, 0.0, 2.0, 1.0);
+        return;
+    }
+
+    float angle = rnd.w * 6.2831853;
+    vec2 side = vec2(cos(angle), sin(angle));
+    float height = m_BladeHeight * (0.6 + 0.8 * fract(rnd.x * 7.0 + rnd.z)) * fade;
+
+    // Wind: Spitze schwingt stärker als die Basis
+    float sway = sin(g_Time * m_WindSpeed + root.x * 0.35 + root.y * 0.25) * m_WindStrength * inPosition.y * inPosition.y;
+
+    vec3 worldPos = vec3(root.x + side.x * inPosition.x * m_BladeWidth + sway,
+                         groundHeight(root) + inPosition.y * height,
+                         root.y + side.y * inPosition.x * m_BladeWidth + sway * 0.5);
+    gl_Position = g_ViewProjectionMatrix * vec4(worldPos, 1.0);
+}
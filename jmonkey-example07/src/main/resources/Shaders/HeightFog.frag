@@ -0,0 +1,54 @@
+#import "Common/ShaderLib/GLSLCompat.glsllib"
+#import "Common/ShaderLib/MultiSample.glsllib"
+
+uniform COLORTEXTURE m_Texture;
+uniform DEPTHTEXTURE m_DepthTexture;
+
+uniform mat4 m_ViewProjectionMatrixInverse;
+uniform vec3 m_CameraPosition;
+
+uniform vec4 m_FogColor;
+uniform float m_FogStart;
+uniform float m_FogEnd;
+uniform float m_FogDensity;
+uniform float m_FogBaseHeight;
+uniform float m_FogHeightFalloff;
+uniform float m_SkyFogHeight;
+
+varying vec2 texCoord;
+
+void main() {
+    vec4 sceneColor = getColor(m_Texture, texCoord);
+    float depth = getDepth(m_DepthTexture, texCoord).r;
+
+    // Weltposition des Fragments aus Bildschirm-Koordinate und Tiefe
+    vec4 clip = vec4(texCoord * 2.0 - 1.0, depth * 2.0 - 1.0, 1.0);
+    vec4 world = m_ViewProjectionMatrixInverse * clip;
+    vec3 worldPos = world.xyz / world.w;
+    vec3 ray = worldPos - m_CameraPosition;
+
+    float fog;
+    if (depth >= 1.0) {
+        // Himmel: nur knapp über dem Horizont in die Nebelfarbe überblenden
+        float dirY = normalize(ray).y;
+        fog = 1.0 - smoothstep(0.0, m_SkyFogHeight, dirY);
+    } else {
+        // Distanz-Nebel (horizontal): erreicht 1 an der Sichtweiten-Grenze, versteckt den Chunk-Rand
+        float horizontal = length(ray.xz);
+        float distanceFog = smoothstep(m_FogStart, m_FogEnd, horizontal);
+
+        // Höhen-Nebel: Dichte exp(-falloff * (y - base)) entlang des Strahls analytisch integriert
+        float distance3d = length(ray);
+        float startHeight = m_CameraPosition.y - m_FogBaseHeight;
+        float heightTerm = exp(-m_FogHeightFalloff * startHeight);
+        float deltaY = ray.y * m_FogHeightFalloff;
+        if (abs(deltaY) > 0.0001) {
+            heightTerm *= (1.0 - exp(-deltaY)) / deltaY;
+        }
+        float heightFog = 1.0 - exp(-m_FogDensity * distance3d * heightTerm);
+
+        fog = max(distanceFog, clamp(heightFog, 0.0, 1.0));
+    }
+
+    gl_FragColor = vec4(mix(sceneColor.rgb, m_FogColor.rgb, fog), sceneColor.a);
+}
@@ -0,0 +1,43 @@
+#import "Common/ShaderLib/GLSLCompat.glsllib"
+
+uniform vec3 m_SunDirection;
+uniform vec4 m_DayZenithColor;
+uniform vec4 m_DayHorizonColor;
+uniform vec4 m_NightZenithColor;
+uniform vec4 m_NightHorizonColor;
+uniform vec4 m_GroundColor;
+uniform vec4 m_SunColor;
+uniform float m_SunDiscSize;
+uniform float m_SunGlowExponent;
+uniform float m_SunHaloExponent;
+uniform float m_SunGlowIntensity;
+uniform float m_DayFactor;
+
+varying vec3 direction;
+
+void main() {
+    vec3 dir = normalize(direction);
+    vec3 sunDir = normalize(m_SunDirection);
+    float height = dir.y;
+
+    // Farbverlauf Horizont -> Zenit, Tag und Nacht über DayFactor gemischt
+    vec3 zenith = mix(m_NightZenithColor.rgb, m_DayZenithColor.rgb, m_DayFactor);
+    vec3 horizon = mix(m_NightHorizonColor.rgb, m_DayHorizonColor.rgb, m_DayFactor);
+    vec3 color = mix(horizon, zenith, sqrt(max(height, 0.0)));
+
+    // Unter dem Horizont zur Bodenfarbe überblenden
+    vec3 ground = m_GroundColor.rgb * (0.1 + 0.9 * m_DayFactor);
+    color = mix(color, ground, smoothstep(0.0, 0.15, -height));
+
+    // Sonne: Glow und Halo analytisch aus dem Winkel zur Sonnenrichtung
+    float cosAngle = max(dot(dir, sunDir), 0.0);
+    float glow = pow(cosAngle, m_SunGlowExponent) + 0.25 * pow(cosAngle, m_SunHaloExponent);
+    color += m_SunColor.rgb * glow * m_SunGlowIntensity * m_DayFactor;
+
+    // Scheibe mit weicher Kante, verschwindet unter dem Horizont
+    float disc = smoothstep(m_SunDiscSize - 0.0004, m_SunDiscSize, cosAngle);
+    disc *= smoothstep(-0.02, 0.02, height);
+    color = mix(color, m_SunColor.rgb * 4.0, disc * m_DayFactor);
+
+    gl_FragColor = vec4(color, 1.0);
+}
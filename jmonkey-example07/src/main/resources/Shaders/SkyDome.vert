@@ -0,0 +1,18 @@
+#import "Common/ShaderLib/GLSLCompat.glsllib"
+
+uniform mat4 g_ViewMatrix;
+uniform mat4 g_ProjectionMatrix;
+
+attribute vec3 inPosition;
+
+varying vec3 direction;
+
+void main() {
+    // Blickrichtung in Weltkoordinaten - die Kuppel hat keine eigene Transformation
+    direction = inPosition;
+
+    // Nur die Rotation der Kamera anwenden (w = 0), damit die Kuppel immer um die Kamera liegt
+    vec4 pos = g_ViewMatrix * vec4(inPosition, 0.0);
+    pos.w = 1.0;
+    gl_Position = g_ProjectionMatrix * pos;
+}
@@ -0,0 +1,23 @@
+#import "Common/ShaderLib/GLSLCompat.glsllib"
+
+uniform vec4 m_Color;
+uniform float m_AlphaDiscardThreshold;
+
+#ifdef HAS_COLORMAP
+uniform sampler2D m_ColorMap;
+#endif
+
+varying vec2 texCoord;
+
+void main() {
+    vec4 color = m_Color;
+#ifdef HAS_COLORMAP
+    color *= texture2D(m_ColorMap, texCoord);
+#endif
+
+    // Alpha-Test statt Blending: kein Sortieren im Transparent-Bucket nötig
+    if (color.a < m_AlphaDiscardThreshold) {
+        discard;
+    }
+    gl_FragColor = vec4(color.rgb, 1.0);
+}
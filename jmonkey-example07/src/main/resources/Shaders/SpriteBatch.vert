@@ -0,0 +1,30 @@
+#import "Common/ShaderLib/GLSLCompat.glsllib"
+
+uniform mat4 g_ViewProjectionMatrix;
+uniform mat4 g_ViewMatrix;
+
+// Ecke des Einheits-Quads (0..1)
+attribute vec3 inPosition;
+attribute vec2 inTexCoord;
+
+// Pro Instanz: Fußpunkt (Welt) + Breite, Höhe, UV-Rechteck im Atlas
+attribute vec4 inTexCoord2;
+attribute float inTexCoord3;
+attribute vec4 inTexCoord4;
+
+varying vec2 texCoord;
+
+void main() {
+    // Rechts-Vektor der Kamera, auf die Horizontale projiziert: Billboard dreht sich nur um Y
+    vec3 camRight = vec3(g_ViewMatrix[0][0], g_ViewMatrix[1][0], g_ViewMatrix[2][0]);
+    vec3 right = normalize(vec3(camRight.x, 0.0, camRight.z));
+
+    float width = inTexCoord2.w;
+    float height = inTexCoord3;
+    vec3 worldPos = inTexCoord2.xyz
+                  + right * ((inPosition.x - 0.5) * width)
+                  + vec3(0.0, inPosition.y * height, 0.0);
+
+    gl_Position = g_ViewProjectionMatrix * vec4(worldPos, 1.0);
+    texCoord = mix(inTexCoord4.xy, inTexCoord4.zw, inTexCoord);
+}
@@ -0,0 +1,64 @@
+#import "Common/ShaderLib/GLSLCompat.glsllib"
+#import "Common/ShaderLib/Lighting.glsllib"
+
+uniform sampler2DArray m_TerrainTextures;
+uniform float m_LayerScales[LAYER_COUNT];
+uniform usampler2D m_MaterialIndexMap;
+
+uniform vec4 g_LightData[NB_LIGHTS];
+uniform vec4 g_AmbientLightColor;
+
+varying vec2 texCoord;
+varying vec3 viewPos;
+varying vec3 viewNormal;
+
+// Material-ID eines Tiles (R8UI: 0..255)
+int materialAt(ivec2 tile) {
+    return int(texelFetch(m_MaterialIndexMap, tile, 0).r);
+}
+
+// Explizite Gradienten: in der Material-Verzweigung wären implizite Ableitungen undefiniert
+vec3 layerColor(int layer, vec2 texCoordDx, vec2 texCoordDy) {
+    float scale = m_LayerScales[layer];
+    return textureGrad(m_TerrainTextures, vec3(texCoord * scale, float(layer)),
+            texCoordDx * scale, texCoordDy * scale).rgb;
+}
+
+void main() {
+    vec2 texCoordDx = dFdx(texCoord);
+    vec2 texCoordDy = dFdy(texCoord);
+
+    // Position im Tile-Raster des Chunks (Zeile = Z wie im Tile-Array)
+    ivec2 mapSize = textureSize(m_MaterialIndexMap, 0);
+    vec2 tilePos = vec2(texCoord.x, 1.0 - texCoord.y) * vec2(mapSize - 1);
+    ivec2 tile0 = min(ivec2(floor(tilePos)), mapSize - 2);
+    vec2 weight = clamp(tilePos - vec2(tile0), 0.0, 1.0);
+
+    int m00 = materialAt(tile0);
+    int m10 = materialAt(tile0 + ivec2(1, 0));
+    int m01 = materialAt(tile0 + ivec2(0, 1));
+    int m11 = materialAt(tile0 + ivec2(1, 1));
+
+    // Manuelles bilineares Überblenden der vier Nachbar-Tiles; meistens sind alle gleich
+    vec3 diffuse;
+    if (m00 == m10 && m00 == m01 && m00 == m11) {
+        diffuse = layerColor(m00, texCoordDx, texCoordDy);
+    } else {
+        vec3 bottom = mix(layerColor(m00, texCoordDx, texCoordDy), layerColor(m10, texCoordDx, texCoordDy), weight.x);
+        vec3 top = mix(layerColor(m01, texCoordDx, texCoordDy), layerColor(m11, texCoordDx, texCoordDy), weight.x);
+        diffuse = mix(bottom, top, weight.y);
+    }
+
+    // Lambert-Beleuchtung aus den SinglePass-Lichtdaten
+    vec3 normal = normalize(viewNormal);
+    vec3 light = g_AmbientLightColor.rgb;
+    for (int i = 0; i < NB_LIGHTS; i += 3) {
+        vec4 lightColor = g_LightData[i];
+        vec4 lightDir;
+        vec3 lightVec;
+        lightComputeDir(viewPos, lightColor.w, g_LightData[i + 1], lightDir, lightVec);
+        light += lightColor.rgb * max(dot(normal, lightDir.xyz), 0.0) * lightDir.w;
+    }
+
+    gl_FragColor = vec4(diffuse * light, 1.0);
+}
@@ -0,0 +1,25 @@
+#import "Common/ShaderLib/GLSLCompat.glsllib"
+
+uniform mat4 g_WorldViewProjectionMatrix;
+uniform mat4 g_WorldViewMatrix;
+uniform mat3 g_NormalMatrix;
+
+attribute vec3 inPosition;
+attribute vec3 inNormal;
+attribute vec2 inTexCoord;
+
+varying vec2 texCoord;
+varying vec3 viewPos;
+varying vec3 viewNormal;
+
+void main() {
+    vec4 pos = vec4(inPosition, 1.0);
+    gl_Position = g_WorldViewProjectionMatrix * pos;
+
+    // Beleuchtung im View-Space (so liefert SinglePass die Lichtdaten)
+    viewPos = (g_WorldViewMatrix * pos).xyz;
+    viewNormal = g_NormalMatrix * inNormal;
+
+    // TerrainQuad: u = x / 64, v = 1 - z / 64 über den ganzen Chunk
+    texCoord = inTexCoord;
+}
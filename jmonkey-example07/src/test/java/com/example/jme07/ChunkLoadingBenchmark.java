@@ -0,0 +1,138 @@
+package com.example.jme07;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark für die Lade-Reihenfolge des ChunkLoaders (ohne JUnit)
+ *
+ * Simuliert einen Spawn bzw. Teleport: das komplette Sichtfenster wird auf einmal angefordert.
+ * Gemessen wird, wann alle Chunks im Sichtkegel fertig sind (sichtbare Vollständigkeit) und wann
+ * das ganze Fenster fertig ist - einmal in Anforderungsreihenfolge, einmal mit Sichtkegel-Priorität.
+ * Zusätzlich dreht sich die Kamera während des Ladens um 180 Grad.
+ */
+public class ChunkLoadingBenchmark {
+
+    private static final int CHUNK_SIZE = 65;
+    private static final int VIEW_DISTANCE = 12;
+    // Horizontaler halber Öffnungswinkel bei 45 Grad vertikal und 16:9
+    private static final float HALF_FOV = (float) Math.atan(Math.tan(Math.toRadians(22.5)) * 16.0 / 9.0);
+
+    public static void main(String[] args) throws Exception {
+        ChunkLoadingBenchmark benchmark = new ChunkLoadingBenchmark();
+        // Aufwärmen (JIT), nicht gemessen
+        benchmark.teleport(0, 0, false, false);
+
+        System.out.println("=== Chunk Loading Benchmark (" + (2 * VIEW_DISTANCE + 1) * (2 * VIEW_DISTANCE + 1) + " Chunks) ===");
+        Result fifo = benchmark.teleport(40, -25, false, false);
+        Result prioritized = benchmark.teleport(40, -25, true, false);
+        print("Teleport, Anforderungsreihenfolge", fifo);
+        print("Teleport, Sichtkegel-Priorität  ", prioritized);
+
+        Result fifoTurn = benchmark.teleport(-30, 55, false, true);
+        Result prioritizedTurn = benchmark.teleport(-30, 55, true, true);
+        print("Teleport + Drehung, Anforderungsreihenfolge", fifoTurn);
+        print("Teleport + Drehung, Sichtkegel-Priorität  ", prioritizedTurn);
+
+        if (prioritized.visibleMs > fifo.visibleMs) {
+            throw new AssertionError("Sichtkegel-Priorität sollte den sichtbaren Bereich nicht später fertigstellen");
+        }
+        System.out.println("\n=== BENCHMARK PASSED ===");
+    }
+
+    private static class Result {
+        double visibleMs;
+        double completeMs;
+        int visibleChunks;
+    }
+
+    private static void print(String label, Result result) {
+        System.out.printf("%s: sichtbar vollständig nach %7.1fms (%d Chunks), Fenster vollständig nach %7.1fms%n",
+                label, result.visibleMs, result.visibleChunks, result.completeMs);
+    }
+
+    /**
+     * Fordert das Fenster um (centerX, centerZ) an, Blick nach +X; bei turn nach 1/4 des Fensters nach -X
+     */
+    private Result teleport(int centerX, int centerZ, boolean prioritized, boolean turn) throws InterruptedException {
+        TileProvider tileProvider = new CrossRoadTileProvider(
+                new WaterTileProvider(new ProceduralTileProvider(12345L, 0.02f, 40f)));
+        SpriteProvider spriteProvider = new ProceduralSpriteProvider(12345L, tileProvider, CHUNK_SIZE);
+        ChunkRegistry registry = new ChunkRegistry();
+
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        ChunkLoader loader = new ChunkLoader(tileProvider, spriteProvider, registry);
+        try {
+            ChunkLoadScheduler.ViewSnapshot forward = new ChunkLoadScheduler.ViewSnapshot(centerX + 0.5f, centerZ + 0.5f, 1, 0, HALF_FOV);
+            ChunkLoadScheduler.ViewSnapshot backward = new ChunkLoadScheduler.ViewSnapshot(centerX + 0.5f, centerZ + 0.5f, -1, 0, HALF_FOV);
+
+            long start = System.nanoTime();
+            if (prioritized) {
+                loader.updateView(forward);
+            }
+            // Gleiche Reihenfolge wie im TerrainLayer (ChunkWindowTracker)
+            ChunkWindowTracker tracker = new ChunkWindowTracker();
+            tracker.moveTo(centerX, centerZ);
+            int total = tracker.forEachEntering(VIEW_DISTANCE, loader::requestChunk);
+
+            int loaded = 0;
+            boolean turned = false;
+            ChunkLoadScheduler.ViewSnapshot finalView = forward;
+            List<ChunkRecord> ready = new ArrayList<>();
+            Result result = new Result();
+            result.visibleMs = -1;
+            while (loaded < total) {
+                ChunkRecord record = registry.pollReady();
+                if (record == null) {
+                    Thread.sleep(1);
+                    continue;
+                }
+                ready.add(record);
+                loaded++;
+
+                if (turn && !turned && loaded >= total / 4) {
+                    turned = true;
+                    finalView = backward;
+                    if (prioritized) {
+                        loader.updateView(backward);
+                    }
+                }
+                if (result.visibleMs < 0 && (!turn || turned) && allVisibleLoaded(registry, centerX, centerZ, finalView)) {
+                    result.visibleMs = (System.nanoTime() - start) / 1_000_000.0;
+                }
+            }
+            result.completeMs = (System.nanoTime() - start) / 1_000_000.0;
+            result.visibleChunks = countVisible(centerX, centerZ, finalView);
+            return result;
+        } finally {
+            loader.shutdown();
+            System.setOut(out);
+        }
+    }
+
+    private boolean allVisibleLoaded(ChunkRegistry registry, int centerX, int centerZ, ChunkLoadScheduler.ViewSnapshot view) {
+        for (int x = centerX - VIEW_DISTANCE; x <= centerX + VIEW_DISTANCE; x++) {
+            for (int z = centerZ - VIEW_DISTANCE; z <= centerZ + VIEW_DISTANCE; z++) {
+                if (view.isInView(x, z) && !registry.get(x, z).hasHeightData()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private int countVisible(int centerX, int centerZ, ChunkLoadScheduler.ViewSnapshot view) {
+        int count = 0;
+        for (int x = centerX - VIEW_DISTANCE; x <= centerX + VIEW_DISTANCE; x++) {
+            for (int z = centerZ - VIEW_DISTANCE; z <= centerZ + VIEW_DISTANCE; z++) {
+                if (view.isInView(x, z)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.jme07;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Unit-Test für den ChunkWindowTracker (ohne JUnit)
+ *
+ * Vergleicht die inkrementellen Differenzen mit einer vollständigen Mengen-Differenz.
+ */
+public class ChunkWindowTrackerTest {
+
+    public static void main(String[] args) {
+        ChunkWindowTrackerTest test = new ChunkWindowTrackerTest();
+        test.testRandomMovesMatchSetDifference();
+        test.testInitialWindow();
+        test.testBoundaryCrossingCost();
+        System.out.println("\n=== ALL TESTS PASSED ===");
+    }
+
+    public void testInitialWindow() {
+        ChunkWindowTracker tracker = new ChunkWindowTracker();
+        tracker.moveTo(3, -2);
+
+        Set<String> entering = new HashSet<>();
+        tracker.forEachEntering(12, (x, z) -> entering.add(x + "," + z));
+        int leaving = tracker.forEachLeaving(12, (x, z) -> { });
+
+        System.out.println("Initial window: " + entering.size() + " entering, " + leaving + " leaving");
+        if (entering.size() != 25 * 25 || leaving != 0) {
+            throw new AssertionError("Initial window should enter 625 chunks and leave none");
+        }
+    }
+
+    public void testRandomMovesMatchSetDifference() {
+        System.out.println("=== Random Moves vs Set Difference ===");
+        ChunkWindowTracker tracker = new ChunkWindowTracker();
+        Random random = new Random(7);
+        int x = 0;
+        int z = 0;
+        tracker.moveTo(x, z);
+
+        for (int i = 0; i < 200; i++) {
+            int oldX = x;
+            int oldZ = z;
+            // Meist ein Schritt, gelegentlich ein Teleport
+            if (random.nextInt(10) == 0) {
+                x += random.nextInt(41) - 20;
+                z += random.nextInt(41) - 20;
+            } else {
+                x += random.nextInt(3) - 1;
+                z += random.nextInt(3) - 1;
+            }
+            tracker.moveTo(x, z);
+
+            for (int radius : new int[]{4, 8, 12}) {
+                Set<String> oldWindow = window(oldX, oldZ, radius);
+                Set<String> newWindow = window(x, z, radius);
+
+                Set<String> expectedEntering = new HashSet<>(newWindow);
+                expectedEntering.removeAll(oldWindow);
+                Set<String> expectedLeaving = new HashSet<>(oldWindow);
+                expectedLeaving.removeAll(newWindow);
+
+                Set<String> entering = new HashSet<>();
+                Set<String> leaving = new HashSet<>();
+                int enteringCount = tracker.forEachEntering(radius, (cx, cz) -> entering.add(cx + "," + cz));
+                int leavingCount = tracker.forEachLeaving(radius, (cx, cz) -> leaving.add(cx + "," + cz));
+
+                if (!entering.equals(expectedEntering) || enteringCount != expectedEntering.size()) {
+                    throw new AssertionError("Entering mismatch for move (" + oldX + "," + oldZ + ") -> (" + x + "," + z + ") radius " + radius);
+                }
+                if (!leaving.equals(expectedLeaving) || leavingCount != expectedLeaving.size()) {
+                    throw new AssertionError("Leaving mismatch for move (" + oldX + "," + oldZ + ") -> (" + x + "," + z + ") radius " + radius);
+                }
+            }
+        }
+        System.out.println("200 moves match for radius 4, 8 and 12");
+    }
+
+    public void testBoundaryCrossingCost() {
+        System.out.println("\n=== Boundary Crossing Cost ===");
+        for (int radius : new int[]{12, 20, 32}) {
+            ChunkWindowTracker tracker = new ChunkWindowTracker();
+            tracker.moveTo(0, 0);
+            tracker.moveTo(1, 0);
+            int touched = tracker.forEachEntering(radius, (x, z) -> { }) + tracker.forEachLeaving(radius, (x, z) -> { });
+            int window = (2 * radius + 1) * (2 * radius + 1);
+            System.out.printf("VIEW_DISTANCE %2d: %4d of %4d chunks touched%n", radius, touched, window);
+            if (touched != 2 * (2 * radius + 1)) {
+                throw new AssertionError("One-chunk move should touch exactly one column in and one column out");
+            }
+        }
+    }
+
+    private Set<String> window(int centerX, int centerZ, int radius) {
+        Set<String> result = new HashSet<>();
+        for (int x = centerX - radius; x <= centerX + radius; x++) {
+            for (int z = centerZ - radius; z <= centerZ + radius; z++) {
+                result.add(x + "," + z);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.jme07;
+
+import com.jme3.asset.AssetManager;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Node;
+import com.jme3.system.JmeSystem;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Test und Benchmark für den ClipmapTerrainRenderer (ohne JUnit)
+ *
+ * Prüft, dass nach inkrementellen Kamera-Bewegungen jede Ebene genau die Höhen der Chunks
+ * unter ihrem Gitter enthält (toroidale Adressierung), und vergleicht den Aufwand im
+ * Render-Thread pro Chunk mit dem TerrainQuad-Pfad.
+ */
+public class ClipmapTerrainTest {
+
+    private static final int CHUNK_SIZE = 65;
+    private static final int VIEW_DISTANCE = 12;
+    private static final int GRID_SIZE = 88;     // wie im ClipmapTerrainRenderer
+    private static final int FAR_CELL_SIZE = 16; // wie im FarTerrainLayer
+
+    private final TileProvider provider = new CrossRoadTileProvider(
+            new WaterTileProvider(new ProceduralTileProvider(12345L, 0.02f, 40f)));
+    private final TerrainMaterialIndex materialIndex = new TerrainMaterialIndex(provider.getMaterials());
+    private final Map<Long, ChunkRecord> records = new HashMap<>();
+    private final AssetManager assetManager = JmeSystem.newAssetManager(
+            Thread.currentThread().getContextClassLoader().getResource("com/jme3/asset/Desktop.cfg"));
+
+    public static void main(String[] args) {
+        ClipmapTerrainTest test = new ClipmapTerrainTest();
+        test.testLevelsMatchChunks();
+        test.testCoverageMeetsFarTerrainHole();
+        test.benchmarkChunkAttach();
+        System.out.println("\n=== ALL TESTS PASSED ===");
+    }
+
+    /**
+     * Chunk wie vom ChunkLoader vorbereitet (Zustand PREPARED)
+     */
+    private ChunkRecord getChunk(int chunkX, int chunkZ) {
+        return records.computeIfAbsent(ChunkRegistry.key(chunkX, chunkZ), key -> {
+            ChunkRecord record = new ChunkRecord(chunkX, chunkZ);
+            TerrainTile[] tiles = provider.getTileData(chunkX, chunkZ, CHUNK_SIZE);
+            float[] heights = new float[tiles.length];
+            for (int i = 0; i < tiles.length; i++) {
+                heights[i] = tiles[i].getHeight();
+            }
+            record.setGeneratedData(tiles);
+            record.setPreparedData(heights, 0, 0, new float[0]);
+            record.transition(ChunkState.REQUESTED, ChunkState.GENERATED);
+            record.transition(ChunkState.GENERATED, ChunkState.PREPARED);
+            return record;
+        });
+    }
+
+    private ClipmapTerrainRenderer createRenderer(Node root) {
+        // Ohne TextureArray: der Test braucht nur die Höhen-Samples
+        return new ClipmapTerrainRenderer(assetManager, root, null, materialIndex, this::getChunk, CHUNK_SIZE, 10f);
+    }
+
+    public void testLevelsMatchChunks() {
+        System.out.println("=== Ebenen enthalten die Chunk-Höhen ===");
+        ClipmapTerrainRenderer clipmap = createRenderer(new Node("Root"));
+
+        // Diagonal und zurück, mit Vorzeichenwechsel der Koordinaten
+        Vector3f camPos = new Vector3f(30f, 50f, 40f);
+        clipmap.update(camPos);
+        checkLevels(clipmap, camPos);
+        for (int frame = 0; frame < 600; frame++) {
+            float step = frame < 400 ? -1.7f : 2.3f;
+            camPos.addLocal(step, 0f, step * 0.6f);
+            clipmap.update(camPos);
+            if (frame % 50 == 0) {
+                checkLevels(clipmap, camPos);
+            }
+        }
+        checkLevels(clipmap, camPos);
+        System.out.println(String.format("600 Frames: alle Gitter-Samples korrekt, %d Samples geschrieben, %d Textur-Uploads",
+                clipmap.getWrittenSamples(), clipmap.getTextureUploads()));
+    }
+
+    private void checkLevels(ClipmapTerrainRenderer clipmap, Vector3f camPos) {
+        int camX = (int) Math.floor(camPos.x);
+        int camZ = (int) Math.floor(camPos.z);
+        for (int level = 0; level < clipmap.getLevelCount(); level++) {
+            int spacing = 1 << level;
+            int originX = Math.floorDiv(camX, 2 * spacing) * 2 * spacing - GRID_SIZE / 2 * spacing;
+            int originZ = Math.floorDiv(camZ, 2 * spacing) * 2 * spacing - GRID_SIZE / 2 * spacing;
+
+            // Gitter plus ein Sample Rand (Normalen und Übergang zur gröberen Ebene)
+            for (int z = -1; z <= GRID_SIZE + 1; z++) {
+                for (int x = -1; x <= GRID_SIZE + 1; x++) {
+                    int worldX = originX + x * spacing;
+                    int worldZ = originZ + z * spacing;
+                    if (!clipmap.isInWindow(level, worldX, worldZ)) {
+                        throw new AssertionError("Ebene " + level + ": Sample " + worldX + "," + worldZ + " außerhalb des Fensters");
+                    }
+                    float expected = heightAt(worldX, worldZ);
+                    float actual = clipmap.getStoredHeight(level, worldX, worldZ);
+                    if (expected != actual) {
+                        throw new AssertionError("Ebene " + level + ": Höhe bei " + worldX + "," + worldZ +
+                                " ist " + actual + " statt " + expected);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Die gröbste Ebene reicht bei jeder Sichtweite und jeder Kamera-Position im Chunk
+     * bis an das Loch des fernen Terrains
+     */
+    public void testCoverageMeetsFarTerrainHole() {
+        System.out.println("=== Clipmap deckt das Loch des fernen Terrains ab ===");
+        int chunkWorldSize = CHUNK_SIZE - 1;
+        int spacing = 1 << (createRenderer(new Node("Root")).getLevelCount() - 1);
+        float covered = ClipmapTerrainRenderer.getCoveredDistance();
+        int checks = 0;
+        for (int viewDistance = 1; viewDistance <= QualityGovernor.getMaxViewDistance(); viewDistance++) {
+            for (int chunk = -3; chunk <= 3; chunk++) {
+                int[] hole = FarTerrainLayer.computeHole(chunk, -chunk, viewDistance, chunkWorldSize, covered);
+                for (int offset = 0; offset < chunkWorldSize; offset += 7) {
+                    int camX = chunk * chunkWorldSize + offset;
+                    int camZ = -chunk * chunkWorldSize + chunkWorldSize - 1 - offset;
+                    int originX = Math.floorDiv(camX, 2 * spacing) * 2 * spacing - GRID_SIZE / 2 * spacing;
+                    int originZ = Math.floorDiv(camZ, 2 * spacing) * 2 * spacing - GRID_SIZE / 2 * spacing;
+                    if (hole[0] * FAR_CELL_SIZE < originX || hole[1] * FAR_CELL_SIZE < originZ
+                            || hole[2] * FAR_CELL_SIZE > originX + GRID_SIZE * spacing
+                            || hole[3] * FAR_CELL_SIZE > originZ + GRID_SIZE * spacing) {
+                        throw new AssertionError("Sichtweite " + viewDistance + ", Kamera " + camX + "," + camZ
+                                + ": Loch reicht über die Clipmap (" + originX + "," + originZ + " + " + GRID_SIZE * spacing + ")");
+                    }
+                    checks++;
+                }
+            }
+        }
+        System.out.println(String.format("%d Kamera-Positionen: Loch innerhalb der Clipmap-Reichweite %.0f", checks, covered));
+    }
+
+    private float heightAt(int worldX, int worldZ) {
+        int chunkX = Math.floorDiv(worldX, CHUNK_SIZE - 1);
+        int chunkZ = Math.floorDiv(worldZ, CHUNK_SIZE - 1);
+        int localX = worldX - chunkX * (CHUNK_SIZE - 1);
+        int localZ = worldZ - chunkZ * (CHUNK_SIZE - 1);
+        return getChunk(chunkX, chunkZ).getHeightData()[localZ * CHUNK_SIZE + localX];
+    }
+
+    public void benchmarkChunkAttach() {
+        System.out.println("=== Render-Thread pro Chunk: TerrainQuad vs. Clipmap ===");
+        int side = 2 * VIEW_DISTANCE + 1;
+        for (int x = -VIEW_DISTANCE; x <= VIEW_DISTANCE; x++) {
+            for (int z = -VIEW_DISTANCE; z <= VIEW_DISTANCE; z++) {
+                getChunk(x, z);
+            }
+        }
+
+        for (int round = 0; round < 3; round++) {
+            // TerrainQuad: Mesh pro Chunk bauen und in den Scene-Graph hängen
+            Node quadRoot = new Node("QuadRoot");
+            long start = System.nanoTime();
+            for (int x = -VIEW_DISTANCE; x <= VIEW_DISTANCE; x++) {
+                for (int z = -VIEW_DISTANCE; z <= VIEW_DISTANCE; z++) {
+                    ChunkTerrainQuad quad = new ChunkTerrainQuad("Chunk_" + x + "_" + z, CHUNK_SIZE, CHUNK_SIZE,
+                            getChunk(x, z).getHeightData(), x, z);
+                    quad.setLocalTranslation(x * (CHUNK_SIZE - 1), 0, z * (CHUNK_SIZE - 1));
+                    quadRoot.attachChild(quad);
+                }
+            }
+            quadRoot.updateGeometricState();
+            double quadMs = (System.nanoTime() - start) / 1_000_000.0;
+
+            // Clipmap: nur Samples in die Ebenen-Texturen schreiben
+            Node clipmapRoot = new Node("ClipmapRoot");
+            ClipmapTerrainRenderer clipmap = createRenderer(clipmapRoot);
+            clipmap.update(new Vector3f(32f, 50f, 32f));
+            start = System.nanoTime();
+            for (int x = -VIEW_DISTANCE; x <= VIEW_DISTANCE; x++) {
+                for (int z = -VIEW_DISTANCE; z <= VIEW_DISTANCE; z++) {
+                    clipmap.addChunk(getChunk(x, z));
+                }
+            }
+            clipmap.update(new Vector3f(32f, 50f, 32f));
+            clipmapRoot.updateGeometricState();
+            double clipmapMs = (System.nanoTime() - start) / 1_000_000.0;
+
+            System.out.println(String.format("Runde %d, %d Chunks: TerrainQuad %.1fms (%.3fms/Chunk), Clipmap %.1fms (%.3fms/Chunk), Geometries %d vs. %d",
+                    round + 1, side * side, quadMs, quadMs / (side * side), clipmapMs, clipmapMs / (side * side),
+                    countGeometries(quadRoot), countGeometries(clipmapRoot)));
+        }
+
+        // Laufende Kosten: Kamera 240 Frames mit 1.5 Einheiten pro Frame bewegen
+        // (Chunks entlang des Wegs vorher erzeugen, damit nur der Renderer gemessen wird)
+        for (int x = -VIEW_DISTANCE - 1; x <= VIEW_DISTANCE + 8; x++) {
+            for (int z = -VIEW_DISTANCE - 1; z <= VIEW_DISTANCE + 4; z++) {
+                getChunk(x, z);
+            }
+        }
+        ClipmapTerrainRenderer clipmap = createRenderer(new Node("Root"));
+        Vector3f camPos = new Vector3f(32f, 50f, 32f);
+        clipmap.update(camPos);
+        long before = clipmap.getWrittenSamples();
+        long start = System.nanoTime();
+        for (int frame = 0; frame < 240; frame++) {
+            camPos.addLocal(1.5f, 0f, 0.5f);
+            clipmap.update(camPos);
+        }
+        double moveMs = (System.nanoTime() - start) / 1_000_000.0;
+        System.out.println(String.format("Kamera-Bewegung: Ø %.3fms pro Frame, %d Samples nachgeladen",
+                moveMs / 240, clipmap.getWrittenSamples() - before));
+    }
+
+    private int countGeometries(com.jme3.scene.Spatial spatial) {
+        if (spatial instanceof com.jme3.scene.Geometry) {
+            return 1;
+        }
+        int count = 0;
+        if (spatial instanceof Node) {
+            for (com.jme3.scene.Spatial child : ((Node) spatial).getChildren()) {
+                count += countGeometries(child);
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.jme07;
+
+import java.nio.ShortBuffer;
+import java.util.HashMap;
+
+/**
+ * Unit-Test für den FarTerrainMesher (ohne JUnit)
+ *
+ * Prüft, dass die groben Samples genau den Tiles der nahen Chunks entsprechen und dass
+ * das Loch für die nahen Chunks nur die Zellen darin auslässt.
+ */
+public class FarTerrainMesherTest {
+
+    private static final int CHUNK_SIZE = 65;
+    private static final int TILE_CELLS = 16;
+    private static final int CELL_SIZE = 16;
+    private static final float SINK_DEPTH = 4f;
+
+    public static void main(String[] args) {
+        FarTerrainMesherTest test = new FarTerrainMesherTest();
+        test.testTileAtMatchesChunkTiles();
+        test.testSamplesMatchProvider();
+        test.testHoleIndices();
+        System.out.println("\n=== ALL TESTS PASSED ===");
+    }
+
+    private final TileProvider provider = new CrossRoadTileProvider(
+            new WaterTileProvider(new ProceduralTileProvider(12345L, 0.02f, 40f)));
+
+    public void testTileAtMatchesChunkTiles() {
+        System.out.println("=== getTileAt entspricht den Chunk-Tiles ===");
+        for (int chunkX = -1; chunkX <= 1; chunkX++) {
+            for (int chunkZ = -1; chunkZ <= 1; chunkZ++) {
+                TerrainTile[] tiles = provider.getTileData(chunkX, chunkZ, CHUNK_SIZE);
+                for (int z = 0; z < CHUNK_SIZE; z += 8) {
+                    for (int x = 0; x < CHUNK_SIZE; x += 8) {
+                        TerrainTile expected = tiles[z * CHUNK_SIZE + x];
+                        TerrainTile actual = provider.getTileAt(chunkX * (CHUNK_SIZE - 1) + x, chunkZ * (CHUNK_SIZE - 1) + z);
+                        if (expected.getHeight() != actual.getHeight()
+                                || !expected.getMaterialKey().equals(actual.getMaterialKey())
+                                || expected.hasWater() != actual.hasWater()) {
+                            throw new AssertionError("Tile " + x + "," + z + " in Chunk " + chunkX + "," + chunkZ
+                                    + " weicht ab: " + expected + " / " + actual);
+                        }
+                    }
+                }
+            }
+        }
+        System.out.println("9 Chunks: Einzel-Tiles identisch");
+    }
+
+    public void testSamplesMatchProvider() {
+        System.out.println("=== Vertex-Höhen aus dem Provider ===");
+        int tileX = -1;
+        int tileZ = 2;
+        FarTerrainMesher.TileData data = FarTerrainMesher.sampleTile(provider, new HashMap<>(),
+                tileX, tileZ, TILE_CELLS, CELL_SIZE, SINK_DEPTH);
+        float[] positions = data.getPositions();
+        int vertices = TILE_CELLS + 1;
+        if (positions.length != vertices * vertices * 3) {
+            throw new AssertionError("Falsche Vertex-Anzahl: " + positions.length / 3);
+        }
+        for (int z = 0; z < vertices; z++) {
+            for (int x = 0; x < vertices; x++) {
+                TerrainTile tile = provider.getTileAt((tileX * TILE_CELLS + x) * CELL_SIZE, (tileZ * TILE_CELLS + z) * CELL_SIZE);
+                float expected = tile.hasWater() ? Math.max(tile.getHeight(), tile.getWater().getWaterHeight()) : tile.getHeight();
+                float actual = positions[(z * vertices + x) * 3 + 1];
+                if (Math.abs(actual - (expected - SINK_DEPTH)) > 0.001f) {
+                    throw new AssertionError("Vertex " + x + "," + z + ": " + actual + " statt " + (expected - SINK_DEPTH));
+                }
+            }
+        }
+        System.out.println(String.format("%d Vertices korrekt, gesampelt in %.1f ms", vertices * vertices, data.buildNanos / 1_000_000f));
+    }
+
+    public void testHoleIndices() {
+        System.out.println("=== Loch für die nahen Chunks ===");
+        ShortBuffer indices = ShortBuffer.allocate(TILE_CELLS * TILE_CELLS * 6);
+
+        // Ohne Loch: alle Zellen
+        int triangles = FarTerrainMesher.buildIndices(0, 0, TILE_CELLS, 0, 0, 0, 0, indices);
+        assertTriangles(TILE_CELLS * TILE_CELLS * 2, triangles, indices);
+
+        // Loch teilweise in der Kachel: Zellen 10..15 x 12..15 liegen darin
+        triangles = FarTerrainMesher.buildIndices(0, 0, TILE_CELLS, 10, 12, 40, 40, indices);
+        assertTriangles((TILE_CELLS * TILE_CELLS - 6 * 4) * 2, triangles, indices);
+
+        // Kachel komplett im Loch
+        triangles = FarTerrainMesher.buildIndices(1, 1, TILE_CELLS, 0, 0, 64, 64, indices);
+        assertTriangles(0, triangles, indices);
+
+        // Keine Zelle im Loch darf referenziert werden (Loch in Kachel -1,-1)
+        FarTerrainMesher.buildIndices(-1, -1, TILE_CELLS, -8, -8, 0, 0, indices);
+        int vertices = TILE_CELLS + 1;
+        for (int i = 0; i < indices.limit(); i += 3) {
+            int minX = Integer.MAX_VALUE;
+            int minZ = Integer.MAX_VALUE;
+            for (int k = 0; k < 3; k++) {
+                int index = indices.get(i + k);
+                minX = Math.min(minX, index % vertices);
+                minZ = Math.min(minZ, index / vertices);
+            }
+            int cellX = -TILE_CELLS + minX;
+            int cellZ = -TILE_CELLS + minZ;
+            if (cellX >= -8 && cellZ >= -8) {
+                throw new AssertionError("Dreieck in Loch-Zelle " + cellX + "," + cellZ);
+            }
+        }
+        System.out.println("Loch korrekt ausgespart");
+    }
+
+    private void assertTriangles(int expected, int triangles, ShortBuffer indices) {
+        if (triangles != expected || indices.limit() != expected * 3) {
+            throw new AssertionError("Erwartet " + expected + " Dreiecke, erhalten " + triangles + " (Indizes " + indices.limit() + ")");
+        }
+    }
+}
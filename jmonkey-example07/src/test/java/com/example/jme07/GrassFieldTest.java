@@ -0,0 +1,114 @@
+package com.example.jme07;
+
+import com.jme3.asset.AssetManager;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Node;
+import com.jme3.system.JmeSystem;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Test für GrassField (ohne JUnit): Dichte-Regeln und toroidales Nachladen beim Bewegen
+ */
+public class GrassFieldTest {
+
+    private static final int CHUNK_SIZE = 65;
+
+    private final TileProvider provider = new CrossRoadTileProvider(
+            new WaterTileProvider(new ProceduralTileProvider(12345L, 0.02f, 40f)));
+    private final Map<Long, ChunkRecord> records = new HashMap<>();
+
+    public static void main(String[] args) {
+        GrassFieldTest test = new GrassFieldTest();
+        test.testDensityRules();
+        test.testFieldFollowsCamera();
+        System.out.println("\n=== ALL TESTS PASSED ===");
+    }
+
+    private ChunkRecord getChunk(int chunkX, int chunkZ) {
+        return records.computeIfAbsent(ChunkRegistry.key(chunkX, chunkZ), key -> {
+            ChunkRecord record = new ChunkRecord(chunkX, chunkZ);
+            TerrainTile[] tiles = provider.getTileData(chunkX, chunkZ, CHUNK_SIZE);
+            float[] heights = new float[tiles.length];
+            for (int i = 0; i < tiles.length; i++) {
+                heights[i] = tiles[i].getHeight();
+            }
+            record.setGeneratedData(tiles);
+            record.setPreparedData(heights, 0, 0, new float[0]);
+            record.setGrassDensity(GrassField.buildDensity(tiles));
+            record.transition(ChunkState.REQUESTED, ChunkState.GENERATED);
+            record.transition(ChunkState.GENERATED, ChunkState.PREPARED);
+            return record;
+        });
+    }
+
+    public void testDensityRules() {
+        System.out.println("=== Dichte nicht auf Straßen und Wasser ===");
+        int grass = 0;
+        int blocked = 0;
+        for (int cx = -2; cx <= 2; cx++) {
+            for (int cz = -2; cz <= 2; cz++) {
+                ChunkRecord record = getChunk(cx, cz);
+                TerrainTile[] tiles = record.getTiles();
+                byte[] density = record.getGrassDensity();
+                for (int i = 0; i < tiles.length; i++) {
+                    int value = density[i] & 0xFF;
+                    boolean growable = !tiles[i].hasWater() && !tiles[i].getMaterialKey().startsWith("road");
+                    if (!growable && value != 0) {
+                        throw new AssertionError("Gras auf " + tiles[i].getMaterialKey() + " / Wasser=" + tiles[i].hasWater());
+                    }
+                    if (growable && value == 0) {
+                        throw new AssertionError("Kein Gras auf " + tiles[i].getMaterialKey());
+                    }
+                    if (growable) {
+                        grass++;
+                    } else {
+                        blocked++;
+                    }
+                }
+            }
+        }
+        System.out.println("Gras-Samples: " + grass + ", ohne Gras: " + blocked);
+    }
+
+    public void testFieldFollowsCamera() {
+        System.out.println("=== Textur-Fenster folgt der Kamera ===");
+        AssetManager assetManager = JmeSystem.newAssetManager(
+                Thread.currentThread().getContextClassLoader().getResource("com/jme3/asset/Desktop.cfg"));
+        GrassField field = new GrassField(assetManager, new Node("Root"), this::getChunk, CHUNK_SIZE, 10f);
+
+        Vector3f camPos = new Vector3f(20f, 30f, 20f);
+        long start = System.nanoTime();
+        for (int frame = 0; frame < 500; frame++) {
+            camPos.addLocal(frame < 300 ? -1.3f : 2.1f, 0f, frame < 300 ? 0.7f : -0.4f);
+            field.update(camPos);
+            if (frame % 100 == 0) {
+                checkAroundCamera(field, camPos);
+            }
+        }
+        checkAroundCamera(field, camPos);
+        double ms = (System.nanoTime() - start) / 1_000_000.0;
+        System.out.println(String.format("500 Frames: Ø %.3fms, %d Samples geschrieben, %d Halme in einem Draw-Call",
+                ms / 500, field.getWrittenSamples(), field.getBladeCount()));
+    }
+
+    private void checkAroundCamera(GrassField field, Vector3f camPos) {
+        // Reichweite der Halme plus ein Sample für die bilineare Höhe
+        int range = 82;
+        int camX = (int) Math.floor(camPos.x);
+        int camZ = (int) Math.floor(camPos.z);
+        for (int z = camZ - range; z <= camZ + range; z++) {
+            for (int x = camX - range; x <= camX + range; x++) {
+                int chunkX = Math.floorDiv(x, CHUNK_SIZE - 1);
+                int chunkZ = Math.floorDiv(z, CHUNK_SIZE - 1);
+                int index = (z - chunkZ * (CHUNK_SIZE - 1)) * CHUNK_SIZE + (x - chunkX * (CHUNK_SIZE - 1));
+                ChunkRecord record = getChunk(chunkX, chunkZ);
+                if (field.getStoredHeight(x, z) != record.getHeightData()[index]
+                        || field.getStoredDensity(x, z) != (record.getGrassDensity()[index] & 0xFF)) {
+                    throw new AssertionError("Falsches Sample bei " + x + "," + z);
+                }
+            }
+        }
+    }
+}
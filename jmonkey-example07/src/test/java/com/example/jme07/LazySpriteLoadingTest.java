@@ -0,0 +1,107 @@
+package com.example.jme07;
+
+/**
+ * Test für die bedarfsgesteuerte Sprite-Erzeugung im ChunkLoader (ohne JUnit)
+ *
+ * Chunks außerhalb des Sprite-Rings werden ohne Sprites geladen; ein späterer Sprite-Auftrag
+ * liefert dieselben Sprites wie die direkte Generierung, und zwar genau einmal.
+ */
+public class LazySpriteLoadingTest {
+
+    private static final int CHUNK_SIZE = 65;
+    private static final long TIMEOUT_MS = 10_000;
+
+    private final TileProvider tileProvider = new ProceduralTileProvider(12345L, 0.02f, 40f);
+    private final SpriteProvider spriteProvider = new ProceduralSpriteProvider(12345L, tileProvider, CHUNK_SIZE);
+
+    public static void main(String[] args) throws InterruptedException {
+        LazySpriteLoadingTest test = new LazySpriteLoadingTest();
+        test.testSpritesOnlyWhenWanted();
+        System.out.println("\n=== ALL TESTS PASSED ===");
+    }
+
+    public void testSpritesOnlyWhenWanted() throws InterruptedException {
+        System.out.println("=== Sprites nur im Sprite-Ring, nachträglich im Loader ===");
+        ChunkRegistry registry = new ChunkRegistry();
+        ChunkLoader loader = new ChunkLoader(tileProvider, spriteProvider, registry);
+        try {
+            loader.requestChunk(0, 0, true);
+            loader.requestChunk(1, 0, false);
+            waitForReady(registry, 2);
+
+            ChunkRecord near = registry.get(0, 0);
+            ChunkRecord far = registry.get(1, 0);
+            if (!near.hasSprites() || near.getSprites() == null) {
+                throw new AssertionError("Chunk im Sprite-Ring sollte Sprites mitbringen");
+            }
+            if (far.hasSprites() || far.getSprites() != null || far.getSpriteState() != ChunkRecord.SpriteState.NONE) {
+                throw new AssertionError("Chunk außerhalb des Sprite-Rings sollte keine Sprites haben");
+            }
+            if (loader.pollSpriteResult() != null) {
+                throw new AssertionError("Beim Laden erzeugte Sprites gehören nicht in die Nachzügler-Queue");
+            }
+
+            // Chunk betritt den Sprite-Ring: mehrfach angefordert, genau einmal erzeugt
+            far.transition(ChunkState.PREPARED, ChunkState.ATTACHED);
+            loader.requestSprites(far);
+            loader.requestSprites(far);
+            ChunkRecord result = waitForSprites(loader);
+            if (result != far || !far.hasSprites()) {
+                throw new AssertionError("Sprite-Auftrag hat den falschen Chunk geliefert");
+            }
+            Thread.sleep(200);
+            if (loader.pollSpriteResult() != null) {
+                throw new AssertionError("Sprites wurden doppelt erzeugt");
+            }
+
+            // Gleiches Ergebnis wie die direkte Generierung
+            SpriteBatch expected = spriteProvider.getSprites(1, 0, CHUNK_SIZE, tileProvider.getTileData(1, 0, CHUNK_SIZE));
+            SpriteBatch actual = far.getSprites();
+            if (actual.size() != expected.size()) {
+                throw new AssertionError("Anzahl " + actual.size() + " != " + expected.size());
+            }
+            for (int i = 0; i < actual.size(); i++) {
+                if (actual.getX(i) != expected.getX(i) || actual.getZ(i) != expected.getZ(i)
+                        || actual.getScale(i) != expected.getScale(i) || actual.getTypeId(i) != expected.getTypeId(i)) {
+                    throw new AssertionError("Sprite " + i + " weicht ab: " + actual.getSprite(i) + " != " + expected.getSprite(i));
+                }
+            }
+
+            // Bereits vorhandene Sprites bleiben am Record, kein neuer Auftrag
+            loader.requestSprites(far);
+            Thread.sleep(200);
+            if (loader.pollSpriteResult() != null || far.getSprites() != actual) {
+                throw new AssertionError("Vorhandene Sprites sollten wiederverwendet werden");
+            }
+            System.out.println(loader.getSpriteStatistics());
+        } finally {
+            loader.shutdown();
+        }
+    }
+
+    private void waitForReady(ChunkRegistry registry, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        int ready = 0;
+        while (ready < count) {
+            if (registry.pollReady() != null) {
+                ready++;
+            } else if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Chunks nicht rechtzeitig geladen");
+            } else {
+                Thread.sleep(1);
+            }
+        }
+    }
+
+    private ChunkRecord waitForSprites(ChunkLoader loader) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        ChunkRecord record;
+        while ((record = loader.pollSpriteResult()) == null) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Sprites nicht rechtzeitig erzeugt");
+            }
+            Thread.sleep(1);
+        }
+        return record;
+    }
+}
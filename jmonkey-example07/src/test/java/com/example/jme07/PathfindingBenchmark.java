@@ -0,0 +1,116 @@
+package com.example.jme07;
+
+import com.jme3.math.Vector3f;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Benchmark für die hierarchische Pfadsuche (ohne JUnit)
+ *
+ * Misst Pfade über 10, 50 und 200 Chunks jeweils kalt (leerer Portal-Cache)
+ * und warm (Portale bereits gecacht), plus einen asynchronen Lauf über den PathfindingService.
+ */
+public class PathfindingBenchmark {
+
+    private static final int CELLS = 64;
+    private static final int[] SPANS = {10, 50, 200};
+
+    public static void main(String[] args) throws Exception {
+        PathfindingBenchmark benchmark = new PathfindingBenchmark();
+        benchmark.benchmarkSpans();
+        benchmark.testAsyncService();
+        System.out.println("\n=== ALL BENCHMARKS PASSED ===");
+    }
+
+    private static TileProvider createTileProvider() {
+        // Gleiche Provider-Kette wie im TerrainLayer
+        return new CrossRoadTileProvider(new WaterTileProvider(new ProceduralTileProvider(12345L, 0.02f, 40f)));
+    }
+
+    public void benchmarkSpans() {
+        System.out.println("=== Hierarchical Pathfinding Benchmark ===");
+        TileProvider tileProvider = createTileProvider();
+
+        for (int span : SPANS) {
+            HierarchicalPathfinder pathfinder = new HierarchicalPathfinder(tileProvider);
+
+            // Diagonal versetzter Pfad, damit Straßen und Flüsse gekreuzt werden
+            int startX = 20;
+            int startZ = 30;
+            int goalX = startX + span * CELLS;
+            int goalZ = startZ + span * CELLS / 3;
+
+            long coldStart = System.nanoTime();
+            List<Vector3f> path = pathfinder.findPath(startX, startZ, goalX, goalZ);
+            double coldMs = (System.nanoTime() - coldStart) / 1_000_000.0;
+            int builtChunks = pathfinder.getBuiltChunkCount();
+
+            long warmStart = System.nanoTime();
+            List<Vector3f> warmPath = pathfinder.findPath(startX, startZ, goalX, goalZ);
+            double warmMs = (System.nanoTime() - warmStart) / 1_000_000.0;
+
+            verifyPath(path, startX, startZ, goalX, goalZ);
+            if (warmPath.size() != path.size()) {
+                throw new AssertionError("Warm path differs from cold path: " + warmPath.size() + " vs " + path.size());
+            }
+
+            System.out.printf("Span %3d chunks: cold=%8.1fms warm=%7.1fms waypoints=%6d chunks abstracted=%5d length=%.1f%n",
+                span, coldMs, warmMs, path.size(), builtChunks, pathLength(path));
+        }
+    }
+
+    public void testAsyncService() throws Exception {
+        System.out.println("\n=== Async PathfindingService ===");
+        PathfindingService service = new PathfindingService(createTileProvider());
+
+        long submitStart = System.nanoTime();
+        CompletableFuture<List<Vector3f>> future = service.findPath(new Vector3f(10.5f, 0f, 10.5f),
+            new Vector3f(10.5f + 20 * CELLS, 0f, 10.5f - 5 * CELLS));
+        double submitMs = (System.nanoTime() - submitStart) / 1_000_000.0;
+
+        List<Vector3f> path = future.get();
+        double totalMs = (System.nanoTime() - submitStart) / 1_000_000.0;
+        service.shutdown();
+
+        verifyPath(path, 10, 10, 10 + 20 * CELLS, 10 - 5 * CELLS);
+        System.out.printf("Submit returned after %.2fms, path ready after %.1fms (%d waypoints)%n",
+            submitMs, totalMs, path.size());
+
+        if (submitMs > 50.0) {
+            throw new AssertionError("findPath blocked the calling thread for " + submitMs + "ms");
+        }
+    }
+
+    private void verifyPath(List<Vector3f> path, int startX, int startZ, int goalX, int goalZ) {
+        if (path.isEmpty()) {
+            throw new AssertionError("No path found from (" + startX + "," + startZ + ") to (" + goalX + "," + goalZ + ")");
+        }
+        Vector3f first = path.get(0);
+        Vector3f last = path.get(path.size() - 1);
+        if ((int) Math.floor(first.x) != startX || (int) Math.floor(first.z) != startZ) {
+            throw new AssertionError("Path starts at " + first + " instead of (" + startX + "," + startZ + ")");
+        }
+        if ((int) Math.floor(last.x) != goalX || (int) Math.floor(last.z) != goalZ) {
+            throw new AssertionError("Path ends at " + last + " instead of (" + goalX + "," + goalZ + ")");
+        }
+
+        // Alle Schritte müssen benachbarte Tiles verbinden (8er-Nachbarschaft)
+        for (int i = 1; i < path.size(); i++) {
+            int dx = Math.abs((int) Math.floor(path.get(i).x) - (int) Math.floor(path.get(i - 1).x));
+            int dz = Math.abs((int) Math.floor(path.get(i).z) - (int) Math.floor(path.get(i - 1).z));
+            if (dx > 1 || dz > 1 || (dx == 0 && dz == 0)) {
+                throw new AssertionError("Invalid step " + path.get(i - 1) + " -> " + path.get(i));
+            }
+        }
+    }
+
+    private double pathLength(List<Vector3f> path) {
+        double length = 0;
+        for (int i = 1; i < path.size(); i++) {
+            double step = path.get(i).x != path.get(i - 1).x && path.get(i).z != path.get(i - 1).z ? Math.sqrt(2) : 1.0;
+            length += step;
+        }
+        return length;
+    }
+}
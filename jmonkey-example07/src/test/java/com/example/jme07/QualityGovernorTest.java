@@ -0,0 +1,106 @@
+package com.example.jme07;
+
+import com.jme3.math.Vector3f;
+
+/**
+ * Test für den QualityGovernor (ohne JUnit): Schrittweise Wechsel mit Hysterese
+ */
+public class QualityGovernorTest {
+
+    private static final float FRAME_60 = 1f / 60f;
+
+    public static void main(String[] args) {
+        QualityGovernorTest test = new QualityGovernorTest();
+        test.testSlowFramesStepDown();
+        test.testNoOscillationAtTarget();
+        test.testFastFlightAndIdle();
+        System.out.println("\n=== ALL TESTS PASSED ===");
+    }
+
+    /**
+     * Simuliert Frames mit fester Frame-Zeit, Geschwindigkeit und Loader-Rückstand
+     * @return Anzahl der Stufenwechsel
+     */
+    private int run(QualityGovernor governor, Vector3f camPos, float seconds, float tpf, float speed, int backlog) {
+        int changes = 0;
+        for (float t = 0f; t < seconds; t += tpf) {
+            camPos.x += speed * tpf;
+            if (governor.update(tpf, camPos, backlog)) {
+                changes++;
+            }
+        }
+        return changes;
+    }
+
+    public void testSlowFramesStepDown() {
+        System.out.println("=== Langsame Frames schalten stufenweise runter ===");
+        QualityGovernor governor = new QualityGovernor();
+        Vector3f camPos = new Vector3f();
+        int start = governor.getLevelIndex();
+
+        // 30 fps: nach Startpause + Verzögerung eine Stufe, dann nur nach jeder Pause die nächste
+        run(governor, camPos, 5f, 1f / 30f, 0f, 0);
+        if (governor.getLevelIndex() != start - 1) {
+            throw new AssertionError("Nach 5s eine Stufe runter erwartet, Stufe " + governor.getLevelIndex());
+        }
+        run(governor, camPos, 30f, 1f / 30f, 0f, 0);
+        if (governor.getLevelIndex() != 0) {
+            throw new AssertionError("Dauerhaft langsam -> unterste Stufe erwartet");
+        }
+        for (QualityGovernor.QualityEvent event : governor.getEvents()) {
+            if (event.getToLevel() != event.getFromLevel() - 1) {
+                throw new AssertionError("Nur Einzelschritte erwartet: " + event);
+            }
+        }
+        System.out.println(governor.getEvents().size() + " Wechsel, letzter: " + governor.getEvents().get(governor.getEvents().size() - 1));
+    }
+
+    public void testNoOscillationAtTarget() {
+        System.out.println("=== Keine Wechsel im Toleranzband ===");
+        QualityGovernor governor = new QualityGovernor();
+        Vector3f camPos = new Vector3f();
+
+        // Abwechselnd knapp über und unter dem Ziel, Kamera ruht, Loader leer
+        int changes = 0;
+        for (int i = 0; i < 6000; i++) {
+            float tpf = i % 2 == 0 ? FRAME_60 * 1.1f : FRAME_60 * 0.95f;
+            if (governor.update(tpf, camPos, 0)) {
+                changes++;
+            }
+        }
+        if (changes != 0) {
+            throw new AssertionError("Im Toleranzband keine Wechsel erwartet, " + changes + " gefunden");
+        }
+    }
+
+    public void testFastFlightAndIdle() {
+        System.out.println("=== Schneller Flug verkleinert, Leerlauf vergrößert ===");
+        QualityGovernor governor = new QualityGovernor();
+        Vector3f camPos = new Vector3f();
+        int start = governor.getLevelIndex();
+        int startView = governor.getLevel().getViewDistance();
+
+        // Schneller Flug bei guter Frame-Zeit: nur bis zur Flug-Stufe runter
+        run(governor, camPos, 60f, FRAME_60 * 0.5f, 120f, 10);
+        int flightLevel = governor.getLevelIndex();
+        if (flightLevel >= start || flightLevel == 0) {
+            throw new AssertionError("Flug sollte verkleinern, aber nicht auf die unterste Stufe: " + flightLevel);
+        }
+        if (governor.getLevel().getViewDistance() >= startView) {
+            throw new AssertionError("Sichtweite sollte kleiner sein");
+        }
+
+        // Loader hat noch Rückstand: trotz Ruhe kein Hochschalten
+        if (run(governor, camPos, 20f, FRAME_60 * 0.5f, 0f, 20) != 0) {
+            throw new AssertionError("Mit Loader-Rückstand kein Hochschalten erwartet");
+        }
+
+        // Ruhe mit Reserve: wächst wieder über die Startstufe hinaus
+        run(governor, camPos, 60f, FRAME_60 * 0.5f, 0f, 0);
+        if (governor.getLevelIndex() <= start) {
+            throw new AssertionError("Leerlauf sollte über die Startstufe wachsen: " + governor.getLevelIndex());
+        }
+        System.out.println("Flug: Stufe " + flightLevel + ", Leerlauf: Stufe " + governor.getLevelIndex()
+                + " (" + governor.getLevel() + "), " + governor.getEvents().size() + " Wechsel");
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.jme07;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Unit-Test für den SpriteSpatialIndex (ohne JUnit)
+ *
+ * Vergleicht Radius- und Box-Abfragen mit einer Brute-Force-Suche über echte Chunk-Sprites
+ * (SpriteBatch) und prüft, dass die Sprite-Ansicht eines Handles zum Batch-Eintrag passt.
+ */
+public class SpriteSpatialIndexTest {
+
+    public static void main(String[] args) {
+        SpriteSpatialIndexTest test = new SpriteSpatialIndexTest();
+        test.testQueriesMatchBruteForce();
+        test.testRemoveChunk();
+        System.out.println("\n=== ALL TESTS PASSED ===");
+    }
+
+    private Map<String, SpriteBatch> loadChunks(SpriteSpatialIndex index, int from, int to) {
+        ProceduralTileProvider tileProvider = new ProceduralTileProvider(12345L, 0.02f, 40f);
+        ProceduralSpriteProvider spriteProvider = new ProceduralSpriteProvider(12345L, tileProvider, 65);
+
+        Map<String, SpriteBatch> chunks = new HashMap<>();
+        for (int chunkZ = from; chunkZ <= to; chunkZ++) {
+            for (int chunkX = from; chunkX <= to; chunkX++) {
+                TerrainTile[] tiles = tileProvider.getTileData(chunkX, chunkZ, 65);
+                SpriteBatch sprites = spriteProvider.getSprites(chunkX, chunkZ, 65, tiles);
+                index.addChunk(chunkX, chunkZ, sprites);
+                chunks.put(chunkX + "," + chunkZ, sprites);
+            }
+        }
+        return chunks;
+    }
+
+    public void testQueriesMatchBruteForce() {
+        System.out.println("=== Radius/Box Queries vs Brute Force ===");
+        SpriteSpatialIndex index = new SpriteSpatialIndex();
+        Map<String, SpriteBatch> chunks = loadChunks(index, -1, 1);
+
+        // Alle Sprites flach (x, z, Radius) für die Brute-Force-Suche
+        List<float[]> all = new ArrayList<>();
+        for (SpriteBatch batch : chunks.values()) {
+            for (int i = 0; i < batch.size(); i++) {
+                all.add(new float[]{batch.getX(i), batch.getZ(i), batch.getRadius(i)});
+            }
+        }
+        System.out.println("Indexed sprites: " + index.getSpriteCount());
+        if (index.getSpriteCount() != all.size()) {
+            throw new AssertionError("Sprite count " + index.getSpriteCount() + " != " + all.size());
+        }
+
+        int[] handles = new int[4096];
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            float x = -64f + random.nextFloat() * 192f;
+            float z = -64f + random.nextFloat() * 192f;
+            float radius = random.nextFloat() * 10f;
+
+            int count = index.queryRadius(x, z, radius, handles);
+            int expected = 0;
+            for (float[] sprite : all) {
+                float dx = sprite[0] - x;
+                float dz = sprite[1] - z;
+                float r = radius + sprite[2];
+                if (dx * dx + dz * dz <= r * r) {
+                    expected++;
+                }
+            }
+            if (count != expected) {
+                throw new AssertionError("Radius query at (" + x + "," + z + ") r=" + radius + ": " + count + " != " + expected);
+            }
+            for (int h = 0; h < count; h++) {
+                checkView(index, handles[h]);
+            }
+
+            float size = random.nextFloat() * 20f;
+            count = index.queryBox(x, z, x + size, z + size, handles);
+            expected = 0;
+            for (float[] sprite : all) {
+                float sx = sprite[0];
+                float sz = sprite[1];
+                float r = sprite[2];
+                if (sx + r >= x && sx - r <= x + size && sz + r >= z && sz - r <= z + size) {
+                    expected++;
+                }
+            }
+            if (count != expected) {
+                throw new AssertionError("Box query at (" + x + "," + z + ") size=" + size + ": " + count + " != " + expected);
+            }
+        }
+        System.out.println("500 radius + 500 box queries match brute force");
+    }
+
+    public void testRemoveChunk() {
+        System.out.println("\n=== Remove Chunk ===");
+        SpriteSpatialIndex index = new SpriteSpatialIndex();
+        Map<String, SpriteBatch> chunks = loadChunks(index, 0, 1);
+
+        index.removeChunk(0, 0);
+        int expected = chunks.get("1,0").size() + chunks.get("0,1").size() + chunks.get("1,1").size();
+        if (index.getSpriteCount() != expected) {
+            throw new AssertionError("Sprite count after remove " + index.getSpriteCount() + " != " + expected);
+        }
+
+        int[] handles = new int[4096];
+        int count = index.queryBox(1f, 1f, 62f, 62f, handles);
+        for (int i = 0; i < count; i++) {
+            SpriteBatch batch = index.getBatch(handles[i]);
+            if (batch != chunks.get("1,0") && batch != chunks.get("0,1") && batch != chunks.get("1,1")) {
+                throw new AssertionError("Removed chunk still returns " + index.getSprite(handles[i]));
+            }
+        }
+        System.out.println("Chunk (0,0) removed, " + index.getSpriteCount() + " sprites remaining");
+    }
+
+    /**
+     * Die Sprite-Ansicht eines Handles muss dem Eintrag im Index bzw. Batch entsprechen
+     */
+    private void checkView(SpriteSpatialIndex index, int handle) {
+        Sprite sprite = index.getSprite(handle);
+        if (sprite.getPosition().x != index.getX(handle) || sprite.getPosition().z != index.getZ(handle)
+                || sprite.getRadius() != index.getRadius(handle) || sprite.isBig() != index.isBig(handle)) {
+            throw new AssertionError("Sprite view " + sprite + " does not match index entry");
+        }
+        boolean billboard = index.getBatch(handle).getType(index.getBatchIndex(handle)).isBillboard();
+        if (billboard != sprite instanceof BillboardSprite) {
+            throw new AssertionError("Sprite view has wrong kind: " + sprite);
+        }
+    }
+}
@@ -111,13 +111,12 @@ public class TerrainHeightTest {
         System.out.println("Generated " + sprites.size() + " sprites");
 
         for (int i = 0; i < Math.min(10, sprites.size()); i++) {
-            Sprite sprite = sprites.get(i);
-            float spriteX = sprite.getPosition().x;
-            float spriteY = sprite.getPosition().y;
-            float spriteZ = sprite.getPosition().z;
+            float spriteX = sprites.getX(i);
+            float spriteY = sprites.getY(i);
+            float spriteZ = sprites.getZ(i);
 
             System.out.printf("Sprite %d: pos=(%.2f, %.2f, %.2f), scale=%.2f, isBig=%s%n",
-                i, spriteX, spriteY, spriteZ, sprite.getScale(), sprite.isBig());
+                i, spriteX, spriteY, spriteZ, sprites.getScale(i), sprites.isBig(i));
 
             // Berechne welches Tile das ist
             int localX = (int) (spriteX - chunkX * (chunkSize - 1));
@@ -0,0 +1,151 @@
+package com.example.jme07;
+
+import com.jme3.math.Vector3f;
+import com.jme3.renderer.Camera;
+import com.jme3.scene.Node;
+import com.jme3.terrain.geomipmap.TerrainLodControl;
+import com.jme3.terrain.geomipmap.lodcalc.DistanceLodCalculator;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark: eine TerrainLodControl pro Chunk gegen den gemeinsamen TerrainLodManager (ohne JUnit)
+ *
+ * Für VIEW_DISTANCE 12, 20 und 32 wird das volle Chunk-Fenster gebaut und die Kamera
+ * 240 Frames lang (60 FPS, 1.5 Einheiten pro Frame) bewegt. Gemessen werden die Update-Zeit
+ * im Render-Thread pro Frame und die CPU-Zeit des Prozesses inklusive LOD-Threads.
+ *
+ * Speicherbedarf bei Sichtweite 32: java -Xmx3g -XX:MaxDirectMemorySize=3g
+ */
+public class TerrainLodBenchmark {
+
+    private static final int CHUNK_SIZE = 65;
+    private static final int[] VIEW_DISTANCES = {12, 20, 32};
+    private static final int FRAMES = 240;
+    private static final float TPF = 1f / 60f;
+
+    public static void main(String[] args) throws Exception {
+        TerrainLodBenchmark benchmark = new TerrainLodBenchmark();
+        float[] heights = createHeights();
+
+        System.out.println("=== Terrain LOD Benchmark ===");
+        for (int viewDistance : VIEW_DISTANCES) {
+            Result perChunk = benchmark.runPerChunkControls(viewDistance, heights);
+            System.gc();
+            Result shared = benchmark.runSharedManager(viewDistance, heights);
+            System.gc();
+
+            int chunks = (2 * viewDistance + 1) * (2 * viewDistance + 1);
+            System.out.printf("Sichtweite %2d (%4d Chunks): TerrainLodControl pro Chunk  Ø %6.3fms  max %7.3fms  CPU %7.0fms%n",
+                    viewDistance, chunks, perChunk.avgMs, perChunk.maxMs, perChunk.cpuMs);
+            System.out.printf("                          TerrainLodManager          Ø %6.3fms  max %7.3fms  CPU %7.0fms (%d Durchläufe)%n",
+                    shared.avgMs, shared.maxMs, shared.cpuMs, shared.passes);
+        }
+        System.out.println("\n=== BENCHMARK DONE ===");
+    }
+
+    private static class Result {
+        double avgMs;
+        double maxMs;
+        double cpuMs;
+        int passes;
+    }
+
+    private static float[] createHeights() {
+        float[] heights = new float[CHUNK_SIZE * CHUNK_SIZE];
+        for (int z = 0; z < CHUNK_SIZE; z++) {
+            for (int x = 0; x < CHUNK_SIZE; x++) {
+                heights[z * CHUNK_SIZE + x] = (float) (Math.sin(x * 0.2) * 6 + Math.cos(z * 0.15) * 4);
+            }
+        }
+        return heights;
+    }
+
+    private List<ChunkTerrainQuad> buildChunks(int viewDistance, float[] heights, Node root) {
+        List<ChunkTerrainQuad> quads = new ArrayList<>();
+        for (int x = -viewDistance; x <= viewDistance; x++) {
+            for (int z = -viewDistance; z <= viewDistance; z++) {
+                ChunkTerrainQuad quad = new ChunkTerrainQuad("Chunk_" + x + "_" + z, CHUNK_SIZE, CHUNK_SIZE, heights, x, z);
+                quad.setLocalTranslation(x * (CHUNK_SIZE - 1), 0, z * (CHUNK_SIZE - 1));
+                root.attachChild(quad);
+                quads.add(quad);
+            }
+        }
+        root.updateGeometricState();
+        return quads;
+    }
+
+    private Camera createCamera() {
+        Camera cam = new Camera(1280, 720);
+        cam.setFrustumPerspective(45f, 1280f / 720f, 1f, 4000f);
+        cam.setLocation(new Vector3f(0, 40, 0));
+        return cam;
+    }
+
+    private Result runPerChunkControls(int viewDistance, float[] heights) throws InterruptedException {
+        Node root = new Node("root");
+        List<ChunkTerrainQuad> quads = buildChunks(viewDistance, heights, root);
+        Camera cam = createCamera();
+        for (ChunkTerrainQuad quad : quads) {
+            TerrainLodControl control = new TerrainLodControl(quad, cam);
+            control.setLodCalculator(new DistanceLodCalculator(CHUNK_SIZE, 2.7f));
+            quad.addControl(control);
+        }
+
+        Result result = measure(cam, () -> root.updateLogicalState(TPF));
+
+        for (ChunkTerrainQuad quad : quads) {
+            quad.getControl(TerrainLodControl.class).detachAndCleanUpControl();
+        }
+        return result;
+    }
+
+    private Result runSharedManager(int viewDistance, float[] heights) throws InterruptedException {
+        Node root = new Node("root");
+        List<ChunkTerrainQuad> quads = buildChunks(viewDistance, heights, root);
+        Camera cam = createCamera();
+        TerrainLodManager manager = new TerrainLodManager(cam, new DistanceLodCalculator(CHUNK_SIZE, 2.7f));
+        for (ChunkTerrainQuad quad : quads) {
+            manager.addChunk(quad);
+        }
+
+        Result result = measure(cam, () -> {
+            root.updateLogicalState(TPF);
+            manager.update();
+        });
+        result.passes = manager.getPassCount();
+        manager.shutdown();
+        return result;
+    }
+
+    private Result measure(Camera cam, Runnable frame) throws InterruptedException {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        long cpuStart = ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+
+        double total = 0;
+        double max = 0;
+        Vector3f location = cam.getLocation().clone();
+        for (int i = 0; i < FRAMES; i++) {
+            location.x += 1.5f;
+            cam.setLocation(location);
+
+            long start = System.nanoTime();
+            frame.run();
+            double ms = (System.nanoTime() - start) / 1_000_000.0;
+            total += ms;
+            max = Math.max(max, ms);
+
+            // Rest des Frames (Rendern) - Zeit für die LOD-Threads
+            Thread.sleep(16);
+        }
+
+        Result result = new Result();
+        result.avgMs = total / FRAMES;
+        result.maxMs = max;
+        result.cpuMs = (((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime() - cpuStart) / 1_000_000.0;
+        return result;
+    }
+}
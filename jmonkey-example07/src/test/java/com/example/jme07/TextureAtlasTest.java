@@ -0,0 +1,171 @@
+package com.example.jme07;
+
+import com.jme3.asset.AssetManager;
+import com.jme3.asset.plugins.FileLocator;
+import com.jme3.math.ColorRGBA;
+import com.jme3.system.JmeSystem;
+import com.jme3.texture.Image;
+import com.jme3.texture.image.ImageRaster;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Test für den TextureAtlasBuilder (ohne JUnit): Pixel im Atlas, Ränder und Disk-Cache
+ */
+public class TextureAtlasTest {
+
+    private final AssetManager assetManager = JmeSystem.newAssetManager(
+            Thread.currentThread().getContextClassLoader().getResource("com/jme3/asset/Desktop.cfg"));
+
+    // Temporäre Verzeichnisse (Cache und Test-Assets), werden am Ende gelöscht
+    private final List<File> tempDirs = new ArrayList<>();
+
+    public static void main(String[] args) throws Exception {
+        TextureAtlasTest test = new TextureAtlasTest();
+        try {
+            File cacheDir = test.createTempDir("atlas-test");
+            TextureAtlasBuilder.Atlas packed = test.testPackedPixels(cacheDir);
+            test.testCacheReload(cacheDir, packed);
+            System.out.println("\n=== ALL TESTS PASSED ===");
+        } finally {
+            test.deleteTempDirs();
+        }
+    }
+
+    public TextureAtlasBuilder.Atlas testPackedPixels(File cacheDir) {
+        System.out.println("=== Texturen liegen unverändert im Atlas ===");
+        TextureAtlasBuilder builder = new TextureAtlasBuilder(assetManager, cacheDir);
+        for (String path : SpriteBuilders.BILLBOARD_TEXTURES) {
+            builder.add(path);
+        }
+        builder.add("Textures/Sprites/missing.png");
+        TextureAtlasBuilder.Atlas atlas = builder.build();
+
+        Image image = atlas.getTexture().getImage();
+        int size = image.getWidth();
+        if (atlas.getRegionCount() != SpriteBuilders.BILLBOARD_TEXTURES.size()
+                || atlas.getRegion("Textures/Sprites/missing.png") != null) {
+            throw new AssertionError("Nur ladbare Texturen im Atlas erwartet");
+        }
+        if (image.getMipMapSizes() == null || image.getMipMapSizes().length < 2) {
+            throw new AssertionError("Vorberechnete Mip-Stufen erwartet");
+        }
+
+        ColorRGBA expected = new ColorRGBA();
+        for (String path : SpriteBuilders.BILLBOARD_TEXTURES) {
+            Image source = assetManager.loadTexture(path).getImage();
+            ImageRaster raster = ImageRaster.create(source);
+            TextureAtlasBuilder.Region region = atlas.getRegion(path);
+            int x0 = Math.round(region.getU0() * size);
+            int y0 = Math.round(region.getV0() * size);
+            if (Math.round(region.getU1() * size) - x0 != source.getWidth()
+                    || Math.round(region.getV1() * size) - y0 != source.getHeight()) {
+                throw new AssertionError("Region hat falsche Größe: " + path);
+            }
+            for (int y = 0; y < source.getHeight(); y++) {
+                for (int x = 0; x < source.getWidth(); x++) {
+                    raster.getPixel(x, y, expected);
+                    if (Math.abs(pixel(image, size, x0 + x, y0 + y, 3) - Math.round(expected.a * 255f)) > 1) {
+                        throw new AssertionError("Falscher Pixel in " + path + " bei " + x + "," + y);
+                    }
+                }
+            }
+            // Rand wiederholt die Kantenpixel (kein Ausbluten der Nachbarzelle)
+            for (int y = 0; y < source.getHeight(); y++) {
+                if (pixel(image, size, x0 - 1, y0 + y, 3) != pixel(image, size, x0, y0 + y, 3)) {
+                    throw new AssertionError("Rand nicht aufgefüllt: " + path);
+                }
+            }
+            System.out.println(String.format("%s: %dx%d bei %d,%d", path, source.getWidth(), source.getHeight(), x0, y0));
+        }
+        System.out.println("Atlas " + size + "x" + size + ", " + image.getMipMapSizes().length + " Mip-Stufen");
+        return atlas;
+    }
+
+    public void testCacheReload(File cacheDir, TextureAtlasBuilder.Atlas packed) throws IOException {
+        System.out.println("=== Zweiter Start lädt den Atlas aus dem Cache ===");
+        File[] files = cacheDir.listFiles((dir, name) -> name.endsWith(".bin"));
+        if (files == null || files.length != 1) {
+            throw new AssertionError("Genau eine Cache-Datei erwartet");
+        }
+
+        TextureAtlasBuilder builder = new TextureAtlasBuilder(assetManager, cacheDir);
+        for (String path : SpriteBuilders.BILLBOARD_TEXTURES) {
+            builder.add(path);
+        }
+        builder.add("Textures/Sprites/missing.png");
+        long start = System.nanoTime();
+        TextureAtlasBuilder.Atlas cached = builder.build();
+        System.out.println(String.format("Aus Cache in %.1fms", (System.nanoTime() - start) / 1_000_000f));
+
+        ByteBuffer a = packed.getTexture().getImage().getData(0);
+        ByteBuffer b = cached.getTexture().getImage().getData(0);
+        if (!a.duplicate().rewind().equals(b.duplicate().rewind())) {
+            throw new AssertionError("Cache liefert andere Pixel");
+        }
+        for (String path : SpriteBuilders.BILLBOARD_TEXTURES) {
+            if (cached.getRegion(path).getU0() != packed.getRegion(path).getU0()
+                    || cached.getRegion(path).getV1() != packed.getRegion(path).getV1()) {
+                throw new AssertionError("Cache liefert andere Region: " + path);
+            }
+        }
+
+        // Neue Textur: Atlas wird neu gepackt, unter neuem Schlüssel
+        builder.add(writeExtraTexture());
+        TextureAtlasBuilder.Atlas extended = builder.build();
+        if (extended.getRegion("extra.png") == null
+                || cacheDir.listFiles((dir, name) -> name.endsWith(".bin")).length != 2) {
+            throw new AssertionError("Später hinzugefügte Textur fehlt im Atlas");
+        }
+    }
+
+    /**
+     * Schreibt eine zusätzliche Textur in ein temporäres Asset-Verzeichnis
+     */
+    private String writeExtraTexture() throws IOException {
+        File dir = createTempDir("atlas-assets");
+        BufferedImage image = new BufferedImage(20, 40, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < 40; y++) {
+            for (int x = 0; x < 20; x++) {
+                image.setRGB(x, y, 0xFF000000 | (x * 12) << 16 | (y * 6) << 8);
+            }
+        }
+        ImageIO.write(image, "png", new File(dir, "extra.png"));
+        assetManager.registerLocator(dir.getAbsolutePath(), FileLocator.class);
+        return "extra.png";
+    }
+
+    private File createTempDir(String prefix) throws IOException {
+        File dir = Files.createTempDirectory(prefix).toFile();
+        tempDirs.add(dir);
+        return dir;
+    }
+
+    /**
+     * Löscht alle temporären Verzeichnisse rekursiv
+     */
+    private void deleteTempDirs() throws IOException {
+        for (File dir : tempDirs) {
+            try (Stream<Path> paths = Files.walk(dir.toPath())) {
+                for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.delete(path);
+                }
+            }
+        }
+        tempDirs.clear();
+    }
+
+    private static int pixel(Image image, int size, int x, int y, int channel) {
+        return image.getData(0).get((y * size + x) * 4 + channel) & 0xFF;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.jme07;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit-Test für den WaterMesher (ohne JUnit)
+ *
+ * Prüft, dass die Greedy-Rechtecke genau die nassen Zellen abdecken, dass das Verschmelzen
+ * einer Region die Wasserfläche erhält und keine Quads hinzufügt, und dass ein Fluss über
+ * Chunk-Grenzen hinweg zu weniger Quads verschmilzt.
+ */
+public class WaterMesherTest {
+
+    private static final int CHUNK_SIZE = 65;
+
+    public static void main(String[] args) {
+        WaterMesherTest test = new WaterMesherTest();
+        test.testRectsCoverWetCells();
+        test.testRegionMerge();
+        test.testRiverAcrossChunksMerges();
+        test.testFloodedChunksMergeToOneQuad();
+        System.out.println("\n=== ALL TESTS PASSED ===");
+    }
+
+    private final TileProvider provider = new CrossRoadTileProvider(
+            new WaterTileProvider(new ProceduralTileProvider(12345L, 0.02f, 40f)));
+
+    public void testRectsCoverWetCells() {
+        System.out.println("=== Rechtecke decken nasse Zellen ab ===");
+        for (int chunkX = -2; chunkX <= 2; chunkX++) {
+            for (int chunkZ = -2; chunkZ <= 2; chunkZ++) {
+                TerrainTile[] tiles = provider.getTileData(chunkX, chunkZ, CHUNK_SIZE);
+                float worldX = chunkX * (CHUNK_SIZE - 1);
+                float worldZ = chunkZ * (CHUNK_SIZE - 1);
+                float[] rects = WaterMesher.buildRects(tiles, CHUNK_SIZE, worldX, worldZ);
+
+                // Jede Zelle muss genau dann abgedeckt sein, wenn ihr Tile nass ist
+                for (int z = 0; z < CHUNK_SIZE - 1; z++) {
+                    for (int x = 0; x < CHUNK_SIZE - 1; x++) {
+                        TerrainTile tile = tiles[z * CHUNK_SIZE + x];
+                        int covering = 0;
+                        for (int i = 0; i < rects.length; i += WaterMesher.RECT_STRIDE) {
+                            if (worldX + x > rects[i] && worldX + x < rects[i + 2]
+                                    && worldZ + z > rects[i + 1] && worldZ + z < rects[i + 3]) {
+                                covering++;
+                                if (Math.abs(rects[i + 4] - tile.getWater().getWaterHeight()) > 0.01f) {
+                                    throw new AssertionError("Falsche Wasserhöhe in Chunk " + chunkX + "," + chunkZ);
+                                }
+                            }
+                        }
+                        if (covering != (tile.hasWater() ? 1 : 0)) {
+                            throw new AssertionError("Zelle " + x + "," + z + " in Chunk " + chunkX + "," + chunkZ +
+                                    " ist " + covering + "-fach abgedeckt (nass=" + tile.hasWater() + ")");
+                        }
+                    }
+                }
+            }
+        }
+        System.out.println("25 Chunks: jede nasse Zelle genau einmal abgedeckt");
+    }
+
+    public void testRegionMerge() {
+        System.out.println("=== Region aus echtem Terrain: Fläche bleibt erhalten ===");
+        List<float[]> chunkRects = new ArrayList<>();
+        int chunkQuads = 0;
+        int wetCells = 0;
+        for (int chunkX = 0; chunkX < 4; chunkX++) {
+            for (int chunkZ = 0; chunkZ < 4; chunkZ++) {
+                TerrainTile[] tiles = provider.getTileData(chunkX, chunkZ, CHUNK_SIZE);
+                float[] rects = WaterMesher.buildRects(tiles, CHUNK_SIZE, chunkX * (CHUNK_SIZE - 1), chunkZ * (CHUNK_SIZE - 1));
+                chunkRects.add(rects);
+                chunkQuads += rects.length / WaterMesher.RECT_STRIDE;
+                for (int z = 0; z < CHUNK_SIZE - 1; z++) {
+                    for (int x = 0; x < CHUNK_SIZE - 1; x++) {
+                        if (tiles[z * CHUNK_SIZE + x].hasWater()) {
+                            wetCells++;
+                        }
+                    }
+                }
+            }
+        }
+
+        List<float[]> merged = WaterMesher.mergeRects(chunkRects);
+        float area = WaterMesher.area(merged);
+        int regionArea = 4 * 4 * (CHUNK_SIZE - 1) * (CHUNK_SIZE - 1);
+        System.out.println("Region 4x4: " + chunkQuads + " Quads pro Chunk -> " + merged.size() + " Quads, " +
+                "Wasserfläche " + (int) area + " von " + regionArea + " (vorher 16 volle Chunk-Quads)");
+
+        if (Math.abs(area - wetCells) > 0.5f) {
+            throw new AssertionError("Fläche " + area + " != nasse Zellen " + wetCells);
+        }
+        if (merged.size() > chunkQuads) {
+            throw new AssertionError("Verschmelzen darf keine Quads hinzufügen");
+        }
+        if (WaterMesher.createMesh(merged, CHUNK_SIZE - 1).getTriangleCount() != merged.size() * 2) {
+            throw new AssertionError("Zwei Dreiecke pro Quad erwartet");
+        }
+    }
+
+    public void testRiverAcrossChunksMerges() {
+        System.out.println("=== Fluss über Chunk-Grenzen ===");
+        // Fluss in Z-Richtung (Zeilen 20-29) über die volle Breite, Ufer trocken
+        TerrainTile[] river = new TerrainTile[CHUNK_SIZE * CHUNK_SIZE];
+        for (int z = 0; z < CHUNK_SIZE; z++) {
+            for (int x = 0; x < CHUNK_SIZE; x++) {
+                boolean wet = z >= 20 && z < 30;
+                river[z * CHUNK_SIZE + x] = wet
+                        ? new TerrainTile(-8f, "sand", 1f, 0.5f, 0.3f, new WaterTile(-5f, 3f, WaterTile.WaterType.RIVER))
+                        : new TerrainTile(5f, "grass", 1f, 0.5f, 0.3f, null);
+            }
+        }
+
+        // Vier Chunks in X-Richtung: jeder Chunk hat sein eigenes Quad, der Fluss läuft durch alle
+        List<float[]> chunkRects = new ArrayList<>();
+        int chunkQuads = 0;
+        for (int chunkX = 0; chunkX < 4; chunkX++) {
+            float[] rects = WaterMesher.buildRects(river, CHUNK_SIZE, chunkX * (CHUNK_SIZE - 1), 0);
+            chunkRects.add(rects);
+            chunkQuads += rects.length / WaterMesher.RECT_STRIDE;
+        }
+        List<float[]> merged = WaterMesher.mergeRects(chunkRects);
+        System.out.println("4 Chunks mit Fluss: " + chunkQuads + " Quads pro Chunk -> " + merged.size() + " Quad(s)");
+
+        if (merged.size() >= chunkQuads) {
+            throw new AssertionError("Fluss über Chunk-Grenzen sollte zu weniger Quads verschmelzen: "
+                    + chunkQuads + " -> " + merged.size());
+        }
+        if (WaterMesher.area(merged) != 4 * (CHUNK_SIZE - 1) * 10) {
+            throw new AssertionError("Flussfläche falsch: " + WaterMesher.area(merged));
+        }
+    }
+
+    public void testFloodedChunksMergeToOneQuad() {
+        System.out.println("=== Überflutete Chunks ===");
+        TerrainTile[] flooded = new TerrainTile[CHUNK_SIZE * CHUNK_SIZE];
+        for (int i = 0; i < flooded.length; i++) {
+            flooded[i] = new TerrainTile(-20f, "sand", 1f, 0.5f, 0.3f, new WaterTile(-10f, 10f, WaterTile.WaterType.LAKE));
+        }
+
+        List<float[]> chunkRects = new ArrayList<>();
+        for (int chunkX = 0; chunkX < 2; chunkX++) {
+            for (int chunkZ = 0; chunkZ < 2; chunkZ++) {
+                chunkRects.add(WaterMesher.buildRects(flooded, CHUNK_SIZE, chunkX * (CHUNK_SIZE - 1), chunkZ * (CHUNK_SIZE - 1)));
+            }
+        }
+        List<float[]> merged = WaterMesher.mergeRects(chunkRects);
+        System.out.println("2x2 überflutete Chunks -> " + merged.size() + " Quad(s)");
+        if (merged.size() != 1 || WaterMesher.area(merged) != 4 * (CHUNK_SIZE - 1) * (CHUNK_SIZE - 1)) {
+            throw new AssertionError("Vier volle Chunks sollten zu einem Quad verschmelzen");
+        }
+    }
+}